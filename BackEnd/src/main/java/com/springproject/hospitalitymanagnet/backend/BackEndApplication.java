@@ -1,9 +1,7 @@
 package com.springproject.hospitalitymanagnet.backend;
 
-import org.modelmapper.ModelMapper;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.context.annotation.Bean;
 
 @SpringBootApplication
 public class BackEndApplication {
@@ -12,9 +10,4 @@ public class BackEndApplication {
         SpringApplication.run(BackEndApplication.class, args);
     }
 
-    @Bean
-    public ModelMapper modelMapper(){
-        return new ModelMapper();
-    }
-
 }
@@ -0,0 +1,220 @@
+package com.springproject.hospitalitymanagnet.backend.cache;
+
+import com.springproject.hospitalitymanagnet.backend.dto.*;
+import com.springproject.hospitalitymanagnet.backend.util.BoundedTtlCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * In-process cache for hotel reads (getHotelById, getAllHotels, searchHotels).
+ *
+ * Values are frozen copies: nested lists are unmodifiable and the instances are shared
+ * between requests, so callers must treat returned DTOs as read-only.
+ * Every write that can change a hotel payload (hotel CRUD, room type availability, bookings)
+ * must call evictHotel(...).
+ */
+@Component
+public class HotelCatalogCache {
+
+    private final BoundedTtlCache<Integer, Tagged<HotelDTO>> hotels;
+    private final BoundedTtlCache<String, Tagged<List<HotelDTO>>> listings;
+
+    // Bumped on every eviction; with the boot time it forms the catalog-wide ETag. A load notes
+    // the value before it reads and is only cached if no eviction happened while it ran.
+    private final AtomicLong catalogVersion = new AtomicLong();
+    private final Object evictLock = new Object();
+    private final String bootEpoch = Long.toString(System.currentTimeMillis(), 36);
+
+    public HotelCatalogCache(@Value("${hotel.cache.max-entries:1000}") int maxEntries,
+                             @Value("${hotel.cache.ttl-seconds:300}") long ttlSeconds) {
+        this.hotels = new BoundedTtlCache<>(maxEntries, ttlSeconds * 1000);
+        // listings are few but large; keep a smaller bound for them
+        this.listings = new BoundedTtlCache<>(Math.max(1, maxEntries / 10), ttlSeconds * 1000);
+    }
+
+    public Tagged<HotelDTO> getHotel(Integer id, Supplier<Tagged<HotelDTO>> loader) {
+        Tagged<HotelDTO> cached = hotels.get(id);
+        if (cached != null) return cached;
+
+        long version = catalogVersion.get();
+        Tagged<HotelDTO> loaded = loader.get();
+        if (loaded == null) return null;
+        Tagged<HotelDTO> frozen = new Tagged<>(freeze(loaded.value()), loaded.etag());
+        synchronized (evictLock) {
+            if (catalogVersion.get() == version) hotels.put(id, frozen);
+        }
+        return frozen;
+    }
+
+    // Tag of the cached hotel, null on a miss; nothing is loaded
+    public String cachedHotelEtag(Integer id) {
+        Tagged<HotelDTO> cached = hotels.get(id);
+        return cached != null ? cached.etag() : null;
+    }
+
+    /**
+     * Batch variant of getHotel: cached hotels are returned as is, the rest are loaded with a
+     * single loader call and cached. Ids the loader does not return are absent from the result.
+     */
+    public Map<Integer, HotelDTO> getHotels(Collection<Integer> ids,
+                                            Function<List<Integer>, List<Tagged<HotelDTO>>> loader) {
+        Map<Integer, HotelDTO> found = new HashMap<>();
+        List<Integer> missing = new ArrayList<>();
+        for (Integer id : ids) {
+            Tagged<HotelDTO> cached = hotels.get(id);
+            if (cached != null) found.put(id, cached.value());
+            else missing.add(id);
+        }
+        if (!missing.isEmpty()) {
+            long version = catalogVersion.get();
+            List<Tagged<HotelDTO>> frozen = new ArrayList<>(missing.size());
+            for (Tagged<HotelDTO> loaded : loader.apply(missing)) {
+                Tagged<HotelDTO> entry = new Tagged<>(freeze(loaded.value()), loaded.etag());
+                frozen.add(entry);
+                found.put(entry.value().getId(), entry.value());
+            }
+            synchronized (evictLock) {
+                if (catalogVersion.get() == version) {
+                    for (Tagged<HotelDTO> entry : frozen) hotels.put(entry.value().getId(), entry);
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Cached listing, tagged with the catalog ETag of the version its load started at. Any write
+     * after that drops the entry (or keeps a racing load from being cached), so the tag stays
+     * true for as long as the entry is served.
+     */
+    public Tagged<List<HotelDTO>> getListing(String key, Supplier<List<HotelDTO>> loader) {
+        Tagged<List<HotelDTO>> cached = listings.get(key);
+        if (cached != null) return cached;
+
+        long version = catalogVersion.get();
+        List<HotelDTO> loaded = loader.get();
+        List<HotelDTO> frozen = new ArrayList<>(loaded.size());
+        for (HotelDTO dto : loaded) frozen.add(freeze(dto));
+        Tagged<List<HotelDTO>> entry = new Tagged<>(Collections.unmodifiableList(frozen), catalogEtag(version));
+        synchronized (evictLock) {
+            if (catalogVersion.get() == version) listings.put(key, entry);
+        }
+        return entry;
+    }
+
+    public static String searchKey(String city, String propertyType) {
+        return "search:" + normalize(city) + "|" + normalize(propertyType);
+    }
+
+    /**
+     * Drops the hotel and every listing (listings embed the hotel). When called inside a
+     * transaction the eviction is repeated after commit, so a read racing the commit cannot
+     * leave a stale entry behind.
+     */
+    public void evictHotel(Integer hotelId) {
+        doEvict(hotelId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    doEvict(hotelId);
+                }
+            });
+        }
+    }
+
+    // Under the same lock as the version-checked puts: a load either sees the bumped version
+    // and skips its put, or puts first and has its entry dropped here
+    private void doEvict(Integer hotelId) {
+        synchronized (evictLock) {
+            catalogVersion.incrementAndGet();
+            if (hotelId != null) {
+                hotels.invalidate(hotelId);
+            }
+            listings.invalidateAll();
+        }
+    }
+
+    /**
+     * Strong ETag for catalog-wide listings. Changes after any hotel / room type write and on
+     * every restart (the counter is in-process), so it never matches content it did not describe.
+     */
+    public String catalogEtag() {
+        return catalogEtag(catalogVersion.get());
+    }
+
+    private String catalogEtag(long version) {
+        return "\"catalog-" + bootEpoch + "-" + version + "\"";
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hotels", statsOf(hotels));
+        stats.put("listings", statsOf(listings));
+        return stats;
+    }
+
+    private static Map<String, Object> statsOf(BoundedTtlCache<?, ?> cache) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("size", cache.size());
+        m.put("hits", cache.getHits());
+        m.put("misses", cache.getMisses());
+        m.put("evictions", cache.getEvictions());
+        return m;
+    }
+
+    private static String normalize(String value) {
+        return value == null || value.isBlank() ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Deep copy so later changes to the source DTO (or to the returned one) never leak into the cache
+    private static HotelDTO freeze(HotelDTO src) {
+        if (src == null) return null;
+        HotelDTO dto = new HotelDTO();
+        dto.setId(src.getId());
+        dto.setName(src.getName());
+        dto.setLocation(src.getLocation());
+        dto.setStarRating(src.getStarRating());
+        dto.setContactNumber(src.getContactNumber());
+        dto.setDescription(src.getDescription());
+        dto.setStatus(src.getStatus());
+        dto.setPropertyType(src.getPropertyType());
+        dto.setCity(src.getCity());
+        dto.setStartingPrice(src.getStartingPrice());
+        dto.setAverageRating(src.getAverageRating());
+        dto.setLatitude(src.getLatitude());
+        dto.setLongitude(src.getLongitude());
+
+        if (src.getImages() != null) {
+            dto.setImages(frozenList(src.getImages().stream()
+                    .map(i -> new HotelImageDTO(i.getId(), i.getImageUrl())).toList()));
+        }
+        if (src.getRoomTypes() != null) {
+            dto.setRoomTypes(frozenList(src.getRoomTypes().stream().map(rt -> new RoomTypeDTO(
+                    rt.getId(), rt.getName(), rt.getBasePrice(), rt.getSpecialPrice(), rt.getRoomSize(),
+                    rt.getAvailability(), rt.getTotalRooms(), rt.getMaxGuests(), rt.getHotelId(),
+                    frozenList(rt.getInclusions()), frozenList(rt.getAmenities()))).toList()));
+        }
+        if (src.getAmenities() != null) {
+            dto.setAmenities(frozenList(src.getAmenities().stream()
+                    .map(a -> new AmenityDTO(a.getId(), a.getName())).toList()));
+        }
+        if (src.getPolicy() != null) {
+            PolicyDTO p = src.getPolicy();
+            dto.setPolicy(new PolicyDTO(p.getId(), p.getCheckInTime(), p.getCheckOutTime(),
+                    p.getCancellationPolicy(), p.getAdditionalInfo()));
+        }
+        return dto;
+    }
+
+    private static <T> List<T> frozenList(List<T> list) {
+        return list == null ? null : Collections.unmodifiableList(new ArrayList<>(list));
+    }
+}
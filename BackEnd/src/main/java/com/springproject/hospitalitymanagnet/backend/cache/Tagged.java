@@ -0,0 +1,8 @@
+package com.springproject.hospitalitymanagnet.backend.cache;
+
+/**
+ * A cached value together with the strong ETag of exactly that value. The tag is fixed when the
+ * value is loaded, so a response built from a cache entry never carries a newer tag than its body.
+ */
+public record Tagged<T>(T value, String etag) {
+}
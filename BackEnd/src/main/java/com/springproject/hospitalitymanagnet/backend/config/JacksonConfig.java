@@ -0,0 +1,22 @@
+package com.springproject.hospitalitymanagnet.backend.config;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Settings of the application ObjectMapper. Every component that writes JSON (MVC responses,
+ * outbox payloads and sinks, idempotency responses, the catalog export) must inject that mapper
+ * rather than create its own, or the filtered DTOs below fail to serialize.
+ */
+@Configuration
+public class JacksonConfig {
+
+    // HotelDTO / HotelSummaryDTO declare a @JsonFilter for sparse fieldsets; when a response
+    // does not supply that filter, write every field instead of failing
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer jsonFilterDefaults() {
+        return builder -> builder.filters(new SimpleFilterProvider().setFailOnUnknownId(false));
+    }
+}
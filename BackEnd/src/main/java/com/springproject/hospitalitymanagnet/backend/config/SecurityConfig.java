@@ -1,6 +1,7 @@
 package com.springproject.hospitalitymanagnet.backend.config;
 
 import com.springproject.hospitalitymanagnet.backend.util.JwtAuthFilter;
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -39,6 +40,8 @@ public class SecurityConfig {
                 .csrf(csrf -> csrf.disable())
                 .cors(cors -> {})
                 .authorizeHttpRequests(auth -> auth
+                        // the second dispatch of an async response (e.g. /api/bookings/process) was authorized on the first
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/auth/**").permitAll()
                         .requestMatchers("/uploads/**").permitAll()
                         // Allow public GET access to hotel listing/status endpoints during QA/dev:
@@ -2,10 +2,17 @@ package com.springproject.hospitalitymanagnet.backend.controller;
 
 import com.springproject.hospitalitymanagnet.backend.dto.BookingApiRequestDTO;
 import com.springproject.hospitalitymanagnet.backend.dto.BookingDTO;
-import com.springproject.hospitalitymanagnet.backend.entity.RoomType;
+import com.springproject.hospitalitymanagnet.backend.dto.GroupBookingDTO;
+import com.springproject.hospitalitymanagnet.backend.dto.GroupBookingRequestDTO;
+import com.springproject.hospitalitymanagnet.backend.exception.PaymentUnavailableException;
 import com.springproject.hospitalitymanagnet.backend.service.BookingService;
+import com.springproject.hospitalitymanagnet.backend.service.IdempotencyService;
+import com.springproject.hospitalitymanagnet.backend.service.OutboxService;
+import com.springproject.hospitalitymanagnet.backend.service.PaymentService;
 import com.springproject.hospitalitymanagnet.backend.service.RoomTypeService;
 import com.springproject.hospitalitymanagnet.backend.repository.RoomTypeRepository;
+import com.springproject.hospitalitymanagnet.backend.util.Futures;
+import com.springproject.hospitalitymanagnet.backend.util.OptimisticRetry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
@@ -15,13 +22,14 @@ import org.springframework.web.bind.annotation.*;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * BookingController - handles bookings and some room-type convenience endpoints.
  *
  * Notes:
  * - deleteRoomType delegates to RoomTypeService to ensure deletion is safe (no active bookings).
- * - setRoomAvailable / setRoomUnavailable keep using RoomTypeRepository directly for simplicity.
+ * - setRoomAvailable / setRoomUnavailable go through RoomTypeService so cached hotel data is refreshed.
  */
 @RestController
 @RequestMapping("/api/bookings")
@@ -30,14 +38,26 @@ public class BookingController {
     private final BookingService bookingService;
     private final RoomTypeRepository roomTypeRepository;
     private final RoomTypeService roomTypeService;
+    private final OptimisticRetry optimisticRetry;
+    private final IdempotencyService idempotencyService;
+    private final PaymentService paymentService;
+    private final OutboxService outboxService;
     private static final Logger logger = LoggerFactory.getLogger(BookingController.class);
 
     public BookingController(BookingService bookingService,
                              RoomTypeRepository roomTypeRepository,
-                             RoomTypeService roomTypeService) {
+                             RoomTypeService roomTypeService,
+                             OptimisticRetry optimisticRetry,
+                             IdempotencyService idempotencyService,
+                             PaymentService paymentService,
+                             OutboxService outboxService) {
         this.bookingService = bookingService;
         this.roomTypeRepository = roomTypeRepository;
         this.roomTypeService = roomTypeService;
+        this.optimisticRetry = optimisticRetry;
+        this.idempotencyService = idempotencyService;
+        this.paymentService = paymentService;
+        this.outboxService = outboxService;
     }
 
     // Create Booking
@@ -59,6 +79,9 @@ public class BookingController {
         } catch (IllegalArgumentException iae) {
             logger.warn("Booking validation failed: {}", iae.getMessage());
             return ResponseEntity.badRequest().body(Map.of("error", iae.getMessage()));
+        } catch (IllegalStateException ise) {
+            // room inventory not ready (e.g. just after startup) or too many concurrent updates; the client may retry
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", ise.getMessage()));
         } catch (Exception ex) {
             logger.error("Unexpected error while creating booking", ex);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -66,6 +89,55 @@ public class BookingController {
         }
     }
 
+    // Hold a room without paying yet; confirm within booking.hold.ttl-seconds or it is released
+    @PostMapping("/holds")
+    public ResponseEntity<?> createHold(@RequestParam Long userId,
+                                        @RequestParam Integer roomTypeId,
+                                        @RequestParam String checkIn,
+                                        @RequestParam String checkOut,
+                                        @RequestParam int guests) {
+        try {
+            BookingDTO dto = bookingService.createHold(userId, roomTypeId, LocalDate.parse(checkIn), LocalDate.parse(checkOut), guests);
+            return ResponseEntity.ok(dto);
+        } catch (IllegalArgumentException iae) {
+            logger.warn("Hold validation failed: {}", iae.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", iae.getMessage()));
+        } catch (IllegalStateException ise) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", ise.getMessage()));
+        } catch (Exception ex) {
+            logger.error("Unexpected error while creating hold", ex);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Internal server error"));
+        }
+    }
+
+    // Pay for a hold; the body is the payment part of the /process request.
+    // Answered asynchronously: no request thread waits while the provider is asked.
+    @PostMapping("/holds/{id}/confirm")
+    public CompletableFuture<ResponseEntity<?>> confirmHold(@PathVariable Long id,
+                                                            @RequestBody(required = false) BookingApiRequestDTO.Payment payment) {
+        return bookingService.confirmHold(id, payment)
+                .<ResponseEntity<?>>thenApply(dto -> ResponseEntity.ok(Map.of("booking", dto)))
+                .exceptionally(failure -> {
+                    RuntimeException ex = Futures.unwrap(failure);
+                    if (ex instanceof IllegalArgumentException) {
+                        logger.warn("Hold confirmation failed: {}", ex.getMessage());
+                        return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
+                    }
+                    if (ex instanceof PaymentUnavailableException) {
+                        // the hold is kept; paying again does not charge twice
+                        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", ex.getMessage()));
+                    }
+                    if (ex instanceof IllegalStateException) {
+                        // expired, cancelled or already being paid
+                        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", ex.getMessage()));
+                    }
+                    logger.error("Error confirming hold {}", id, ex);
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .body(Map.of("error", "Internal server error"));
+                });
+    }
+
     // Get Booking by ID
     @GetMapping("/{id}")
     public ResponseEntity<?> getBookingById(@PathVariable Long id) {
@@ -109,19 +181,13 @@ public class BookingController {
     @PutMapping("/{id}/cancel")
     public ResponseEntity<?> cancelBooking(@PathVariable Long id) {
         try {
+            // the booking's nights go back to the room inventory
             BookingDTO dto = bookingService.cancelBooking(id);
-
-            // RoomType eka update karanna
-            if (dto.getRoomTypeId() != null) {
-                RoomType room = roomTypeRepository.findById(dto.getRoomTypeId())
-                        .orElseThrow(() -> new IllegalArgumentException("Room not found"));
-                room.setAvailability("Available");
-                roomTypeRepository.save(room);
-            }
-
             return ResponseEntity.ok(dto);
         } catch (IllegalArgumentException iae) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", iae.getMessage()));
+        } catch (IllegalStateException ise) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", ise.getMessage()));
         } catch (Exception ex) {
             logger.error("Error cancelling booking {}", id, ex);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -142,17 +208,35 @@ public class BookingController {
         }
     }
 
+    // Optimistic-lock retries and conflicts per operation
+    @GetMapping("/concurrency/stats")
+    public ResponseEntity<?> getConcurrencyStats() {
+        return ResponseEntity.ok(optimisticRetry.stats());
+    }
+
+    // Payment providers: circuit state, charges in flight and outcomes
+    @GetMapping("/payments/stats")
+    public ResponseEntity<?> getPaymentStats() {
+        return ResponseEntity.ok(paymentService.stats());
+    }
+
+    // Booking event relay: sinks, events published and the unpublished backlog
+    @GetMapping("/events/stats")
+    public ResponseEntity<?> getEventStats() {
+        return ResponseEntity.ok(outboxService.stats());
+    }
+
     // Set Room Available (helper endpoint)
     @PutMapping("/room/{roomTypeId}/available")
     public ResponseEntity<?> setRoomAvailable(@PathVariable Integer roomTypeId) {
         try {
-            RoomType room = roomTypeRepository.findById(roomTypeId)
-                    .orElseThrow(() -> new IllegalArgumentException("Room not found"));
-            room.setAvailability("Available");
-            roomTypeRepository.save(room);
+            roomTypeService.setAvailability(roomTypeId, "Available");
             return ResponseEntity.ok(Map.of("message", "Room " + roomTypeId + " set to Available."));
         } catch (IllegalArgumentException iae) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", iae.getMessage()));
+        } catch (IllegalStateException ise) {
+            // still conflicting with concurrent updates after the retries
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", ise.getMessage()));
         } catch (Exception ex) {
             logger.error("Error setting room available {}", roomTypeId, ex);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("error", "Internal server error"));
@@ -163,13 +247,13 @@ public class BookingController {
     @PutMapping("/room/{roomTypeId}/unavailable")
     public ResponseEntity<?> setRoomUnavailable(@PathVariable Integer roomTypeId) {
         try {
-            RoomType room = roomTypeRepository.findById(roomTypeId)
-                    .orElseThrow(() -> new IllegalArgumentException("Room not found"));
-            room.setAvailability("Unavailable");
-            roomTypeRepository.save(room);
+            roomTypeService.setAvailability(roomTypeId, "Unavailable");
             return ResponseEntity.ok(Map.of("message", "Room " + roomTypeId + " set to Unavailable."));
         } catch (IllegalArgumentException iae) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", iae.getMessage()));
+        } catch (IllegalStateException ise) {
+            // still conflicting with concurrent updates after the retries
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", ise.getMessage()));
         } catch (Exception ex) {
             logger.error("Error setting room unavailable {}", roomTypeId, ex);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("error", "Internal server error"));
@@ -193,8 +277,64 @@ public class BookingController {
         }
     }
 
+    /**
+     * Books and charges in one go. With an Idempotency-Key header, a retry of the same request
+     * (e.g. after a client timeout) gets the first run's booking back instead of being charged again.
+     * Answered asynchronously once the payment provider has answered.
+     */
     @PostMapping("/process")
-    public ResponseEntity<?> processBooking(@RequestBody BookingApiRequestDTO req) {
+    public CompletableFuture<ResponseEntity<?>> processBooking(@RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+                                                               @RequestBody BookingApiRequestDTO req) {
+        CompletableFuture<BookingDTO> booking = idempotencyKey == null
+                ? process(req, null)
+                : idempotencyService.execute("booking.process:" + req.getUserId(), idempotencyKey,
+                        req, BookingDTO.class, claim -> process(req, claim));
+        return booking
+                .<ResponseEntity<?>>thenApply(dto -> ResponseEntity.ok(Map.of("booking", dto)))
+                .exceptionally(failure -> {
+                    RuntimeException ex = Futures.unwrap(failure);
+                    if (ex instanceof IllegalArgumentException) {
+                        logger.warn("Validation/Payment error: {}", ex.getMessage());
+                        return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
+                    }
+                    if (ex instanceof IllegalStateException) {
+                        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", ex.getMessage()));
+                    }
+                    logger.error("Error processing booking", ex);
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .body(Map.of("error", "Internal server error"));
+                });
+    }
+
+    /**
+     * Books many rooms for one stay, e.g. for a tour operator, with one payment for the total:
+     * all rooms or none. Takes an Idempotency-Key like /process.
+     */
+    @PostMapping("/group")
+    public CompletableFuture<ResponseEntity<?>> createGroupBooking(@RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+                                                                   @RequestBody GroupBookingRequestDTO req) {
+        CompletableFuture<GroupBookingDTO> group = idempotencyKey == null
+                ? bookingService.createGroupBooking(req)
+                : idempotencyService.execute("booking.group:" + req.getUserId(), idempotencyKey,
+                        req, GroupBookingDTO.class, claim -> bookingService.createGroupBooking(req, claim));
+        return group
+                .<ResponseEntity<?>>thenApply(dto -> ResponseEntity.ok(Map.of("group", dto)))
+                .exceptionally(failure -> {
+                    RuntimeException ex = Futures.unwrap(failure);
+                    if (ex instanceof IllegalArgumentException) {
+                        logger.warn("Group booking failed: {}", ex.getMessage());
+                        return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
+                    }
+                    if (ex instanceof IllegalStateException) {
+                        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", ex.getMessage()));
+                    }
+                    logger.error("Error creating group booking", ex);
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .body(Map.of("error", "Internal server error"));
+                });
+    }
+
+    private CompletableFuture<BookingDTO> process(BookingApiRequestDTO req, IdempotencyService.Claim claim) {
         try {
             // Try to auto-resolve roomTypeId on the controller layer first if missing.
             if (req.getRoomTypeId() == null) {
@@ -208,17 +348,10 @@ public class BookingController {
                             .ifPresent(rt -> req.setRoomTypeId(rt.getId()));
                 }
             }
-
-            BookingDTO dto = bookingService.createBookingWithPayment(req); // service will still validate / attempt resolve
-            return ResponseEntity.ok(Map.of("booking", dto));
-        } catch (IllegalArgumentException iae) {
-            logger.warn("Validation/Payment error: {}", iae.getMessage());
-            return ResponseEntity.badRequest().body(Map.of("error", iae.getMessage()));
-        } catch (Exception ex) {
-            logger.error("Error processing booking", ex);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(Map.of("error", "Internal server error"));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
         }
+        return bookingService.createBookingWithPayment(req, claim); // service will still validate / attempt resolve
     }
 
 
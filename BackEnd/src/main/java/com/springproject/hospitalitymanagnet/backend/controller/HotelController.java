@@ -4,19 +4,43 @@
 
 package com.springproject.hospitalitymanagnet.backend.controller;
 
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.springproject.hospitalitymanagnet.backend.cache.HotelCatalogCache;
+import com.springproject.hospitalitymanagnet.backend.cache.Tagged;
 import com.springproject.hospitalitymanagnet.backend.dto.ApiResponse;
 import com.springproject.hospitalitymanagnet.backend.dto.HotelDTO;
+import com.springproject.hospitalitymanagnet.backend.dto.HotelSummaryDTO;
+import com.springproject.hospitalitymanagnet.backend.dto.ImportResultDTO;
+import com.springproject.hospitalitymanagnet.backend.repository.HotelSearchCriteria;
+import com.springproject.hospitalitymanagnet.backend.repository.HotelSortKey;
+import com.springproject.hospitalitymanagnet.backend.search.HotelFacetIndex;
+import com.springproject.hospitalitymanagnet.backend.service.HotelImportService;
 import com.springproject.hospitalitymanagnet.backend.service.HotelService;
 import com.springproject.hospitalitymanagnet.backend.util.APIResponse;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/hotels")
@@ -24,9 +48,14 @@ import java.util.Map;
 public class HotelController {
 
     private final HotelService hotelService;
+    private final HotelImportService hotelImportService;
+    private final HotelCatalogCache catalogCache;
 
-    public HotelController(HotelService hotelService) {
+    public HotelController(HotelService hotelService, HotelImportService hotelImportService,
+                           HotelCatalogCache catalogCache) {
         this.hotelService = hotelService;
+        this.hotelImportService = hotelImportService;
+        this.catalogCache = catalogCache;
     }
 
     // === CREATE WITH CLOUDINARY IMAGES (JSON) ===
@@ -116,10 +145,20 @@ public class HotelController {
 
     // === GET ONE ===
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse> getHotel(@PathVariable Integer id) {
+    public ResponseEntity<ApiResponse> getHotel(@PathVariable Integer id, WebRequest request) {
         try {
-            HotelDTO hotel = hotelService.getHotelById(id);
-            return ResponseEntity.ok(new ApiResponse(200, "Hotel retrieved successfully", hotel));
+            // a 304 is decided from the tag alone; the hotel is loaded only for a stale or new copy
+            String current = hotelService.getHotelEtag(id);
+            if (current != null && request.checkNotModified(current)) {
+                return notModified(current);
+            }
+            // the tag is the one stored with the (possibly cached) DTO, so it always matches the body
+            Tagged<HotelDTO> hotel = hotelService.getTaggedHotel(id);
+            String etag = hotel.etag();
+            return ResponseEntity.ok()
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache())
+                    .body(new ApiResponse(200, "Hotel retrieved successfully", hotel.value()));
         } catch (Exception e) {
             return ResponseEntity.status(500)
                     .body(new ApiResponse(500, "Failed to retrieve hotel: " + e.getMessage(), null));
@@ -127,11 +166,43 @@ public class HotelController {
     }
 
     // === GET ALL ===
+    // Passing cursor and/or size switches to keyset pagination (data becomes a CursorPageDTO)
     @GetMapping
-    public ResponseEntity<ApiResponse> getAllHotels() {
+    public ResponseEntity<?> getAllHotels(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String view,
+            @RequestParam(required = false) String fields,
+            WebRequest request) {
         try {
-            List<HotelDTO> hotels = hotelService.getAllHotels();
-            return ResponseEntity.ok(new ApiResponse(200, "Hotels retrieved successfully", hotels));
+            // read the tag before the data, so a concurrent write can only make it older, never newer
+            String etag = hotelService.getCatalogEtag();
+            if (request.checkNotModified(etag)) {
+                return notModified(etag);
+            }
+            Set<String> fieldSet = parseFields(fields);
+            boolean summary = isSummaryView(view, fieldSet);
+            HotelSearchCriteria criteria = HotelSearchCriteria.builder().sort(HotelSortKey.from(sort)).build();
+            Object data;
+            if (isPaged(cursor, size)) {
+                data = summary
+                        ? hotelService.getHotelSummaryPage(criteria, cursor, size)
+                        : hotelService.getHotelPage(criteria, cursor, size);
+            } else if (summary) {
+                data = hotelService.getHotelSummaries(criteria);
+            } else {
+                // cached listing: answer with the tag of the entry served, which may predate the one read above
+                Tagged<List<HotelDTO>> all = hotelService.getTaggedHotels();
+                data = all.value();
+                etag = all.etag();
+            }
+            return ResponseEntity.ok()
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache())
+                    .body(withFields(new ApiResponse(200, "Hotels retrieved successfully", data), fieldSet));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ApiResponse(400, e.getMessage(), null));
         } catch (Exception e) {
             return ResponseEntity.status(500)
                     .body(new ApiResponse(500, "Failed to retrieve hotels: " + e.getMessage(), null));
@@ -139,15 +210,69 @@ public class HotelController {
     }
 
 
+    // === EXPORT (NDJSON, streamed) ===
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportHotels() {
+        StreamingResponseBody body = hotelService::exportCatalog;
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"hotels.ndjson\"")
+                .body(body);
+    }
+
+    // === BULK IMPORT (NDJSON or CSV, streamed) ===
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", "text/csv"})
+    public ResponseEntity<ApiResponse> importHotels(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                    InputStream body) {
+        try {
+            boolean csv = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.parseMediaType("text/csv"));
+            ImportResultDTO result = hotelImportService.importHotels(body, csv);
+            return ResponseEntity.ok(new ApiResponse(200,
+                    "Imported " + result.getImported() + " of " + result.getTotal() + " hotels", result));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ApiResponse(400, e.getMessage(), null));
+        } catch (Exception e) {
+            return ResponseEntity.status(500)
+                    .body(new ApiResponse(500, "Import failed: " + e.getMessage(), null));
+        }
+    }
+
+    // === CACHE COUNTERS ===
+    @GetMapping("/cache/stats")
+    public ResponseEntity<ApiResponse> getCacheStats() {
+        return ResponseEntity.ok(new ApiResponse(200, "Hotel cache statistics", catalogCache.stats()));
+    }
+
     // === GET HOTELS BY STATUS ===
     @GetMapping("/status/{status}")
-    public ResponseEntity<?> getHotelsByStatus(@PathVariable String status) {
+    public ResponseEntity<?> getHotelsByStatus(
+            @PathVariable String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String view,
+            @RequestParam(required = false) String fields) {
         try {
-            List<HotelDTO> hotels = hotelService.getHotelsByStatus(status);
-            return ResponseEntity.ok(Map.of(
+            Set<String> fieldSet = parseFields(fields);
+            boolean summary = isSummaryView(view, fieldSet);
+            HotelSearchCriteria criteria = HotelSearchCriteria.builder().status(status).sort(HotelSortKey.from(sort)).build();
+            Object data;
+            if (isPaged(cursor, size)) {
+                data = summary
+                        ? hotelService.getHotelSummaryPage(criteria, cursor, size)
+                        : hotelService.getHotelPage(criteria, cursor, size);
+            } else {
+                data = summary ? hotelService.getHotelSummaries(criteria) : hotelService.getHotelsByStatus(status);
+            }
+            return ResponseEntity.ok(withFields(Map.of(
                     "statusCode", 200,
                     "message", "Hotels retrieved successfully",
-                    "data", hotels
+                    "data", data
+            ), fieldSet));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "statusCode", 400,
+                    "message", e.getMessage()
             ));
         } catch (Exception e) {
             return ResponseEntity.status(500).body(Map.of(
@@ -159,13 +284,200 @@ public class HotelController {
     }
 
 
+    // q=... runs a relevance-ranked free-text search (data is a list, best match first).
+    // Any of the range / amenity / status filters switches to the keyset-paginated SQL search.
     @GetMapping("/search")
-    public ResponseEntity<ApiResponse> searchHotels(
+    public ResponseEntity<?> searchHotels(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String city,
+            @RequestParam(required = false) String propertyType,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(required = false) Integer minStars,
+            @RequestParam(required = false) Double minRating,
+            @RequestParam(required = false) List<Integer> amenityIds,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String view,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String checkIn,
+            @RequestParam(required = false) String checkOut,
+            @RequestParam(required = false) Integer guests) {
+        try {
+            Set<String> fieldSet = parseFields(fields);
+            if (checkIn != null || checkOut != null) {
+                // date search combines with city / propertyType only; answered from the availability index
+                if (checkIn == null || checkOut == null) {
+                    throw new IllegalArgumentException("checkIn and checkOut must be given together");
+                }
+                return ResponseEntity.ok(new ApiResponse(200, "Available hotels retrieved successfully",
+                        hotelService.searchAvailableHotels(city, propertyType, LocalDate.parse(checkIn),
+                                LocalDate.parse(checkOut), guests, size)));
+            }
+            if (q != null && !q.isBlank()) {
+                // ranked results come from the hotel cache as full DTOs; fields= still trims them
+                return ResponseEntity.ok(withFields(new ApiResponse(200, "Hotels filtered successfully",
+                        hotelService.searchHotelsByText(q, city, propertyType, size)), fieldSet));
+            }
+            boolean summary = isSummaryView(view, fieldSet);
+            boolean filtered = minPrice != null || maxPrice != null || minStars != null || minRating != null
+                    || (amenityIds != null && !amenityIds.isEmpty()) || blankToNull(status) != null;
+            if (filtered || isPaged(cursor, size)) {
+                HotelSearchCriteria criteria = HotelSearchCriteria.builder()
+                        .city(blankToNull(city))
+                        .propertyType(blankToNull(propertyType))
+                        .status(blankToNull(status))
+                        .minPrice(minPrice)
+                        .maxPrice(maxPrice)
+                        .minStarRating(minStars)
+                        .minAverageRating(minRating)
+                        .amenityIds(amenityIds)
+                        .sort(HotelSortKey.from(sort))
+                        .build();
+                Object page = summary
+                        ? hotelService.getHotelSummaryPage(criteria, cursor, size)
+                        : hotelService.getHotelPage(criteria, cursor, size);
+                return ResponseEntity.ok(withFields(new ApiResponse(200, "Hotels filtered successfully", page), fieldSet));
+            }
+            Object hotels = summary
+                    ? hotelService.getHotelSummaries(HotelSearchCriteria.builder()
+                            .city(blankToNull(city)).propertyType(blankToNull(propertyType)).build())
+                    : hotelService.searchHotels(city, propertyType);
+            return ResponseEntity.ok(withFields(new ApiResponse(200, "Hotels filtered successfully", hotels), fieldSet));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(new ApiResponse(400, e.getMessage(), null));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(new ApiResponse(503, e.getMessage(), null));
+        } catch (Exception e) {
+            return ResponseEntity.status(500)
+                    .body(new ApiResponse(500, "Failed to search hotels: " + e.getMessage(), null));
+        }
+    }
+
+    // === AUTOCOMPLETE ===
+    // Served from memory; meant to be called on every keystroke instead of /search
+    @GetMapping("/suggest")
+    public ResponseEntity<ApiResponse> suggest(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(new ApiResponse(200, "Suggestions retrieved successfully",
+                    hotelService.suggest(q, limit)));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(new ApiResponse(503, e.getMessage(), null));
+        } catch (Exception e) {
+            return ResponseEntity.status(500)
+                    .body(new ApiResponse(500, "Failed to load suggestions: " + e.getMessage(), null));
+        }
+    }
+
+    // === ROOM AVAILABILITY ===
+    @GetMapping("/{id}/availability")
+    public ResponseEntity<ApiResponse> getRoomAvailability(
+            @PathVariable Integer id,
+            @RequestParam String checkIn,
+            @RequestParam String checkOut) {
+        try {
+            return ResponseEntity.ok(new ApiResponse(200, "Availability retrieved successfully",
+                    hotelService.getRoomAvailability(id, LocalDate.parse(checkIn), LocalDate.parse(checkOut))));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(new ApiResponse(400, e.getMessage(), null));
+        } catch (Exception e) {
+            return ResponseEntity.status(500)
+                    .body(new ApiResponse(500, "Failed to load availability: " + e.getMessage(), null));
+        }
+    }
+
+    // === OCCUPANCY TIMELINE ===
+    @GetMapping("/{id}/occupancy")
+    public ResponseEntity<ApiResponse> getOccupancyTimeline(
+            @PathVariable Integer id,
+            @RequestParam String from,
+            @RequestParam String to) {
+        try {
+            return ResponseEntity.ok(new ApiResponse(200, "Occupancy retrieved successfully",
+                    hotelService.getOccupancyTimeline(id, LocalDate.parse(from), LocalDate.parse(to))));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(new ApiResponse(400, e.getMessage(), null));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(new ApiResponse(503, e.getMessage(), null));
+        } catch (Exception e) {
+            return ResponseEntity.status(500)
+                    .body(new ApiResponse(500, "Failed to load occupancy: " + e.getMessage(), null));
+        }
+    }
+
+    // === PROXIMITY SEARCH ===
+    @GetMapping("/nearby")
+    public ResponseEntity<ApiResponse> findHotelsNearby(
+            @RequestParam double lat,
+            @RequestParam double lng,
+            @RequestParam(defaultValue = "5") double radiusKm,
             @RequestParam(required = false) String city,
-            @RequestParam(required = false) String propertyType) {
+            @RequestParam(required = false) String propertyType,
+            @RequestParam(required = false) Integer size) {
         try {
-            List<HotelDTO> hotels = hotelService.searchHotels(city, propertyType);
-            return ResponseEntity.ok(new ApiResponse(200, "Hotels filtered successfully", hotels));
+            return ResponseEntity.ok(new ApiResponse(200, "Hotels retrieved successfully",
+                    hotelService.findHotelsNearby(lat, lng, radiusKm, city, propertyType, size)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ApiResponse(400, e.getMessage(), null));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(new ApiResponse(503, e.getMessage(), null));
+        } catch (Exception e) {
+            return ResponseEntity.status(500)
+                    .body(new ApiResponse(500, "Failed to search hotels: " + e.getMessage(), null));
+        }
+    }
+
+    @GetMapping("/within")
+    public ResponseEntity<ApiResponse> findHotelsInBox(
+            @RequestParam double minLat,
+            @RequestParam double minLng,
+            @RequestParam double maxLat,
+            @RequestParam double maxLng,
+            @RequestParam(required = false) String city,
+            @RequestParam(required = false) String propertyType,
+            @RequestParam(required = false) Integer size) {
+        try {
+            return ResponseEntity.ok(new ApiResponse(200, "Hotels retrieved successfully",
+                    hotelService.findHotelsInBox(minLat, minLng, maxLat, maxLng, city, propertyType, size)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ApiResponse(400, e.getMessage(), null));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(new ApiResponse(503, e.getMessage(), null));
+        } catch (Exception e) {
+            return ResponseEntity.status(500)
+                    .body(new ApiResponse(500, "Failed to search hotels: " + e.getMessage(), null));
+        }
+    }
+
+    // === FACETED SEARCH ===
+    // Every filter accepts comma-separated values (OR within a filter, AND across filters);
+    // price takes bucket labels as returned in the counts, e.g. price=100-200,200-500
+    @GetMapping("/facets")
+    public ResponseEntity<ApiResponse> searchWithFacets(
+            @RequestParam(required = false) String city,
+            @RequestParam(required = false) String propertyType,
+            @RequestParam(required = false) String starRating,
+            @RequestParam(required = false) String price,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        try {
+            Map<HotelFacetIndex.Facet, Set<String>> filters = new EnumMap<>(HotelFacetIndex.Facet.class);
+            filters.put(HotelFacetIndex.Facet.CITY, splitValues(city));
+            filters.put(HotelFacetIndex.Facet.PROPERTY_TYPE, splitValues(propertyType));
+            filters.put(HotelFacetIndex.Facet.STAR_RATING, splitValues(starRating));
+            filters.put(HotelFacetIndex.Facet.PRICE, splitValues(price));
+            filters.put(HotelFacetIndex.Facet.STATUS, splitValues(status));
+            return ResponseEntity.ok(new ApiResponse(200, "Hotels filtered successfully",
+                    hotelService.searchWithFacets(filters, cursor, size)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ApiResponse(400, e.getMessage(), null));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(new ApiResponse(503, e.getMessage(), null));
         } catch (Exception e) {
             return ResponseEntity.status(500)
                     .body(new ApiResponse(500, "Failed to search hotels: " + e.getMessage(), null));
@@ -195,4 +507,76 @@ public class HotelController {
     }
 
 
-}
\ No newline at end of file
+    // no-cache: browsers may store the response but must revalidate it with If-None-Match
+    private static <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .build();
+    }
+
+    private static boolean isPaged(String cursor, Integer size) {
+        return cursor != null || size != null;
+    }
+
+    // fields=... is allowed any top-level HotelDTO / HotelSummaryDTO property
+    private static final Set<String> SUMMARY_FIELDS = propertyNames(HotelSummaryDTO.class);
+    private static final Set<String> SELECTABLE_FIELDS = union(propertyNames(HotelDTO.class), SUMMARY_FIELDS);
+
+    private static Set<String> parseFields(String fields) {
+        Set<String> selected = splitValues(fields);
+        if (selected.isEmpty()) return null;
+        List<String> unknown = selected.stream().filter(f -> !SELECTABLE_FIELDS.contains(f)).toList();
+        if (!unknown.isEmpty()) {
+            throw new IllegalArgumentException("Unknown field(s): " + String.join(", ", unknown));
+        }
+        return selected;
+    }
+
+    // Summary rows are used for view=summary, and also whenever every requested field is a summary field
+    private static boolean isSummaryView(String view, Set<String> fields) {
+        if (view != null && !view.isBlank()) {
+            if (view.equalsIgnoreCase("summary")) return true;
+            if (view.equalsIgnoreCase("full")) return false;
+            throw new IllegalArgumentException("Unsupported view: " + view + " (use summary or full)");
+        }
+        return fields != null && SUMMARY_FIELDS.containsAll(fields);
+    }
+
+    // Applies the sparse fieldset to every HotelDTO / HotelSummaryDTO in the body; other objects are untouched
+    private static Object withFields(Object body, Set<String> fields) {
+        if (fields == null) return body;
+        MappingJacksonValue value = new MappingJacksonValue(body);
+        value.setFilters(new SimpleFilterProvider()
+                .addFilter(HotelDTO.FIELDS_FILTER, SimpleBeanPropertyFilter.filterOutAllExcept(fields)));
+        return value;
+    }
+
+    private static Set<String> propertyNames(Class<?> type) {
+        Set<String> names = new LinkedHashSet<>();
+        for (Field field : type.getDeclaredFields()) {
+            if (!Modifier.isStatic(field.getModifiers())) names.add(field.getName());
+        }
+        return Collections.unmodifiableSet(names);
+    }
+
+    private static Set<String> union(Set<String> a, Set<String> b) {
+        Set<String> all = new LinkedHashSet<>(a);
+        all.addAll(b);
+        return Collections.unmodifiableSet(all);
+    }
+
+    private static Set<String> splitValues(String value) {
+        if (value == null || value.isBlank()) return Collections.emptySet();
+        Set<String> values = new LinkedHashSet<>();
+        for (String part : value.split(",")) {
+            if (!part.isBlank()) values.add(part.trim());
+        }
+        return values;
+    }
+
+    private static String blankToNull(String value) {
+        return value != null && !value.isBlank() ? value.trim() : null;
+    }
+
+}
@@ -6,9 +6,11 @@ import com.springproject.hospitalitymanagnet.backend.repository.RoomTypeReposito
 import com.springproject.hospitalitymanagnet.backend.service.RoomTypeService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.Map;
@@ -35,13 +37,13 @@ public class RoomTypeController {
     @PutMapping("/{roomTypeId}/available")
     public ResponseEntity<?> setAvailable(@PathVariable Integer roomTypeId) {
         try {
-            RoomType room = roomTypeRepository.findById(roomTypeId)
-                    .orElseThrow(() -> new IllegalArgumentException("Room not found"));
-            room.setAvailability("Available");
-            roomTypeRepository.save(room);
+            roomTypeService.setAvailability(roomTypeId, "Available");
             return ResponseEntity.ok(Map.of("message", "RoomType " + roomTypeId + " set to Available"));
         } catch (IllegalArgumentException iae) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", iae.getMessage()));
+        } catch (IllegalStateException ise) {
+            // still conflicting with concurrent updates after the retries
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", ise.getMessage()));
         } catch (Exception ex) {
             logger.error("Error setting room available {}", roomTypeId, ex);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("error", "Internal server error"));
@@ -51,13 +53,13 @@ public class RoomTypeController {
     @PutMapping("/{roomTypeId}/unavailable")
     public ResponseEntity<?> setUnavailable(@PathVariable Integer roomTypeId) {
         try {
-            RoomType room = roomTypeRepository.findById(roomTypeId)
-                    .orElseThrow(() -> new IllegalArgumentException("Room not found"));
-            room.setAvailability("Unavailable");
-            roomTypeRepository.save(room);
+            roomTypeService.setAvailability(roomTypeId, "Unavailable");
             return ResponseEntity.ok(Map.of("message", "RoomType " + roomTypeId + " set to Unavailable"));
         } catch (IllegalArgumentException iae) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", iae.getMessage()));
+        } catch (IllegalStateException ise) {
+            // still conflicting with concurrent updates after the retries
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", ise.getMessage()));
         } catch (Exception ex) {
             logger.error("Error setting room unavailable {}", roomTypeId, ex);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("error", "Internal server error"));
@@ -93,8 +95,15 @@ public class RoomTypeController {
     }
 
     @GetMapping("/{roomTypeId}")
-    public ResponseEntity<?> getRoomType(@PathVariable Integer roomTypeId) {
+    public ResponseEntity<?> getRoomType(@PathVariable Integer roomTypeId, WebRequest request) {
         try {
+            // conditional GET: answer If-None-Match from the version column only
+            Optional<Long> version = roomTypeRepository.findVersionById(roomTypeId);
+            String etag = version.map(v -> "\"rt" + roomTypeId + "-" + v + "\"").orElse(null);
+            if (etag != null && request.checkNotModified(etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CacheControl.noCache()).build();
+            }
+
             Optional<RoomType> opt = roomTypeRepository.findById(roomTypeId);
             if (opt.isEmpty()) return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error","RoomType not found"));
 
@@ -109,7 +118,7 @@ public class RoomTypeController {
             dto.setAvailability(roomType.getAvailability());
             dto.setHotelId(roomType.getHotel() != null ? roomType.getHotel().getId() : null);
 
-            return ResponseEntity.ok(dto);
+            return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(dto);
         } catch (Exception ex) {
             logger.error("Error fetching room type {}", roomTypeId, ex);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
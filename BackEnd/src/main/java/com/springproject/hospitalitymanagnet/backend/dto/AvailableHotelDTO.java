@@ -0,0 +1,18 @@
+package com.springproject.hospitalitymanagnet.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * A date-range search result: the hotel and its room types that are free for the whole stay.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AvailableHotelDTO {
+    private HotelDTO hotel;
+    private List<RoomAvailabilityDTO> rooms;
+}
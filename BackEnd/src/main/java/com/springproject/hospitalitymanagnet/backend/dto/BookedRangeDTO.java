@@ -0,0 +1,19 @@
+package com.springproject.hospitalitymanagnet.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * One active booking on an occupancy timeline: nights checkIn (inclusive) to checkOut (exclusive).
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookedRangeDTO {
+    private Long bookingId;
+    private LocalDate checkIn;
+    private LocalDate checkOut;
+}
@@ -2,6 +2,7 @@ package com.springproject.hospitalitymanagnet.backend.dto;
 
 import lombok.*;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @AllArgsConstructor
 @NoArgsConstructor
@@ -20,6 +21,8 @@ public class BookingDTO {
     private int guests;
     private Double totalPrice;
     private String status; // PENDING, CONFIRMED, CANCELLED
+    private LocalDateTime holdExpiresAt; // PENDING holds only
+    private String groupId;              // bookings of one group booking share it
 
     // inside BookingDTO class (add fields)
     private String paymentProviderId;
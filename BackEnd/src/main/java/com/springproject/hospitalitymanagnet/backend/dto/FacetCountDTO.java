@@ -0,0 +1,13 @@
+package com.springproject.hospitalitymanagnet.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class FacetCountDTO {
+    private String value;
+    private int count;
+}
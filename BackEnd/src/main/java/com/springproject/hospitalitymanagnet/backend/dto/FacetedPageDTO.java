@@ -0,0 +1,23 @@
+package com.springproject.hospitalitymanagnet.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of faceted search results plus the chip counts for every facet,
+ * keyed by the request parameter name (city, propertyType, starRating, price, status).
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class FacetedPageDTO {
+    private List<HotelDTO> items;
+    private String nextCursor;
+    private int size;
+    private int total;
+    private Map<String, List<FacetCountDTO>> facets;
+}
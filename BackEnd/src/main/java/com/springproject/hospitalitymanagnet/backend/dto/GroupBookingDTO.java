@@ -0,0 +1,23 @@
+package com.springproject.hospitalitymanagnet.backend.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/** A group booking: its bookings, one per room, and the one payment that covers them all. */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class GroupBookingDTO {
+    private String groupId;
+    private String status;
+    private int rooms;
+    private Double totalPrice;
+
+    private String paymentProviderId;
+    private String paymentStatus;
+
+    private List<BookingDTO> bookings;
+}
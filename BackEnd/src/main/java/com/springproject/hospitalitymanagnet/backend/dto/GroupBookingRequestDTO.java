@@ -0,0 +1,32 @@
+package com.springproject.hospitalitymanagnet.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Body of POST /api/bookings/group: several rooms, of one or more room types, for the same
+ * stay, booked and paid for together.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class GroupBookingRequestDTO {
+    private Long userId;
+    private String checkIn;   // ISO date string "YYYY-MM-DD"
+    private String checkOut;
+
+    private List<Rooms> rooms;
+    private BookingApiRequestDTO.Payment payment;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Rooms {
+        private Integer roomTypeId;
+        private Integer count;   // rooms of this type, default 1
+        private Integer guests;  // guests per room, default 1
+    }
+}
@@ -1,16 +1,21 @@
 package com.springproject.hospitalitymanagnet.backend.dto;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.util.List;
 
+@JsonFilter(HotelDTO.FIELDS_FILTER)
 @AllArgsConstructor
 @NoArgsConstructor
 @Data
 public class HotelDTO {
 
+    // Jackson filter id for sparse fieldsets (fields=...); without an active filter every field is written
+    public static final String FIELDS_FILTER = "hotelFields";
+
     private Integer id;
     private String name;
     private String location;
@@ -24,6 +29,8 @@ public class HotelDTO {
     private String city;
     private Double startingPrice;
     private Double averageRating;
+    private Double latitude;
+    private Double longitude;
 
     private List<HotelImageDTO> images;
     private List<RoomTypeDTO> roomTypes;
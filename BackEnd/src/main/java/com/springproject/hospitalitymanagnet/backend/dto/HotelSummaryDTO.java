@@ -0,0 +1,22 @@
+package com.springproject.hospitalitymanagnet.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Listing card: the few fields a hotel tile shows (view=summary on the listing endpoints).
+ */
+@JsonFilter(HotelDTO.FIELDS_FILTER)
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class HotelSummaryDTO {
+    private Integer id;
+    private String name;
+    private String city;
+    private Double startingPrice;
+    private Double averageRating;
+    private String thumbnailUrl;
+}
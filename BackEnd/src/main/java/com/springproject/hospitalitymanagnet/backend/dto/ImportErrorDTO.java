@@ -0,0 +1,16 @@
+package com.springproject.hospitalitymanagnet.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A rejected row of a bulk import; line is the 1-based line the row starts on.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ImportErrorDTO {
+    private long line;
+    private String message;
+}
@@ -0,0 +1,24 @@
+package com.springproject.hospitalitymanagnet.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk hotel import. errors holds at most hotel.import.max-reported-errors
+ * entries; errorsTruncated tells whether more rows failed than are listed.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ImportResultDTO {
+    private int total;
+    private int imported;
+    private int failed;
+    private List<ImportErrorDTO> errors = new ArrayList<>();
+    private boolean errorsTruncated;
+    private long durationMs;
+}
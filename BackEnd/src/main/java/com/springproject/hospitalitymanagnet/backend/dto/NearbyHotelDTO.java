@@ -0,0 +1,16 @@
+package com.springproject.hospitalitymanagnet.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A proximity search result: the hotel and its great-circle distance from the query point.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class NearbyHotelDTO {
+    private HotelDTO hotel;
+    private double distanceKm;
+}
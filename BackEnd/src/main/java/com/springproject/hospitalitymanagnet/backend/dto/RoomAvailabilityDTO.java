@@ -0,0 +1,18 @@
+package com.springproject.hospitalitymanagnet.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Rooms of one room type still free on every night of the requested stay.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RoomAvailabilityDTO {
+    private Integer roomTypeId;
+    private String name;
+    private Integer totalRooms;
+    private Integer availableUnits;
+}
@@ -0,0 +1,20 @@
+package com.springproject.hospitalitymanagnet.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Occupancy timeline of one room type: its active bookings overlapping the requested window.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RoomOccupancyDTO {
+    private Integer roomTypeId;
+    private String name;
+    private Integer totalRooms;
+    private List<BookedRangeDTO> bookings;
+}
@@ -15,6 +15,8 @@ public class RoomTypeDTO {
     private Double specialPrice;
     private Integer roomSize;
     private String availability;
+    private Integer totalRooms;
+    private Integer maxGuests;
     private Integer hotelId;
     private List<String> inclusions;
     private List<String> amenities;
@@ -0,0 +1,19 @@
+package com.springproject.hospitalitymanagnet.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One autocomplete entry. type is CITY (hotelCount set) or HOTEL (hotelId / city set).
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SuggestionDTO {
+    private String type;
+    private String text;
+    private Integer hotelId;
+    private String city;
+    private Integer hotelCount;
+}
@@ -9,7 +9,8 @@ import lombok.*;
 @Getter
 @Setter
 @Entity
-@Table(name = "amenities")
+@Table(name = "amenities",
+        uniqueConstraints = @UniqueConstraint(name = "uk_amenities_name", columnNames = "name"))
 public class Amenity {
 
     @Id
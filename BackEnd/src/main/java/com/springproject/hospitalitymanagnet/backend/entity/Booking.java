@@ -4,13 +4,14 @@ package com.springproject.hospitalitymanagnet.backend.entity;
 import jakarta.persistence.*;
 import lombok.*;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @AllArgsConstructor
 @NoArgsConstructor
 @Getter
 @Setter
 @Entity
-@Table(name = "bookings")
+@Table(name = "bookings", indexes = @Index(name = "idx_bookings_group", columnList = "group_id"))
 public class Booking {
 
     @Id
@@ -25,6 +26,19 @@ public class Booking {
     @Enumerated(EnumType.STRING)
     private BookingStatus status = BookingStatus.PENDING;
 
+    // Set while the booking is an unpaid hold (PENDING): the hold is released at this time
+    private LocalDateTime holdExpiresAt;
+
+    // Shared by the bookings of one group booking; the first of them carries the group's payment
+    @Column(name = "group_id", length = 36)
+    private String groupId;
+
+    // Optimistic-lock version: concurrent cancels of one booking cannot both release its nights.
+    // DEFAULT 0 so ddl-auto=update can add it to existing rows.
+    @Version
+    @Column(columnDefinition = "BIGINT DEFAULT 0 NOT NULL")
+    private Long version;
+
     // Relations
     @ManyToOne
     @JoinColumn(name = "user_id")
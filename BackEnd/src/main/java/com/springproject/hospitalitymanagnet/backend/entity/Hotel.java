@@ -13,7 +13,15 @@ import java.util.List;
 @Getter
 @Setter
 @Entity
-@Table(name = "hotels")
+// Composite indexes for the keyset search (HotelRepositoryImpl.findPageIds): equality columns first,
+// then the range / sort column. InnoDB appends the primary key, which covers the "id" tie breaker.
+@Table(name = "hotels", indexes = {
+        @Index(name = "idx_hotels_city_type_price", columnList = "city, propertyType, startingPrice"),
+        @Index(name = "idx_hotels_status_price", columnList = "status, startingPrice"),
+        @Index(name = "idx_hotels_status_stars", columnList = "status, starRating"),
+        @Index(name = "idx_hotels_price", columnList = "startingPrice"),
+        @Index(name = "idx_hotels_name", columnList = "name")
+})
 public class Hotel {
 
      @Id
@@ -36,6 +44,16 @@ public class Hotel {
      private Double startingPrice;  // Base starting price
      private Double averageRating = 0.0; // Default 0, updated from reviews later
 
+     // WGS84 coordinates for proximity search; both null when unknown
+     private Double latitude;
+     private Double longitude;
+
+     // Optimistic-lock version, also the basis of the hotel ETag.
+     // DEFAULT 0 so ddl-auto=update can add it to existing rows.
+     @Version
+     @Column(columnDefinition = "BIGINT DEFAULT 0 NOT NULL")
+     private Long version;
+
      // Relations
      @OneToMany(mappedBy = "hotel", cascade = CascadeType.ALL, orphanRemoval = true)
      private List<HotelImage> images;
@@ -52,7 +70,8 @@ public class Hotel {
      @JoinTable(
              name = "hotel_amenities",
              joinColumns = @JoinColumn(name = "hotel_id"),
-             inverseJoinColumns = @JoinColumn(name = "amenity_id")
+             inverseJoinColumns = @JoinColumn(name = "amenity_id"),
+             indexes = @Index(name = "idx_hotel_amenities_amenity_hotel", columnList = "amenity_id, hotel_id")
      )
      private List<Amenity> amenities;
 
@@ -0,0 +1,57 @@
+package com.springproject.hospitalitymanagnet.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One Idempotency-Key of one caller. The first request with the key inserts the row (the
+ * claim), the work runs in transactions of its own and may attach what it creates
+ * (resourceId), and the response is stored afterwards in a separate, retried write. A row
+ * without a response is therefore either still running, or a run that stopped or failed
+ * before its response was stored (its work may be done); once claimedAt is older than the
+ * in-progress lease the next request with the key takes it over and resumes from resourceId.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Entity
+@Table(name = "idempotency_keys",
+        uniqueConstraints = @UniqueConstraint(name = "uk_idempotency_scope_key",
+                columnNames = {"scope", "idempotency_key"}),
+        indexes = @Index(name = "idx_idempotency_expires", columnList = "expires_at"))
+public class IdempotencyRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // operation and caller, e.g. "booking.process:42"
+    @Column(nullable = false, length = 100)
+    private String scope;
+
+    @Column(name = "idempotency_key", nullable = false, length = 100)
+    private String idempotencyKey;
+
+    // SHA-256 of the request body; a key reused for a different request is rejected
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    // JSON of the response, null while in progress
+    @Lob
+    @Column(columnDefinition = "TEXT")
+    private String response;
+
+    @Column(name = "claimed_at", nullable = false)
+    private LocalDateTime claimedAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    // what the work created before it was paid for (e.g. the hold's booking id), written in the
+    // same transaction; a takeover resumes from it instead of starting the work again
+    @Column(name = "resource_id")
+    private Long resourceId;
+}
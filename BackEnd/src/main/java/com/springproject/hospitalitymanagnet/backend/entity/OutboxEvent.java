@@ -0,0 +1,47 @@
+package com.springproject.hospitalitymanagnet.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A booking lifecycle event waiting to be relayed to downstream consumers. Written in the same
+ * transaction as the booking change it describes, so an event exists exactly when its change
+ * committed; publishedAt is set once every sink has taken it.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Entity
+@Table(name = "outbox_events",
+        indexes = @Index(name = "idx_outbox_unpublished", columnList = "published_at, id"))
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // e.g. "booking"
+    @Column(name = "aggregate_type", nullable = false, length = 50)
+    private String aggregateType;
+
+    @Column(name = "aggregate_id", nullable = false)
+    private Long aggregateId;
+
+    // e.g. BOOKING_CREATED, BOOKING_CONFIRMED, BOOKING_CANCELLED
+    @Column(name = "event_type", nullable = false, length = 50)
+    private String eventType;
+
+    // JSON of the aggregate after the change
+    @Lob
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+}
@@ -0,0 +1,39 @@
+package com.springproject.hospitalitymanagnet.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * Sellable units of one room type for one night. A row is created the first time a night is
+ * booked (total = RoomType.totalRooms at that moment); nights without a row are fully free.
+ * sold only moves through the conditional updates in RoomInventoryRepository.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Entity
+@Table(name = "room_inventory",
+        uniqueConstraints = @UniqueConstraint(name = "uk_room_inventory_room_night",
+                columnNames = {"room_type_id", "stay_date"}))
+public class RoomInventory {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "room_type_id", nullable = false)
+    private RoomType roomType;
+
+    @Column(name = "stay_date", nullable = false)
+    private LocalDate stayDate;
+
+    @Column(nullable = false)
+    private Integer total;
+
+    @Column(nullable = false)
+    private Integer sold;
+}
@@ -2,6 +2,7 @@ package com.springproject.hospitalitymanagnet.backend.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 
 import java.util.List;
 
@@ -23,12 +24,30 @@ public class RoomType {
     private Integer roomSize; // Sq Ft
     private String availability; // Available / Pay at Hotel / Corporate Rate etc.
 
+    // Units sold per night; the per-night counts live in RoomInventory.
+    // DEFAULT 1 so ddl-auto=update can add it to existing rows (they used to sell one unit).
+    @Column(columnDefinition = "INT DEFAULT 1 NOT NULL")
+    private Integer totalRooms = 1;
+
+    // Guests one unit sleeps; availability searches only offer room types that fit the party
+    @Column(columnDefinition = "INT DEFAULT 2 NOT NULL")
+    private Integer maxGuests = 2;
+
+    // Optimistic-lock version, also the basis of the room type ETag
+    @Version
+    @Column(columnDefinition = "BIGINT DEFAULT 0 NOT NULL")
+    private Long version;
+
+    // batch lazy loads: touching one room type's collection loads it for up to 100 room types
+    // of the persistence context, so walking a hotel's room types is not one query per room
     @ElementCollection
+    @BatchSize(size = 100)
     @CollectionTable(name = "room_inclusions", joinColumns = @JoinColumn(name = "room_id"))
     @Column(name = "inclusion")
     private List<String> inclusions;
 
     @ElementCollection
+    @BatchSize(size = 100)
     @CollectionTable(name = "room_amenities", joinColumns = @JoinColumn(name = "room_id"))
     @Column(name = "amenity")
     private List<String> amenities;
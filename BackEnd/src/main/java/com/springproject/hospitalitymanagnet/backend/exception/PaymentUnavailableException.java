@@ -0,0 +1,15 @@
+package com.springproject.hospitalitymanagnet.backend.exception;
+
+/**
+ * The payment provider could not be asked (circuit open, too many calls in flight) or did not
+ * answer in time. Unlike a declined payment the request may succeed when retried.
+ */
+public class PaymentUnavailableException extends IllegalStateException {
+    public PaymentUnavailableException(String message) {
+        super(message);
+    }
+
+    public PaymentUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,43 @@
+package com.springproject.hospitalitymanagnet.backend.mapper;
+
+import com.springproject.hospitalitymanagnet.backend.dto.BookingDTO;
+import com.springproject.hospitalitymanagnet.backend.entity.Booking;
+import com.springproject.hospitalitymanagnet.backend.entity.BookingStatus;
+import com.springproject.hospitalitymanagnet.backend.entity.Payment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Booking -> BookingDTO (includes payment details if present).
+ */
+@Component
+public class BookingMapper {
+
+    public BookingDTO toDto(Booking booking) {
+        if (booking == null) return null;
+
+        BookingDTO.BookingDTOBuilder b = BookingDTO.builder()
+                .id(booking.getId())
+                .userId(booking.getUser() != null ? booking.getUser().getId() : null)
+                .roomTypeId(booking.getRoomType() != null ? booking.getRoomType().getId() : null)
+                .roomName(booking.getRoomType() != null ? booking.getRoomType().getName() : null)
+                .checkInDate(booking.getCheckInDate())
+                .checkOutDate(booking.getCheckOutDate())
+                .guests(booking.getGuests())
+                .totalPrice(booking.getTotalPrice())
+                .status(booking.getStatus() != null ? booking.getStatus().name() : null)
+                .holdExpiresAt(booking.getStatus() == BookingStatus.PENDING ? booking.getHoldExpiresAt() : null)
+                .groupId(booking.getGroupId());
+
+        Payment p = booking.getPayment();
+        if (p != null) {
+            b.paymentProviderId(p.getPaymentProviderId());
+            b.paymentStatus(p.getStatus());
+            b.paymentAmount(p.getAmount() != null ? p.getAmount().doubleValue() : null);
+            b.paymentCurrency(p.getCurrency());
+            b.paymentCardLast4(p.getCardLast4());
+            b.paymentProvider(p.getProvider());
+        }
+
+        return b.build();
+    }
+}
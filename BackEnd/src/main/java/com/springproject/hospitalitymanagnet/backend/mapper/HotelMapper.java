@@ -0,0 +1,174 @@
+package com.springproject.hospitalitymanagnet.backend.mapper;
+
+import com.springproject.hospitalitymanagnet.backend.dto.*;
+import com.springproject.hospitalitymanagnet.backend.entity.*;
+import com.springproject.hospitalitymanagnet.backend.repository.HotelRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Hand-written Hotel <-> HotelDTO mapping (replaces the reflective ModelMapper calls).
+ *
+ * toDto() always fills the nested lists (empty instead of null) and expects the collections
+ * to be initialized or loadable, i.e. call it inside the read transaction.
+ */
+@Component
+public class HotelMapper {
+
+    public HotelDTO toDto(Hotel hotel) {
+        if (hotel == null) return null;
+
+        HotelDTO dto = new HotelDTO();
+        dto.setId(hotel.getId());
+        dto.setName(hotel.getName());
+        dto.setLocation(hotel.getLocation());
+        dto.setStarRating(hotel.getStarRating());
+        dto.setContactNumber(hotel.getContactNumber());
+        dto.setDescription(hotel.getDescription());
+        dto.setStatus(hotel.getStatus());
+        dto.setPropertyType(hotel.getPropertyType());
+        dto.setCity(hotel.getCity());
+        dto.setStartingPrice(hotel.getStartingPrice());
+        dto.setAverageRating(hotel.getAverageRating());
+        dto.setLatitude(hotel.getLatitude());
+        dto.setLongitude(hotel.getLongitude());
+
+        dto.setImages(mapList(hotel.getImages(), this::toDto));
+        dto.setRoomTypes(mapList(hotel.getRoomTypes(), this::toDto));
+        dto.setAmenities(mapList(hotel.getAmenities(), this::toDto));
+        dto.setPolicy(toDto(hotel.getPolicy()));
+        return dto;
+    }
+
+    public HotelSummaryDTO toSummary(HotelRepository.HotelSummaryView view) {
+        if (view == null) return null;
+        return new HotelSummaryDTO(view.getId(), view.getName(), view.getCity(),
+                view.getStartingPrice(), view.getAverageRating(), view.getThumbnailUrl());
+    }
+
+    /**
+     * Builds a new (unsaved) Hotel graph from the DTO with all back references set.
+     * Amenities are returned as plain references; the caller resolves them against the DB.
+     */
+    public Hotel toEntity(HotelDTO dto) {
+        if (dto == null) return null;
+
+        Hotel hotel = new Hotel();
+        hotel.setId(dto.getId());
+        hotel.setName(dto.getName());
+        hotel.setLocation(dto.getLocation());
+        hotel.setStarRating(dto.getStarRating());
+        hotel.setContactNumber(dto.getContactNumber());
+        hotel.setDescription(dto.getDescription());
+        hotel.setStatus(dto.getStatus());
+        hotel.setPropertyType(dto.getPropertyType());
+        hotel.setCity(dto.getCity());
+        hotel.setStartingPrice(dto.getStartingPrice());
+        if (dto.getAverageRating() != null) {
+            hotel.setAverageRating(dto.getAverageRating());
+        }
+        hotel.setLatitude(dto.getLatitude());
+        hotel.setLongitude(dto.getLongitude());
+
+        if (dto.getImages() != null) {
+            List<HotelImage> images = new ArrayList<>(dto.getImages().size());
+            for (HotelImageDTO i : dto.getImages()) {
+                images.add(new HotelImage(i.getId(), i.getImageUrl(), hotel));
+            }
+            hotel.setImages(images);
+        }
+        if (dto.getRoomTypes() != null) {
+            List<RoomType> roomTypes = new ArrayList<>(dto.getRoomTypes().size());
+            for (RoomTypeDTO rt : dto.getRoomTypes()) {
+                RoomType entity = toEntity(rt);
+                entity.setHotel(hotel);
+                roomTypes.add(entity);
+            }
+            hotel.setRoomTypes(roomTypes);
+        }
+        if (dto.getAmenities() != null) {
+            hotel.setAmenities(new ArrayList<>(mapList(dto.getAmenities(), this::toEntity)));
+        }
+        if (dto.getPolicy() != null) {
+            Policy policy = toEntity(dto.getPolicy());
+            policy.setHotel(hotel);
+            hotel.setPolicy(policy);
+        }
+        return hotel;
+    }
+
+    public HotelImageDTO toDto(HotelImage image) {
+        return new HotelImageDTO(image.getId(), image.getImageUrl());
+    }
+
+    public RoomTypeDTO toDto(RoomType rt) {
+        RoomTypeDTO dto = new RoomTypeDTO();
+        dto.setId(rt.getId());
+        dto.setName(rt.getName());
+        dto.setBasePrice(rt.getBasePrice());
+        dto.setSpecialPrice(rt.getSpecialPrice());
+        dto.setRoomSize(rt.getRoomSize());
+        dto.setAvailability(rt.getAvailability());
+        dto.setTotalRooms(rt.getTotalRooms());
+        dto.setMaxGuests(rt.getMaxGuests());
+        dto.setHotelId(rt.getHotel() != null ? rt.getHotel().getId() : null);
+        dto.setInclusions(rt.getInclusions());
+        dto.setAmenities(rt.getAmenities());
+        return dto;
+    }
+
+    // Room type without hotel; the caller sets the back reference
+    public RoomType toEntity(RoomTypeDTO dto) {
+        RoomType rt = new RoomType();
+        rt.setId(dto.getId());
+        rt.setName(dto.getName());
+        rt.setBasePrice(dto.getBasePrice());
+        rt.setSpecialPrice(dto.getSpecialPrice());
+        rt.setRoomSize(dto.getRoomSize());
+        rt.setAvailability(dto.getAvailability());
+        if (dto.getTotalRooms() != null) {
+            rt.setTotalRooms(dto.getTotalRooms());
+        }
+        if (dto.getMaxGuests() != null) {
+            rt.setMaxGuests(dto.getMaxGuests());
+        }
+        rt.setInclusions(dto.getInclusions() != null ? new ArrayList<>(dto.getInclusions()) : null);
+        rt.setAmenities(dto.getAmenities() != null ? new ArrayList<>(dto.getAmenities()) : null);
+        return rt;
+    }
+
+    public AmenityDTO toDto(Amenity amenity) {
+        return new AmenityDTO(amenity.getId(), amenity.getName());
+    }
+
+    public Amenity toEntity(AmenityDTO dto) {
+        return new Amenity(dto.getId(), dto.getName());
+    }
+
+    public PolicyDTO toDto(Policy policy) {
+        if (policy == null) return null;
+        return new PolicyDTO(policy.getId(), policy.getCheckInTime(), policy.getCheckOutTime(),
+                policy.getCancellationPolicy(), policy.getAdditionalInfo());
+    }
+
+    // Policy without hotel; the caller sets the back reference
+    public Policy toEntity(PolicyDTO dto) {
+        Policy policy = new Policy();
+        policy.setId(dto.getId());
+        policy.setCheckInTime(dto.getCheckInTime());
+        policy.setCheckOutTime(dto.getCheckOutTime());
+        policy.setCancellationPolicy(dto.getCancellationPolicy());
+        policy.setAdditionalInfo(dto.getAdditionalInfo());
+        return policy;
+    }
+
+    private static <S, T> List<T> mapList(List<S> source, java.util.function.Function<S, T> fn) {
+        if (source == null || source.isEmpty()) return Collections.emptyList();
+        List<T> out = new ArrayList<>(source.size());
+        for (S s : source) out.add(fn.apply(s));
+        return out;
+    }
+}
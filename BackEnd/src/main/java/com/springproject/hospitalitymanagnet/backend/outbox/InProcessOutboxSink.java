@@ -0,0 +1,33 @@
+package com.springproject.hospitalitymanagnet.backend.outbox;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Publishes each event as a Spring application event, for consumers in this application:
+ * an @EventListener method taking an OutboxMessage. Listeners run on the relay thread; one that
+ * throws gets the batch again.
+ */
+@Component
+public class InProcessOutboxSink implements OutboxSink {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public InProcessOutboxSink(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public String name() {
+        return "in-process";
+    }
+
+    @Override
+    public void publish(List<OutboxMessage> batch) {
+        for (OutboxMessage message : batch) {
+            eventPublisher.publishEvent(message);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.springproject.hospitalitymanagnet.backend.outbox;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import java.time.LocalDateTime;
+
+/**
+ * An outbox event as handed to sinks. id grows with every event and, delivery being at least
+ * once, lets a consumer drop an event it has already seen. payload is JSON and is written as
+ * such when the message itself is serialized.
+ */
+public record OutboxMessage(Long id, String aggregateType, Long aggregateId, String eventType,
+                            @JsonRawValue String payload, LocalDateTime createdAt) {
+}
@@ -0,0 +1,168 @@
+package com.springproject.hospitalitymanagnet.backend.outbox;
+
+import com.springproject.hospitalitymanagnet.backend.entity.OutboxEvent;
+import com.springproject.hospitalitymanagnet.backend.repository.OutboxEventRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Moves committed outbox events to the configured sinks (outbox.sinks) on one daemon thread.
+ *
+ * Each run reads the oldest unpublished events in batches, gives every batch to every sink in
+ * event order and only then marks it published. A sink that fails stops the run and the same
+ * batch is sent again on the next one, so delivery is at least once and never out of order:
+ * the events of one booking are written by transactions that follow each other, so they get
+ * increasing ids. Only one instance may relay (outbox.relay.enabled), like the reservation
+ * ledger's write-behind.
+ *
+ * The relay runs every outbox.relay.interval-ms and right after a transaction wrote events.
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private static final long CLEANUP_INTERVAL_MS = 3_600_000;
+
+    private final OutboxEventRepository outboxRepository;
+    private final List<OutboxSink> sinks = new ArrayList<>();
+    private final TransactionTemplate tx;
+    private final boolean enabled;
+    private final long intervalMs;
+    private final int batchSize;
+    private final long retentionHours;
+
+    private ScheduledExecutorService relay;
+    private final AtomicBoolean wakeUpPending = new AtomicBoolean();
+    private final LongAdder published = new LongAdder();
+    private final LongAdder failedRuns = new LongAdder();
+    private volatile long lastCleanup;
+    private volatile String lastError;
+
+    public OutboxRelay(OutboxEventRepository outboxRepository,
+                       List<OutboxSink> availableSinks,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${outbox.sinks:in-process}") List<String> sinkNames,
+                       @Value("${outbox.relay.enabled:true}") boolean enabled,
+                       @Value("${outbox.relay.interval-ms:1000}") long intervalMs,
+                       @Value("${outbox.relay.batch-size:200}") int batchSize,
+                       @Value("${outbox.retention-hours:24}") long retentionHours) {
+        this.outboxRepository = outboxRepository;
+        Map<String, OutboxSink> byName = new TreeMap<>();
+        for (OutboxSink sink : availableSinks) {
+            byName.put(sink.name(), sink);
+        }
+        for (String name : sinkNames) {
+            if (name.isBlank()) continue;
+            OutboxSink sink = byName.get(name.trim());
+            if (sink == null) {
+                throw new IllegalStateException("outbox.sinks: '" + name + "' is not one of " + byName.keySet());
+            }
+            sinks.add(sink);
+        }
+        this.tx = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.intervalMs = Math.max(10, intervalMs);
+        this.batchSize = Math.max(1, batchSize);
+        this.retentionHours = retentionHours;
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) return;
+        relay = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "outbox-relay");
+            t.setDaemon(true);
+            return t;
+        });
+        relay.scheduleWithFixedDelay(this::relay, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (relay == null) return;
+        relay.shutdown();
+        relay.awaitTermination(10, TimeUnit.SECONDS);
+        relay();
+    }
+
+    /** Asks for a run soon; called once a transaction that wrote events has committed. */
+    public void wakeUp() {
+        if (relay == null || !wakeUpPending.compareAndSet(false, true)) return;
+        try {
+            relay.execute(() -> {
+                wakeUpPending.set(false);
+                relay();
+            });
+        } catch (RuntimeException e) {
+            // shutting down; stop() relays what is left
+            wakeUpPending.set(false);
+        }
+    }
+
+    /** Publishes everything unpublished, batch by batch, until done or a sink fails. */
+    synchronized void relay() {
+        try {
+            List<OutboxEvent> batch;
+            do {
+                batch = outboxRepository.findUnpublished(PageRequest.of(0, batchSize));
+                if (batch.isEmpty()) break;
+                List<OutboxMessage> messages = new ArrayList<>(batch.size());
+                List<Long> ids = new ArrayList<>(batch.size());
+                for (OutboxEvent e : batch) {
+                    messages.add(new OutboxMessage(e.getId(), e.getAggregateType(), e.getAggregateId(),
+                            e.getEventType(), e.getPayload(), e.getCreatedAt()));
+                    ids.add(e.getId());
+                }
+                for (OutboxSink sink : sinks) {
+                    sink.publish(messages);
+                }
+                tx.executeWithoutResult(status -> outboxRepository.markPublished(ids, LocalDateTime.now()));
+                published.add(ids.size());
+            } while (batch.size() == batchSize);
+            lastError = null;
+            cleanUpIfDue();
+        } catch (Exception e) {
+            // the batch stays unpublished and is sent again on the next run
+            failedRuns.increment();
+            lastError = e.getMessage();
+            logger.warn("Outbox relay failed, retrying in {} ms: {}", intervalMs, e.getMessage());
+        }
+    }
+
+    private void cleanUpIfDue() {
+        long now = System.currentTimeMillis();
+        if (now - lastCleanup < CLEANUP_INTERVAL_MS) return;
+        lastCleanup = now;
+        Integer removed = tx.execute(status ->
+                outboxRepository.deletePublishedBefore(LocalDateTime.now().minusHours(retentionHours)));
+        if (removed != null && removed > 0) logger.info("Removed {} published outbox events", removed);
+    }
+
+    /** Sinks, events published since startup, failed runs and the backlog. */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("sinks", sinks.stream().map(OutboxSink::name).toList());
+        stats.put("published", published.sum());
+        stats.put("failedRuns", failedRuns.sum());
+        stats.put("unpublished", outboxRepository.countUnpublished());
+        stats.put("lastError", lastError);
+        return stats;
+    }
+}
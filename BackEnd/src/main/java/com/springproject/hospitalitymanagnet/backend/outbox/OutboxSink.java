@@ -0,0 +1,17 @@
+package com.springproject.hospitalitymanagnet.backend.outbox;
+
+import java.util.List;
+
+/**
+ * A destination of outbox events. Every OutboxSink bean is picked up by OutboxRelay under its
+ * name(); outbox.sinks selects the ones events are sent to.
+ *
+ * publish() gets each batch in event order and returns once the sink holds it; throwing makes
+ * the relay send the same batch again later, so a sink may see an event more than once.
+ */
+public interface OutboxSink {
+
+    String name();
+
+    void publish(List<OutboxMessage> batch) throws Exception;
+}
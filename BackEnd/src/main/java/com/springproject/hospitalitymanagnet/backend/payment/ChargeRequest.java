@@ -0,0 +1,12 @@
+package com.springproject.hospitalitymanagnet.backend.payment;
+
+import com.springproject.hospitalitymanagnet.backend.dto.BookingApiRequestDTO;
+
+import java.math.BigDecimal;
+
+/**
+ * One charge as sent to a PaymentGateway. reference is our id of the charge (e.g. "booking-42")
+ * and doubles as the provider's idempotency key.
+ */
+public record ChargeRequest(String reference, BigDecimal amount, String currency, BookingApiRequestDTO.Payment details) {
+}
@@ -0,0 +1,21 @@
+package com.springproject.hospitalitymanagnet.backend.payment;
+
+import com.springproject.hospitalitymanagnet.backend.dto.PaymentResultDTO;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A payment provider. Every PaymentGateway bean is picked up by PaymentServiceImpl under its
+ * name(); payment.provider selects the one used for charges.
+ *
+ * charge() must not block the caller: it returns at once and completes the future with the
+ * provider's answer, a decline being a result with status FAILED. The future completes
+ * exceptionally only when the provider could not be asked or did not answer. A charge repeated
+ * with the same reference must not charge twice.
+ */
+public interface PaymentGateway {
+
+    String name();
+
+    CompletableFuture<PaymentResultDTO> charge(ChargeRequest request);
+}
@@ -0,0 +1,113 @@
+package com.springproject.hospitalitymanagnet.backend.payment;
+
+import com.springproject.hospitalitymanagnet.backend.dto.PaymentResultDTO;
+import com.springproject.hospitalitymanagnet.backend.util.BoundedTtlCache;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local stand-in for a card provider: answers after a configurable latency and can be made to
+ * misbehave, either at random (payment.stub.*-rate) or on purpose through the card token:
+ * a token containing "decline" is declined, "error" fails the call and "hang" never answers.
+ *
+ * Answers are timed on a scheduler, so a slow charge ties up no thread while it waits. Like a
+ * real provider it remembers charges by reference for a day and answers a repeat with the
+ * first result.
+ */
+@Component
+public class StubPaymentGateway implements PaymentGateway {
+
+    private final long latencyMs;
+    private final long jitterMs;
+    private final double declineRate;
+    private final double errorRate;
+    private final double hangRate;
+    private final ScheduledExecutorService scheduler;
+    private final BoundedTtlCache<String, CompletableFuture<PaymentResultDTO>> charges =
+            new BoundedTtlCache<>(100_000, TimeUnit.DAYS.toMillis(1));
+
+    public StubPaymentGateway(@Value("${payment.stub.latency-ms:150}") long latencyMs,
+                              @Value("${payment.stub.jitter-ms:100}") long jitterMs,
+                              @Value("${payment.stub.decline-rate:0}") double declineRate,
+                              @Value("${payment.stub.error-rate:0}") double errorRate,
+                              @Value("${payment.stub.hang-rate:0}") double hangRate) {
+        this.latencyMs = Math.max(0, latencyMs);
+        this.jitterMs = Math.max(0, jitterMs);
+        this.declineRate = declineRate;
+        this.errorRate = errorRate;
+        this.hangRate = hangRate;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "payment-stub");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    @Override
+    public String name() {
+        return "stub";
+    }
+
+    @Override
+    public CompletableFuture<PaymentResultDTO> charge(ChargeRequest request) {
+        CompletableFuture<PaymentResultDTO> answer;
+        synchronized (charges) {
+            answer = request.reference() != null ? charges.get(request.reference()) : null;
+            if (answer != null) return answer;
+            answer = new CompletableFuture<>();
+            if (request.reference() != null) charges.put(request.reference(), answer);
+        }
+
+        String token = request.details() != null && request.details().getToken() != null
+                ? request.details().getToken().toLowerCase() : "";
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double roll = random.nextDouble();
+        if (token.contains("hang") || roll < hangRate) return answer;
+
+        boolean error = token.contains("error") || roll < hangRate + errorRate;
+        boolean declined = token.contains("decline") || roll < hangRate + errorRate + declineRate;
+        CompletableFuture<PaymentResultDTO> pending = answer;
+        scheduler.schedule(() -> {
+            if (error) {
+                // nothing was charged: a retry with the same reference asks again
+                synchronized (charges) {
+                    if (request.reference() != null) charges.invalidate(request.reference());
+                }
+                pending.completeExceptionally(new IllegalStateException("stub provider error"));
+            } else {
+                pending.complete(result(request, declined));
+            }
+        }, latencyMs + (jitterMs > 0 ? random.nextLong(jitterMs + 1) : 0), TimeUnit.MILLISECONDS);
+        return answer;
+    }
+
+    private PaymentResultDTO result(ChargeRequest request, boolean declined) {
+        String last4 = null;
+        if (request.details() != null && request.details().getToken() != null) {
+            String digits = request.details().getToken().replaceAll("\\D+", "");
+            if (digits.length() >= 4) last4 = digits.substring(digits.length() - 4);
+        }
+        PaymentResultDTO res = new PaymentResultDTO();
+        res.setPaymentId("STUB-" + UUID.randomUUID());
+        res.setStatus(declined ? "FAILED" : "SUCCESS");
+        res.setProvider(name());
+        res.setMethod(request.details() != null && request.details().getToken() != null ? "card" : "unknown");
+        res.setCardLast4(last4);
+        res.setMessage(declined ? "Card declined" : "Stub payment processed successfully");
+        res.setCurrency(request.currency());
+        return res;
+    }
+}
@@ -4,7 +4,11 @@ import com.springproject.hospitalitymanagnet.backend.entity.Amenity;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface AmenityRepository extends JpaRepository<Amenity, Integer> {
-    // You can add custom queries here if needed
+
+    List<Amenity> findByNameIn(Collection<String> names);
 }
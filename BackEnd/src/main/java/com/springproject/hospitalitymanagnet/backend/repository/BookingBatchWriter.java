@@ -0,0 +1,58 @@
+package com.springproject.hospitalitymanagnet.backend.repository;
+
+import com.springproject.hospitalitymanagnet.backend.entity.Booking;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Plain JDBC batch insert of the bookings of a group, for the same reason as HotelBatchWriter:
+ * Hibernate inserts IDENTITY entities one statement at a time. The given entities get their
+ * generated ids and stay detached. Must be called inside a transaction.
+ */
+@Repository
+public class BookingBatchWriter {
+
+    private static final String INSERT_BOOKING =
+            "insert into bookings (check_in_date, check_out_date, guests, total_price, status, hold_expires_at,"
+                    + " group_id, version, user_id, room_type_id) values (?, ?, ?, ?, ?, ?, ?, 0, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public BookingBatchWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void insert(List<Booking> bookings) {
+        if (bookings.isEmpty()) return;
+        jdbcTemplate.execute((ConnectionCallback<Void>) con -> {
+            try (PreparedStatement ps = con.prepareStatement(INSERT_BOOKING, Statement.RETURN_GENERATED_KEYS)) {
+                for (Booking b : bookings) {
+                    new ArgumentPreparedStatementSetter(new Object[]{
+                            b.getCheckInDate(), b.getCheckOutDate(), b.getGuests(), b.getTotalPrice(),
+                            b.getStatus().name(), b.getHoldExpiresAt(), b.getGroupId(),
+                            b.getUser().getId(), b.getRoomType().getId()
+                    }).setValues(ps);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    for (Booking b : bookings) {
+                        if (!keys.next()) {
+                            throw new IllegalStateException("JDBC driver returned fewer generated keys than rows");
+                        }
+                        b.setId(keys.getLong(1));
+                        b.setVersion(0L);
+                    }
+                }
+            }
+            return null;
+        });
+    }
+}
@@ -3,7 +3,14 @@ package com.springproject.hospitalitymanagnet.backend.repository;
 import com.springproject.hospitalitymanagnet.backend.entity.Booking;
 import com.springproject.hospitalitymanagnet.backend.entity.BookingStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
     // Find bookings by user (used by service)
@@ -17,4 +24,39 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
 
     // <-- NEW: check for any bookings referencing a room type (regardless of status)
     boolean existsByRoomTypeId(Integer roomTypeId);
+
+    // Room type and dates of every booking still holding inventory (not cancelled, not checked out before `from`)
+    @Query("select b.id as id, b.roomType.id as roomTypeId, b.checkInDate as checkInDate, b.checkOutDate as checkOutDate " +
+            "from Booking b where b.status <> com.springproject.hospitalitymanagnet.backend.entity.BookingStatus.CANCELLED " +
+            "and b.roomType is not null and b.checkOutDate > :from")
+    List<StayView> findActiveStaysFrom(@Param("from") LocalDate from);
+
+    interface StayView {
+        Long getId();
+
+        Integer getRoomTypeId();
+
+        LocalDate getCheckInDate();
+
+        LocalDate getCheckOutDate();
+    }
+
+    // Unpaid holds still waiting to be confirmed or released
+    @Query("select b.id as id, b.holdExpiresAt as holdExpiresAt from Booking b " +
+            "where b.status = com.springproject.hospitalitymanagnet.backend.entity.BookingStatus.PENDING " +
+            "and b.holdExpiresAt is not null")
+    List<HoldView> findOpenHolds();
+
+    // the bookings of a group booking, lead booking first
+    List<Booking> findByGroupIdOrderByIdAsc(String groupId);
+
+    interface HoldView {
+        Long getId();
+
+        LocalDateTime getHoldExpiresAt();
+    }
+
+    // Batch variant of existsByRoomTypeId: the ids among the given ones that any booking references
+    @Query("select distinct b.roomType.id from Booking b where b.roomType.id in :roomTypeIds")
+    Set<Integer> findBookedRoomTypeIds(@Param("roomTypeIds") Collection<Integer> roomTypeIds);
 }
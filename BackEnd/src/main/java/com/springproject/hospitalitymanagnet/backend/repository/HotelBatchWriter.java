@@ -0,0 +1,139 @@
+package com.springproject.hospitalitymanagnet.backend.repository;
+
+import com.springproject.hospitalitymanagnet.backend.dto.*;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Plain JDBC batch inserts for the bulk hotel import.
+ *
+ * Hibernate does not batch inserts of IDENTITY entities (it needs each id right away), so the
+ * import writes the rows itself: one batch per table and chunk, with generated keys read back
+ * from the batch (MySQL returns them for rewritten multi-row inserts when the URL sets
+ * rewriteBatchedStatements=true). Column names follow the JPA mapping of the entities.
+ * Must be called inside a transaction; nothing here touches the persistence context.
+ */
+@Repository
+public class HotelBatchWriter {
+
+    private static final String INSERT_HOTEL =
+            "insert into hotels (name, location, star_rating, contact_number, description, status, property_type,"
+                    + " city, starting_price, average_rating, latitude, longitude, version)"
+                    + " values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+    private static final String INSERT_HOTEL_AMENITY =
+            "insert into hotel_amenities (hotel_id, amenity_id) values (?, ?)";
+    private static final String INSERT_IMAGE =
+            "insert into hotel_images (image_url, hotel_id) values (?, ?)";
+    private static final String INSERT_POLICY =
+            "insert into policies (check_in_time, check_out_time, cancellation_policy, additional_info, hotel_id)"
+                    + " values (?, ?, ?, ?, ?)";
+    private static final String INSERT_ROOM_TYPE =
+            "insert into room_types (name, base_price, special_price, room_size, availability, total_rooms,"
+                    + " max_guests, version, hotel_id) values (?, ?, ?, ?, ?, ?, ?, 0, ?)";
+    private static final String INSERT_ROOM_INCLUSION =
+            "insert into room_inclusions (room_id, inclusion) values (?, ?)";
+    private static final String INSERT_ROOM_AMENITY =
+            "insert into room_amenities (room_id, amenity) values (?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public HotelBatchWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Inserts the hotels with their amenity links, images, policy and room types. The generated
+     * hotel and room type ids are set on the given DTOs. Amenities must already exist (have ids).
+     */
+    public void insert(List<HotelDTO> hotels) {
+        if (hotels.isEmpty()) return;
+        insertReturningIds(INSERT_HOTEL, hotels, h -> new Object[]{
+                h.getName(), h.getLocation(), h.getStarRating(), h.getContactNumber(), h.getDescription(),
+                h.getStatus(), h.getPropertyType(), h.getCity(), h.getStartingPrice(),
+                h.getAverageRating() != null ? h.getAverageRating() : 0.0, h.getLatitude(), h.getLongitude()
+        }, HotelDTO::setId);
+
+        List<Object[]> amenityLinks = new ArrayList<>();
+        List<Object[]> images = new ArrayList<>();
+        List<Object[]> policies = new ArrayList<>();
+        List<RoomTypeDTO> roomTypes = new ArrayList<>();
+        for (HotelDTO h : hotels) {
+            if (h.getAmenities() != null) {
+                for (AmenityDTO a : h.getAmenities()) amenityLinks.add(new Object[]{h.getId(), a.getId()});
+            }
+            if (h.getImages() != null) {
+                for (HotelImageDTO i : h.getImages()) images.add(new Object[]{i.getImageUrl(), h.getId()});
+            }
+            PolicyDTO p = h.getPolicy();
+            if (p != null) {
+                policies.add(new Object[]{p.getCheckInTime(), p.getCheckOutTime(), p.getCancellationPolicy(),
+                        p.getAdditionalInfo(), h.getId()});
+            }
+            if (h.getRoomTypes() != null) {
+                for (RoomTypeDTO rt : h.getRoomTypes()) {
+                    rt.setHotelId(h.getId());
+                    roomTypes.add(rt);
+                }
+            }
+        }
+        batch(INSERT_HOTEL_AMENITY, amenityLinks);
+        batch(INSERT_IMAGE, images);
+        batch(INSERT_POLICY, policies);
+
+        insertReturningIds(INSERT_ROOM_TYPE, roomTypes, rt -> new Object[]{
+                rt.getName(), rt.getBasePrice(), rt.getSpecialPrice(), rt.getRoomSize(), rt.getAvailability(),
+                rt.getTotalRooms() != null ? rt.getTotalRooms() : 1,
+                rt.getMaxGuests() != null ? rt.getMaxGuests() : 2, rt.getHotelId()
+        }, RoomTypeDTO::setId);
+
+        List<Object[]> inclusions = new ArrayList<>();
+        List<Object[]> roomAmenities = new ArrayList<>();
+        for (RoomTypeDTO rt : roomTypes) {
+            if (rt.getInclusions() != null) {
+                for (String s : rt.getInclusions()) inclusions.add(new Object[]{rt.getId(), s});
+            }
+            if (rt.getAmenities() != null) {
+                for (String s : rt.getAmenities()) roomAmenities.add(new Object[]{rt.getId(), s});
+            }
+        }
+        batch(INSERT_ROOM_INCLUSION, inclusions);
+        batch(INSERT_ROOM_AMENITY, roomAmenities);
+    }
+
+    private void batch(String sql, List<Object[]> rows) {
+        if (!rows.isEmpty()) jdbcTemplate.batchUpdate(sql, rows);
+    }
+
+    private <T> void insertReturningIds(String sql, List<T> rows, Function<T, Object[]> values,
+                                        BiConsumer<T, Integer> idSetter) {
+        if (rows.isEmpty()) return;
+        jdbcTemplate.execute((ConnectionCallback<Void>) con -> {
+            try (PreparedStatement ps = con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                for (T row : rows) {
+                    new ArgumentPreparedStatementSetter(values.apply(row)).setValues(ps);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    for (T row : rows) {
+                        if (!keys.next()) {
+                            throw new IllegalStateException("JDBC driver returned fewer generated keys than rows");
+                        }
+                        idSetter.accept(row, keys.getInt(1));
+                    }
+                }
+            }
+            return null;
+        });
+    }
+}
@@ -2,11 +2,17 @@ package com.springproject.hospitalitymanagnet.backend.repository;
 
 
 import com.springproject.hospitalitymanagnet.backend.entity.Hotel;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-public interface HotelRepository extends JpaRepository<Hotel, Integer> {
+public interface HotelRepository extends JpaRepository<Hotel, Integer>, HotelRepositoryCustom {
 
     List<Hotel> findByStatusIgnoreCase(String status);
     List<Hotel> findByStatus(String status);
@@ -14,4 +20,79 @@ public interface HotelRepository extends JpaRepository<Hotel, Integer> {
     List<Hotel> findByPropertyTypeIgnoreCase(String propertyType);
     List<Hotel> findByCityIgnoreCaseAndPropertyTypeIgnoreCase(String city, String propertyType);
 
+    // ---- Listing read path ----
+    // Root queries fetch the policy (inverse one-to-one, otherwise loaded one-by-one) and the images bag.
+    // The remaining collections are filled in by HotelRepositoryCustom.fetchListingGraph(...).
+    // Filters are plain equality so the hotels indexes serve them; the columns' case-insensitive
+    // (_ci) collation makes "active" match "ACTIVE", as on every other listing path.
+
+    @Query("select distinct h from Hotel h left join fetch h.policy left join fetch h.images")
+    List<Hotel> findAllForListing();
+
+    @Query("select distinct h from Hotel h left join fetch h.policy left join fetch h.images " +
+            "where h.status = :status")
+    List<Hotel> findByStatusForListing(@Param("status") String status);
+
+    @Query("select distinct h from Hotel h left join fetch h.policy left join fetch h.images " +
+            "where (:city is null or h.city = :city) " +
+            "and (:propertyType is null or h.propertyType = :propertyType)")
+    List<Hotel> searchForListing(@Param("city") String city, @Param("propertyType") String propertyType);
+
+    @Query("select distinct h from Hotel h left join fetch h.policy left join fetch h.images where h.id in :ids")
+    List<Hotel> findByIdInForListing(@Param("ids") Collection<Integer> ids);
+
+    // ---- Summary projection (listing cards) ----
+    // One row per hotel with scalar columns and the first image as thumbnail; no collection is loaded.
+
+    String SUMMARY_SELECT = "select h.id as id, h.name as name, h.city as city, h.startingPrice as startingPrice, " +
+            "h.averageRating as averageRating, " +
+            "(select i.imageUrl from HotelImage i where i.id = " +
+            "(select min(i2.id) from HotelImage i2 where i2.hotel = h)) as thumbnailUrl " +
+            "from Hotel h ";
+
+    @Query(SUMMARY_SELECT +
+            "where (:status is null or h.status = :status) " +
+            "and (:city is null or h.city = :city) " +
+            "and (:propertyType is null or h.propertyType = :propertyType) " +
+            "order by h.id")
+    List<HotelSummaryView> findSummaries(@Param("status") String status,
+                                         @Param("city") String city,
+                                         @Param("propertyType") String propertyType);
+
+    @Query(SUMMARY_SELECT + "where h.id in :ids")
+    List<HotelSummaryView> findSummariesByIdIn(@Param("ids") Collection<Integer> ids);
+
+    interface HotelSummaryView {
+        Integer getId();
+        String getName();
+        String getCity();
+        Double getStartingPrice();
+        Double getAverageRating();
+        String getThumbnailUrl();
+    }
+
+    // Loads the hotel for an update and bumps its version on commit even if only
+    // inverse-side data (policy, images, room types) changes, so the ETag always moves.
+    @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+    @Query("select h from Hotel h where h.id = :id")
+    Optional<Hotel> findByIdForWrite(@Param("id") Integer id);
+
+    // Everything the hotel ETag is derived from, without loading the entity graph
+    @Query("select h.id as id, h.version as version, count(r) as roomTypeCount, " +
+            "coalesce(sum(r.version), 0) as roomTypeVersionSum " +
+            "from Hotel h left join h.roomTypes r where h.id = :id group by h.id, h.version")
+    Optional<HotelVersionView> findVersionViewById(@Param("id") Integer id);
+
+    @Query("select h.id as id, h.version as version, count(r) as roomTypeCount, " +
+            "coalesce(sum(r.version), 0) as roomTypeVersionSum " +
+            "from Hotel h left join h.roomTypes r where h.id in :ids group by h.id, h.version")
+    List<HotelVersionView> findVersionViewsByIdIn(@Param("ids") Collection<Integer> ids);
+
+    interface HotelVersionView {
+        Integer getId();
+        Long getVersion();
+        Long getRoomTypeCount();
+        Long getRoomTypeVersionSum();
+    }
+
 }
@@ -0,0 +1,26 @@
+package com.springproject.hospitalitymanagnet.backend.repository;
+
+import com.springproject.hospitalitymanagnet.backend.entity.Hotel;
+import com.springproject.hospitalitymanagnet.backend.util.HotelCursor;
+
+import java.util.List;
+
+/**
+ * Custom HotelRepository fragment for read paths that need more than one query.
+ */
+public interface HotelRepositoryCustom {
+
+    /**
+     * Initializes roomTypes (with their inclusions/amenities) and amenities for the given hotels
+     * using a fixed number of queries, independent of how many hotels are passed in.
+     * Hotels must come from one of the *ForListing queries so images and policy are already fetched.
+     */
+    List<Hotel> fetchListingGraph(List<Hotel> hotels);
+
+    /**
+     * Keyset page of hotel ids matching the criteria, ordered by (sort key, id) and starting strictly
+     * after the given cursor (null for the first page). Uses a seek predicate instead of OFFSET, so
+     * deep pages cost the same as the first one. Every filter is part of the one SQL statement.
+     */
+    List<Integer> findPageIds(HotelSearchCriteria criteria, HotelCursor after, int limit);
+}
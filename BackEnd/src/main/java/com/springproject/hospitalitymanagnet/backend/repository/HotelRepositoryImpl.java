@@ -0,0 +1,122 @@
+package com.springproject.hospitalitymanagnet.backend.repository;
+
+import com.springproject.hospitalitymanagnet.backend.entity.Hotel;
+import com.springproject.hospitalitymanagnet.backend.util.HotelCursor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class HotelRepositoryImpl implements HotelRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public List<Hotel> fetchListingGraph(List<Hotel> hotels) {
+        if (hotels == null || hotels.isEmpty()) {
+            return hotels;
+        }
+        List<Integer> ids = hotels.stream().map(Hotel::getId).toList();
+
+        // Each query fetches a single bag so Hibernate never has to build a cartesian product.
+        // Results land in the same persistence context, which initializes the collections on the
+        // already-loaded hotel / room type instances.
+        em.createQuery("select distinct h from Hotel h left join fetch h.roomTypes where h.id in :ids", Hotel.class)
+                .setParameter("ids", ids)
+                .getResultList();
+
+        em.createQuery("select distinct h from Hotel h left join fetch h.amenities where h.id in :ids", Hotel.class)
+                .setParameter("ids", ids)
+                .getResultList();
+
+        em.createQuery("select distinct r from RoomType r left join fetch r.inclusions where r.hotel.id in :ids")
+                .setParameter("ids", ids)
+                .getResultList();
+
+        em.createQuery("select distinct r from RoomType r left join fetch r.amenities where r.hotel.id in :ids")
+                .setParameter("ids", ids)
+                .getResultList();
+
+        return hotels;
+    }
+
+    @Override
+    public List<Integer> findPageIds(HotelSearchCriteria criteria, HotelCursor after, int limit) {
+        HotelSortKey sort = criteria.getSort() != null ? criteria.getSort() : HotelSortKey.ID;
+        List<String> where = new ArrayList<>();
+        Map<String, Object> params = new HashMap<>();
+
+        // Plain equality like findByStatusForListing/findSummaries: the (_ci) collation makes it
+        // case-insensitive and the status/city/type indexes stay usable for the keyset scan.
+        if (criteria.getStatus() != null) {
+            where.add("h.status = :status");
+            params.put("status", criteria.getStatus());
+        }
+        if (criteria.getCity() != null) {
+            where.add("h.city = :city");
+            params.put("city", criteria.getCity());
+        }
+        if (criteria.getPropertyType() != null) {
+            where.add("h.propertyType = :propertyType");
+            params.put("propertyType", criteria.getPropertyType());
+        }
+        if (criteria.getMinPrice() != null) {
+            where.add("h.startingPrice >= :minPrice");
+            params.put("minPrice", criteria.getMinPrice());
+        }
+        if (criteria.getMaxPrice() != null) {
+            where.add("h.startingPrice <= :maxPrice");
+            params.put("maxPrice", criteria.getMaxPrice());
+        }
+        if (criteria.getMinStarRating() != null) {
+            where.add("h.starRating >= :minStarRating");
+            params.put("minStarRating", criteria.getMinStarRating());
+        }
+        if (criteria.getMinAverageRating() != null) {
+            where.add("h.averageRating >= :minAverageRating");
+            params.put("minAverageRating", criteria.getMinAverageRating());
+        }
+        if (criteria.getAmenityIds() != null && !criteria.getAmenityIds().isEmpty()) {
+            // hotels holding all requested amenities: one grouped pass over the
+            // (amenity_id, hotel_id) index instead of one EXISTS per amenity
+            Set<Integer> amenityIds = new HashSet<>(criteria.getAmenityIds());
+            where.add("h.id in (select ha.id from Hotel ha join ha.amenities am where am.id in :amenityIds " +
+                    "group by ha.id having count(distinct am.id) = :amenityCount)");
+            params.put("amenityIds", amenityIds);
+            params.put("amenityCount", (long) amenityIds.size());
+        }
+
+        if (after != null) {
+            params.put("lastId", after.lastId());
+            if (sort == HotelSortKey.ID) {
+                where.add("h.id > :lastId");
+            } else {
+                String key = "h." + sort.getProperty();
+                // ascending order puts NULL keys first
+                if (after.value() == null) {
+                    where.add("((" + key + " is null and h.id > :lastId) or " + key + " is not null)");
+                } else {
+                    where.add("(" + key + " > :lastValue or (" + key + " = :lastValue and h.id > :lastId))");
+                    params.put("lastValue", after.value());
+                }
+            }
+        }
+
+        StringBuilder jpql = new StringBuilder("select h.id from Hotel h");
+        if (!where.isEmpty()) {
+            jpql.append(" where ").append(String.join(" and ", where));
+        }
+        jpql.append(sort == HotelSortKey.ID ? " order by h.id" : " order by h." + sort.getProperty() + ", h.id");
+
+        TypedQuery<Integer> query = em.createQuery(jpql.toString(), Integer.class);
+        params.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+}
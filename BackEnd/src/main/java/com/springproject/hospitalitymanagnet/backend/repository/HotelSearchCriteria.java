@@ -0,0 +1,33 @@
+package com.springproject.hospitalitymanagnet.backend.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Filters and sort order for the keyset-paginated hotel listing (see HotelRepositoryCustom.findPageIds).
+ * Null fields are ignored; all non-null ones must hold (AND).
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class HotelSearchCriteria {
+    private String status;
+    private String city;
+    private String propertyType;
+
+    // inclusive startingPrice range
+    private Double minPrice;
+    private Double maxPrice;
+    private Integer minStarRating;
+    private Double minAverageRating;
+    // the hotel must have every one of these amenities
+    private List<Integer> amenityIds;
+
+    @Builder.Default
+    private HotelSortKey sort = HotelSortKey.ID;
+}
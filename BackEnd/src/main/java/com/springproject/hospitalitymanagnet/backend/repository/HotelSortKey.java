@@ -0,0 +1,56 @@
+package com.springproject.hospitalitymanagnet.backend.repository;
+
+import com.springproject.hospitalitymanagnet.backend.entity.Hotel;
+
+import java.util.function.Function;
+
+/**
+ * Sort keys supported by the keyset listing. Every key is paired with the hotel id as tie breaker,
+ * so (key, id) is unique and a page can resume strictly after the last row of the previous one.
+ */
+public enum HotelSortKey {
+    ID("id", null, null),
+    NAME("name", Hotel::getName, HotelRepository.HotelSummaryView::getName),
+    PRICE("startingPrice", Hotel::getStartingPrice, HotelRepository.HotelSummaryView::getStartingPrice);
+
+    private final String property;
+    private final Function<Hotel, Object> extractor;
+    private final Function<HotelRepository.HotelSummaryView, Object> summaryExtractor;
+
+    HotelSortKey(String property, Function<Hotel, Object> extractor,
+                 Function<HotelRepository.HotelSummaryView, Object> summaryExtractor) {
+        this.property = property;
+        this.extractor = extractor;
+        this.summaryExtractor = summaryExtractor;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    /** Value of this key for the given hotel, or null for ID (the id itself is carried separately). */
+    public Object valueOf(Hotel hotel) {
+        return extractor != null ? extractor.apply(hotel) : null;
+    }
+
+    /** Same as valueOf(Hotel), for rows of the summary projection. */
+    public Object valueOf(HotelRepository.HotelSummaryView summary) {
+        return summaryExtractor != null ? summaryExtractor.apply(summary) : null;
+    }
+
+    /** Parses the value stored in a cursor back into the attribute type. */
+    public Object parse(String raw) {
+        if (raw == null) return null;
+        return this == PRICE ? Double.valueOf(raw) : raw;
+    }
+
+    public static HotelSortKey from(String value) {
+        if (value == null || value.isBlank()) return ID;
+        for (HotelSortKey key : values()) {
+            if (key.name().equalsIgnoreCase(value) || key.property.equalsIgnoreCase(value)) {
+                return key;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported sort key: " + value);
+    }
+}
@@ -0,0 +1,49 @@
+package com.springproject.hospitalitymanagnet.backend.repository;
+
+import com.springproject.hospitalitymanagnet.backend.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+
+    Optional<IdempotencyRecord> findByScopeAndIdempotencyKey(String scope, String idempotencyKey);
+
+    @Modifying
+    @Query("update IdempotencyRecord r set r.response = :response where r.id = :id and r.response is null")
+    int complete(@Param("id") Long id, @Param("response") String response);
+
+    // Runs in the transaction of the work that created the resource
+    @Modifying
+    @Query("update IdempotencyRecord r set r.resourceId = :resourceId where r.id = :id and r.response is null")
+    int attachResource(@Param("id") Long id, @Param("resourceId") Long resourceId);
+
+    // Takes over a claim whose instance stopped before finishing; only one caller can win it
+    @Modifying
+    @Query("update IdempotencyRecord r set r.claimedAt = :now " +
+            "where r.id = :id and r.claimedAt = :claimedAt and r.response is null")
+    int takeOver(@Param("id") Long id,
+                 @Param("claimedAt") LocalDateTime claimedAt,
+                 @Param("now") LocalDateTime now);
+
+    // Ends the lease of a claim whose work failed but may have left something in flight, so the
+    // next request with the key takes it over at once and resumes from its resource
+    @Modifying
+    @Query("update IdempotencyRecord r set r.claimedAt = :claimedAt where r.id = :id and r.response is null")
+    int reopen(@Param("id") Long id, @Param("claimedAt") LocalDateTime claimedAt);
+
+    // Gives up a claim whose work failed, so the key can be used again
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.id = :id and r.response is null")
+    int release(@Param("id") Long id);
+
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
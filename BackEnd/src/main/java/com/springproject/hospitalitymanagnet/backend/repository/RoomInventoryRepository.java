@@ -0,0 +1,96 @@
+package com.springproject.hospitalitymanagnet.backend.repository;
+
+import com.springproject.hospitalitymanagnet.backend.entity.RoomInventory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface RoomInventoryRepository extends JpaRepository<RoomInventory, Long> {
+
+    @Query("select i.stayDate from RoomInventory i where i.roomType.id = :roomTypeId " +
+            "and i.stayDate >= :from and i.stayDate < :to")
+    List<LocalDate> findStayDates(@Param("roomTypeId") Integer roomTypeId,
+                                  @Param("from") LocalDate from,
+                                  @Param("to") LocalDate to);
+
+    // Takes `units` on every night of [from, to) that still has them; returns the number of nights
+    // updated. Fewer than the number of nights means the stay does not fit and the caller must
+    // roll back. Only the rows of those nights are locked.
+    @Modifying(flushAutomatically = true)
+    @Query("update RoomInventory i set i.sold = i.sold + :units where i.roomType.id = :roomTypeId " +
+            "and i.stayDate >= :from and i.stayDate < :to and i.sold + :units <= i.total")
+    int reserve(@Param("roomTypeId") Integer roomTypeId,
+                @Param("from") LocalDate from,
+                @Param("to") LocalDate to,
+                @Param("units") int units);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update RoomInventory i set i.sold = i.sold - :units where i.roomType.id = :roomTypeId " +
+            "and i.stayDate >= :from and i.stayDate < :to and i.sold >= :units")
+    int release(@Param("roomTypeId") Integer roomTypeId,
+                @Param("from") LocalDate from,
+                @Param("to") LocalDate to,
+                @Param("units") int units);
+
+    // Write-behind of the reservation ledger: the ledger already decided, so no capacity condition
+    @Modifying
+    @Query("update RoomInventory i set i.sold = i.sold + :delta where i.roomType.id = :roomTypeId and i.stayDate = :stayDate")
+    int addSold(@Param("roomTypeId") Integer roomTypeId,
+                @Param("stayDate") LocalDate stayDate,
+                @Param("delta") int delta);
+
+    // Applies a new RoomType.totalRooms to the nights from `from` on. A night never drops below
+    // what it has already sold: it just stays full until enough stays are cancelled.
+    @Modifying
+    @Query("update RoomInventory i set i.total = case when i.sold > :total then i.sold else :total end " +
+            "where i.roomType.id = :roomTypeId and i.stayDate >= :from")
+    int resize(@Param("roomTypeId") Integer roomTypeId,
+               @Param("from") LocalDate from,
+               @Param("total") int total);
+
+    // Sold nights of every room type in [from, to), for the in-memory availability index
+    @Query("select i.roomType.id as roomTypeId, i.stayDate as stayDate, i.sold as sold from RoomInventory i " +
+            "where i.sold > 0 and i.stayDate >= :from and i.stayDate < :to")
+    List<SoldNightView> findSoldNights(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("select i.roomType.id as roomTypeId, i.stayDate as stayDate, i.sold as sold from RoomInventory i " +
+            "where i.roomType.id = :roomTypeId and i.stayDate >= :from and i.stayDate < :to")
+    List<SoldNightView> findSoldNights(@Param("roomTypeId") Integer roomTypeId,
+                                       @Param("from") LocalDate from,
+                                       @Param("to") LocalDate to);
+
+    @Modifying
+    @Query("delete from RoomInventory i where i.roomType.id in :roomTypeIds")
+    int deleteByRoomTypeIds(@Param("roomTypeIds") Collection<Integer> roomTypeIds);
+
+    // Per room type: fewest free units over the stored nights of [from, to) and how many nights are stored
+    @Query("select i.roomType.id as roomTypeId, min(i.total - i.sold) as minFree, count(i) as nights " +
+            "from RoomInventory i where i.roomType.id in :roomTypeIds " +
+            "and i.stayDate >= :from and i.stayDate < :to group by i.roomType.id")
+    List<FreeUnitsView> findFreeUnits(@Param("roomTypeIds") Collection<Integer> roomTypeIds,
+                                      @Param("from") LocalDate from,
+                                      @Param("to") LocalDate to);
+
+    interface FreeUnitsView {
+        Integer getRoomTypeId();
+
+        Integer getMinFree();
+
+        Long getNights();
+    }
+
+    interface SoldNightView {
+        Integer getRoomTypeId();
+
+        LocalDate getStayDate();
+
+        Integer getSold();
+    }
+}
@@ -10,18 +10,27 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface RoomTypeRepository extends JpaRepository<RoomType, Integer> {
 
-    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    // No row lock: the version is checked again at commit, so a booking made while the room type
+    // was edited (e.g. set Unavailable) fails and is retried against the new state
+    @Lock(LockModeType.OPTIMISTIC)
     @Query("select r from RoomType r where r.id = :id")
-    Optional<RoomType> findByIdForUpdate(@Param("id") Integer id);
+    Optional<RoomType> findByIdVersionChecked(@Param("id") Integer id);
 
     // Find a room type by hotel id and (case-insensitive) name
     Optional<RoomType> findFirstByHotel_IdAndNameIgnoreCase(Integer hotelId, String name);
 
     // Find a room type by name only (case-insensitive) - useful as fallback
     Optional<RoomType> findFirstByNameIgnoreCase(String name);
+
+    List<RoomType> findByHotel_Id(Integer hotelId);
+
+    // Version only, for the room type ETag
+    @Query("select r.version from RoomType r where r.id = :id")
+    Optional<Long> findVersionById(@Param("id") Integer id);
 }
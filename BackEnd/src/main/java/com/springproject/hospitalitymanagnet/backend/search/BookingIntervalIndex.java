@@ -0,0 +1,196 @@
+package com.springproject.hospitalitymanagnet.backend.search;
+
+import com.springproject.hospitalitymanagnet.backend.repository.BookingRepository;
+import com.springproject.hospitalitymanagnet.backend.util.IntervalTree;
+import com.springproject.hospitalitymanagnet.backend.util.TransactionHooks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Active (not cancelled, not yet checked out at startup) bookings as one interval tree per room
+ * type. Backs the overlap pre-check in the booking path and the hotel occupancy timeline
+ * (GET /api/hotels/{id}/occupancy) without reading the bookings table.
+ *
+ * Loaded once at startup, then kept current by the booking write paths (after commit). The
+ * room_inventory update stays the authority on overbooking; this index only lets a stay that
+ * clearly does not fit fail before any database work.
+ */
+@Component
+public class BookingIntervalIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingIntervalIndex.class);
+
+    public record Stay(long bookingId, int roomTypeId, LocalDate checkIn, LocalDate checkOut) {
+    }
+
+    private final BookingRepository bookingRepository;
+    private final TransactionTemplate readOnlyTx;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // guarded by lock
+    private final Map<Integer, IntervalTree<Stay>> byRoomType = new HashMap<>();
+    private final Map<Long, Stay> byBooking = new HashMap<>();
+    // bookings cancelled while the startup snapshot was read; the snapshot may still hold them
+    private Set<Long> cancelledWhileLoading;
+
+    private volatile boolean ready;
+
+    public BookingIntervalIndex(BookingRepository bookingRepository,
+                                PlatformTransactionManager transactionManager) {
+        this.bookingRepository = bookingRepository;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // ---------------- writes ----------------
+
+    public void bookingCreated(Long bookingId, Integer roomTypeId, LocalDate checkIn, LocalDate checkOut) {
+        if (bookingId == null || roomTypeId == null || checkIn == null || checkOut == null) return;
+        Stay stay = new Stay(bookingId, roomTypeId, checkIn, checkOut);
+        TransactionHooks.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                add(stay);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void bookingCancelled(Long bookingId) {
+        if (bookingId == null) return;
+        TransactionHooks.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                if (cancelledWhileLoading != null) cancelledWhileLoading.add(bookingId);
+                Stay stay = byBooking.remove(bookingId);
+                if (stay == null) return;
+                IntervalTree<Stay> tree = byRoomType.get(stay.roomTypeId());
+                tree.remove(stay.checkIn().toEpochDay(), stay.bookingId());
+                if (tree.size() == 0) byRoomType.remove(stay.roomTypeId());
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadAll() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            cancelledWhileLoading = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            List<BookingRepository.StayView> stays = readOnlyTx.execute(status ->
+                    bookingRepository.findActiveStaysFrom(LocalDate.now()));
+            lock.writeLock().lock();
+            try {
+                for (BookingRepository.StayView s : stays) {
+                    if (s.getCheckInDate() == null || s.getCheckOutDate() == null
+                            || !s.getCheckOutDate().isAfter(s.getCheckInDate())
+                            || cancelledWhileLoading.contains(s.getId())) continue;
+                    add(new Stay(s.getId(), s.getRoomTypeId(), s.getCheckInDate(), s.getCheckOutDate()));
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            ready = true;
+            logger.info("Loaded {} active bookings into the interval index in {} ms", stays.size(),
+                    System.currentTimeMillis() - start);
+        } catch (RuntimeException ex) {
+            // stays "not ready": the booking pre-check is skipped and the timeline answers 503
+            logger.error("Booking interval index load failed", ex);
+        } finally {
+            lock.writeLock().lock();
+            try {
+                cancelledWhileLoading = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    // ---------------- queries ----------------
+
+    /**
+     * False when `capacity` active bookings already overlap on some night of [checkIn, checkOut).
+     * Always true until the index is loaded. For single-unit room types this is a single
+     * O(log n) descent.
+     */
+    public boolean hasCapacity(Integer roomTypeId, LocalDate checkIn, LocalDate checkOut, int capacity) {
+        return hasCapacity(roomTypeId, checkIn, checkOut, capacity, 1);
+    }
+
+    /** Whether units more stays fit on every night of [checkIn, checkOut). */
+    public boolean hasCapacity(Integer roomTypeId, LocalDate checkIn, LocalDate checkOut, int capacity, int units) {
+        if (!ready) return true;
+        long from = checkIn.toEpochDay();
+        long to = checkOut.toEpochDay();
+        lock.readLock().lock();
+        try {
+            IntervalTree<Stay> tree = byRoomType.get(roomTypeId);
+            if (tree == null) return capacity >= units;
+            if (capacity <= 1 && units == 1) return capacity == 1 && !tree.anyOverlap(from, to);
+            return maxConcurrent(tree, from, to) + units <= capacity;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Active bookings of the room type overlapping [from, to), by check-in date. */
+    public List<Stay> overlapping(Integer roomTypeId, LocalDate from, LocalDate to) {
+        lock.readLock().lock();
+        try {
+            IntervalTree<Stay> tree = byRoomType.get(roomTypeId);
+            if (tree == null) return List.of();
+            List<Stay> stays = new ArrayList<>();
+            tree.forEachOverlap(from.toEpochDay(), to.toEpochDay(), stays::add);
+            return stays;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ---------------- internals ----------------
+
+    // caller holds the write lock; adding a booking twice is a no-op
+    private void add(Stay stay) {
+        if (byBooking.putIfAbsent(stay.bookingId(), stay) != null) return;
+        byRoomType.computeIfAbsent(stay.roomTypeId(), id -> new IntervalTree<>())
+                .insert(stay.checkIn().toEpochDay(), stay.checkOut().toEpochDay(), stay.bookingId(), stay);
+    }
+
+    // most bookings sharing one night of [from, to): sweep over the overlapping stays
+    private static int maxConcurrent(IntervalTree<Stay> tree, long from, long to) {
+        List<long[]> events = new ArrayList<>();
+        tree.forEachOverlap(from, to, s -> {
+            events.add(new long[]{Math.max(from, s.checkIn().toEpochDay()), 1});
+            events.add(new long[]{Math.min(to, s.checkOut().toEpochDay()), -1});
+        });
+        // a stay ending on a day frees it for one starting that day
+        events.sort((a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+        int current = 0;
+        int max = 0;
+        for (long[] e : events) {
+            current += (int) e[1];
+            max = Math.max(max, current);
+        }
+        return max;
+    }
+}
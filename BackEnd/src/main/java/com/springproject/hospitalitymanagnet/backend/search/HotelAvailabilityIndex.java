@@ -0,0 +1,336 @@
+package com.springproject.hospitalitymanagnet.backend.search;
+
+import com.springproject.hospitalitymanagnet.backend.dto.HotelDTO;
+import com.springproject.hospitalitymanagnet.backend.dto.RoomTypeDTO;
+import com.springproject.hospitalitymanagnet.backend.repository.RoomInventoryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Date-range availability search (GET /api/hotels/search with checkIn / checkOut).
+ *
+ * Room types come from the hotel feed (capacity, guests per unit, stop-sell label), sold units
+ * per night from room_inventory. Each room type with bookings keeps a count array of
+ * horizonDays slots indexed by day (epoch day modulo the horizon), so checking a stay is one
+ * array read per night and a city-wide query never touches the database.
+ *
+ * Counts are refreshed after every committed reserve / release by re-reading the nights of
+ * that stay (absolute values, so a refresh can never double count). Refreshes of one room
+ * type are serialized by a striped lock, which makes the last one to run read after every
+ * commit before it. Nights that scroll into the horizon are read when the day changes.
+ */
+@Component
+public class HotelAvailabilityIndex implements HotelIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotelAvailabilityIndex.class);
+
+    public record RoomHit(int roomTypeId, int availableUnits) {
+    }
+
+    public record Hit(int hotelId, List<RoomHit> rooms) {
+    }
+
+    private record Room(int roomTypeId, int hotelId, int capacity, int maxGuests, boolean onSale) {
+    }
+
+    private record Entry(int hotelId, String city, String propertyType, List<Room> rooms) {
+    }
+
+    private static final int STRIPES = 64;
+
+    private final int horizonDays;
+    private final RoomInventoryRepository inventoryRepository;
+    private final TransactionTemplate readOnlyTx;
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // guarded by lock
+    private final Map<Integer, Entry> byHotel = new HashMap<>();
+    private final Map<String, NavigableSet<Integer>> byCity = new HashMap<>();
+    private final NavigableSet<Integer> allHotels = new TreeSet<>();
+    // room type id -> units sold per night; only allocated once the room type sells a night
+    private final Map<Integer, int[]> sold = new HashMap<>();
+    // first night of the horizon (epoch day)
+    private long windowStart;
+
+    private volatile boolean ready;
+
+    public HotelAvailabilityIndex(@Value("${hotel.availability.horizon-days:366}") int horizonDays,
+                                  RoomInventoryRepository inventoryRepository,
+                                  PlatformTransactionManager transactionManager) {
+        if (horizonDays < 2) throw new IllegalArgumentException("hotel.availability.horizon-days must be at least 2");
+        this.horizonDays = horizonDays;
+        this.inventoryRepository = inventoryRepository;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        for (int i = 0; i < STRIPES; i++) stripes[i] = new ReentrantLock();
+    }
+
+    // ---------------- writes ----------------
+
+    @Override
+    public void index(HotelDTO hotel) {
+        if (hotel == null || hotel.getId() == null) return;
+        List<Room> rooms = new ArrayList<>();
+        if (hotel.getRoomTypes() != null) {
+            for (RoomTypeDTO rt : hotel.getRoomTypes()) {
+                if (rt.getId() == null) continue;
+                rooms.add(new Room(rt.getId(), hotel.getId(),
+                        rt.getTotalRooms() != null ? rt.getTotalRooms() : 1,
+                        rt.getMaxGuests() != null ? rt.getMaxGuests() : 2,
+                        "Available".equalsIgnoreCase(rt.getAvailability())));
+            }
+        }
+        Entry entry = new Entry(hotel.getId(), normalize(hotel.getCity()), normalize(hotel.getPropertyType()),
+                List.copyOf(rooms));
+
+        lock.writeLock().lock();
+        try {
+            Entry old = removeEntry(hotel.getId());
+            if (old != null) {
+                // counts of room types the hotel no longer has
+                Set<Integer> kept = new HashSet<>();
+                rooms.forEach(r -> kept.add(r.roomTypeId()));
+                old.rooms().forEach(r -> {
+                    if (!kept.contains(r.roomTypeId())) sold.remove(r.roomTypeId());
+                });
+            }
+            byHotel.put(entry.hotelId(), entry);
+            allHotels.add(entry.hotelId());
+            if (entry.city() != null) byCity.computeIfAbsent(entry.city(), c -> new TreeSet<>()).add(entry.hotelId());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Integer hotelId) {
+        if (hotelId == null) return;
+        lock.writeLock().lock();
+        try {
+            Entry old = removeEntry(hotelId);
+            if (old != null) old.rooms().forEach(r -> sold.remove(r.roomTypeId()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Room structure is in; loads the sold nights of the whole horizon before answering queries. */
+    @Override
+    public void markReady() {
+        long today = LocalDate.now().toEpochDay();
+        lockAllStripes();
+        try {
+            List<RoomInventoryRepository.SoldNightView> nights = readOnlyTx.execute(status ->
+                    inventoryRepository.findSoldNights(LocalDate.ofEpochDay(today), LocalDate.ofEpochDay(today + horizonDays)));
+            lock.writeLock().lock();
+            try {
+                sold.clear();
+                windowStart = today;
+                for (RoomInventoryRepository.SoldNightView n : nights) {
+                    setSold(n.getRoomTypeId(), n.getStayDate().toEpochDay(), n.getSold());
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            ready = true;
+            logger.info("Loaded {} sold room nights into the availability index", nights.size());
+        } catch (RuntimeException ex) {
+            // stays "not ready"; date searches answer 503 until a restart
+            logger.error("Availability index load failed", ex);
+        } finally {
+            unlockAllStripes();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Re-reads the sold units of [from, to) for the room type. Call after the transaction that
+     * changed them has committed.
+     */
+    public void refresh(Integer roomTypeId, LocalDate from, LocalDate to) {
+        if (roomTypeId == null || from == null || to == null) return;
+        rollWindow();
+        ReentrantLock stripe = stripes[Math.floorMod(roomTypeId, STRIPES)];
+        stripe.lock();
+        try {
+            List<RoomInventoryRepository.SoldNightView> nights = readOnlyTx.execute(status ->
+                    inventoryRepository.findSoldNights(roomTypeId, from, to));
+            lock.writeLock().lock();
+            try {
+                for (long day = from.toEpochDay(); day < to.toEpochDay(); day++) {
+                    setSold(roomTypeId, day, 0);
+                }
+                for (RoomInventoryRepository.SoldNightView n : nights) {
+                    setSold(roomTypeId, n.getStayDate().toEpochDay(), n.getSold());
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } catch (RuntimeException ex) {
+            // the booking itself is committed; the index catches up on the next refresh of these nights
+            logger.warn("Availability refresh failed for RoomType {} ({} to {}): {}", roomTypeId, from, to, ex.getMessage());
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    // ---------------- queries ----------------
+
+    /**
+     * Hotels (in id order) with at least one on-sale room type for `guests` that has a unit free
+     * on every night of [checkIn, checkOut). city / propertyType are optional.
+     */
+    public List<Hit> search(String city, String propertyType, LocalDate checkIn, LocalDate checkOut,
+                            int guests, int limit) {
+        rollWindow();
+        long from = checkIn.toEpochDay();
+        long to = checkOut.toEpochDay();
+        String cityFilter = normalize(city);
+        String typeFilter = normalize(propertyType);
+
+        lock.readLock().lock();
+        try {
+            if (from < windowStart) throw new IllegalArgumentException("checkIn must not be in the past");
+            if (to > windowStart + horizonDays) {
+                throw new IllegalArgumentException("Availability is searchable up to "
+                        + LocalDate.ofEpochDay(windowStart + horizonDays) + " only");
+            }
+            Collection<Integer> candidates = cityFilter == null ? allHotels
+                    : byCity.getOrDefault(cityFilter, Collections.emptyNavigableSet());
+
+            List<Hit> hits = new ArrayList<>();
+            for (Integer hotelId : candidates) {
+                Entry entry = byHotel.get(hotelId);
+                if (typeFilter != null && !typeFilter.equals(entry.propertyType())) continue;
+
+                List<RoomHit> rooms = null;
+                for (Room room : entry.rooms()) {
+                    if (!room.onSale() || room.maxGuests() < guests) continue;
+                    int free = freeUnits(room, from, to);
+                    if (free > 0) {
+                        if (rooms == null) rooms = new ArrayList<>(entry.rooms().size());
+                        rooms.add(new RoomHit(room.roomTypeId(), free));
+                    }
+                }
+                if (rooms != null) {
+                    hits.add(new Hit(hotelId, rooms));
+                    if (hits.size() >= limit) break;
+                }
+            }
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ---------------- internals ----------------
+
+    private int freeUnits(Room room, long from, long to) {
+        int[] nights = sold.get(room.roomTypeId());
+        if (nights == null) return room.capacity();
+        int maxSold = 0;
+        for (long day = from; day < to; day++) {
+            maxSold = Math.max(maxSold, nights[slot(day)]);
+            if (maxSold >= room.capacity()) return 0;
+        }
+        return room.capacity() - maxSold;
+    }
+
+    // caller holds the write lock; nights outside the horizon are not tracked
+    private void setSold(Integer roomTypeId, long day, int units) {
+        if (day < windowStart || day >= windowStart + horizonDays) return;
+        int[] nights = sold.get(roomTypeId);
+        if (nights == null) {
+            if (units == 0) return;
+            nights = new int[horizonDays];
+            sold.put(roomTypeId, nights);
+        }
+        nights[slot(day)] = units;
+    }
+
+    /**
+     * Moves the horizon to start today: slots of past nights are cleared and reused for the
+     * nights that just came into range, which are read from the database.
+     */
+    private void rollWindow() {
+        long today = LocalDate.now().toEpochDay();
+        if (!ready || today <= windowStartSnapshot()) return;
+        lockAllStripes();
+        try {
+            long start = windowStartSnapshot();
+            if (today <= start) return; // another thread rolled first
+            long firstNew = Math.max(start + horizonDays, today);
+            long end = today + horizonDays;
+            List<RoomInventoryRepository.SoldNightView> nights = readOnlyTx.execute(status ->
+                    inventoryRepository.findSoldNights(LocalDate.ofEpochDay(firstNew), LocalDate.ofEpochDay(end)));
+            lock.writeLock().lock();
+            try {
+                for (long day = start; day < Math.min(today, start + horizonDays); day++) {
+                    int slot = slot(day);
+                    for (int[] counts : sold.values()) counts[slot] = 0;
+                }
+                windowStart = today;
+                for (RoomInventoryRepository.SoldNightView n : nights) {
+                    setSold(n.getRoomTypeId(), n.getStayDate().toEpochDay(), n.getSold());
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            unlockAllStripes();
+        }
+    }
+
+    private long windowStartSnapshot() {
+        lock.readLock().lock();
+        try {
+            return windowStart;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Entry removeEntry(Integer hotelId) {
+        Entry old = byHotel.remove(hotelId);
+        if (old == null) return null;
+        allHotels.remove(hotelId);
+        if (old.city() != null) {
+            NavigableSet<Integer> ids = byCity.get(old.city());
+            if (ids != null) {
+                ids.remove(hotelId);
+                if (ids.isEmpty()) byCity.remove(old.city());
+            }
+        }
+        return old;
+    }
+
+    private int slot(long epochDay) {
+        return (int) Math.floorMod(epochDay, (long) horizonDays);
+    }
+
+    // always in index order, so two threads taking all stripes cannot deadlock
+    private void lockAllStripes() {
+        for (ReentrantLock stripe : stripes) stripe.lock();
+    }
+
+    private void unlockAllStripes() {
+        for (int i = STRIPES - 1; i >= 0; i--) stripes[i].unlock();
+    }
+
+    private static String normalize(String value) {
+        return value == null || value.isBlank() ? null : value.trim().toLowerCase(Locale.ROOT);
+    }
+}
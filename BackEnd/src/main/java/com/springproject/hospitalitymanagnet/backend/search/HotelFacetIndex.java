@@ -0,0 +1,304 @@
+package com.springproject.hospitalitymanagnet.backend.search;
+
+import com.springproject.hospitalitymanagnet.backend.dto.HotelDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Bitmap index behind faceted search (GET /api/hotels/facets).
+ *
+ * Every hotel gets a dense ordinal; every (facet, value) pair owns a BitSet of the ordinals that
+ * carry it. A query ORs the selected values within a facet, ANDs across facets, and counts each
+ * facet against the filters of all the *other* facets, so a chip shows how many hotels would
+ * match if it were added (standard multi-select behaviour).
+ */
+@Component
+public class HotelFacetIndex implements HotelIndex {
+
+    public enum Facet {
+        CITY("city"), PROPERTY_TYPE("propertyType"), STAR_RATING("starRating"), PRICE("price"), STATUS("status");
+
+        private final String param;
+
+        Facet(String param) {
+            this.param = param;
+        }
+
+        public String getParam() {
+            return param;
+        }
+    }
+
+    public record FacetCount(String value, int count) {
+    }
+
+    /** hotelIds is one page in id order; lastId is set only when more matches follow. */
+    public record Result(List<Integer> hotelIds, Integer lastId, int total, Map<Facet, List<FacetCount>> counts) {
+    }
+
+    private static final Facet[] FACETS = Facet.values();
+
+    private final double[] priceEdges;
+    private final String[] priceLabels;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // guarded by lock
+    private final Map<Integer, Integer> ordinalByHotel = new HashMap<>();
+    private final BitSet live = new BitSet();
+    private int[] hotelByOrdinal = new int[1024];
+    private String[][] valueByOrdinal = new String[FACETS.length][1024];
+    private final EnumMap<Facet, Map<String, BitSet>> postings = new EnumMap<>(Facet.class);
+    // normalized value -> label as first seen ("colombo" -> "Colombo")
+    private final EnumMap<Facet, Map<String, String>> labels = new EnumMap<>(Facet.class);
+    private int ordinalCount;
+
+    private volatile boolean ready;
+
+    public HotelFacetIndex(@Value("${hotel.facets.price-buckets:50,100,200,500}") double[] priceEdges) {
+        this.priceEdges = priceEdges.clone();
+        Arrays.sort(this.priceEdges);
+        this.priceLabels = new String[this.priceEdges.length + 1];
+        double lower = 0;
+        for (int i = 0; i < this.priceEdges.length; i++) {
+            priceLabels[i] = format(lower) + "-" + format(this.priceEdges[i]);
+            lower = this.priceEdges[i];
+        }
+        priceLabels[this.priceEdges.length] = format(lower) + "+";
+
+        for (Facet facet : FACETS) {
+            postings.put(facet, new HashMap<>());
+            labels.put(facet, new HashMap<>());
+        }
+    }
+
+    // ---------------- writes ----------------
+
+    @Override
+    public void index(HotelDTO hotel) {
+        if (hotel == null || hotel.getId() == null) return;
+
+        String[] raw = new String[FACETS.length];
+        raw[Facet.CITY.ordinal()] = trimToNull(hotel.getCity());
+        raw[Facet.PROPERTY_TYPE.ordinal()] = trimToNull(hotel.getPropertyType());
+        raw[Facet.STAR_RATING.ordinal()] = hotel.getStarRating() != null ? hotel.getStarRating().toString() : null;
+        raw[Facet.PRICE.ordinal()] = priceBucket(hotel.getStartingPrice());
+        raw[Facet.STATUS.ordinal()] = trimToNull(hotel.getStatus());
+
+        lock.writeLock().lock();
+        try {
+            // updates keep their ordinal (only the changed bits move); new hotels are appended,
+            // so with increasing ids the ordinal order stays close to id order
+            Integer existing = ordinalByHotel.get(hotel.getId());
+            int ordinal;
+            if (existing != null) {
+                ordinal = existing;
+            } else {
+                ordinal = ordinalCount++;
+                ensureCapacity(ordinalCount);
+                hotelByOrdinal[ordinal] = hotel.getId();
+                ordinalByHotel.put(hotel.getId(), ordinal);
+                live.set(ordinal);
+            }
+            for (Facet facet : FACETS) {
+                int f = facet.ordinal();
+                String value = normalize(raw[f]);
+                String old = valueByOrdinal[f][ordinal];
+                if (Objects.equals(old, value)) continue;
+                if (old != null) clearBit(facet, old, ordinal);
+                if (value != null) {
+                    postings.get(facet).computeIfAbsent(value, v -> new BitSet()).set(ordinal);
+                    labels.get(facet).putIfAbsent(value, raw[f]);
+                }
+                valueByOrdinal[f][ordinal] = value;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Integer hotelId) {
+        if (hotelId == null) return;
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinalByHotel.remove(hotelId);
+            if (ordinal == null) return;
+            for (Facet facet : FACETS) {
+                String old = valueByOrdinal[facet.ordinal()][ordinal];
+                if (old != null) clearBit(facet, old, ordinal);
+                valueByOrdinal[facet.ordinal()][ordinal] = null;
+            }
+            live.clear(ordinal);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void markReady() {
+        ready = true;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // ---------------- queries ----------------
+
+    /**
+     * @param filters selected values per facet (OR within a facet, AND across facets); matched
+     *                case-insensitively, price values are bucket labels such as "100-200"
+     * @param afterId page starts after this hotel id (null for the first page)
+     */
+    public Result search(Map<Facet, Set<String>> filters, Integer afterId, int size) {
+        lock.readLock().lock();
+        try {
+            EnumMap<Facet, BitSet> selected = new EnumMap<>(Facet.class);
+            for (Map.Entry<Facet, Set<String>> e : filters.entrySet()) {
+                if (e.getValue() == null || e.getValue().isEmpty()) continue;
+                BitSet union = new BitSet();
+                for (String value : e.getValue()) {
+                    BitSet bits = postings.get(e.getKey()).get(normalize(value));
+                    if (bits != null) union.or(bits);
+                }
+                selected.put(e.getKey(), union);
+            }
+
+            BitSet matches = intersect(selected, null);
+
+            Map<Facet, List<FacetCount>> counts = new EnumMap<>(Facet.class);
+            for (Facet facet : FACETS) {
+                // a facet without its own filter is counted against the full match set
+                BitSet base = selected.containsKey(facet) ? intersect(selected, facet) : matches;
+                counts.put(facet, count(facet, base));
+            }
+
+            // smallest ids above afterId, one extra to detect a following page
+            PriorityQueue<Integer> page = new PriorityQueue<>(size + 2, Comparator.reverseOrder());
+            for (int o = matches.nextSetBit(0); o >= 0; o = matches.nextSetBit(o + 1)) {
+                int id = hotelByOrdinal[o];
+                if (afterId != null && id <= afterId) continue;
+                if (page.size() <= size) {
+                    page.add(id);
+                } else if (id < page.peek()) {
+                    page.poll();
+                    page.add(id);
+                }
+            }
+            List<Integer> ids = new ArrayList<>(page);
+            Collections.sort(ids);
+            Integer lastId = null;
+            if (ids.size() > size) {
+                ids = ids.subList(0, size);
+                lastId = ids.get(size - 1);
+            }
+            return new Result(ids, lastId, matches.cardinality(), counts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Price bucket labels in ascending order, for clients that render the price chips up front. */
+    public List<String> getPriceBuckets() {
+        return List.of(priceLabels);
+    }
+
+    private BitSet intersect(EnumMap<Facet, BitSet> selected, Facet skip) {
+        BitSet result = (BitSet) live.clone();
+        for (Map.Entry<Facet, BitSet> e : selected.entrySet()) {
+            if (e.getKey() != skip) result.and(e.getValue());
+        }
+        return result;
+    }
+
+    private List<FacetCount> count(Facet facet, BitSet base) {
+        List<FacetCount> result = new ArrayList<>();
+        Map<String, String> facetLabels = labels.get(facet);
+        for (Map.Entry<String, BitSet> e : postings.get(facet).entrySet()) {
+            BitSet bits = (BitSet) e.getValue().clone();
+            bits.and(base);
+            int count = bits.cardinality();
+            if (count > 0) result.add(new FacetCount(facetLabels.get(e.getKey()), count));
+        }
+        result.sort(Comparator.comparingInt(FacetCount::count).reversed().thenComparing(FacetCount::value));
+        return result;
+    }
+
+    // ---------------- internals ----------------
+
+    private void clearBit(Facet facet, String value, int ordinal) {
+        BitSet bits = postings.get(facet).get(value);
+        if (bits == null) return;
+        bits.clear(ordinal);
+        if (bits.isEmpty()) {
+            postings.get(facet).remove(value);
+            labels.get(facet).remove(value);
+        }
+    }
+
+    // Deleted hotels leave holes in the ordinal space; squeeze them out once they make up a
+    // quarter of it. Values are re-read from valueByOrdinal, so labels stay as they are.
+    private void compactIfNeeded() {
+        int holes = ordinalCount - live.cardinality();
+        if (holes < 1024 || holes < ordinalCount / 4) return;
+
+        int next = 0;
+        for (int o = live.nextSetBit(0); o >= 0; o = live.nextSetBit(o + 1)) {
+            hotelByOrdinal[next] = hotelByOrdinal[o];
+            for (int f = 0; f < FACETS.length; f++) {
+                valueByOrdinal[f][next] = valueByOrdinal[f][o];
+            }
+            ordinalByHotel.put(hotelByOrdinal[next], next);
+            next++;
+        }
+        for (int f = 0; f < FACETS.length; f++) {
+            Arrays.fill(valueByOrdinal[f], next, ordinalCount, null);
+        }
+        ordinalCount = next;
+        live.clear();
+        live.set(0, next);
+
+        for (Facet facet : FACETS) {
+            Map<String, BitSet> facetPostings = postings.get(facet);
+            facetPostings.clear();
+            for (int o = 0; o < next; o++) {
+                String value = valueByOrdinal[facet.ordinal()][o];
+                if (value != null) facetPostings.computeIfAbsent(value, v -> new BitSet()).set(o);
+            }
+        }
+    }
+
+    private void ensureCapacity(int needed) {
+        if (needed <= hotelByOrdinal.length) return;
+        int capacity = Math.max(needed, hotelByOrdinal.length * 2);
+        hotelByOrdinal = Arrays.copyOf(hotelByOrdinal, capacity);
+        for (int f = 0; f < FACETS.length; f++) {
+            valueByOrdinal[f] = Arrays.copyOf(valueByOrdinal[f], capacity);
+        }
+    }
+
+    private String priceBucket(Double price) {
+        if (price == null) return null;
+        for (int i = 0; i < priceEdges.length; i++) {
+            if (price < priceEdges[i]) return priceLabels[i];
+        }
+        return priceLabels[priceEdges.length];
+    }
+
+    private static String format(double value) {
+        return value == Math.rint(value) ? Long.toString((long) value) : Double.toString(value);
+    }
+
+    private static String trimToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private static String normalize(String value) {
+        return value == null || value.isBlank() ? null : value.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,192 @@
+package com.springproject.hospitalitymanagnet.backend.search;
+
+import com.springproject.hospitalitymanagnet.backend.dto.HotelDTO;
+import com.springproject.hospitalitymanagnet.backend.util.GeoUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Spatial index for proximity search (GET /api/hotels/nearby and /api/hotels/within).
+ *
+ * Hotels with coordinates are bucketed into a uniform lat/lng grid (cellDegrees on each side).
+ * A query visits only the cells overlapping its bounding box, checks the exact distance of the
+ * hotels in them and keeps the closest ones in a bounded heap. Queries do not wrap around the
+ * antimeridian.
+ */
+@Component
+public class HotelGeoIndex implements HotelIndex {
+
+    public record Hit(int hotelId, double distanceKm) {
+    }
+
+    private record Point(int hotelId, double lat, double lon, String city, String propertyType) {
+    }
+
+    private final double cellDegrees;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // guarded by lock
+    private final Map<Long, List<Point>> cells = new HashMap<>();
+    private final Map<Integer, Point> byHotel = new HashMap<>();
+
+    private volatile boolean ready;
+
+    public HotelGeoIndex(@Value("${hotel.geo.cell-degrees:0.05}") double cellDegrees) {
+        if (cellDegrees <= 0) throw new IllegalArgumentException("hotel.geo.cell-degrees must be positive");
+        this.cellDegrees = cellDegrees;
+    }
+
+    // ---------------- writes ----------------
+
+    @Override
+    public void index(HotelDTO hotel) {
+        if (hotel == null || hotel.getId() == null) return;
+        lock.writeLock().lock();
+        try {
+            removePoint(hotel.getId());
+            if (hotel.getLatitude() == null || hotel.getLongitude() == null) return;
+
+            Point point = new Point(hotel.getId(), hotel.getLatitude(), hotel.getLongitude(),
+                    normalize(hotel.getCity()), normalize(hotel.getPropertyType()));
+            byHotel.put(point.hotelId(), point);
+            cells.computeIfAbsent(cellKey(row(point.lat()), col(point.lon())), k -> new ArrayList<>()).add(point);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Integer hotelId) {
+        if (hotelId == null) return;
+        lock.writeLock().lock();
+        try {
+            removePoint(hotelId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void markReady() {
+        ready = true;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // ---------------- queries ----------------
+
+    /** Hotels within radiusKm of the point, closest first. */
+    public List<Hit> nearby(double lat, double lon, double radiusKm, String city, String propertyType, int limit) {
+        double dLat = radiusKm / GeoUtils.KM_PER_DEGREE_LAT;
+        // a degree of longitude shrinks with cos(lat); clamp so the box stays finite near the poles
+        double dLon = Math.min(180, dLat / Math.max(0.01, Math.cos(Math.toRadians(lat))));
+        return scan(lat - dLat, lon - dLon, lat + dLat, lon + dLon, lat, lon, radiusKm, city, propertyType, limit);
+    }
+
+    /** Hotels inside the box, closest to the given reference point first. */
+    public List<Hit> within(double minLat, double minLon, double maxLat, double maxLon,
+                            double refLat, double refLon, String city, String propertyType, int limit) {
+        return scan(minLat, minLon, maxLat, maxLon, refLat, refLon, Double.POSITIVE_INFINITY, city, propertyType, limit);
+    }
+
+    private List<Hit> scan(double minLat, double minLon, double maxLat, double maxLon,
+                           double refLat, double refLon, double maxDistanceKm,
+                           String city, String propertyType, int limit) {
+        if (limit < 1) return List.of();
+        String cityFilter = normalize(city);
+        String typeFilter = normalize(propertyType);
+        minLat = Math.max(-90, minLat);
+        maxLat = Math.min(90, maxLat);
+        minLon = Math.max(-180, minLon);
+        maxLon = Math.min(180, maxLon);
+
+        // farthest hit on top, so it is the one dropped when a closer hotel turns up
+        PriorityQueue<Hit> closest = new PriorityQueue<>(limit + 1,
+                Comparator.comparingDouble(Hit::distanceKm).reversed());
+
+        lock.readLock().lock();
+        try {
+            int minRow = row(minLat), maxRow = row(maxLat);
+            int minCol = col(minLon), maxCol = col(maxLon);
+            long cellCount = (long) (maxRow - minRow + 1) * (maxCol - minCol + 1);
+
+            if (cellCount > cells.size()) {
+                // huge box over a sparse grid: cheaper to look at every occupied cell once
+                for (List<Point> cell : cells.values()) {
+                    collect(cell, minLat, minLon, maxLat, maxLon, refLat, refLon, maxDistanceKm,
+                            cityFilter, typeFilter, limit, closest);
+                }
+            } else {
+                for (int r = minRow; r <= maxRow; r++) {
+                    for (int c = minCol; c <= maxCol; c++) {
+                        List<Point> cell = cells.get(cellKey(r, c));
+                        if (cell != null) {
+                            collect(cell, minLat, minLon, maxLat, maxLon, refLat, refLon, maxDistanceKm,
+                                    cityFilter, typeFilter, limit, closest);
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Hit> result = new ArrayList<>(closest);
+        result.sort(Comparator.comparingDouble(Hit::distanceKm));
+        return result;
+    }
+
+    private static void collect(List<Point> cell, double minLat, double minLon, double maxLat, double maxLon,
+                                double refLat, double refLon, double maxDistanceKm,
+                                String cityFilter, String typeFilter, int limit, PriorityQueue<Hit> closest) {
+        for (Point p : cell) {
+            if (p.lat() < minLat || p.lat() > maxLat || p.lon() < minLon || p.lon() > maxLon) continue;
+            if (cityFilter != null && !cityFilter.equals(p.city())) continue;
+            if (typeFilter != null && !typeFilter.equals(p.propertyType())) continue;
+
+            double distance = GeoUtils.distanceKm(refLat, refLon, p.lat(), p.lon());
+            if (distance > maxDistanceKm) continue;
+            if (closest.size() < limit) {
+                closest.add(new Hit(p.hotelId(), distance));
+            } else if (distance < closest.peek().distanceKm()) {
+                closest.poll();
+                closest.add(new Hit(p.hotelId(), distance));
+            }
+        }
+    }
+
+    // ---------------- internals ----------------
+
+    private void removePoint(Integer hotelId) {
+        Point old = byHotel.remove(hotelId);
+        if (old == null) return;
+        long key = cellKey(row(old.lat()), col(old.lon()));
+        List<Point> cell = cells.get(key);
+        if (cell != null) {
+            cell.removeIf(p -> p.hotelId() == old.hotelId());
+            if (cell.isEmpty()) cells.remove(key);
+        }
+    }
+
+    private int row(double lat) {
+        return (int) Math.floor((lat + 90) / cellDegrees);
+    }
+
+    private int col(double lon) {
+        return (int) Math.floor((lon + 180) / cellDegrees);
+    }
+
+    private static long cellKey(int row, int col) {
+        return ((long) row << 32) | (col & 0xffffffffL);
+    }
+
+    private static String normalize(String value) {
+        return value == null || value.isBlank() ? null : value.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,19 @@
+package com.springproject.hospitalitymanagnet.backend.search;
+
+import com.springproject.hospitalitymanagnet.backend.dto.HotelDTO;
+
+/**
+ * In-memory secondary index over hotels. Implementations are fed by HotelIndexer:
+ * once with every hotel at startup, then incrementally after each committed hotel write.
+ */
+public interface HotelIndex {
+
+    /** Adds the hotel, or replaces the previously indexed version with the same id. */
+    void index(HotelDTO hotel);
+
+    void remove(Integer hotelId);
+
+    /** Called after the startup load has passed every hotel to index(...). */
+    default void markReady() {
+    }
+}
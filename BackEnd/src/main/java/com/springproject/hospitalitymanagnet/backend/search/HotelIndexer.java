@@ -0,0 +1,106 @@
+package com.springproject.hospitalitymanagnet.backend.search;
+
+import com.springproject.hospitalitymanagnet.backend.dto.HotelDTO;
+import com.springproject.hospitalitymanagnet.backend.entity.Hotel;
+import com.springproject.hospitalitymanagnet.backend.mapper.HotelMapper;
+import com.springproject.hospitalitymanagnet.backend.repository.HotelRepository;
+import com.springproject.hospitalitymanagnet.backend.repository.HotelSearchCriteria;
+import com.springproject.hospitalitymanagnet.backend.repository.HotelSortKey;
+import com.springproject.hospitalitymanagnet.backend.util.HotelCursor;
+import com.springproject.hospitalitymanagnet.backend.util.TransactionHooks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Keeps every HotelIndex bean in step with the database: bulk load at startup, then
+ * incremental updates from the hotel write paths (applied after commit, so a rolled back
+ * write never reaches the indexes).
+ */
+@Component
+public class HotelIndexer {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotelIndexer.class);
+
+    private final List<HotelIndex> indexes;
+    private final HotelRepository hotelRepository;
+    private final HotelMapper hotelMapper;
+    private final TransactionTemplate readOnlyTx;
+
+    @Value("${hotel.index.load-chunk-size:500}")
+    private int loadChunkSize;
+
+    public HotelIndexer(List<HotelIndex> indexes,
+                        HotelRepository hotelRepository,
+                        HotelMapper hotelMapper,
+                        PlatformTransactionManager transactionManager) {
+        this.indexes = indexes;
+        this.hotelRepository = hotelRepository;
+        this.hotelMapper = hotelMapper;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    public void hotelSaved(HotelDTO hotel) {
+        if (hotel == null || hotel.getId() == null) return;
+        TransactionHooks.afterCommit(() -> indexes.forEach(index -> index.index(hotel)));
+    }
+
+    public void hotelDeleted(Integer hotelId) {
+        if (hotelId == null) return;
+        TransactionHooks.afterCommit(() -> indexes.forEach(index -> index.remove(hotelId)));
+    }
+
+    /**
+     * Walks the catalog in id order, one short read-only transaction per chunk.
+     * A hotel written while the load is running may be indexed from an older snapshot
+     * until its next write.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadAll() {
+        long start = System.currentTimeMillis();
+        HotelSearchCriteria all = new HotelSearchCriteria();
+        HotelCursor after = null;
+        int total = 0;
+        try {
+            while (true) {
+                HotelCursor cursor = after;
+                List<HotelDTO> chunk = readOnlyTx.execute(status -> loadChunk(all, cursor));
+                if (chunk == null || chunk.isEmpty()) break;
+
+                for (HotelDTO hotel : chunk) {
+                    for (HotelIndex index : indexes) {
+                        index.index(hotel);
+                    }
+                }
+                total += chunk.size();
+                Integer lastId = chunk.get(chunk.size() - 1).getId();
+                after = new HotelCursor(HotelSortKey.ID, null, lastId);
+                if (chunk.size() < loadChunkSize) break;
+            }
+            indexes.forEach(HotelIndex::markReady);
+            logger.info("Loaded {} hotels into {} index(es) in {} ms", total, indexes.size(),
+                    System.currentTimeMillis() - start);
+        } catch (Exception ex) {
+            // indexes stay "not ready"; the endpoints backed by them answer 503 until a restart
+            logger.error("Hotel index load failed after {} hotels", total, ex);
+        }
+    }
+
+    private List<HotelDTO> loadChunk(HotelSearchCriteria all, HotelCursor after) {
+        List<Integer> ids = hotelRepository.findPageIds(all, after, loadChunkSize);
+        if (ids.isEmpty()) return List.of();
+        return hotelRepository.fetchListingGraph(hotelRepository.findByIdInForListing(ids)).stream()
+                .sorted(Comparator.comparing(Hotel::getId))
+                .map(hotelMapper::toDto)
+                .toList();
+    }
+}
@@ -0,0 +1,285 @@
+package com.springproject.hospitalitymanagnet.backend.search;
+
+import com.springproject.hospitalitymanagnet.backend.dto.HotelDTO;
+import com.springproject.hospitalitymanagnet.backend.util.BoundedTtlCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Prefix autocomplete over hotel names and cities (GET /api/hotels/suggest).
+ *
+ * Keys are folded (lower case, no accents) and every word start is a key of its own, so
+ * "face" finds "Galle Face Hotel". Keys live in sorted dictionaries, so a prefix is one key
+ * range (the lookup a trie would do, without a node per character). Hotels are ranked by
+ * average rating, then star rating, and the top hits of each prefix are cached and patched
+ * in place by writes, so steady-state lookups are a single cache hit. Cities are ranked by how many hotels they have.
+ */
+@Component
+public class HotelSuggestIndex implements HotelIndex {
+
+    public record HotelSuggestion(int hotelId, String name, String city, double rating, int stars) {
+    }
+
+    public record CitySuggestion(String city, int hotelCount) {
+    }
+
+    private static final Comparator<HotelSuggestion> HOTEL_RANKING = Comparator
+            .comparingDouble(HotelSuggestion::rating).reversed()
+            .thenComparing(Comparator.comparingInt(HotelSuggestion::stars).reversed())
+            .thenComparingInt(h -> h.name().length())
+            .thenComparingInt(HotelSuggestion::hotelId);
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    // word-start keys per name beyond the full name, so long names do not flood the dictionary
+    private static final int MAX_WORD_KEYS = 4;
+
+    private final int maxResults;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // guarded by lock
+    private final TreeMap<String, List<HotelSuggestion>> hotelKeys = new TreeMap<>();
+    private final Map<Integer, HotelSuggestion> byHotel = new HashMap<>();
+    private final TreeMap<String, Set<String>> cityKeys = new TreeMap<>(); // key -> normalized cities
+    private final Map<String, CityStats> cities = new HashMap<>();
+
+    // top maxResults hotels per prefix; entries are only added while holding the read lock and
+    // only patched or invalidated while holding the write lock, so a cached list is never older
+    // than the data
+    private final BoundedTtlCache<String, List<HotelSuggestion>> prefixCache;
+
+    private volatile boolean ready;
+
+    private static final class CityStats {
+        final String label;
+        int hotelCount;
+
+        CityStats(String label) {
+            this.label = label;
+        }
+    }
+
+    public HotelSuggestIndex(@Value("${hotel.suggest.max-results:20}") int maxResults,
+                             @Value("${hotel.suggest.cache-entries:50000}") int cacheEntries) {
+        this.maxResults = maxResults;
+        this.prefixCache = new BoundedTtlCache<>(cacheEntries, Long.MAX_VALUE / 2);
+    }
+
+    // ---------------- writes ----------------
+
+    @Override
+    public void index(HotelDTO hotel) {
+        if (hotel == null || hotel.getId() == null) return;
+        HotelSuggestion suggestion = hotel.getName() == null || hotel.getName().isBlank() ? null
+                : new HotelSuggestion(hotel.getId(), hotel.getName().trim(),
+                        hotel.getCity() != null ? hotel.getCity().trim() : null,
+                        hotel.getAverageRating() != null ? hotel.getAverageRating() : 0,
+                        hotel.getStarRating() != null ? hotel.getStarRating() : 0);
+
+        lock.writeLock().lock();
+        try {
+            HotelSuggestion old = removeHotel(hotel.getId());
+            if (suggestion != null) {
+                byHotel.put(suggestion.hotelId(), suggestion);
+                for (String key : keys(suggestion.name())) {
+                    hotelKeys.computeIfAbsent(key, k -> new ArrayList<>(1)).add(suggestion);
+                }
+                addCity(suggestion.city());
+            }
+            patchCache(old, suggestion);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Integer hotelId) {
+        if (hotelId == null) return;
+        lock.writeLock().lock();
+        try {
+            patchCache(removeHotel(hotelId), null);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void markReady() {
+        ready = true;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // ---------------- queries ----------------
+
+    public List<HotelSuggestion> suggestHotels(String prefix, int limit) {
+        String key = fold(prefix);
+        if (key.isEmpty() || limit < 1) return List.of();
+        lock.readLock().lock();
+        try {
+            List<HotelSuggestion> top = prefixCache.get(key);
+            if (top == null) {
+                top = topHotels(key);
+                prefixCache.put(key, top);
+            }
+            return top.size() <= limit ? top : top.subList(0, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<CitySuggestion> suggestCities(String prefix, int limit) {
+        String key = fold(prefix);
+        if (key.isEmpty() || limit < 1) return List.of();
+        lock.readLock().lock();
+        try {
+            // the city dictionary is small (one entry per city and word), a range scan is enough
+            Set<String> matched = new HashSet<>();
+            for (Set<String> names : cityKeys.subMap(key, key + Character.MAX_VALUE).values()) {
+                matched.addAll(names);
+            }
+            return matched.stream()
+                    .map(cities::get)
+                    .map(c -> new CitySuggestion(c.label, c.hotelCount))
+                    .sorted(Comparator.comparingInt(CitySuggestion::hotelCount).reversed()
+                            .thenComparing(CitySuggestion::city))
+                    .limit(limit)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<HotelSuggestion> topHotels(String prefix) {
+        // worst entry on top of the heap so it is the one replaced
+        PriorityQueue<HotelSuggestion> heap = new PriorityQueue<>(maxResults + 1, HOTEL_RANKING.reversed());
+        for (List<HotelSuggestion> entries : hotelKeys.subMap(prefix, prefix + Character.MAX_VALUE).values()) {
+            for (HotelSuggestion s : entries) {
+                if (heap.size() < maxResults) {
+                    if (!heap.contains(s)) heap.add(s);
+                } else if (HOTEL_RANKING.compare(s, heap.peek()) < 0 && !heap.contains(s)) {
+                    heap.poll();
+                    heap.add(s);
+                }
+            }
+        }
+        List<HotelSuggestion> top = new ArrayList<>(heap);
+        top.sort(HOTEL_RANKING);
+        return List.copyOf(top);
+    }
+
+    // ---------------- internals ----------------
+
+    private HotelSuggestion removeHotel(Integer hotelId) {
+        HotelSuggestion old = byHotel.remove(hotelId);
+        if (old == null) return null;
+        for (String key : keys(old.name())) {
+            List<HotelSuggestion> entries = hotelKeys.get(key);
+            if (entries != null) {
+                entries.removeIf(s -> s.hotelId() == old.hotelId());
+                if (entries.isEmpty()) hotelKeys.remove(key);
+            }
+        }
+        removeCity(old.city());
+        return old;
+    }
+
+    /**
+     * Brings the cached top lists of every prefix the write touches up to date in place. Dropping
+     * them instead would make the next keystroke on a short, busy prefix ("g") rescan most of the
+     * dictionary. A list is only invalidated when a hotel leaves a full list and nothing known to
+     * rank above the rest of the dictionary replaces it.
+     */
+    private void patchCache(HotelSuggestion old, HotelSuggestion now) {
+        Set<String> newPrefixes = now != null ? prefixes(now.name()) : Set.of();
+        Set<String> touched = new HashSet<>(newPrefixes);
+        if (old != null) touched.addAll(prefixes(old.name()));
+
+        for (String prefix : touched) {
+            List<HotelSuggestion> cached = prefixCache.get(prefix);
+            if (cached == null) continue;
+
+            boolean full = cached.size() >= maxResults;
+            HotelSuggestion last = cached.isEmpty() ? null : cached.get(cached.size() - 1);
+            List<HotelSuggestion> next = new ArrayList<>(cached);
+            boolean hadOld = old != null && next.removeIf(s -> s.hotelId() == old.hotelId());
+            boolean addNew = newPrefixes.contains(prefix)
+                    && (!full || HOTEL_RANKING.compare(now, last) < 0);
+
+            if (addNew) {
+                next.add(now);
+                next.sort(HOTEL_RANKING);
+                if (next.size() > maxResults) next.remove(next.size() - 1);
+            } else if (full && hadOld) {
+                // the next best hotel may be anywhere under this prefix
+                prefixCache.invalidate(prefix);
+                continue;
+            }
+            prefixCache.put(prefix, List.copyOf(next));
+        }
+    }
+
+    private static Set<String> prefixes(String name) {
+        Set<String> prefixes = new HashSet<>();
+        for (String key : keys(name)) {
+            for (int i = 1; i <= key.length(); i++) {
+                prefixes.add(key.substring(0, i));
+            }
+        }
+        return prefixes;
+    }
+
+    private void addCity(String city) {
+        String normalized = fold(city);
+        if (normalized.isEmpty()) return;
+        CityStats stats = cities.computeIfAbsent(normalized, n -> new CityStats(city));
+        if (stats.hotelCount++ == 0) {
+            for (String key : keys(city)) {
+                cityKeys.computeIfAbsent(key, k -> new HashSet<>()).add(normalized);
+            }
+        }
+    }
+
+    private void removeCity(String city) {
+        String normalized = fold(city);
+        CityStats stats = cities.get(normalized);
+        if (stats == null || --stats.hotelCount > 0) return;
+        cities.remove(normalized);
+        for (String key : keys(stats.label)) {
+            Set<String> names = cityKeys.get(key);
+            if (names != null) {
+                names.remove(normalized);
+                if (names.isEmpty()) cityKeys.remove(key);
+            }
+        }
+    }
+
+    // the folded text plus the folded text from each following word start
+    private static Set<String> keys(String text) {
+        String folded = fold(text);
+        Set<String> keys = new LinkedHashSet<>();
+        if (folded.isEmpty()) return keys;
+        keys.add(folded);
+        int from = 0;
+        while (keys.size() <= MAX_WORD_KEYS) {
+            int space = folded.indexOf(' ', from);
+            if (space < 0) break;
+            keys.add(folded.substring(space + 1));
+            from = space + 1;
+        }
+        return keys;
+    }
+
+    private static String fold(String text) {
+        if (text == null) return "";
+        String folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return NON_WORD.matcher(folded.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+}
@@ -0,0 +1,359 @@
+package com.springproject.hospitalitymanagnet.backend.search;
+
+import com.springproject.hospitalitymanagnet.backend.dto.AmenityDTO;
+import com.springproject.hospitalitymanagnet.backend.dto.HotelDTO;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Inverted index for free-text hotel search (GET /api/hotels/search?q=...).
+ *
+ * Documents are hotels, addressed internally by a dense ordinal. Each term maps to a postings
+ * list of (ordinal, per-field term frequencies packed into one int). Scoring is BM25F-style:
+ * field frequencies are length-normalized and boosted per field, then saturated once per term.
+ * All query terms must match (AND). The last term (and any term that is not a word in the
+ * dictionary) also matches the terms it is a prefix of, at a reduced weight, so "colo" finds "colombo".
+ *
+ * Updates never edit postings in place: the old ordinal is tombstoned and the hotel is appended
+ * under a new one. Once enough tombstones pile up the postings are compacted in a single pass.
+ */
+@Component
+public class HotelTextIndex implements HotelIndex {
+
+    public record Hit(int hotelId, float score) {
+    }
+
+    enum Field {
+        NAME(3.0f), CITY(2.0f), LOCATION(1.5f), AMENITY(1.5f), DESCRIPTION(1.0f);
+
+        final float boost;
+
+        Field(float boost) {
+            this.boost = boost;
+        }
+    }
+
+    private static final Field[] FIELDS = Field.values();
+    private static final int TF_BITS = 6;
+    private static final int TF_MAX = (1 << TF_BITS) - 1;
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final float PREFIX_WEIGHT = 0.6f;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final int MIN_PREFIX_LENGTH = 2;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "at", "by", "for", "from", "in", "is", "of", "on", "or", "the", "to", "with");
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // guarded by lock
+    private final TreeMap<String, Postings> dictionary = new TreeMap<>();
+    private final Map<Integer, Integer> ordinalByHotel = new HashMap<>();
+    private final BitSet dead = new BitSet();
+    private int[] hotelByOrdinal = new int[1024];
+    private int[][] fieldLengths = new int[FIELDS.length][1024];
+    private String[] cityByOrdinal = new String[1024];
+    private String[] typeByOrdinal = new String[1024];
+    private final long[] totalFieldLength = new long[FIELDS.length];
+    private int ordinalCount;
+
+    private volatile boolean ready;
+
+    /** Append-only postings list; tombstoned ordinals are skipped at query time. */
+    private static final class Postings {
+        int[] ordinals = new int[4];
+        int[] packedTfs = new int[4];
+        int size;
+
+        void add(int ordinal, int packedTf) {
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+                packedTfs = Arrays.copyOf(packedTfs, size * 2);
+            }
+            ordinals[size] = ordinal;
+            packedTfs[size] = packedTf;
+            size++;
+        }
+    }
+
+    // ---------------- writes ----------------
+
+    @Override
+    public void index(HotelDTO hotel) {
+        if (hotel == null || hotel.getId() == null) return;
+
+        // tokenize outside the lock
+        Map<String, Integer> packed = new HashMap<>();
+        int[] lengths = new int[FIELDS.length];
+        addField(packed, lengths, Field.NAME, hotel.getName());
+        addField(packed, lengths, Field.CITY, hotel.getCity());
+        addField(packed, lengths, Field.LOCATION, hotel.getLocation());
+        addField(packed, lengths, Field.DESCRIPTION, hotel.getDescription());
+        if (hotel.getAmenities() != null) {
+            for (AmenityDTO amenity : hotel.getAmenities()) {
+                if (amenity != null) addField(packed, lengths, Field.AMENITY, amenity.getName());
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            Integer previous = ordinalByHotel.get(hotel.getId());
+            if (previous != null) tombstone(previous);
+
+            int ordinal = ordinalCount++;
+            ensureCapacity(ordinalCount);
+            hotelByOrdinal[ordinal] = hotel.getId();
+            cityByOrdinal[ordinal] = normalizeFilter(hotel.getCity());
+            typeByOrdinal[ordinal] = normalizeFilter(hotel.getPropertyType());
+            for (int f = 0; f < FIELDS.length; f++) {
+                fieldLengths[f][ordinal] = lengths[f];
+                totalFieldLength[f] += lengths[f];
+            }
+            for (Map.Entry<String, Integer> e : packed.entrySet()) {
+                dictionary.computeIfAbsent(e.getKey(), k -> new Postings()).add(ordinal, e.getValue());
+            }
+            ordinalByHotel.put(hotel.getId(), ordinal);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Integer hotelId) {
+        if (hotelId == null) return;
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinalByHotel.remove(hotelId);
+            if (ordinal != null) {
+                tombstone(ordinal);
+                compactIfNeeded();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void markReady() {
+        ready = true;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinalByHotel.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ---------------- queries ----------------
+
+    /**
+     * Top hotels for the query, best first. city / propertyType are optional exact
+     * (case-insensitive) filters applied to the matches.
+     */
+    public List<Hit> search(String query, String city, String propertyType, int limit) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (terms.isEmpty() || limit < 1) return List.of();
+        String cityFilter = normalizeFilter(city);
+        String typeFilter = normalizeFilter(propertyType);
+
+        lock.readLock().lock();
+        try {
+            int n = ordinalCount;
+            int live = ordinalByHotel.size();
+            if (live == 0) return List.of();
+
+            float[] avgLength = new float[FIELDS.length];
+            for (int f = 0; f < FIELDS.length; f++) {
+                avgLength[f] = Math.max(1f, (float) totalFieldLength[f] / live);
+            }
+
+            float[] scores = new float[n];
+            // matched[o] == number of query terms ordinal o has matched so far; an ordinal that
+            // missed term i is never picked up again by terms after it (AND semantics)
+            int[] matched = new int[n];
+
+            for (int t = 0; t < terms.size(); t++) {
+                String term = terms.get(t);
+                Postings exact = dictionary.get(term);
+                if (exact != null) {
+                    score(exact, 1f, t, n, avgLength, scores, matched);
+                }
+                // the last term is usually still being typed; earlier ones only expand when they
+                // are not a complete word themselves
+                boolean expand = t == terms.size() - 1 || exact == null;
+                if (expand && term.length() >= MIN_PREFIX_LENGTH) {
+                    for (Postings p : prefixExpansions(term)) {
+                        score(p, PREFIX_WEIGHT, t, n, avgLength, scores, matched);
+                    }
+                }
+            }
+
+            int required = terms.size();
+            PriorityQueue<Hit> top = new PriorityQueue<>(limit + 1, Comparator.comparingDouble(Hit::score));
+            for (int o = 0; o < n; o++) {
+                if (matched[o] != required || dead.get(o)) continue;
+                if (cityFilter != null && !cityFilter.equals(cityByOrdinal[o])) continue;
+                if (typeFilter != null && !typeFilter.equals(typeByOrdinal[o])) continue;
+                if (top.size() < limit) {
+                    top.add(new Hit(hotelByOrdinal[o], scores[o]));
+                } else if (scores[o] > top.peek().score()) {
+                    top.poll();
+                    top.add(new Hit(hotelByOrdinal[o], scores[o]));
+                }
+            }
+
+            List<Hit> result = new ArrayList<>(top);
+            result.sort(Comparator.comparingDouble(Hit::score).reversed());
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void score(Postings postings, float weight, int termIndex, int n,
+                       float[] avgLength, float[] scores, int[] matched) {
+        // df counts tombstoned entries too, as does n; both even out at the next compaction
+        float idf = (float) Math.log(1 + (n - postings.size + 0.5) / (postings.size + 0.5));
+        for (int i = 0; i < postings.size; i++) {
+            int o = postings.ordinals[i];
+            int m = matched[o];
+            if (m == termIndex) {
+                matched[o] = termIndex + 1;
+            } else if (m != termIndex + 1) {
+                continue; // missed an earlier term, or already counted by another expansion of this one
+            }
+            float tf = weightedTf(postings.packedTfs[i], o, avgLength);
+            scores[o] += weight * idf * tf * (K1 + 1) / (tf + K1);
+        }
+    }
+
+    private float weightedTf(int packed, int ordinal, float[] avgLength) {
+        float sum = 0;
+        for (int f = 0; f < FIELDS.length; f++) {
+            int tf = (packed >>> (f * TF_BITS)) & TF_MAX;
+            if (tf == 0) continue;
+            float norm = 1 - B + B * fieldLengths[f][ordinal] / avgLength[f];
+            sum += FIELDS[f].boost * tf / norm;
+        }
+        return sum;
+    }
+
+    // Dictionary terms strictly longer than the prefix that start with it, the most common ones
+    // first when there are more than MAX_PREFIX_EXPANSIONS of them
+    private List<Postings> prefixExpansions(String prefix) {
+        SortedMap<String, Postings> range = dictionary.subMap(prefix + Character.MIN_VALUE, prefix + Character.MAX_VALUE);
+        List<Postings> expansions = new ArrayList<>(range.values());
+        if (expansions.size() > MAX_PREFIX_EXPANSIONS) {
+            expansions.sort(Comparator.comparingInt((Postings p) -> p.size).reversed());
+            expansions = expansions.subList(0, MAX_PREFIX_EXPANSIONS);
+        }
+        return expansions;
+    }
+
+    // ---------------- internals ----------------
+
+    private void tombstone(int ordinal) {
+        dead.set(ordinal);
+        for (int f = 0; f < FIELDS.length; f++) {
+            totalFieldLength[f] -= fieldLengths[f][ordinal];
+        }
+    }
+
+    private void compactIfNeeded() {
+        int deadCount = dead.cardinality();
+        if (deadCount < 1024 || deadCount < ordinalCount / 4) return;
+
+        int[] remap = new int[ordinalCount];
+        int next = 0;
+        for (int o = 0; o < ordinalCount; o++) {
+            if (dead.get(o)) {
+                remap[o] = -1;
+                continue;
+            }
+            remap[o] = next;
+            hotelByOrdinal[next] = hotelByOrdinal[o];
+            cityByOrdinal[next] = cityByOrdinal[o];
+            typeByOrdinal[next] = typeByOrdinal[o];
+            for (int f = 0; f < FIELDS.length; f++) {
+                fieldLengths[f][next] = fieldLengths[f][o];
+            }
+            next++;
+        }
+        Arrays.fill(cityByOrdinal, next, ordinalCount, null);
+        Arrays.fill(typeByOrdinal, next, ordinalCount, null);
+
+        Iterator<Postings> it = dictionary.values().iterator();
+        while (it.hasNext()) {
+            Postings p = it.next();
+            int kept = 0;
+            for (int i = 0; i < p.size; i++) {
+                int mapped = remap[p.ordinals[i]];
+                if (mapped < 0) continue;
+                p.ordinals[kept] = mapped;
+                p.packedTfs[kept] = p.packedTfs[i];
+                kept++;
+            }
+            p.size = kept;
+            if (kept == 0) it.remove();
+        }
+
+        ordinalByHotel.replaceAll((hotelId, o) -> remap[o]);
+        ordinalCount = next;
+        dead.clear();
+    }
+
+    private void ensureCapacity(int needed) {
+        if (needed <= hotelByOrdinal.length) return;
+        int capacity = Math.max(needed, hotelByOrdinal.length * 2);
+        hotelByOrdinal = Arrays.copyOf(hotelByOrdinal, capacity);
+        cityByOrdinal = Arrays.copyOf(cityByOrdinal, capacity);
+        typeByOrdinal = Arrays.copyOf(typeByOrdinal, capacity);
+        for (int f = 0; f < FIELDS.length; f++) {
+            fieldLengths[f] = Arrays.copyOf(fieldLengths[f], capacity);
+        }
+    }
+
+    private static void addField(Map<String, Integer> packed, int[] lengths, Field field, String text) {
+        List<String> tokens = tokenize(text);
+        lengths[field.ordinal()] += tokens.size();
+        int shift = field.ordinal() * TF_BITS;
+        for (String token : tokens) {
+            packed.merge(token, 1 << shift, (current, one) -> {
+                int tf = (current >>> shift) & TF_MAX;
+                return tf == TF_MAX ? current : current + one; // saturate instead of overflowing into the next field
+            });
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) return List.of();
+        String folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(folded)) {
+            if (token.isEmpty() || STOP_WORDS.contains(token)) continue;
+            tokens.add(token);
+        }
+        return tokens;
+    }
+
+    private static String normalizeFilter(String value) {
+        return value == null || value.isBlank() ? null : value.trim().toLowerCase(Locale.ROOT);
+    }
+}
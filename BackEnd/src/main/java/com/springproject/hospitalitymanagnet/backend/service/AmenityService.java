@@ -0,0 +1,16 @@
+package com.springproject.hospitalitymanagnet.backend.service;
+
+import com.springproject.hospitalitymanagnet.backend.entity.Amenity;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface AmenityService {
+
+    /**
+     * Turns the amenities of a hotel write into stored amenities: references with an id must
+     * exist, references with only a name are matched by name (case-insensitive) and created
+     * when new. Duplicates are dropped, request order is kept.
+     */
+    List<Amenity> resolveAmenities(Collection<Amenity> requested);
+}
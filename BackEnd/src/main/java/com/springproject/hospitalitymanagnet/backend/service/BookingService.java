@@ -2,11 +2,14 @@ package com.springproject.hospitalitymanagnet.backend.service;
 
 import com.springproject.hospitalitymanagnet.backend.dto.BookingApiRequestDTO;
 import com.springproject.hospitalitymanagnet.backend.dto.BookingDTO;
+import com.springproject.hospitalitymanagnet.backend.dto.GroupBookingDTO;
+import com.springproject.hospitalitymanagnet.backend.dto.GroupBookingRequestDTO;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public interface BookingService {
 //    @PersistenceContext
@@ -18,6 +21,25 @@ public interface BookingService {
     List<BookingDTO> getBookingsByUser(Long userId);
     List<BookingDTO> getAllBookings();
     BookingDTO cancelBooking(Long bookingId);
-    BookingDTO createBookingWithPayment(BookingApiRequestDTO req);
+    // Holds the room and pays for it; completes once the provider has answered
+    CompletableFuture<BookingDTO> createBookingWithPayment(BookingApiRequestDTO req);
+
+    // Same under an Idempotency-Key: the hold is attached to the claim, and a claim taken over
+    // from a stopped run pays for that run's hold instead of holding another room
+    CompletableFuture<BookingDTO> createBookingWithPayment(BookingApiRequestDTO req, IdempotencyService.Claim claim);
+
+    // Takes the room for booking.hold.ttl-seconds as a PENDING booking, without charging
+    BookingDTO createHold(Long userId, Integer roomTypeId, LocalDate checkIn, LocalDate checkOut, int guests);
+
+    // Charges the hold's price and makes it CONFIRMED; a declined payment releases the hold,
+    // an unavailable provider (PaymentUnavailableException) keeps it for another try
+    CompletableFuture<BookingDTO> confirmHold(Long bookingId, BookingApiRequestDTO.Payment payment);
+
+    // Books many rooms (of several room types) for one stay with one payment: all of them or none
+    CompletableFuture<GroupBookingDTO> createGroupBooking(GroupBookingRequestDTO req);
+
+    // Same under an Idempotency-Key: the lead booking is attached to the claim, and a claim taken
+    // over from a stopped run pays for that run's group instead of holding the rooms again
+    CompletableFuture<GroupBookingDTO> createGroupBooking(GroupBookingRequestDTO req, IdempotencyService.Claim claim);
 
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.springproject.hospitalitymanagnet.backend.service;
+
+import com.springproject.hospitalitymanagnet.backend.dto.ImportResultDTO;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface HotelImportService {
+
+    /**
+     * Imports hotels from NDJSON (one HotelDTO per line, the /export format) or CSV (one hotel per
+     * row, see HotelImportServiceImpl for the columns). Rows are committed in chunks; invalid rows
+     * are reported and skipped instead of failing the file.
+     */
+    ImportResultDTO importHotels(InputStream body, boolean csv) throws IOException;
+}
@@ -1,10 +1,26 @@
 package com.springproject.hospitalitymanagnet.backend.service;
 
+import com.springproject.hospitalitymanagnet.backend.cache.Tagged;
+import com.springproject.hospitalitymanagnet.backend.dto.AvailableHotelDTO;
+import com.springproject.hospitalitymanagnet.backend.dto.CursorPageDTO;
+import com.springproject.hospitalitymanagnet.backend.dto.FacetedPageDTO;
 import com.springproject.hospitalitymanagnet.backend.dto.HotelDTO;
+import com.springproject.hospitalitymanagnet.backend.dto.HotelSummaryDTO;
+import com.springproject.hospitalitymanagnet.backend.dto.NearbyHotelDTO;
+import com.springproject.hospitalitymanagnet.backend.dto.RoomAvailabilityDTO;
+import com.springproject.hospitalitymanagnet.backend.dto.RoomOccupancyDTO;
+import com.springproject.hospitalitymanagnet.backend.dto.SuggestionDTO;
+import com.springproject.hospitalitymanagnet.backend.repository.HotelSearchCriteria;
+import com.springproject.hospitalitymanagnet.backend.search.HotelFacetIndex;
 import org.springframework.stereotype.Repository;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Repository
 public interface HotelService {
@@ -12,10 +28,59 @@ public interface HotelService {
     HotelDTO updateHotel(Integer id , HotelDTO hotel);
     void deleteHotel(Integer id);
     HotelDTO getHotelById(Integer id);
+
+    // Strong ETags for conditional GETs. The tagged reads return the tag stored with the cached
+    // value, so body and tag always describe the same data; getCatalogEtag is for uncached reads
+    // and must be read before the data.
+    Tagged<HotelDTO> getTaggedHotel(Integer id);
+    // The tag getTaggedHotel would answer with, without loading the hotel; null if there is none
+    String getHotelEtag(Integer id);
+    Tagged<List<HotelDTO>> getTaggedHotels();
+    String getCatalogEtag();
+
     List<HotelDTO> getAllHotels();
     HotelDTO saveHotelWithImages(HotelDTO hotelDTO, List<MultipartFile> images);
     List<HotelDTO> searchHotels(String city, String propertyType);
 
     List<HotelDTO> getHotelsByStatus(String status);
 
+    // Free-text search (name, description, location, city, amenities) served from the in-memory
+    // index, best match first. city / propertyType narrow the matches; blank means any.
+    List<HotelDTO> searchHotelsByText(String query, String city, String propertyType, Integer size);
+
+    // Proximity search over hotels with coordinates, closest first; city / propertyType optional
+    List<NearbyHotelDTO> findHotelsNearby(double latitude, double longitude, double radiusKm,
+                                          String city, String propertyType, Integer size);
+
+    // Hotels inside the bounding box, ordered by distance from the box centre
+    List<NearbyHotelDTO> findHotelsInBox(double minLatitude, double minLongitude, double maxLatitude, double maxLongitude,
+                                         String city, String propertyType, Integer size);
+
+    // Autocomplete for the search box: matching cities first (most hotels first), then hotels (best rated first)
+    List<SuggestionDTO> suggest(String prefix, Integer limit);
+
+    // Hotels with a room type for `guests` free on every night of [checkIn, checkOut), from the in-memory availability index
+    List<AvailableHotelDTO> searchAvailableHotels(String city, String propertyType, LocalDate checkIn, LocalDate checkOut,
+                                                  Integer guests, Integer size);
+
+    // Free units per room type of the hotel on every night of [checkIn, checkOut)
+    List<RoomAvailabilityDTO> getRoomAvailability(Integer hotelId, LocalDate checkIn, LocalDate checkOut);
+
+    // Active bookings per room type of the hotel overlapping [from, to), from the booking interval index
+    List<RoomOccupancyDTO> getOccupancyTimeline(Integer hotelId, LocalDate from, LocalDate to);
+
+    // One page of hotels matching the facet filters plus counts for every facet value, from the bitmap index
+    FacetedPageDTO searchWithFacets(Map<HotelFacetIndex.Facet, Set<String>> filters, String cursor, Integer size);
+
+    // Keyset-paginated listing; cursor is the nextCursor of the previous page (null for the first page)
+    CursorPageDTO<HotelDTO> getHotelPage(HotelSearchCriteria criteria, String cursor, Integer size);
+
+    // Listing cards (view=summary): one projected row per hotel, no collections are loaded.
+    // The unpaged variant honours status / city / propertyType of the criteria only.
+    List<HotelSummaryDTO> getHotelSummaries(HotelSearchCriteria criteria);
+    CursorPageDTO<HotelSummaryDTO> getHotelSummaryPage(HotelSearchCriteria criteria, String cursor, Integer size);
+
+    // Writes the whole catalog as NDJSON (one HotelDTO per line) with flat memory use
+    void exportCatalog(OutputStream out) throws IOException;
+
 }
@@ -0,0 +1,38 @@
+package com.springproject.hospitalitymanagnet.backend.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+public interface IdempotencyService {
+
+    /**
+     * The key as seen by a running action. attach() links what the action created (e.g. a hold)
+     * to the key and must be called in the transaction that creates it. resourceId() is what an
+     * earlier run, stopped before it finished, attached; null on a first run.
+     */
+    interface Claim {
+        Long resourceId();
+
+        void attach(Long resourceId);
+    }
+
+    /**
+     * Runs `action` once per (scope, key). A repeat of the request gets the stored response of
+     * the first run without running `action` again; repeats arriving while it runs complete
+     * with it. `action` brings its own transactions; none is open while it runs. If `action`
+     * fails with IllegalArgumentException the key is freed; any other failure keeps the claim
+     * and what it attached, and the next request with the key resumes from it.
+     *
+     * The future fails with IllegalArgumentException for a malformed key or a key reused with a
+     * different `request`, and IllegalStateException while another instance still runs the key.
+     */
+    <T> CompletableFuture<T> execute(String scope, String key, Object request, Class<T> responseType,
+                                     Function<Claim, CompletableFuture<T>> action);
+
+    // For actions with nothing to resume from: a takeover runs them again
+    default <T> CompletableFuture<T> execute(String scope, String key, Object request, Class<T> responseType,
+                                             Supplier<CompletableFuture<T>> action) {
+        return execute(scope, key, request, responseType, claim -> action.get());
+    }
+}
@@ -0,0 +1,29 @@
+package com.springproject.hospitalitymanagnet.backend.service;
+
+import com.springproject.hospitalitymanagnet.backend.entity.RoomType;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Map;
+
+public interface InventoryService {
+
+    /**
+     * Takes `units` rooms on every night of [checkIn, checkOut) or throws IllegalArgumentException
+     * when any night is sold out. Must run inside the booking transaction: a rejected stay is only
+     * undone by its rollback.
+     */
+    void reserve(RoomType roomType, LocalDate checkIn, LocalDate checkOut, int units);
+
+    // Gives back the units of a cancelled stay
+    void release(Integer roomTypeId, LocalDate checkIn, LocalDate checkOut, int units);
+
+    // Room type id -> units still free on every night of [checkIn, checkOut)
+    Map<Integer, Integer> getAvailableUnits(Collection<RoomType> roomTypes, LocalDate checkIn, LocalDate checkOut);
+
+    // Applies a changed RoomType.totalRooms to the nights already tracked, from today on; never below a night's sold units
+    void resize(Integer roomTypeId, int totalRooms);
+
+    // Drops the nights of room types about to be deleted
+    void removeRoomTypes(Collection<Integer> roomTypeIds);
+}
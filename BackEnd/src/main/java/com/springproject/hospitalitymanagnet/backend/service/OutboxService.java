@@ -0,0 +1,21 @@
+package com.springproject.hospitalitymanagnet.backend.service;
+
+import com.springproject.hospitalitymanagnet.backend.dto.BookingDTO;
+
+import java.util.Map;
+
+public interface OutboxService {
+
+    String BOOKING_CREATED = "BOOKING_CREATED";
+    String BOOKING_CONFIRMED = "BOOKING_CONFIRMED";
+    String BOOKING_CANCELLED = "BOOKING_CANCELLED";
+
+    /**
+     * Records a booking event in the caller's transaction, which must exist: the event is
+     * relayed if and only if that transaction commits.
+     */
+    void recordBookingEvent(String eventType, BookingDTO booking);
+
+    /** State of the relay: sinks, events published, failed runs and the backlog. */
+    Map<String, Object> stats();
+}
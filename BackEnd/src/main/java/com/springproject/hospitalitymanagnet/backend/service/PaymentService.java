@@ -3,10 +3,20 @@ package com.springproject.hospitalitymanagnet.backend.service;
 import com.springproject.hospitalitymanagnet.backend.dto.PaymentResultDTO;
 import com.springproject.hospitalitymanagnet.backend.dto.BookingApiRequestDTO;
 
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
 public interface PaymentService {
     /**
-     * Process payment details from the booking API DTO and return a PaymentResultDTO.
+     * Charges amount through the configured provider without blocking the caller. The future
+     * completes with the provider's answer (a decline has status FAILED), or exceptionally with
+     * PaymentUnavailableException when the provider is down, saturated or too slow.
+     * Nothing is persisted: the caller stores the one Payment row of a successful charge.
+     * Charging the same reference again does not charge twice.
      * Note: parameter type is the nested DTO BookingApiRequestDTO.Payment (not the JPA entity).
      */
-    PaymentResultDTO processPayment(BookingApiRequestDTO.Payment paymentInfo, double amount);
+    CompletableFuture<PaymentResultDTO> processPayment(String reference, BookingApiRequestDTO.Payment paymentInfo, double amount);
+
+    /** Per provider: circuit state, calls in flight and outcome counters. */
+    Map<String, Object> stats();
 }
@@ -2,4 +2,7 @@ package com.springproject.hospitalitymanagnet.backend.service;
 
 public interface RoomTypeService {
     void deleteRoomType(Integer roomTypeId);
+
+    // Sets the availability label ("Available" / "Unavailable" ...) and refreshes cached hotel data
+    void setAvailability(Integer roomTypeId, String availability);
 }
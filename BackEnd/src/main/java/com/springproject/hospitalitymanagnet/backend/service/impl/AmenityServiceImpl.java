@@ -0,0 +1,136 @@
+package com.springproject.hospitalitymanagnet.backend.service.impl;
+
+import com.springproject.hospitalitymanagnet.backend.entity.Amenity;
+import com.springproject.hospitalitymanagnet.backend.repository.AmenityRepository;
+import com.springproject.hospitalitymanagnet.backend.service.AmenityService;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Amenity dictionary for hotel writes.
+ *
+ * The amenities table is small, so it is loaded once and kept in memory by id and by folded name;
+ * a write whose amenities are all known costs no queries. Unknown ids are fetched in one
+ * findAllById, unknown names are looked up and the truly new ones inserted in one short
+ * transaction of their own, so a unique-name clash with a concurrent writer (or another instance)
+ * only retries that step and never poisons the caller's transaction.
+ */
+@Service
+public class AmenityServiceImpl implements AmenityService {
+
+    private static final int MAX_INSERT_ATTEMPTS = 3;
+
+    private final AmenityRepository amenityRepository;
+    private final TransactionTemplate insertTx;
+
+    private final Map<Integer, Amenity> byId = new ConcurrentHashMap<>();
+    private final Map<String, Amenity> byName = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    public AmenityServiceImpl(AmenityRepository amenityRepository, PlatformTransactionManager transactionManager) {
+        this.amenityRepository = amenityRepository;
+        this.insertTx = new TransactionTemplate(transactionManager);
+        this.insertTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public List<Amenity> resolveAmenities(Collection<Amenity> requested) {
+        if (requested == null || requested.isEmpty()) return new ArrayList<>();
+        ensureLoaded();
+
+        Set<Integer> missingIds = new LinkedHashSet<>();
+        Map<String, String> missingNames = new LinkedHashMap<>(); // folded -> display name
+        for (Amenity amenity : requested) {
+            if (amenity == null) continue;
+            if (amenity.getId() != null) {
+                if (!byId.containsKey(amenity.getId())) missingIds.add(amenity.getId());
+            } else {
+                String name = displayName(amenity.getName());
+                if (name.isEmpty()) throw new IllegalArgumentException("Amenity needs an id or a name");
+                if (!byName.containsKey(fold(name))) missingNames.putIfAbsent(fold(name), name);
+            }
+        }
+        if (!missingIds.isEmpty()) {
+            amenityRepository.findAllById(missingIds).forEach(this::remember);
+        }
+        if (!missingNames.isEmpty()) {
+            storeNames(missingNames.values());
+        }
+
+        Map<Integer, Amenity> resolved = new LinkedHashMap<>();
+        for (Amenity amenity : requested) {
+            if (amenity == null) continue;
+            Amenity known = amenity.getId() != null
+                    ? byId.get(amenity.getId())
+                    : byName.get(fold(displayName(amenity.getName())));
+            if (known == null) {
+                throw new IllegalArgumentException("Amenity not found with ID: " + amenity.getId());
+            }
+            // hand out copies, the cached instances are shared between requests
+            resolved.putIfAbsent(known.getId(), new Amenity(known.getId(), known.getName()));
+        }
+        return new ArrayList<>(resolved.values());
+    }
+
+    private void ensureLoaded() {
+        if (loaded) return;
+        synchronized (this) {
+            if (loaded) return;
+            amenityRepository.findAll().forEach(this::remember);
+            loaded = true;
+        }
+    }
+
+    private void storeNames(Collection<String> names) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                // read and insert in a fresh transaction: it sees rows committed by concurrent
+                // writers, and a constraint violation only rolls back this step
+                List<Amenity> stored = insertTx.execute(status -> {
+                    List<Amenity> found = new ArrayList<>(amenityRepository.findByNameIn(names));
+                    Set<String> foundNames = found.stream().map(a -> fold(a.getName())).collect(Collectors.toSet());
+                    List<Amenity> fresh = names.stream()
+                            .filter(n -> !foundNames.contains(fold(n)))
+                            .map(n -> new Amenity(null, n))
+                            .toList();
+                    if (!fresh.isEmpty()) {
+                        found.addAll(amenityRepository.saveAllAndFlush(fresh));
+                    }
+                    return found;
+                });
+                stored.forEach(this::remember);
+                return;
+            } catch (DataIntegrityViolationException e) {
+                // someone else inserted one of the names first; the next round picks their row up
+                if (attempt >= MAX_INSERT_ATTEMPTS) {
+                    throw new IllegalStateException("Could not store amenities " + names, e);
+                }
+            }
+        }
+    }
+
+    private void remember(Amenity amenity) {
+        Amenity copy = new Amenity(amenity.getId(), amenity.getName());
+        byId.put(copy.getId(), copy);
+        String name = fold(copy.getName());
+        if (!name.isEmpty()) {
+            // rows stored before the unique index may repeat a name; the oldest one wins
+            byName.merge(name, copy, (a, b) -> a.getId() <= b.getId() ? a : b);
+        }
+    }
+
+    private static String displayName(String name) {
+        return name == null ? "" : name.trim().replaceAll("\\s+", " ");
+    }
+
+    private static String fold(String name) {
+        return displayName(name).toLowerCase(Locale.ROOT);
+    }
+}
@@ -2,64 +2,242 @@ package com.springproject.hospitalitymanagnet.backend.service.impl;
 
 import com.springproject.hospitalitymanagnet.backend.dto.BookingApiRequestDTO;
 import com.springproject.hospitalitymanagnet.backend.dto.BookingDTO;
+import com.springproject.hospitalitymanagnet.backend.dto.GroupBookingDTO;
+import com.springproject.hospitalitymanagnet.backend.dto.GroupBookingRequestDTO;
 import com.springproject.hospitalitymanagnet.backend.dto.PaymentResultDTO;
 import com.springproject.hospitalitymanagnet.backend.entity.Booking;
 import com.springproject.hospitalitymanagnet.backend.entity.BookingStatus;
 import com.springproject.hospitalitymanagnet.backend.entity.RoomType;
 import com.springproject.hospitalitymanagnet.backend.entity.User;
+import com.springproject.hospitalitymanagnet.backend.mapper.BookingMapper;
+import com.springproject.hospitalitymanagnet.backend.repository.BookingBatchWriter;
 import com.springproject.hospitalitymanagnet.backend.repository.BookingRepository;
-import com.springproject.hospitalitymanagnet.backend.repository.PaymentRepository;
 import com.springproject.hospitalitymanagnet.backend.repository.RoomTypeRepository;
 import com.springproject.hospitalitymanagnet.backend.repository.UserRepository;
+import com.springproject.hospitalitymanagnet.backend.search.BookingIntervalIndex;
 import com.springproject.hospitalitymanagnet.backend.service.BookingService;
+import com.springproject.hospitalitymanagnet.backend.service.IdempotencyService;
+import com.springproject.hospitalitymanagnet.backend.service.InventoryService;
+import com.springproject.hospitalitymanagnet.backend.service.OutboxService;
 import com.springproject.hospitalitymanagnet.backend.service.PaymentService;
+import com.springproject.hospitalitymanagnet.backend.exception.PaymentUnavailableException;
+import com.springproject.hospitalitymanagnet.backend.util.Futures;
+import com.springproject.hospitalitymanagnet.backend.util.HashedTimerWheel;
+import com.springproject.hospitalitymanagnet.backend.util.OptimisticRetry;
+import com.springproject.hospitalitymanagnet.backend.util.TransactionHooks;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
  * BookingServiceImpl - implements booking flows including payment-backed booking creation.
  *
  * Notes:
- * - PaymentService bean must be available and implement processPayment(...)
- * - Booking entity must declare a Payment field with cascade so the payment entity is persisted with the booking
+ * - A hold is a PENDING booking with holdExpiresAt: it takes the inventory like a booking, and
+ *   unless confirmHold pays for it in time, a timer wheel releases it at holdExpiresAt
+ * - Payments are asynchronous: confirmHold returns while the provider is asked, and the booking
+ *   is confirmed on a confirm worker once it answers, so no request thread waits on the provider
+ * - Booking entity must declare a Payment field with cascade: the payment row is written with the
+ *   confirmed booking, and it is the only row of that charge
+ * - A group booking holds all its rooms in one transaction, pays once for the total and then
+ *   confirms or releases all of them together
+ * - Every change of a booking (created, confirmed, cancelled) writes an outbox event in the same
+ *   transaction as the booking change; OutboxRelay delivers them to downstream consumers
  */
 @Service
 public class BookingServiceImpl implements BookingService {
 
     private final BookingRepository bookingRepository;
+    private final BookingBatchWriter bookingBatchWriter;
     private final UserRepository userRepository;
     private final RoomTypeRepository roomTypeRepository;
     private final PaymentService paymentService;
-    private final PaymentRepository paymentRepository; // optional helper, can be null if unused
+    private final InventoryService inventoryService;
+    private final BookingIntervalIndex bookingIndex;
+    private final BookingMapper bookingMapper;
+    private final OptimisticRetry optimisticRetry;
+    private final OutboxService outboxService;
+    private final long holdTtlSeconds;
+    private final int maxGroupRooms;
+
+    private final HashedTimerWheel holdTimer;
+    private final ExecutorService expiryWorkers;
+    // finish bookings once their payment is answered
+    private final ExecutorService confirmWorkers;
+    private final Map<Long, HashedTimerWheel.Timeout> holdTimers = new ConcurrentHashMap<>();
+    // holds with a payment in flight on this instance
+    private final Set<Long> confirming = ConcurrentHashMap.newKeySet();
 
     private static final Logger logger = LoggerFactory.getLogger(BookingServiceImpl.class);
 
     public BookingServiceImpl(BookingRepository bookingRepository,
+                              BookingBatchWriter bookingBatchWriter,
                               UserRepository userRepository,
                               RoomTypeRepository roomTypeRepository,
                               PaymentService paymentService,
-                              PaymentRepository paymentRepository) {
+                              InventoryService inventoryService,
+                              BookingIntervalIndex bookingIndex,
+                              BookingMapper bookingMapper,
+                              OptimisticRetry optimisticRetry,
+                              OutboxService outboxService,
+                              @Value("${booking.hold.ttl-seconds:600}") long holdTtlSeconds,
+                              @Value("${booking.hold.tick-ms:1000}") long holdTickMs,
+                              @Value("${booking.confirm.threads:4}") int confirmThreads,
+                              @Value("${booking.group.max-rooms:50}") int maxGroupRooms) {
         this.bookingRepository = bookingRepository;
+        this.bookingBatchWriter = bookingBatchWriter;
         this.userRepository = userRepository;
         this.roomTypeRepository = roomTypeRepository;
         this.paymentService = paymentService;
-        this.paymentRepository = paymentRepository;
+        this.inventoryService = inventoryService;
+        this.bookingIndex = bookingIndex;
+        this.bookingMapper = bookingMapper;
+        this.optimisticRetry = optimisticRetry;
+        this.outboxService = outboxService;
+        this.holdTtlSeconds = holdTtlSeconds;
+        this.maxGroupRooms = Math.max(1, maxGroupRooms);
+        // 512 one-second ticks: most holds expire within the first turn of the wheel
+        this.holdTimer = new HashedTimerWheel("hold-expiry-timer", Math.max(10, holdTickMs), TimeUnit.MILLISECONDS, 512);
+        this.expiryWorkers = Executors.newFixedThreadPool(2, r -> {
+            Thread t = new Thread(r, "hold-expiry");
+            t.setDaemon(true);
+            return t;
+        });
+        this.confirmWorkers = Executors.newFixedThreadPool(Math.max(1, confirmThreads), r -> {
+            Thread t = new Thread(r, "booking-confirm");
+            t.setDaemon(true);
+            return t;
+        });
     }
 
     @Override
-    @Transactional
     public BookingDTO createBooking(Long userId, Integer roomTypeId, LocalDate checkIn, LocalDate checkOut, int guests) {
-        RoomType room = roomTypeRepository.findById(roomTypeId)
+        return optimisticRetry.execute("booking.create", () -> create(userId, roomTypeId, checkIn, checkOut, guests));
+    }
+
+    private BookingDTO create(Long userId, Integer roomTypeId, LocalDate checkIn, LocalDate checkOut, int guests) {
+        Booking saved = reserve(userId, roomTypeId, checkIn, checkOut, guests, null, null);
+        return bookingMapper.toDto(saved);
+    }
+
+    @Override
+    public BookingDTO createHold(Long userId, Integer roomTypeId, LocalDate checkIn, LocalDate checkOut, int guests) {
+        return createHold(userId, roomTypeId, checkIn, checkOut, guests, null, null);
+    }
+
+    private BookingDTO createHold(Long userId, Integer roomTypeId, LocalDate checkIn, LocalDate checkOut, int guests,
+                                  Double agreedPrice, IdempotencyService.Claim claim) {
+        return optimisticRetry.execute("booking.hold", () -> {
+            LocalDateTime expiresAt = LocalDateTime.now().plusSeconds(holdTtlSeconds);
+            Booking hold = reserve(userId, roomTypeId, checkIn, checkOut, guests, agreedPrice, expiresAt);
+            // committed together: a hold of an Idempotency-Key is never lost to a crash
+            if (claim != null) claim.attach(hold.getId());
+            TransactionHooks.afterCommit(() -> scheduleExpiry(hold.getId(), expiresAt));
+            return bookingMapper.toDto(hold);
+        });
+    }
+
+    /**
+     * Pays for a hold and confirms it. The hold is read here, the provider is asked without a
+     * thread or transaction waiting on it, and the answer is booked on a confirm worker in one
+     * short transaction. The charge reference is the booking id, so paying a hold again after
+     * the provider timed out does not charge twice.
+     */
+    @Override
+    public CompletableFuture<BookingDTO> confirmHold(Long bookingId, BookingApiRequestDTO.Payment payment) {
+        Booking hold;
+        try {
+            hold = bookingRepository.findById(bookingId)
+                    .orElseThrow(() -> new IllegalArgumentException("Booking not found: " + bookingId));
+            if (hold.getStatus() != BookingStatus.PENDING) {
+                throw new IllegalStateException("Booking " + bookingId + " is not an open hold (" + hold.getStatus() + ")");
+            }
+            if (!confirming.add(bookingId)) {
+                throw new IllegalStateException("Booking " + bookingId + " is already being paid");
+            }
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        String reference = "booking-" + bookingId;
+        return paymentService.processPayment(reference, payment, hold.getTotalPrice())
+                .thenApplyAsync(payRes -> {
+                    if (payRes == null || !"SUCCESS".equalsIgnoreCase(payRes.getStatus())) {
+                        String msg = (payRes != null ? payRes.getMessage() : "Payment processor returned null/failed");
+                        // nothing was charged: give the room back now instead of at expiry
+                        cancelBooking(bookingId);
+                        throw new IllegalArgumentException("Payment failed: " + msg);
+                    }
+                    try {
+                        return optimisticRetry.execute("booking.confirm", () -> confirm(bookingId, payRes));
+                    } catch (RuntimeException e) {
+                        logger.error("Payment {} ({}) for hold {} went through but the booking could not be confirmed;"
+                                + " the charge must be refunded", payRes.getPaymentId(), reference, bookingId, e);
+                        throw e;
+                    }
+                }, confirmWorkers)
+                .whenComplete((booking, failure) -> confirming.remove(bookingId));
+    }
+
+    private BookingDTO confirm(Long bookingId, PaymentResultDTO payRes) {
+        Booking booking = bookingRepository.findById(bookingId)
+                .orElseThrow(() -> new IllegalArgumentException("Booking not found: " + bookingId));
+        if (booking.getStatus() != BookingStatus.PENDING) {
+            throw new IllegalStateException("The hold expired before the payment completed");
+        }
+
+        booking.setPayment(paymentRecord(payRes, booking.getTotalPrice())); // requires Booking.payment @OneToOne(cascade = ALL)
+        booking.setStatus(BookingStatus.CONFIRMED);
+        booking.setHoldExpiresAt(null);
+        Booking saved = bookingRepository.save(booking);
+        TransactionHooks.afterCommit(() -> cancelExpiry(bookingId));
+        BookingDTO dto = bookingMapper.toDto(saved);
+        outboxService.recordBookingEvent(OutboxService.BOOKING_CONFIRMED, dto);
+        return dto;
+    }
+
+    private static com.springproject.hospitalitymanagnet.backend.entity.Payment paymentRecord(PaymentResultDTO payRes,
+                                                                                              double amount) {
+        return com.springproject.hospitalitymanagnet.backend.entity.Payment.builder()
+                .paymentProviderId(payRes.getPaymentId())
+                .provider(payRes.getProvider())
+                .method(payRes.getMethod())
+                .status(payRes.getStatus())
+                .amount(BigDecimal.valueOf(amount))
+                .currency(payRes.getCurrency() != null ? payRes.getCurrency() : "USD")
+                .cardLast4(payRes.getCardLast4())
+                .cardBrand(payRes.getCardBrand())
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    // Takes one room on each night of the stay and saves the booking, CONFIRMED or, with
+    // holdExpiresAt, as a PENDING hold, with its BOOKING_CREATED event. Runs in the caller's transaction.
+    private Booking reserve(Long userId, Integer roomTypeId, LocalDate checkIn, LocalDate checkOut, int guests,
+                            Double agreedPrice, LocalDateTime holdExpiresAt) {
+        RoomType room = roomTypeRepository.findByIdVersionChecked(roomTypeId)
                 .orElseThrow(() -> new IllegalArgumentException("Room not found: " + roomTypeId));
 
         User user = userRepository.findById(userId)
@@ -72,8 +250,12 @@ public class BookingServiceImpl implements BookingService {
         long nights = ChronoUnit.DAYS.between(checkIn, checkOut);
         if (nights <= 0) throw new IllegalArgumentException("Invalid dates: check-out must be after check-in");
 
+        requireNoOverlap(room, checkIn, checkOut);
+        // takes one room on each night; rolled back with the booking
+        inventoryService.reserve(room, checkIn, checkOut, 1);
+
         double rate = (room.getSpecialPrice() != null ? room.getSpecialPrice() : room.getBasePrice());
-        double price = rate * nights;
+        double price = agreedPrice != null ? agreedPrice : rate * nights;
 
         Booking booking = new Booking();
         booking.setUser(user);
@@ -82,77 +264,69 @@ public class BookingServiceImpl implements BookingService {
         booking.setCheckOutDate(checkOut);
         booking.setGuests(guests);
         booking.setTotalPrice(price);
-        booking.setStatus(BookingStatus.CONFIRMED);
+        booking.setStatus(holdExpiresAt != null ? BookingStatus.PENDING : BookingStatus.CONFIRMED);
+        booking.setHoldExpiresAt(holdExpiresAt);
 
         Booking saved = bookingRepository.save(booking);
-
-        // mark room unavailable
-        room.setAvailability("Unavailable");
-        roomTypeRepository.save(room);
-
-        return toDTO(saved);
+        bookingIndex.bookingCreated(saved.getId(), room.getId(), checkIn, checkOut);
+        outboxService.recordBookingEvent(OutboxService.BOOKING_CREATED, bookingMapper.toDto(saved));
+        return saved;
     }
 
     @Override
     public BookingDTO getBookingById(Long id) {
         return bookingRepository.findById(id)
-                .map(this::toDTO)
+                .map(bookingMapper::toDto)
                 .orElseThrow(() -> new IllegalArgumentException("Booking not found: " + id));
     }
 
     @Override
     public List<BookingDTO> getBookingsByUser(Long userId) {
         return bookingRepository.findByUserId(userId)
-                .stream().map(this::toDTO).collect(Collectors.toList());
+                .stream().map(bookingMapper::toDto).collect(Collectors.toList());
     }
 
     @Override
     public List<BookingDTO> getAllBookings() {
-        return bookingRepository.findAll().stream().map(this::toDTO).collect(Collectors.toList());
+        return bookingRepository.findAll().stream().map(bookingMapper::toDto).collect(Collectors.toList());
     }
 
     /**
      * Cancel a booking safely:
      *  - idempotent
-     *  - cancels booking status and attempts to set RoomType availability to Available only if no other active bookings exist
+     *  - cancels booking status and gives its nights back to the room inventory
      */
     @Override
-    @Transactional
     public BookingDTO cancelBooking(Long bookingId) {
+        // a concurrent cancel of the same booking loses the version check and, retried, finds it cancelled
+        return optimisticRetry.execute("booking.cancel", () -> cancel(bookingId));
+    }
+
+    private BookingDTO cancel(Long bookingId) {
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new IllegalArgumentException("Booking not found: " + bookingId));
 
         if (BookingStatus.CANCELLED.equals(booking.getStatus())) {
             logger.info("Booking {} already cancelled - nothing to do", bookingId);
-            return toDTO(booking);
+            return bookingMapper.toDto(booking);
         }
 
         booking.setStatus(BookingStatus.CANCELLED);
+        booking.setHoldExpiresAt(null);
         Booking saved = bookingRepository.save(booking);
+        TransactionHooks.afterCommit(() -> cancelExpiry(bookingId));
 
         RoomType room = saved.getRoomType();
         if (room != null && room.getId() != null) {
-            Integer roomTypeId = room.getId();
-            Optional<RoomType> lockedOpt;
-            try {
-                lockedOpt = roomTypeRepository.findByIdForUpdate(roomTypeId);
-            } catch (Throwable t) {
-                logger.warn("findByIdForUpdate unavailable for RoomType {}: {}. Falling back to findById()", roomTypeId, t.getMessage());
-                lockedOpt = roomTypeRepository.findById(roomTypeId);
-            }
-            RoomType lockedRoom = lockedOpt.orElse(room);
-
-            long activeCount = bookingRepository.countByRoomTypeIdAndStatusNot(roomTypeId, BookingStatus.CANCELLED);
-            if (activeCount == 0L) {
-                lockedRoom.setAvailability("Available");
-                roomTypeRepository.save(lockedRoom);
-                logger.info("RoomType {} set to Available after cancelling booking {}", roomTypeId, bookingId);
-            } else {
-                logger.info("RoomType {} still has {} active booking(s); leaving availability unchanged", roomTypeId, activeCount);
-            }
+            inventoryService.release(room.getId(), saved.getCheckInDate(), saved.getCheckOutDate(), 1);
+            bookingIndex.bookingCancelled(saved.getId());
+            logger.info("Released RoomType {} nights {} to {} after cancelling booking {}",
+                    room.getId(), saved.getCheckInDate(), saved.getCheckOutDate(), bookingId);
         }
 
-        return toDTO(saved);
+        BookingDTO dto = bookingMapper.toDto(saved);
+        outboxService.recordBookingEvent(OutboxService.BOOKING_CANCELLED, dto);
+        return dto;
     }
 
     /**
@@ -160,8 +334,49 @@ public class BookingServiceImpl implements BookingService {
      * from hotelId + roomName (or roomName alone) if the client didn't supply roomTypeId.
      */
     @Override
-    @Transactional
-    public BookingDTO createBookingWithPayment(BookingApiRequestDTO req) {
+    public CompletableFuture<BookingDTO> createBookingWithPayment(BookingApiRequestDTO req) {
+        return createBookingWithPayment(req, null);
+    }
+
+    @Override
+    public CompletableFuture<BookingDTO> createBookingWithPayment(BookingApiRequestDTO req, IdempotencyService.Claim claim) {
+        try {
+            if (claim != null && claim.resourceId() != null) return resumeHold(claim.resourceId(), req);
+            BookingDTO hold = holdFor(req, claim);
+            // a charge that failed leaves no open hold behind; one that was never answered keeps
+            // the hold of an Idempotency-Key for the retry to resume
+            return confirmHold(hold.getId(), req.getPayment())
+                    .whenCompleteAsync((booking, failure) -> {
+                        if (failure != null) releaseHold(hold.getId(), Futures.unwrap(failure), claim != null);
+                    }, confirmWorkers);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Picks up the hold of a run that stopped before its response was stored: paying it again
+     * uses the same charge reference, so a charge the provider already took is not repeated.
+     */
+    private CompletableFuture<BookingDTO> resumeHold(Long holdId, BookingApiRequestDTO req) {
+        Booking hold = bookingRepository.findById(holdId)
+                .orElseThrow(() -> new IllegalArgumentException("Booking not found: " + holdId));
+        if (hold.getStatus() == BookingStatus.CONFIRMED) {
+            return CompletableFuture.completedFuture(bookingMapper.toDto(hold));
+        }
+        if (hold.getStatus() != BookingStatus.PENDING) {
+            // released (e.g. expired) without a confirmed payment; a charge it may have taken is reconciled
+            throw new IllegalArgumentException("The hold " + holdId + " of this request was released (" + hold.getStatus()
+                    + "); reconcile charge booking-" + holdId + " and book again");
+        }
+        logger.info("Resuming payment of hold {}", holdId);
+        return confirmHold(holdId, req.getPayment())
+                .whenCompleteAsync((booking, failure) -> {
+                    if (failure != null) releaseHold(holdId, Futures.unwrap(failure), true);
+                }, confirmWorkers);
+    }
+
+    private BookingDTO holdFor(BookingApiRequestDTO req, IdempotencyService.Claim claim) {
         if (req == null) throw new IllegalArgumentException("Request body is required");
         if (req.getUserId() == null) throw new IllegalArgumentException("userId is required");
         if (req.getCheckIn() == null || req.getCheckOut() == null)
@@ -198,91 +413,324 @@ public class BookingServiceImpl implements BookingService {
             throw new IllegalArgumentException("Invalid date format for checkIn/checkOut. Use ISO yyyy-MM-dd", e);
         }
 
-        // load room and user (same validations as createBooking)
-        RoomType room = roomTypeRepository.findById(req.getRoomTypeId())
-                .orElseThrow(() -> new IllegalArgumentException("Room not found: " + req.getRoomTypeId()));
+        // the room is held in one short transaction, paid for with none open, then confirmed
+        return createHold(req.getUserId(), req.getRoomTypeId(), checkIn, checkOut,
+                req.getGuests() != null ? req.getGuests() : 1, req.getTotalPrice(), claim);
+    }
 
-        User user = userRepository.findById(req.getUserId())
-                .orElseThrow(() -> new IllegalArgumentException("User not found: " + req.getUserId()));
+    private void releaseHold(Long holdId, RuntimeException failure, boolean resumable) {
+        // a declined card has already released it
+        if (failure instanceof IllegalArgumentException) return;
+        if (failure instanceof PaymentUnavailableException) {
+            // a timed out charge may still go through at the provider
+            if (resumable) {
+                // the retry with the Idempotency-Key pays it again under booking-<id>, which the
+                // provider answers with the charge it may have taken; otherwise the timer releases it
+                logger.warn("Keeping hold {} for a retry after payment failure: {}", holdId, failure.getMessage());
+                return;
+            }
+            logger.warn("Releasing hold {} after payment failure; reconcile charge booking-{}: {}",
+                    holdId, holdId, failure.getMessage());
+        }
+        try {
+            cancelBooking(holdId);
+        } catch (RuntimeException e) {
+            // the timer releases it at expiry
+            logger.warn("Could not release hold {} now: {}", holdId, e.getMessage());
+        }
+    }
 
-        if (!"Available".equalsIgnoreCase(room.getAvailability())) {
-            throw new IllegalArgumentException("Room is not available");
+    // in-memory overlap check against active bookings: a full stay fails before any row is written
+    private void requireNoOverlap(RoomType room, LocalDate checkIn, LocalDate checkOut) {
+        int capacity = room.getTotalRooms() != null ? room.getTotalRooms() : 1;
+        if (!bookingIndex.hasCapacity(room.getId(), checkIn, checkOut, capacity)) {
+            throw new IllegalArgumentException("Room is not available for the selected dates");
         }
+    }
+
+    // ---------------- group bookings ----------------
 
+    /**
+     * Books all rooms of the request or none. The rooms are held in one transaction, paid for
+     * with a single charge of the total (asynchronously, like confirmHold), and then confirmed
+     * together in one transaction; a failed or unanswered payment releases every room.
+     */
+    @Override
+    public CompletableFuture<GroupBookingDTO> createGroupBooking(GroupBookingRequestDTO req) {
+        return createGroupBooking(req, null);
+    }
+
+    @Override
+    public CompletableFuture<GroupBookingDTO> createGroupBooking(GroupBookingRequestDTO req, IdempotencyService.Claim claim) {
+        List<Booking> held;
+        try {
+            if (claim != null && claim.resourceId() != null) return resumeGroup(claim.resourceId(), req);
+            TreeMap<Integer, List<Integer>> guestsByRoomType = groupRooms(req);
+            LocalDate checkIn;
+            LocalDate checkOut;
+            try {
+                checkIn = LocalDate.parse(req.getCheckIn());
+                checkOut = LocalDate.parse(req.getCheckOut());
+            } catch (Exception e) {
+                throw new IllegalArgumentException("Invalid date format for checkIn/checkOut. Use ISO yyyy-MM-dd", e);
+            }
+            held = optimisticRetry.execute("booking.group.hold",
+                    () -> holdGroup(req.getUserId(), checkIn, checkOut, guestsByRoomType, claim));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        // an unanswered charge keeps the group of an Idempotency-Key for the retry to resume
+        return payGroup(held.get(0).getGroupId(), held, req.getPayment(), claim != null);
+    }
+
+    /**
+     * Picks up the group of a run that stopped before its response was stored, like resumeHold:
+     * paying it again uses the same group-&lt;id&gt; charge reference.
+     */
+    private CompletableFuture<GroupBookingDTO> resumeGroup(Long leadId, GroupBookingRequestDTO req) {
+        Booking lead = bookingRepository.findById(leadId)
+                .orElseThrow(() -> new IllegalArgumentException("Booking not found: " + leadId));
+        String groupId = lead.getGroupId();
+        List<Booking> bookings = bookingRepository.findByGroupIdOrderByIdAsc(groupId);
+        if (bookings.stream().allMatch(b -> b.getStatus() == BookingStatus.CONFIRMED)) {
+            com.springproject.hospitalitymanagnet.backend.entity.Payment payment = bookings.get(0).getPayment();
+            return CompletableFuture.completedFuture(GroupBookingDTO.builder()
+                    .groupId(groupId)
+                    .status(BookingStatus.CONFIRMED.name())
+                    .rooms(bookings.size())
+                    .totalPrice(bookings.stream().mapToDouble(Booking::getTotalPrice).sum())
+                    .paymentProviderId(payment != null ? payment.getPaymentProviderId() : null)
+                    .paymentStatus(payment != null ? payment.getStatus() : null)
+                    .bookings(bookings.stream().map(bookingMapper::toDto).collect(Collectors.toList()))
+                    .build());
+        }
+        if (bookings.stream().anyMatch(b -> b.getStatus() != BookingStatus.PENDING)) {
+            // released (e.g. expired) without a confirmed payment; a charge it may have taken is reconciled
+            throw new IllegalArgumentException("The group " + groupId + " of this request was released;"
+                    + " reconcile charge group-" + groupId + " and book again");
+        }
+        logger.info("Resuming payment of group {}", groupId);
+        return payGroup(groupId, bookings, req.getPayment(), true);
+    }
+
+    // Charges the group's total once and confirms every booking, or releases them all
+    private CompletableFuture<GroupBookingDTO> payGroup(String groupId, List<Booking> held,
+                                                        BookingApiRequestDTO.Payment payment, boolean resumable) {
+        double total = held.stream().mapToDouble(Booking::getTotalPrice).sum();
+        return paymentService.processPayment("group-" + groupId, payment, total)
+                .thenApplyAsync(payRes -> {
+                    if (payRes == null || !"SUCCESS".equalsIgnoreCase(payRes.getStatus())) {
+                        String msg = (payRes != null ? payRes.getMessage() : "Payment processor returned null/failed");
+                        cancelGroup(groupId);
+                        throw new IllegalArgumentException("Payment failed: " + msg);
+                    }
+                    try {
+                        return optimisticRetry.execute("booking.group.confirm", () -> confirmGroup(groupId, payRes));
+                    } catch (RuntimeException e) {
+                        logger.error("Payment {} (group-{}) went through but the group could not be confirmed;"
+                                + " the charge must be refunded", payRes.getPaymentId(), groupId, e);
+                        throw e;
+                    }
+                }, confirmWorkers)
+                .whenCompleteAsync((group, failure) -> {
+                    // a declined card has already released the rooms
+                    if (failure == null || Futures.unwrap(failure) instanceof IllegalArgumentException) return;
+                    if (resumable && Futures.unwrap(failure) instanceof PaymentUnavailableException) {
+                        // the retry with the Idempotency-Key pays again under group-<id>; otherwise the timers release it
+                        logger.warn("Keeping group {} for a retry after payment failure: {}",
+                                groupId, Futures.unwrap(failure).getMessage());
+                        return;
+                    }
+                    logger.warn("Releasing group {} after payment failure; reconcile charge group-{}: {}",
+                            groupId, groupId, Futures.unwrap(failure).getMessage());
+                    try {
+                        cancelGroup(groupId);
+                    } catch (RuntimeException e) {
+                        // the timers release the rooms at expiry
+                        logger.warn("Could not release group {} now: {}", groupId, e.getMessage());
+                    }
+                }, confirmWorkers);
+    }
+
+    // Guests of each requested room, by room type in ascending id order
+    private TreeMap<Integer, List<Integer>> groupRooms(GroupBookingRequestDTO req) {
+        if (req == null) throw new IllegalArgumentException("Request body is required");
+        if (req.getUserId() == null) throw new IllegalArgumentException("userId is required");
+        if (req.getCheckIn() == null || req.getCheckOut() == null)
+            throw new IllegalArgumentException("checkIn and checkOut are required");
+        if (req.getRooms() == null || req.getRooms().isEmpty())
+            throw new IllegalArgumentException("rooms must list at least one room type");
+
+        TreeMap<Integer, List<Integer>> guestsByRoomType = new TreeMap<>();
+        int total = 0;
+        for (GroupBookingRequestDTO.Rooms rooms : req.getRooms()) {
+            if (rooms == null || rooms.getRoomTypeId() == null) throw new IllegalArgumentException("roomTypeId is required");
+            int count = rooms.getCount() != null ? rooms.getCount() : 1;
+            int guests = rooms.getGuests() != null ? rooms.getGuests() : 1;
+            if (count < 1) throw new IllegalArgumentException("count must be at least 1");
+            total += count;
+            if (total > maxGroupRooms) {
+                throw new IllegalArgumentException("A group booking can have at most " + maxGroupRooms + " rooms");
+            }
+            List<Integer> perRoom = guestsByRoomType.computeIfAbsent(rooms.getRoomTypeId(), k -> new ArrayList<>());
+            for (int i = 0; i < count; i++) {
+                perRoom.add(guests);
+            }
+        }
+        return guestsByRoomType;
+    }
+
+    // Takes the rooms of every room type and inserts them as PENDING holds of one new group.
+    // Runs in the caller's transaction; any room type that does not fit rolls back all of them.
+    private List<Booking> holdGroup(Long userId, LocalDate checkIn, LocalDate checkOut,
+                                    TreeMap<Integer, List<Integer>> guestsByRoomType, IdempotencyService.Claim claim) {
         long nights = ChronoUnit.DAYS.between(checkIn, checkOut);
         if (nights <= 0) throw new IllegalArgumentException("Invalid dates: check-out must be after check-in");
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new IllegalArgumentException("User not found: " + userId));
 
-        double rate = (room.getSpecialPrice() != null ? room.getSpecialPrice() : room.getBasePrice());
-        double computedPrice = rate * nights;
-        double totalPrice = req.getTotalPrice() != null ? req.getTotalPrice() : computedPrice;
+        String groupId = UUID.randomUUID().toString();
+        LocalDateTime expiresAt = LocalDateTime.now().plusSeconds(holdTtlSeconds);
+        List<Booking> bookings = new ArrayList<>();
+        // ascending room type ids: concurrent groups take inventory rows in the same order, so
+        // they wait for each other instead of deadlocking
+        for (Map.Entry<Integer, List<Integer>> entry : guestsByRoomType.entrySet()) {
+            Integer roomTypeId = entry.getKey();
+            int units = entry.getValue().size();
+            RoomType room = roomTypeRepository.findByIdVersionChecked(roomTypeId)
+                    .orElseThrow(() -> new IllegalArgumentException("Room not found: " + roomTypeId));
+            if (!"Available".equalsIgnoreCase(room.getAvailability())) {
+                throw new IllegalArgumentException("Room " + roomTypeId + " is not available");
+            }
+            int capacity = room.getTotalRooms() != null ? room.getTotalRooms() : 1;
+            if (!bookingIndex.hasCapacity(roomTypeId, checkIn, checkOut, capacity, units)) {
+                throw new IllegalArgumentException("Not enough free rooms of room type " + roomTypeId
+                        + " for the selected dates (requested " + units + ")");
+            }
+            inventoryService.reserve(room, checkIn, checkOut, units);
+
+            double rate = (room.getSpecialPrice() != null ? room.getSpecialPrice() : room.getBasePrice());
+            for (Integer guests : entry.getValue()) {
+                Booking booking = new Booking();
+                booking.setUser(user);
+                booking.setRoomType(room);
+                booking.setCheckInDate(checkIn);
+                booking.setCheckOutDate(checkOut);
+                booking.setGuests(guests);
+                booking.setTotalPrice(rate * nights);
+                booking.setStatus(BookingStatus.PENDING);
+                booking.setHoldExpiresAt(expiresAt);
+                booking.setGroupId(groupId);
+                bookings.add(booking);
+            }
+        }
 
-        // ---------- PAYMENT ----------
-        PaymentResultDTO payRes = paymentService.processPayment(req.getPayment(), totalPrice);
+        bookingBatchWriter.insert(bookings);
+        // committed together: the group of an Idempotency-Key is found again through its lead booking
+        if (claim != null) claim.attach(bookings.get(0).getId());
+        for (Booking booking : bookings) {
+            bookingIndex.bookingCreated(booking.getId(), booking.getRoomType().getId(), checkIn, checkOut);
+            outboxService.recordBookingEvent(OutboxService.BOOKING_CREATED, bookingMapper.toDto(booking));
+        }
+        TransactionHooks.afterCommit(() -> bookings.forEach(b -> scheduleExpiry(b.getId(), expiresAt)));
+        return bookings;
+    }
 
-        if (payRes == null || !"SUCCESS".equalsIgnoreCase(payRes.getStatus())) {
-            String msg = (payRes != null ? payRes.getMessage() : "Payment processor returned null/failed");
-            throw new IllegalArgumentException("Payment failed: " + msg);
+    private GroupBookingDTO confirmGroup(String groupId, PaymentResultDTO payRes) {
+        List<Booking> bookings = bookingRepository.findByGroupIdOrderByIdAsc(groupId);
+        if (bookings.isEmpty()) throw new IllegalArgumentException("Group booking not found: " + groupId);
+        if (bookings.stream().anyMatch(b -> b.getStatus() != BookingStatus.PENDING)) {
+            throw new IllegalStateException("The group hold expired before the payment completed");
         }
 
-        // ---------- CREATE BOOKING + PAYMENT ENTITY ----------
-        Booking booking = new Booking();
-        booking.setUser(user);
-        booking.setRoomType(room);
-        booking.setCheckInDate(checkIn);
-        booking.setCheckOutDate(checkOut);
-        booking.setGuests(req.getGuests() != null ? req.getGuests() : 1);
-        booking.setTotalPrice(totalPrice);
-        booking.setStatus(BookingStatus.CONFIRMED);
+        double total = bookings.stream().mapToDouble(Booking::getTotalPrice).sum();
+        // the one payment of the group hangs off its lead booking
+        bookings.get(0).setPayment(paymentRecord(payRes, total));
+        for (Booking booking : bookings) {
+            booking.setStatus(BookingStatus.CONFIRMED);
+            booking.setHoldExpiresAt(null);
+        }
+        List<Booking> saved = bookingRepository.saveAll(bookings);
+        TransactionHooks.afterCommit(() -> saved.forEach(b -> cancelExpiry(b.getId())));
+
+        List<BookingDTO> dtos = new ArrayList<>(saved.size());
+        for (Booking booking : saved) {
+            BookingDTO dto = bookingMapper.toDto(booking);
+            outboxService.recordBookingEvent(OutboxService.BOOKING_CONFIRMED, dto);
+            dtos.add(dto);
+        }
+        return GroupBookingDTO.builder()
+                .groupId(groupId)
+                .status(BookingStatus.CONFIRMED.name())
+                .rooms(dtos.size())
+                .totalPrice(total)
+                .paymentProviderId(payRes.getPaymentId())
+                .paymentStatus(payRes.getStatus())
+                .bookings(dtos)
+                .build();
+    }
 
-        com.springproject.hospitalitymanagnet.backend.entity.Payment paymentEntity =
-                com.springproject.hospitalitymanagnet.backend.entity.Payment.builder()
-                        .paymentProviderId(payRes.getPaymentId())
-                        .provider(payRes.getProvider())
-                        .method(payRes.getMethod())
-                        .status(payRes.getStatus())
-                        .amount(BigDecimal.valueOf(totalPrice))
-                        .currency(payRes.getCurrency() != null ? payRes.getCurrency() : "USD")
-                        .cardLast4(payRes.getCardLast4())
-                        .cardBrand(payRes.getCardBrand())
-                        .createdAt(LocalDateTime.now())
-                        .build();
-
-        booking.setPayment(paymentEntity); // requires Booking.payment @OneToOne(cascade = ALL)
+    // Cancels every booking of the group that is still active, in one transaction
+    private void cancelGroup(String groupId) {
+        optimisticRetry.execute("booking.group.cancel", () -> {
+            for (Booking booking : bookingRepository.findByGroupIdOrderByIdAsc(groupId)) {
+                if (booking.getStatus() != BookingStatus.CANCELLED) cancel(booking.getId());
+            }
+        });
+    }
 
-        Booking saved = bookingRepository.save(booking);
+    // ---------------- hold expiry ----------------
 
-        // mark room unavailable and save
-        room.setAvailability("Unavailable");
-        roomTypeRepository.save(room);
-
-        return toDTO(saved);
-    }
-
-    // Convert Booking entity -> BookingDTO (includes payment details if present)
-    private BookingDTO toDTO(Booking booking) {
-        if (booking == null) return null;
-
-        BookingDTO.BookingDTOBuilder b = BookingDTO.builder()
-                .id(booking.getId())
-                .userId(booking.getUser() != null ? booking.getUser().getId() : null)
-                .roomTypeId(booking.getRoomType() != null ? booking.getRoomType().getId() : null)
-                .roomName(booking.getRoomType() != null ? booking.getRoomType().getName() : null)
-                .checkInDate(booking.getCheckInDate())
-                .checkOutDate(booking.getCheckOutDate())
-                .guests(booking.getGuests())
-                .totalPrice(booking.getTotalPrice())
-                .status(booking.getStatus() != null ? booking.getStatus().name() : null);
-
-        if (booking.getPayment() != null) {
-            com.springproject.hospitalitymanagnet.backend.entity.Payment p = booking.getPayment();
-            b.paymentProviderId(p.getPaymentProviderId());
-            b.paymentStatus(p.getStatus());
-            b.paymentAmount(p.getAmount() != null ? p.getAmount().doubleValue() : null);
-            b.paymentCurrency(p.getCurrency());
-            b.paymentCardLast4(p.getCardLast4());
-            b.paymentProvider(p.getProvider());
+    /** Re-arms the timers of holds that were open when the application stopped. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleOpenHolds() {
+        List<BookingRepository.HoldView> holds = bookingRepository.findOpenHolds();
+        for (BookingRepository.HoldView hold : holds) {
+            scheduleExpiry(hold.getId(), hold.getHoldExpiresAt());
         }
+        if (!holds.isEmpty()) logger.info("Scheduled expiry of {} open holds", holds.size());
+    }
+
+    @PreDestroy
+    void stopWorkers() {
+        holdTimer.close();
+        expiryWorkers.shutdown();
+        confirmWorkers.shutdown();
+    }
 
-        return b.build();
+    private void scheduleExpiry(Long bookingId, LocalDateTime expiresAt) {
+        long delayMs = Math.max(0, Duration.between(LocalDateTime.now(), expiresAt).toMillis());
+        // the wheel thread only hands the release over; it must not wait on the database
+        HashedTimerWheel.Timeout timeout = holdTimer.schedule(
+                () -> expiryWorkers.execute(() -> expireHold(bookingId)), delayMs, TimeUnit.MILLISECONDS);
+        HashedTimerWheel.Timeout previous = holdTimers.put(bookingId, timeout);
+        if (previous != null) previous.cancel();
+    }
+
+    private void cancelExpiry(Long bookingId) {
+        HashedTimerWheel.Timeout timeout = holdTimers.remove(bookingId);
+        if (timeout != null) timeout.cancel();
+    }
+
+    private void expireHold(Long bookingId) {
+        holdTimers.remove(bookingId);
+        try {
+            optimisticRetry.execute("booking.expireHold", () -> {
+                Booking hold = bookingRepository.findById(bookingId).orElse(null);
+                if (hold == null || hold.getStatus() != BookingStatus.PENDING || hold.getHoldExpiresAt() == null) return;
+                if (hold.getHoldExpiresAt().isAfter(LocalDateTime.now())) {
+                    // the timer fired early by a tick; try again at the deadline
+                    TransactionHooks.afterCommit(() -> scheduleExpiry(bookingId, hold.getHoldExpiresAt()));
+                    return;
+                }
+                cancel(bookingId);
+                logger.info("Released unpaid hold {}", bookingId);
+            });
+        } catch (RuntimeException e) {
+            // e.g. the inventory is not loaded yet after a restart
+            logger.warn("Could not release hold {}, retrying shortly: {}", bookingId, e.getMessage());
+            scheduleExpiry(bookingId, LocalDateTime.now().plusSeconds(5));
+        }
     }
 }
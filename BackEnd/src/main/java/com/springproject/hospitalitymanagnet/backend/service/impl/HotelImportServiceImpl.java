@@ -0,0 +1,329 @@
+package com.springproject.hospitalitymanagnet.backend.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.springproject.hospitalitymanagnet.backend.cache.HotelCatalogCache;
+import com.springproject.hospitalitymanagnet.backend.dto.*;
+import com.springproject.hospitalitymanagnet.backend.entity.Amenity;
+import com.springproject.hospitalitymanagnet.backend.repository.HotelBatchWriter;
+import com.springproject.hospitalitymanagnet.backend.search.HotelIndexer;
+import com.springproject.hospitalitymanagnet.backend.service.AmenityService;
+import com.springproject.hospitalitymanagnet.backend.service.HotelImportService;
+import com.springproject.hospitalitymanagnet.backend.util.CsvReader;
+import com.springproject.hospitalitymanagnet.backend.util.GeoUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Streaming bulk import (POST /api/hotels/import).
+ *
+ * The body is read row by row and never buffered as a whole. Valid rows are collected into
+ * chunks of hotel.import.chunk-size; each chunk resolves its amenities in one call, is written
+ * with JDBC batches (HotelBatchWriter) and committed on its own. When a chunk fails in the
+ * database it is replayed one row per transaction, so only the offending rows are rejected.
+ *
+ * CSV columns (header row required, names case-insensitive, any order): name, location,
+ * starRating, contactNumber, description, status, propertyType, city, startingPrice,
+ * averageRating, latitude, longitude, amenities and images (both "|"-separated), checkInTime,
+ * checkOutTime, cancellationPolicy, additionalInfo. Room types can only be imported as NDJSON.
+ */
+@Service
+public class HotelImportServiceImpl implements HotelImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotelImportServiceImpl.class);
+
+    private static final Set<String> CSV_COLUMNS = Set.of(
+            "name", "location", "starrating", "contactnumber", "description", "status", "propertytype", "city",
+            "startingprice", "averagerating", "latitude", "longitude", "amenities", "images",
+            "checkintime", "checkouttime", "cancellationpolicy", "additionalinfo");
+
+    private final HotelBatchWriter batchWriter;
+    private final AmenityService amenityService;
+    private final HotelCatalogCache catalogCache;
+    private final HotelIndexer hotelIndexer;
+    private final ObjectReader hotelReader;
+    private final TransactionTemplate chunkTx;
+
+    @Value("${hotel.import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${hotel.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    private record ImportRow(long line, HotelDTO hotel) {
+    }
+
+    public HotelImportServiceImpl(HotelBatchWriter batchWriter,
+                                  AmenityService amenityService,
+                                  HotelCatalogCache catalogCache,
+                                  HotelIndexer hotelIndexer,
+                                  ObjectMapper objectMapper,
+                                  PlatformTransactionManager transactionManager) {
+        this.batchWriter = batchWriter;
+        this.amenityService = amenityService;
+        this.catalogCache = catalogCache;
+        this.hotelIndexer = hotelIndexer;
+        this.hotelReader = objectMapper.readerFor(HotelDTO.class);
+        this.chunkTx = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public ImportResultDTO importHotels(InputStream body, boolean csv) throws IOException {
+        long start = System.currentTimeMillis();
+        ImportResultDTO result = new ImportResultDTO();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8), 1 << 16);
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+
+        if (csv) {
+            CsvReader csvReader = new CsvReader(reader);
+            List<String> header = csvReader.next();
+            if (header == null) throw new IllegalArgumentException("CSV body is empty");
+            String[] columns = csvColumns(header);
+            List<String> record;
+            while ((record = csvReader.next()) != null) {
+                long line = csvReader.getRecordLine();
+                result.setTotal(result.getTotal() + 1);
+                try {
+                    chunk.add(new ImportRow(line, validate(fromCsv(columns, record))));
+                } catch (IllegalArgumentException e) {
+                    reject(result, line, e.getMessage());
+                }
+                if (chunk.size() == chunkSize) writeChunk(chunk, result);
+            }
+        } else {
+            String text;
+            long line = 0;
+            while ((text = reader.readLine()) != null) {
+                line++;
+                if (text.isBlank()) continue;
+                result.setTotal(result.getTotal() + 1);
+                try {
+                    chunk.add(new ImportRow(line, validate(hotelReader.readValue(text))));
+                } catch (JsonProcessingException e) {
+                    reject(result, line, "Malformed JSON: " + e.getOriginalMessage());
+                } catch (IllegalArgumentException e) {
+                    reject(result, line, e.getMessage());
+                }
+                if (chunk.size() == chunkSize) writeChunk(chunk, result);
+            }
+        }
+        writeChunk(chunk, result);
+
+        result.setDurationMs(System.currentTimeMillis() - start);
+        logger.info("Hotel import: {} of {} rows imported, {} rejected, {} ms",
+                result.getImported(), result.getTotal(), result.getFailed(), result.getDurationMs());
+        return result;
+    }
+
+    // ---------------- writing ----------------
+
+    private void writeChunk(List<ImportRow> chunk, ImportResultDTO result) {
+        if (chunk.isEmpty()) return;
+        List<ImportRow> rows = resolveAmenities(chunk, result);
+        chunk.clear();
+        if (rows.isEmpty()) return;
+
+        try {
+            chunkTx.executeWithoutResult(status -> write(rows));
+            result.setImported(result.getImported() + rows.size());
+        } catch (DataAccessException e) {
+            // replay row by row to tell the bad rows from the good ones
+            for (ImportRow row : rows) {
+                try {
+                    chunkTx.executeWithoutResult(status -> write(List.of(row)));
+                    result.setImported(result.getImported() + 1);
+                } catch (DataAccessException rowError) {
+                    reject(result, row.line(), rowError.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+    }
+
+    private void write(List<ImportRow> rows) {
+        List<HotelDTO> hotels = rows.stream().map(ImportRow::hotel).toList();
+        batchWriter.insert(hotels);
+        // both run after commit only
+        catalogCache.evictHotel(null);
+        hotels.forEach(hotelIndexer::hotelSaved);
+    }
+
+    /**
+     * New amenity names of the whole chunk are created in one call; after that every row
+     * resolves from the in-memory dictionary. Rows naming unknown amenity ids are rejected.
+     */
+    private List<ImportRow> resolveAmenities(List<ImportRow> chunk, ImportResultDTO result) {
+        List<Amenity> byName = new ArrayList<>();
+        for (ImportRow row : chunk) {
+            for (AmenityDTO a : row.hotel().getAmenities()) {
+                if (a.getId() == null) byName.add(new Amenity(null, a.getName()));
+            }
+        }
+        if (!byName.isEmpty()) amenityService.resolveAmenities(byName);
+
+        List<ImportRow> resolved = new ArrayList<>(chunk.size());
+        for (ImportRow row : chunk) {
+            HotelDTO hotel = row.hotel();
+            try {
+                List<Amenity> amenities = amenityService.resolveAmenities(hotel.getAmenities().stream()
+                        .map(a -> new Amenity(a.getId(), a.getName()))
+                        .toList());
+                hotel.setAmenities(amenities.stream().map(a -> new AmenityDTO(a.getId(), a.getName())).toList());
+                resolved.add(row);
+            } catch (IllegalArgumentException e) {
+                reject(result, row.line(), e.getMessage());
+            }
+        }
+        return resolved;
+    }
+
+    private void reject(ImportResultDTO result, long line, String message) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < maxReportedErrors) {
+            result.getErrors().add(new ImportErrorDTO(line, message));
+        } else {
+            result.setErrorsTruncated(true);
+        }
+    }
+
+    // ---------------- parsing and validation ----------------
+
+    private static HotelDTO validate(HotelDTO hotel) {
+        if (hotel.getName() == null || hotel.getName().isBlank()) {
+            throw new IllegalArgumentException("name is required");
+        }
+        if (hotel.getStarRating() != null && (hotel.getStarRating() < 0 || hotel.getStarRating() > 5)) {
+            throw new IllegalArgumentException("starRating must be between 0 and 5");
+        }
+        if (hotel.getAverageRating() != null && (hotel.getAverageRating() < 0 || hotel.getAverageRating() > 5)) {
+            throw new IllegalArgumentException("averageRating must be between 0 and 5");
+        }
+        if (hotel.getStartingPrice() != null && hotel.getStartingPrice() < 0) {
+            throw new IllegalArgumentException("startingPrice must not be negative");
+        }
+        GeoUtils.requireValidCoordinates(hotel.getLatitude(), hotel.getLongitude());
+
+        // ids in the file are ignored: every row becomes a new hotel
+        hotel.setId(null);
+        hotel.setAmenities(hotel.getAmenities() != null ? new ArrayList<>(hotel.getAmenities()) : new ArrayList<>());
+        for (AmenityDTO a : hotel.getAmenities()) {
+            if (a == null || (a.getId() == null && (a.getName() == null || a.getName().isBlank()))) {
+                throw new IllegalArgumentException("every amenity needs an id or a name");
+            }
+        }
+        if (hotel.getImages() != null) {
+            for (HotelImageDTO image : hotel.getImages()) {
+                if (image == null || image.getImageUrl() == null || image.getImageUrl().isBlank()) {
+                    throw new IllegalArgumentException("every image needs an imageUrl");
+                }
+                image.setId(null);
+            }
+        }
+        if (hotel.getPolicy() != null) {
+            hotel.getPolicy().setId(null);
+        }
+        if (hotel.getRoomTypes() != null) {
+            for (RoomTypeDTO rt : hotel.getRoomTypes()) {
+                if (rt == null || rt.getName() == null || rt.getName().isBlank()) {
+                    throw new IllegalArgumentException("every room type needs a name");
+                }
+                if (rt.getBasePrice() != null && rt.getBasePrice() < 0) {
+                    throw new IllegalArgumentException("room type basePrice must not be negative");
+                }
+                if (rt.getTotalRooms() != null && rt.getTotalRooms() < 1) {
+                    throw new IllegalArgumentException("room type totalRooms must be at least 1");
+                }
+                if (rt.getMaxGuests() != null && rt.getMaxGuests() < 1) {
+                    throw new IllegalArgumentException("room type maxGuests must be at least 1");
+                }
+                rt.setId(null);
+            }
+        }
+        return hotel;
+    }
+
+    private static String[] csvColumns(List<String> header) {
+        String[] columns = new String[header.size()];
+        List<String> unknown = new ArrayList<>();
+        for (int i = 0; i < columns.length; i++) {
+            // a UTF-8 byte order mark ends up in front of the first column name
+            String column = header.get(i).replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT);
+            if (!CSV_COLUMNS.contains(column)) unknown.add(header.get(i));
+            columns[i] = column;
+        }
+        if (!unknown.isEmpty()) {
+            throw new IllegalArgumentException("Unknown CSV column(s): " + String.join(", ", unknown));
+        }
+        return columns;
+    }
+
+    private static HotelDTO fromCsv(String[] columns, List<String> record) {
+        if (record.size() != columns.length) {
+            throw new IllegalArgumentException("expected " + columns.length + " columns, found " + record.size());
+        }
+        HotelDTO hotel = new HotelDTO();
+        PolicyDTO policy = new PolicyDTO();
+        boolean hasPolicy = false;
+        for (int i = 0; i < columns.length; i++) {
+            String value = record.get(i).trim();
+            if (value.isEmpty()) continue;
+            switch (columns[i]) {
+                case "name" -> hotel.setName(value);
+                case "location" -> hotel.setLocation(value);
+                case "starrating" -> hotel.setStarRating(parseInt(columns[i], value));
+                case "contactnumber" -> hotel.setContactNumber(value);
+                case "description" -> hotel.setDescription(value);
+                case "status" -> hotel.setStatus(value);
+                case "propertytype" -> hotel.setPropertyType(value);
+                case "city" -> hotel.setCity(value);
+                case "startingprice" -> hotel.setStartingPrice(parseDouble(columns[i], value));
+                case "averagerating" -> hotel.setAverageRating(parseDouble(columns[i], value));
+                case "latitude" -> hotel.setLatitude(parseDouble(columns[i], value));
+                case "longitude" -> hotel.setLongitude(parseDouble(columns[i], value));
+                case "amenities" -> hotel.setAmenities(splitValues(value).stream()
+                        .map(name -> new AmenityDTO(null, name)).toList());
+                case "images" -> hotel.setImages(splitValues(value).stream()
+                        .map(url -> new HotelImageDTO(null, url)).toList());
+                case "checkintime" -> { policy.setCheckInTime(value); hasPolicy = true; }
+                case "checkouttime" -> { policy.setCheckOutTime(value); hasPolicy = true; }
+                case "cancellationpolicy" -> { policy.setCancellationPolicy(value); hasPolicy = true; }
+                case "additionalinfo" -> { policy.setAdditionalInfo(value); hasPolicy = true; }
+                default -> throw new IllegalStateException("Unhandled CSV column " + columns[i]);
+            }
+        }
+        if (hasPolicy) hotel.setPolicy(policy);
+        return hotel;
+    }
+
+    private static List<String> splitValues(String value) {
+        return Arrays.stream(value.split("\\|")).map(String::trim).filter(s -> !s.isEmpty()).toList();
+    }
+
+    private static Integer parseInt(String column, String value) {
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(column + " is not a whole number: " + value);
+        }
+    }
+
+    private static Double parseDouble(String column, String value) {
+        try {
+            return Double.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(column + " is not a number: " + value);
+        }
+    }
+}
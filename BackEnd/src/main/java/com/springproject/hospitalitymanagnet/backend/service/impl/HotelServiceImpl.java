@@ -1,90 +1,153 @@
 package com.springproject.hospitalitymanagnet.backend.service.impl;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.springproject.hospitalitymanagnet.backend.cache.HotelCatalogCache;
+import com.springproject.hospitalitymanagnet.backend.cache.Tagged;
 import com.springproject.hospitalitymanagnet.backend.dto.*;
 import com.springproject.hospitalitymanagnet.backend.entity.*;
-import com.springproject.hospitalitymanagnet.backend.repository.AmenityRepository;
+import com.springproject.hospitalitymanagnet.backend.mapper.HotelMapper;
 import com.springproject.hospitalitymanagnet.backend.repository.BookingRepository;
 import com.springproject.hospitalitymanagnet.backend.repository.HotelRepository;
+import com.springproject.hospitalitymanagnet.backend.repository.HotelSearchCriteria;
 import com.springproject.hospitalitymanagnet.backend.repository.RoomTypeRepository;
+import com.springproject.hospitalitymanagnet.backend.repository.HotelSortKey;
+import com.springproject.hospitalitymanagnet.backend.search.BookingIntervalIndex;
+import com.springproject.hospitalitymanagnet.backend.search.HotelAvailabilityIndex;
+import com.springproject.hospitalitymanagnet.backend.search.HotelFacetIndex;
+import com.springproject.hospitalitymanagnet.backend.search.HotelGeoIndex;
+import com.springproject.hospitalitymanagnet.backend.search.HotelIndexer;
+import com.springproject.hospitalitymanagnet.backend.search.HotelSuggestIndex;
+import com.springproject.hospitalitymanagnet.backend.search.HotelTextIndex;
+import com.springproject.hospitalitymanagnet.backend.service.AmenityService;
 import com.springproject.hospitalitymanagnet.backend.service.HotelService;
-import org.modelmapper.ModelMapper;
+import com.springproject.hospitalitymanagnet.backend.service.InventoryService;
+import com.springproject.hospitalitymanagnet.backend.util.GeoUtils;
+import com.springproject.hospitalitymanagnet.backend.util.HotelCursor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.LocalDate;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class HotelServiceImpl implements HotelService {
 
     private final HotelRepository hotelRepository;
-    private final AmenityRepository amenityRepository;
-    private final ModelMapper modelMapper;
+    private final AmenityService amenityService;
+    private final HotelMapper hotelMapper;
     private final BookingRepository bookingRepository;
     private final RoomTypeRepository roomTypeRepository;
+    private final ObjectMapper objectMapper;
+    private final HotelCatalogCache catalogCache;
+    private final HotelIndexer hotelIndexer;
+    private final HotelTextIndex textIndex;
+    private final HotelFacetIndex facetIndex;
+    private final HotelGeoIndex geoIndex;
+    private final HotelSuggestIndex suggestIndex;
+    private final HotelAvailabilityIndex availabilityIndex;
+    private final BookingIntervalIndex bookingIndex;
+    private final InventoryService inventoryService;
+    private final TransactionTemplate readOnlyTx;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${hotel.page.default-size:20}")
+    private int defaultPageSize;
+
+    @Value("${hotel.page.max-size:100}")
+    private int maxPageSize;
+
+    @Value("${hotel.geo.max-radius-km:200}")
+    private double maxRadiusKm;
+
+    @Value("${hotel.suggest.default-limit:8}")
+    private int defaultSuggestLimit;
+
+    @Value("${hotel.suggest.max-results:20}")
+    private int maxSuggestLimit;
+
+    @Value("${hotel.occupancy.max-days:366}")
+    private int maxOccupancyDays;
+
+    @Value("${hotel.export.chunk-size:200}")
+    private int exportChunkSize;
 
     public HotelServiceImpl(HotelRepository hotelRepository,
-                            AmenityRepository amenityRepository,
-                            ModelMapper modelMapper,
+                            AmenityService amenityService,
+                            HotelMapper hotelMapper,
                             BookingRepository bookingRepository,
-                            RoomTypeRepository roomTypeRepository) {
+                            RoomTypeRepository roomTypeRepository,
+                            ObjectMapper objectMapper,
+                            HotelCatalogCache catalogCache,
+                            HotelIndexer hotelIndexer,
+                            HotelTextIndex textIndex,
+                            HotelFacetIndex facetIndex,
+                            HotelGeoIndex geoIndex,
+                            HotelSuggestIndex suggestIndex,
+                            HotelAvailabilityIndex availabilityIndex,
+                            BookingIntervalIndex bookingIndex,
+                            InventoryService inventoryService,
+                            PlatformTransactionManager transactionManager) {
         this.hotelRepository = hotelRepository;
-        this.amenityRepository = amenityRepository;
-        this.modelMapper = modelMapper;
+        this.amenityService = amenityService;
+        this.hotelMapper = hotelMapper;
         this.bookingRepository = bookingRepository;
         this.roomTypeRepository = roomTypeRepository;
+        this.objectMapper = objectMapper;
+        this.catalogCache = catalogCache;
+        this.hotelIndexer = hotelIndexer;
+        this.textIndex = textIndex;
+        this.facetIndex = facetIndex;
+        this.geoIndex = geoIndex;
+        this.suggestIndex = suggestIndex;
+        this.availabilityIndex = availabilityIndex;
+        this.bookingIndex = bookingIndex;
+        this.inventoryService = inventoryService;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
     }
 
     @Override
     public HotelDTO saveHotel(HotelDTO hotelDTO) {
-        Hotel hotel = modelMapper.map(hotelDTO, Hotel.class);
-
-        // Fix for Policy detached entity
-        if (hotel.getPolicy() != null) {
-            hotel.getPolicy().setHotel(hotel);
-        }
+        GeoUtils.requireValidCoordinates(hotelDTO.getLatitude(), hotelDTO.getLongitude());
+        // mapper sets the hotel back reference on policy, images and room types
+        Hotel hotel = hotelMapper.toEntity(hotelDTO);
 
         // Handle Amenities (existing or new)
         if (hotel.getAmenities() != null) {
-            List<Amenity> processedAmenities = new ArrayList<>();
-            for (Amenity amenity : hotel.getAmenities()) {
-                if (amenity.getId() != null) {
-                    Amenity existing = amenityRepository.findById(amenity.getId())
-                            .orElseThrow(() -> new RuntimeException("Amenity not found with ID: " + amenity.getId()));
-                    processedAmenities.add(existing);
-                } else {
-                    processedAmenities.add(amenityRepository.save(amenity));
-                }
-            }
-            hotel.setAmenities(processedAmenities);
-        }
-
-        // Handle Images
-        if (hotel.getImages() != null) {
-            for (HotelImage image : hotel.getImages()) {
-                image.setHotel(hotel);
-            }
-        }
-
-        // ✅ Handle RoomTypes
-        if (hotel.getRoomTypes() != null) {
-            for (RoomType rt : hotel.getRoomTypes()) {
-                rt.setHotel(hotel);
-            }
+            hotel.setAmenities(amenityService.resolveAmenities(hotel.getAmenities()));
         }
 
         Hotel savedHotel = hotelRepository.save(hotel);
-        return modelMapper.map(savedHotel, HotelDTO.class);
+        catalogCache.evictHotel(savedHotel.getId());
+        HotelDTO saved = hotelMapper.toDto(savedHotel);
+        hotelIndexer.hotelSaved(saved);
+        return saved;
     }
 
     @Override
+    @Transactional
     public HotelDTO updateHotel(Integer id, HotelDTO hotelDTO) {
-        Hotel hotel = hotelRepository.findById(id)
+        // force-increment lock: every update bumps the hotel version (and so its ETag)
+        Hotel hotel = hotelRepository.findByIdForWrite(id)
                 .orElseThrow(() -> new RuntimeException("Hotel not found with ID: " + id));
 
         // Update basic fields
@@ -99,6 +162,12 @@ public class HotelServiceImpl implements HotelService {
         hotel.setCity(hotelDTO.getCity());
         hotel.setStartingPrice(hotelDTO.getStartingPrice());
         hotel.setAverageRating(hotelDTO.getAverageRating());
+        // older clients do not send coordinates; keep the stored ones unless new ones are given
+        if (hotelDTO.getLatitude() != null || hotelDTO.getLongitude() != null) {
+            GeoUtils.requireValidCoordinates(hotelDTO.getLatitude(), hotelDTO.getLongitude());
+            hotel.setLatitude(hotelDTO.getLatitude());
+            hotel.setLongitude(hotelDTO.getLongitude());
+        }
 
         // Update Policy
         if (hotelDTO.getPolicy() != null) {
@@ -114,265 +183,210 @@ public class HotelServiceImpl implements HotelService {
 
         // Update Amenities
         if (hotelDTO.getAmenities() != null) {
-            List<Amenity> newAmenities = hotelDTO.getAmenities().stream().map(a -> {
-                if (a.getId() != null) {
-                    return amenityRepository.findById(a.getId())
-                            .orElseThrow(() -> new RuntimeException("Amenity not found with ID: " + a.getId()));
-                }
-                return amenityRepository.save(new Amenity(null, a.getName()));
-            }).collect(Collectors.toList());
-            hotel.setAmenities(newAmenities);
-        }
-
-        // =========================
-        // ✅ Safe Update RoomTypes
-        // =========================
-        if (hotelDTO.getRoomTypes() != null) {
-
-            // Capture existing room types and incoming room type IDs
-            List<RoomType> existingRoomTypes = new ArrayList<>(Optional.ofNullable(hotel.getRoomTypes()).orElse(Collections.emptyList()));
-            Set<Integer> incomingIds = hotelDTO.getRoomTypes().stream()
-                    .map(RoomTypeDTO::getId)
-                    .filter(Objects::nonNull)
-                    .collect(Collectors.toSet());
-
-            // Determine which existing RoomTypes would be removed
-            List<RoomType> toRemove = existingRoomTypes.stream()
-                    .filter(rt -> rt.getId() != null && !incomingIds.contains(rt.getId()))
-                    .collect(Collectors.toList());
-
-            // Check bookings for each to-be-removed RoomType
-            for (RoomType rt : toRemove) {
-                Integer rtId = rt.getId();
-                boolean hasAnyBooking = bookingRepository.existsByRoomTypeId(rtId);
-                if (hasAnyBooking) {
-                    // refuse the update to avoid FK constraint error and preserve booking history
-                    throw new IllegalStateException("Cannot remove RoomType " + rtId +
-                            " because bookings reference it. Cancel or reassign bookings first.");
-                }
-            }
-
-            // At this point it's safe to remove those room types from the hotel collection
-            // (JPA will delete if orphanRemoval is enabled; otherwise you may wish to explicitly delete)
-            hotel.getRoomTypes().removeIf(rt -> rt.getId() != null && !incomingIds.contains(rt.getId()));
-
-            // Reconcile incoming DTOs: reuse existing RoomType entities when id is present
-            for (RoomTypeDTO rtDTO : hotelDTO.getRoomTypes()) {
-                RoomType rtEntity;
-                if (rtDTO.getId() != null) {
-                    // try to reuse existing entity from DB (safer)
-                    rtEntity = roomTypeRepository.findById(rtDTO.getId())
-                            .orElseGet(RoomType::new); // fallback new if not found (shouldn't usually happen)
-                } else {
-                    rtEntity = new RoomType();
-                }
-
-                // update fields
-                rtEntity.setId(rtDTO.getId());
-                rtEntity.setName(rtDTO.getName());
-                rtEntity.setBasePrice(rtDTO.getBasePrice());
-                rtEntity.setSpecialPrice(rtDTO.getSpecialPrice());
-                rtEntity.setRoomSize(rtDTO.getRoomSize());
-                rtEntity.setAvailability(rtDTO.getAvailability());
-                rtEntity.setInclusions(rtDTO.getInclusions());
-                rtEntity.setAmenities(rtDTO.getAmenities());
-                rtEntity.setHotel(hotel);
-
-                // ensure the collection contains this instance (avoid duplicates)
-                if (hotel.getRoomTypes() == null) {
-                    hotel.setRoomTypes(new ArrayList<>());
-                }
-                boolean alreadyPresent = hotel.getRoomTypes().stream()
-                        .anyMatch(existing -> Objects.equals(existing.getId(), rtEntity.getId()));
-                if (!alreadyPresent) {
-                    hotel.getRoomTypes().add(rtEntity);
-                } else {
-                    // update the existing item's fields in-place
-                    hotel.getRoomTypes().stream()
-                            .filter(existing -> Objects.equals(existing.getId(), rtEntity.getId()))
-                            .findFirst()
-                            .ifPresent(existing -> {
-                                existing.setName(rtEntity.getName());
-                                existing.setBasePrice(rtEntity.getBasePrice());
-                                existing.setSpecialPrice(rtEntity.getSpecialPrice());
-                                existing.setRoomSize(rtEntity.getRoomSize());
-                                existing.setAvailability(rtEntity.getAvailability());
-                                existing.setInclusions(rtEntity.getInclusions());
-                                existing.setAmenities(rtEntity.getAmenities());
-                                existing.setHotel(hotel);
-                            });
-                }
+            List<Amenity> amenities = amenityService.resolveAmenities(
+                    hotelDTO.getAmenities().stream().map(hotelMapper::toEntity).toList());
+            // a new list makes Hibernate rewrite every hotel_amenities row, so only swap on change
+            if (!amenityIds(hotel.getAmenities()).equals(amenityIds(amenities))) {
+                hotel.setAmenities(amenities);
             }
         }
 
+        Map<Integer, Integer> resized = hotelDTO.getRoomTypes() != null
+                ? reconcileRoomTypes(hotel, hotelDTO.getRoomTypes())
+                : Map.of();
+
         Hotel updatedHotel;
         try {
-            updatedHotel = hotelRepository.save(hotel);
+            // flush here so FK violations surface inside the try rather than at commit
+            updatedHotel = hotelRepository.saveAndFlush(hotel);
         } catch (DataIntegrityViolationException ex) {
             // Defensive: convert DB FK violation into a nicer message
             throw new IllegalStateException("Failed to update hotel: a referenced entity prevented modification.", ex);
         }
+        resized.forEach(inventoryService::resize);
+        catalogCache.evictHotel(id);
+
+        HotelDTO updated = hotelMapper.toDto(updatedHotel);
+        hotelIndexer.hotelSaved(updated);
+        return updated;
+    }
+
+    /**
+     * Set-based diff of the hotel's room types against the incoming list. Ids the hotel has but
+     * the list lacks are removed (refused if any booking references them), ids it lacks are
+     * adopted, DTOs without a known id become new room types. Booking references and adopted
+     * room types are read with one query each, and only changed fields are written, so untouched
+     * room types cost neither an UPDATE nor a rewrite of their element collections.
+     *
+     * @return new totalRooms per existing room type whose count changed, for the room inventory
+     */
+    private Map<Integer, Integer> reconcileRoomTypes(Hotel hotel, List<RoomTypeDTO> incoming) {
+        if (hotel.getRoomTypes() == null) {
+            hotel.setRoomTypes(new ArrayList<>());
+        }
+        Map<Integer, RoomType> current = new HashMap<>();
+        for (RoomType rt : hotel.getRoomTypes()) {
+            if (rt.getId() != null) current.put(rt.getId(), rt);
+        }
+        Set<Integer> incomingIds = incoming.stream()
+                .map(RoomTypeDTO::getId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+
+        Set<Integer> removedIds = new HashSet<>(current.keySet());
+        removedIds.removeAll(incomingIds);
+        if (!removedIds.isEmpty()) {
+            Set<Integer> booked = bookingRepository.findBookedRoomTypeIds(removedIds);
+            if (!booked.isEmpty()) {
+                // refuse the update to avoid FK constraint error and preserve booking history
+                throw new IllegalStateException("Cannot remove RoomType " + booked.iterator().next() +
+                        " because bookings reference it. Cancel or reassign bookings first.");
+            }
+            inventoryService.removeRoomTypes(removedIds);
+            hotel.getRoomTypes().removeIf(rt -> rt.getId() != null && removedIds.contains(rt.getId()));
+        }
+
+        Set<Integer> otherIds = new HashSet<>(incomingIds);
+        otherIds.removeAll(current.keySet());
+        Map<Integer, RoomType> adopted = otherIds.isEmpty() ? Map.of()
+                : roomTypeRepository.findAllById(otherIds).stream()
+                .collect(Collectors.toMap(RoomType::getId, Function.identity()));
+
+        Map<Integer, Integer> resized = new HashMap<>();
+        for (RoomTypeDTO dto : incoming) {
+            RoomType rt = dto.getId() != null ? current.get(dto.getId()) : null;
+            if (rt == null) {
+                // unknown ids are treated like new room types
+                rt = dto.getId() != null ? adopted.get(dto.getId()) : null;
+                if (rt == null) rt = new RoomType();
+                if (rt.getId() == null || current.putIfAbsent(rt.getId(), rt) == null) {
+                    hotel.getRoomTypes().add(rt);
+                }
+            }
+            if (dto.getTotalRooms() != null && dto.getTotalRooms() < 1) {
+                throw new IllegalArgumentException("totalRooms must be at least 1");
+            }
+            if (dto.getMaxGuests() != null && dto.getMaxGuests() < 1) {
+                throw new IllegalArgumentException("maxGuests must be at least 1");
+            }
+            if (rt.getId() != null && dto.getTotalRooms() != null
+                    && !dto.getTotalRooms().equals(rt.getTotalRooms())) {
+                resized.put(rt.getId(), dto.getTotalRooms());
+            }
+            applyRoomType(rt, dto, hotel);
+        }
+        return resized;
+    }
+
+    private static void applyRoomType(RoomType rt, RoomTypeDTO dto, Hotel hotel) {
+        if (!Objects.equals(rt.getName(), dto.getName())) rt.setName(dto.getName());
+        if (!Objects.equals(rt.getBasePrice(), dto.getBasePrice())) rt.setBasePrice(dto.getBasePrice());
+        if (!Objects.equals(rt.getSpecialPrice(), dto.getSpecialPrice())) rt.setSpecialPrice(dto.getSpecialPrice());
+        if (!Objects.equals(rt.getRoomSize(), dto.getRoomSize())) rt.setRoomSize(dto.getRoomSize());
+        if (!Objects.equals(rt.getAvailability(), dto.getAvailability())) rt.setAvailability(dto.getAvailability());
+        // older clients do not send totalRooms; keep the stored count
+        if (dto.getTotalRooms() != null && !dto.getTotalRooms().equals(rt.getTotalRooms())) rt.setTotalRooms(dto.getTotalRooms());
+        if (dto.getMaxGuests() != null && !dto.getMaxGuests().equals(rt.getMaxGuests())) rt.setMaxGuests(dto.getMaxGuests());
+        // replacing an element collection makes Hibernate delete and re-insert all of its rows
+        if (!sameElements(rt.getInclusions(), dto.getInclusions())) rt.setInclusions(copyOf(dto.getInclusions()));
+        if (!sameElements(rt.getAmenities(), dto.getAmenities())) rt.setAmenities(copyOf(dto.getAmenities()));
+        if (rt.getHotel() != hotel) rt.setHotel(hotel);
+    }
+
+    // element-wise and null-as-empty: Hibernate's bag wrappers do not implement List.equals
+    private static List<Integer> amenityIds(List<Amenity> amenities) {
+        return amenities == null ? List.of() : amenities.stream().map(Amenity::getId).toList();
+    }
+
+    private static boolean sameElements(List<String> current, List<String> incoming) {
+        int size = current == null ? 0 : current.size();
+        if (size != (incoming == null ? 0 : incoming.size())) return false;
+        for (int i = 0; i < size; i++) {
+            if (!Objects.equals(current.get(i), incoming.get(i))) return false;
+        }
+        return true;
+    }
 
-        return modelMapper.map(updatedHotel, HotelDTO.class);
+    private static List<String> copyOf(List<String> values) {
+        return values == null ? null : new ArrayList<>(values);
     }
 
     @Override
+    @Transactional
     public void deleteHotel(Integer id) {
         if (!hotelRepository.existsById(id)) {
             throw new RuntimeException("Hotel not found with ID: " + id);
         }
+        inventoryService.removeRoomTypes(roomTypeRepository.findByHotel_Id(id).stream().map(RoomType::getId).toList());
         hotelRepository.deleteById(id);
+        catalogCache.evictHotel(id);
+        hotelIndexer.hotelDeleted(id);
+    }
+
+    // one aggregate row: room type writes (availability flips etc.) bump their own version,
+    // adds/removals change the count, so all of them move the hotel tag
+    private static String hotelEtag(HotelRepository.HotelVersionView v) {
+        return "\"h" + v.getId() + "-" + v.getVersion() + "-" + v.getRoomTypeCount()
+                + "-" + v.getRoomTypeVersionSum() + "\"";
+    }
+
+    @Override
+    public String getCatalogEtag() {
+        return catalogCache.catalogEtag();
     }
 
     @Override
-    @Transactional
     public HotelDTO getHotelById(Integer id) {
-        Hotel hotel = hotelRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Hotel not found with ID: " + id));
+        return getTaggedHotel(id).value();
+    }
 
-        HotelDTO dto = new HotelDTO();
-        dto.setId(hotel.getId());
-        dto.setName(hotel.getName());
-        dto.setLocation(hotel.getLocation());
-        dto.setStarRating(hotel.getStarRating());
-        dto.setContactNumber(hotel.getContactNumber());
-        dto.setDescription(hotel.getDescription());
-        dto.setStatus(hotel.getStatus());
-        dto.setPropertyType(hotel.getPropertyType());
-        dto.setCity(hotel.getCity());
-        dto.setStartingPrice(hotel.getStartingPrice());
-        dto.setAverageRating(hotel.getAverageRating());
-
-
-        // ✅ Map room types manually
-        if (hotel.getRoomTypes() != null) {
-            dto.setRoomTypes(hotel.getRoomTypes().stream().map(rt -> {
-                RoomTypeDTO rtd = new RoomTypeDTO();
-                rtd.setId(rt.getId());
-                rtd.setName(rt.getName());
-                rtd.setBasePrice(rt.getBasePrice());
-                rtd.setSpecialPrice(rt.getSpecialPrice());
-                rtd.setRoomSize(rt.getRoomSize());
-                rtd.setAvailability(rt.getAvailability());
-                rtd.setInclusions(rt.getInclusions());
-                rtd.setAmenities(rt.getAmenities());
-                return rtd;
-            }).toList());
-        }
-
-        // ✅ Map amenities manually (if needed)
-        if (hotel.getAmenities() != null) {
-            dto.setAmenities(hotel.getAmenities().stream()
-                    .map(a -> new AmenityDTO(a.getId(), a.getName()))
-                    .toList());
-        }
+    @Override
+    public Tagged<HotelDTO> getTaggedHotel(Integer id) {
+        // cache hits never open a transaction / borrow a connection
+        return catalogCache.getHotel(id, () -> readOnlyTx.execute(status -> loadHotelById(id)));
+    }
 
-        // ✅ Map policy if exists
-        if (hotel.getPolicy() != null) {
-            PolicyDTO p = new PolicyDTO();
-            p.setId(hotel.getPolicy().getId());
-            p.setCheckInTime(hotel.getPolicy().getCheckInTime());
-            p.setCheckOutTime(hotel.getPolicy().getCheckOutTime());
-            p.setCancellationPolicy(hotel.getPolicy().getCancellationPolicy());
-            p.setAdditionalInfo(hotel.getPolicy().getAdditionalInfo());
-            dto.setPolicy(p);
-        }
+    @Override
+    public String getHotelEtag(Integer id) {
+        String cached = catalogCache.cachedHotelEtag(id);
+        if (cached != null) return cached;
+        // one aggregate row: no entity graph is loaded and no DTO is built
+        return hotelRepository.findVersionViewById(id).map(HotelServiceImpl::hotelEtag).orElse(null);
+    }
 
-        return dto;
+    private Tagged<HotelDTO> loadHotelById(Integer id) {
+        // tag before body: if a write commits in between, the body is newer than its tag, never older
+        String etag = hotelRepository.findVersionViewById(id).map(HotelServiceImpl::hotelEtag).orElse(null);
+        // the whole graph is initialized here: the DTO is frozen for the cache after this
+        // transaction, where a lazy collection could no longer be read
+        List<Hotel> hotels = hotelRepository.fetchListingGraph(hotelRepository.findByIdInForListing(List.of(id)));
+        if (hotels.isEmpty()) throw new RuntimeException("Hotel not found with ID: " + id);
+        return new Tagged<>(hotelMapper.toDto(hotels.get(0)), etag);
     }
 
     @Override
-    @Transactional(readOnly = true)
     public List<HotelDTO> getAllHotels() {
-        return hotelRepository.findAll().stream().map(hotel -> {
-            HotelDTO dto = new HotelDTO();
-            dto.setId(hotel.getId());
-            dto.setName(hotel.getName());
-            dto.setLocation(hotel.getLocation());
-            dto.setStarRating(hotel.getStarRating());
-            dto.setContactNumber(hotel.getContactNumber());
-            dto.setDescription(hotel.getDescription());
-            dto.setStatus(hotel.getStatus());
-
-            // new fields
-            dto.setPropertyType(hotel.getPropertyType());
-            dto.setCity(hotel.getCity());
-            dto.setStartingPrice(hotel.getStartingPrice());
-            dto.setAverageRating(hotel.getAverageRating());
-
-            // images
-            if (hotel.getImages() != null) {
-                dto.setImages(hotel.getImages().stream()
-                        .map(img -> new com.springproject.hospitalitymanagnet.backend.dto.HotelImageDTO(img.getId(), img.getImageUrl()))
-                        .collect(Collectors.toList()));
-            } else {
-                dto.setImages(Collections.emptyList());
-            }
-
-            // room types
-            if (hotel.getRoomTypes() != null) {
-                dto.setRoomTypes(hotel.getRoomTypes().stream().map(rt -> {
-                    RoomTypeDTO rtd = new RoomTypeDTO();
-                    rtd.setId(rt.getId());
-                    rtd.setName(rt.getName());
-                    rtd.setBasePrice(rt.getBasePrice());
-                    rtd.setSpecialPrice(rt.getSpecialPrice());
-                    rtd.setRoomSize(rt.getRoomSize());
-                    rtd.setAvailability(rt.getAvailability());
-                    rtd.setInclusions(rt.getInclusions());
-                    rtd.setAmenities(rt.getAmenities());
-                    return rtd;
-                }).collect(Collectors.toList()));
-            } else {
-                dto.setRoomTypes(Collections.emptyList());
-            }
-
-            // amenities
-            if (hotel.getAmenities() != null) {
-                dto.setAmenities(hotel.getAmenities().stream()
-                        .map(a -> new AmenityDTO(a.getId(), a.getName()))
-                        .collect(Collectors.toList()));
-            } else {
-                dto.setAmenities(Collections.emptyList());
-            }
+        return getTaggedHotels().value();
+    }
 
-            // policy
-            if (hotel.getPolicy() != null) {
-                PolicyDTO p = new PolicyDTO();
-                p.setId(hotel.getPolicy().getId());
-                p.setCheckInTime(hotel.getPolicy().getCheckInTime());
-                p.setCheckOutTime(hotel.getPolicy().getCheckOutTime());
-                p.setCancellationPolicy(hotel.getPolicy().getCancellationPolicy());
-                p.setAdditionalInfo(hotel.getPolicy().getAdditionalInfo());
-                dto.setPolicy(p);
-            }
+    @Override
+    public Tagged<List<HotelDTO>> getTaggedHotels() {
+        return catalogCache.getListing("all", () -> readOnlyTx.execute(status -> loadAllHotels()));
+    }
 
-            return dto;
-        }).collect(Collectors.toList());
+    private List<HotelDTO> loadAllHotels() {
+        List<Hotel> hotels = hotelRepository.fetchListingGraph(hotelRepository.findAllForListing());
+        return hotels.stream().map(hotelMapper::toDto).collect(Collectors.toList());
     }
 
     @Override
     public HotelDTO saveHotelWithImages(HotelDTO hotelDTO, List<MultipartFile> images) {
-        Hotel hotel = modelMapper.map(hotelDTO, Hotel.class);
-
-        // Fix for Policy detached entity
-        if (hotel.getPolicy() != null) {
-            hotel.getPolicy().setHotel(hotel);
-        }
+        GeoUtils.requireValidCoordinates(hotelDTO.getLatitude(), hotelDTO.getLongitude());
+        Hotel hotel = hotelMapper.toEntity(hotelDTO);
 
         // Handle Amenities
         if (hotel.getAmenities() != null) {
-            List<Amenity> processedAmenities = new ArrayList<>();
-            for (Amenity amenity : hotel.getAmenities()) {
-                if (amenity.getId() != null) {
-                    Amenity existing = amenityRepository.findById(amenity.getId())
-                            .orElseThrow(() -> new RuntimeException("Amenity not found with ID: " + amenity.getId()));
-                    processedAmenities.add(existing);
-                } else {
-                    processedAmenities.add(amenityRepository.save(amenity));
-                }
-            }
-            hotel.setAmenities(processedAmenities);
+            hotel.setAmenities(amenityService.resolveAmenities(hotel.getAmenities()));
         }
 
         // Handle image files
@@ -398,88 +412,26 @@ public class HotelServiceImpl implements HotelService {
         }
 
         Hotel savedHotel = hotelRepository.save(hotel);
-        return modelMapper.map(savedHotel, HotelDTO.class);
+        catalogCache.evictHotel(savedHotel.getId());
+        HotelDTO saved = hotelMapper.toDto(savedHotel);
+        hotelIndexer.hotelSaved(saved);
+        return saved;
     }
 
     @Override
-    @Transactional(readOnly = true)
     public List<HotelDTO> searchHotels(String city, String propertyType) {
-        List<Hotel> hotels;
-
-        boolean hasCity = city != null && !city.isBlank();
-        boolean hasType = propertyType != null && !propertyType.isBlank();
-
-        if (hasCity && hasType) {
-            hotels = hotelRepository.findByCityIgnoreCaseAndPropertyTypeIgnoreCase(city.trim(), propertyType.trim());
-        } else if (hasCity) {
-            hotels = hotelRepository.findByCityIgnoreCase(city.trim());
-        } else if (hasType) {
-            hotels = hotelRepository.findByPropertyTypeIgnoreCase(propertyType.trim());
-        } else {
-            hotels = hotelRepository.findAll();
-        }
-
-        // map same as getAllHotels (ensure nested lists populated)
-        return hotels.stream().map(hotel -> {
-            HotelDTO dto = new HotelDTO();
-            dto.setId(hotel.getId());
-            dto.setName(hotel.getName());
-            dto.setLocation(hotel.getLocation());
-            dto.setStarRating(hotel.getStarRating());
-            dto.setContactNumber(hotel.getContactNumber());
-            dto.setDescription(hotel.getDescription());
-            dto.setStatus(hotel.getStatus());
-
-            dto.setPropertyType(hotel.getPropertyType());
-            dto.setCity(hotel.getCity());
-            dto.setStartingPrice(hotel.getStartingPrice());
-            dto.setAverageRating(hotel.getAverageRating());
-
-            if (hotel.getImages() != null) {
-                dto.setImages(hotel.getImages().stream()
-                        .map(img -> new com.springproject.hospitalitymanagnet.backend.dto.HotelImageDTO(img.getId(), img.getImageUrl()))
-                        .collect(Collectors.toList()));
-            } else {
-                dto.setImages(Collections.emptyList());
-            }
-
-            if (hotel.getRoomTypes() != null) {
-                dto.setRoomTypes(hotel.getRoomTypes().stream().map(rt -> {
-                    RoomTypeDTO rtd = new RoomTypeDTO();
-                    rtd.setId(rt.getId());
-                    rtd.setName(rt.getName());
-                    rtd.setBasePrice(rt.getBasePrice());
-                    rtd.setSpecialPrice(rt.getSpecialPrice());
-                    rtd.setRoomSize(rt.getRoomSize());
-                    rtd.setAvailability(rt.getAvailability());
-                    rtd.setInclusions(rt.getInclusions());
-                    rtd.setAmenities(rt.getAmenities());
-                    return rtd;
-                }).collect(Collectors.toList()));
-            } else {
-                dto.setRoomTypes(Collections.emptyList());
-            }
+        return catalogCache.getListing(HotelCatalogCache.searchKey(city, propertyType),
+                () -> readOnlyTx.execute(status -> loadSearchResults(city, propertyType))).value();
+    }
 
-            if (hotel.getAmenities() != null) {
-                dto.setAmenities(hotel.getAmenities().stream()
-                        .map(a -> new AmenityDTO(a.getId(), a.getName()))
-                        .collect(Collectors.toList()));
-            } else {
-                dto.setAmenities(Collections.emptyList());
-            }
+    private List<HotelDTO> loadSearchResults(String city, String propertyType) {
+        String cityFilter = city != null && !city.isBlank() ? city.trim() : null;
+        String typeFilter = propertyType != null && !propertyType.isBlank() ? propertyType.trim() : null;
 
-            if (hotel.getPolicy() != null) {
-                PolicyDTO p = new PolicyDTO();
-                p.setId(hotel.getPolicy().getId());
-                p.setCheckInTime(hotel.getPolicy().getCheckInTime());
-                p.setCheckOutTime(hotel.getPolicy().getCheckOutTime());
-                p.setCancellationPolicy(hotel.getPolicy().getCancellationPolicy());
-                p.setAdditionalInfo(hotel.getPolicy().getAdditionalInfo());
-                dto.setPolicy(p);
-            }
+        List<Hotel> hotels = hotelRepository.fetchListingGraph(
+                hotelRepository.searchForListing(cityFilter, typeFilter));
 
-            return dto;
-        }).collect(Collectors.toList());
+        return hotels.stream().map(hotelMapper::toDto).collect(Collectors.toList());
     }
 
 
@@ -487,9 +439,7 @@ public class HotelServiceImpl implements HotelService {
     @Override
     @Transactional(readOnly = true)
     public List<HotelDTO> getHotelsByStatus(String status) {
-        List<Hotel> hotels = hotelRepository.findByStatusIgnoreCase(status);
-
-        System.out.println(">>> [DEBUG] Repository returned: " + (hotels != null ? hotels.size() : 0));
+        List<Hotel> hotels = hotelRepository.fetchListingGraph(hotelRepository.findByStatusForListing(status));
 
         if (hotels == null || hotels.isEmpty()) {
             return Collections.emptyList();
@@ -509,6 +459,8 @@ public class HotelServiceImpl implements HotelService {
                 dto.setCity(Optional.ofNullable(hotel.getCity()).orElse(""));
                 dto.setStartingPrice(Optional.ofNullable(hotel.getStartingPrice()).orElse(0.0));
                 dto.setAverageRating(Optional.ofNullable(hotel.getAverageRating()).orElse(0.0));
+                dto.setLatitude(hotel.getLatitude());
+                dto.setLongitude(hotel.getLongitude());
 
                 // Images safe map
                 dto.setImages(hotel.getImages() != null
@@ -536,4 +488,283 @@ public class HotelServiceImpl implements HotelService {
             }
         }).filter(Objects::nonNull).toList();
     }
+
+    @Override
+    public List<HotelDTO> searchHotelsByText(String query, String city, String propertyType, Integer size) {
+        if (!textIndex.isReady()) {
+            throw new IllegalStateException("Search index is still loading, please retry shortly");
+        }
+        // ranking never touches the database; only hotels missing from the cache are loaded, in one batch
+        List<Integer> ids = textIndex.search(query, city, propertyType, resolvePageSize(size)).stream()
+                .map(HotelTextIndex.Hit::hotelId)
+                .toList();
+        return loadInOrder(ids);
+    }
+
+    @Override
+    public List<NearbyHotelDTO> findHotelsNearby(double latitude, double longitude, double radiusKm,
+                                                 String city, String propertyType, Integer size) {
+        GeoUtils.requireValidCoordinates(latitude, longitude);
+        if (!(radiusKm > 0) || radiusKm > maxRadiusKm) {
+            throw new IllegalArgumentException("radiusKm must be greater than 0 and at most " + maxRadiusKm);
+        }
+        requireGeoIndexReady();
+        return toNearby(geoIndex.nearby(latitude, longitude, radiusKm, city, propertyType, resolvePageSize(size)));
+    }
+
+    @Override
+    public List<NearbyHotelDTO> findHotelsInBox(double minLatitude, double minLongitude, double maxLatitude, double maxLongitude,
+                                                String city, String propertyType, Integer size) {
+        GeoUtils.requireValidCoordinates(minLatitude, minLongitude);
+        GeoUtils.requireValidCoordinates(maxLatitude, maxLongitude);
+        if (minLatitude > maxLatitude || minLongitude > maxLongitude) {
+            throw new IllegalArgumentException("min corner must be south-west of the max corner");
+        }
+        requireGeoIndexReady();
+        double centreLat = (minLatitude + maxLatitude) / 2;
+        double centreLon = (minLongitude + maxLongitude) / 2;
+        return toNearby(geoIndex.within(minLatitude, minLongitude, maxLatitude, maxLongitude,
+                centreLat, centreLon, city, propertyType, resolvePageSize(size)));
+    }
+
+    private void requireGeoIndexReady() {
+        if (!geoIndex.isReady()) {
+            throw new IllegalStateException("Search index is still loading, please retry shortly");
+        }
+    }
+
+    private List<NearbyHotelDTO> toNearby(List<HotelGeoIndex.Hit> hits) {
+        List<HotelDTO> hotels = loadInOrder(hits.stream().map(HotelGeoIndex.Hit::hotelId).toList());
+        Map<Integer, Double> distances = new HashMap<>();
+        hits.forEach(h -> distances.put(h.hotelId(), h.distanceKm()));
+        return hotels.stream().map(h -> new NearbyHotelDTO(h, distances.get(h.getId()))).toList();
+    }
+
+    @Override
+    public List<SuggestionDTO> suggest(String prefix, Integer limit) {
+        if (!suggestIndex.isReady()) {
+            throw new IllegalStateException("Search index is still loading, please retry shortly");
+        }
+        int max = limit == null ? defaultSuggestLimit : Math.min(Math.max(limit, 1), maxSuggestLimit);
+        // at most a third of the list goes to cities, the rest to hotels
+        List<SuggestionDTO> result = new ArrayList<>(max);
+        for (HotelSuggestIndex.CitySuggestion c : suggestIndex.suggestCities(prefix, Math.max(1, max / 3))) {
+            result.add(new SuggestionDTO("CITY", c.city(), null, c.city(), c.hotelCount()));
+        }
+        for (HotelSuggestIndex.HotelSuggestion h : suggestIndex.suggestHotels(prefix, max - result.size())) {
+            result.add(new SuggestionDTO("HOTEL", h.name(), h.hotelId(), h.city(), null));
+        }
+        return result;
+    }
+
+    @Override
+    public List<AvailableHotelDTO> searchAvailableHotels(String city, String propertyType, LocalDate checkIn,
+                                                         LocalDate checkOut, Integer guests, Integer size) {
+        if (checkIn == null || checkOut == null) throw new IllegalArgumentException("checkIn and checkOut are required");
+        if (!checkOut.isAfter(checkIn)) throw new IllegalArgumentException("Invalid dates: check-out must be after check-in");
+        int party = guests != null ? guests : 1;
+        if (party < 1) throw new IllegalArgumentException("guests must be at least 1");
+        if (!availabilityIndex.isReady()) {
+            throw new IllegalStateException("Search index is still loading, please retry shortly");
+        }
+        List<HotelAvailabilityIndex.Hit> hits = availabilityIndex.search(city, propertyType, checkIn, checkOut,
+                party, resolvePageSize(size));
+
+        // only the page of matching hotels is loaded, from the hotel cache
+        List<HotelDTO> hotels = loadInOrder(hits.stream().map(HotelAvailabilityIndex.Hit::hotelId).toList());
+        Map<Integer, HotelAvailabilityIndex.Hit> byHotel = new HashMap<>();
+        hits.forEach(h -> byHotel.put(h.hotelId(), h));
+        return hotels.stream().map(hotel -> {
+            Map<Integer, RoomTypeDTO> roomTypes = new HashMap<>();
+            hotel.getRoomTypes().forEach(rt -> roomTypes.put(rt.getId(), rt));
+            List<RoomAvailabilityDTO> rooms = byHotel.get(hotel.getId()).rooms().stream()
+                    .filter(r -> roomTypes.containsKey(r.roomTypeId()))
+                    .map(r -> {
+                        RoomTypeDTO rt = roomTypes.get(r.roomTypeId());
+                        return new RoomAvailabilityDTO(rt.getId(), rt.getName(), rt.getTotalRooms(), r.availableUnits());
+                    })
+                    .toList();
+            return new AvailableHotelDTO(hotel, rooms);
+        }).toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<RoomAvailabilityDTO> getRoomAvailability(Integer hotelId, LocalDate checkIn, LocalDate checkOut) {
+        List<RoomType> roomTypes = roomTypeRepository.findByHotel_Id(hotelId);
+        if (roomTypes.isEmpty() && !hotelRepository.existsById(hotelId)) {
+            throw new RuntimeException("Hotel not found with ID: " + hotelId);
+        }
+        Map<Integer, Integer> free = inventoryService.getAvailableUnits(roomTypes, checkIn, checkOut);
+        return roomTypes.stream()
+                .map(rt -> new RoomAvailabilityDTO(rt.getId(), rt.getName(), rt.getTotalRooms(),
+                        // a room type taken off sale by hand has nothing to book
+                        "Available".equalsIgnoreCase(rt.getAvailability()) ? free.get(rt.getId()) : 0))
+                .toList();
+    }
+
+    @Override
+    public List<RoomOccupancyDTO> getOccupancyTimeline(Integer hotelId, LocalDate from, LocalDate to) {
+        if (from == null || to == null) throw new IllegalArgumentException("from and to are required");
+        if (!to.isAfter(from)) throw new IllegalArgumentException("to must be after from");
+        if (from.plusDays(maxOccupancyDays).isBefore(to)) {
+            throw new IllegalArgumentException("The window can be at most " + maxOccupancyDays + " days");
+        }
+        if (!bookingIndex.isReady()) {
+            throw new IllegalStateException("Booking index is still loading, please retry shortly");
+        }
+        // room types from the hotel cache, bookings from the interval index
+        HotelDTO hotel = getHotelById(hotelId);
+        return hotel.getRoomTypes().stream()
+                .map(rt -> new RoomOccupancyDTO(rt.getId(), rt.getName(), rt.getTotalRooms(),
+                        bookingIndex.overlapping(rt.getId(), from, to).stream()
+                                .map(s -> new BookedRangeDTO(s.bookingId(), s.checkIn(), s.checkOut()))
+                                .toList()))
+                .toList();
+    }
+
+    @Override
+    public FacetedPageDTO searchWithFacets(Map<HotelFacetIndex.Facet, Set<String>> filters, String cursor, Integer size) {
+        if (!facetIndex.isReady()) {
+            throw new IllegalStateException("Search index is still loading, please retry shortly");
+        }
+        int pageSize = resolvePageSize(size);
+        HotelCursor after = HotelCursor.decode(cursor, HotelSortKey.ID);
+        HotelFacetIndex.Result result = facetIndex.search(filters, after != null ? after.lastId() : null, pageSize);
+
+        Map<String, List<FacetCountDTO>> facets = new LinkedHashMap<>();
+        result.counts().forEach((facet, counts) -> facets.put(facet.getParam(),
+                counts.stream().map(c -> new FacetCountDTO(c.value(), c.count())).toList()));
+
+        String nextCursor = result.lastId() != null
+                ? new HotelCursor(HotelSortKey.ID, null, result.lastId()).encode()
+                : null;
+        return new FacetedPageDTO(loadInOrder(result.hotelIds()), nextCursor, pageSize, result.total(), facets);
+    }
+
+    private List<HotelDTO> loadInOrder(List<Integer> ids) {
+        if (ids.isEmpty()) return Collections.emptyList();
+        Map<Integer, HotelDTO> byId = catalogCache.getHotels(ids,
+                missing -> readOnlyTx.execute(status -> loadHotelsByIds(missing)));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+
+    private List<Tagged<HotelDTO>> loadHotelsByIds(List<Integer> ids) {
+        Map<Integer, String> etags = new HashMap<>();
+        for (HotelRepository.HotelVersionView v : hotelRepository.findVersionViewsByIdIn(ids)) {
+            etags.put(v.getId(), hotelEtag(v));
+        }
+        List<Hotel> hotels = hotelRepository.fetchListingGraph(hotelRepository.findByIdInForListing(ids));
+        return hotels.stream().map(h -> new Tagged<>(hotelMapper.toDto(h), etags.get(h.getId()))).toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<HotelDTO> getHotelPage(HotelSearchCriteria criteria, String cursor, Integer size) {
+        CursorPageDTO<Hotel> page = keysetPage(criteria, cursor, size,
+                ids -> hotelRepository.fetchListingGraph(hotelRepository.findByIdInForListing(ids)),
+                Hotel::getId, hotel -> criteria.getSort().valueOf(hotel));
+        return new CursorPageDTO<>(page.getItems().stream().map(hotelMapper::toDto).toList(),
+                page.getNextCursor(), page.getSize());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<HotelSummaryDTO> getHotelSummaries(HotelSearchCriteria criteria) {
+        return hotelRepository.findSummaries(criteria.getStatus(), criteria.getCity(), criteria.getPropertyType())
+                .stream().map(hotelMapper::toSummary).toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<HotelSummaryDTO> getHotelSummaryPage(HotelSearchCriteria criteria, String cursor, Integer size) {
+        CursorPageDTO<HotelRepository.HotelSummaryView> page = keysetPage(criteria, cursor, size,
+                hotelRepository::findSummariesByIdIn,
+                HotelRepository.HotelSummaryView::getId, summary -> criteria.getSort().valueOf(summary));
+        return new CursorPageDTO<>(page.getItems().stream().map(hotelMapper::toSummary).toList(),
+                page.getNextCursor(), page.getSize());
+    }
+
+    // Shared keyset paging: ids come from findPageIds, the rows from loadByIds (in any order)
+    private <T> CursorPageDTO<T> keysetPage(HotelSearchCriteria criteria, String cursor, Integer size,
+                                            Function<List<Integer>, List<T>> loadByIds,
+                                            Function<T, Integer> idOf,
+                                            Function<T, Object> sortValueOf) {
+        if (criteria.getMinPrice() != null && criteria.getMaxPrice() != null
+                && criteria.getMinPrice() > criteria.getMaxPrice()) {
+            throw new IllegalArgumentException("minPrice must not be greater than maxPrice");
+        }
+        int pageSize = resolvePageSize(size);
+        HotelCursor after = HotelCursor.decode(cursor, criteria.getSort());
+
+        // fetch one extra id to know whether another page exists
+        List<Integer> ids = hotelRepository.findPageIds(criteria, after, pageSize + 1);
+        boolean hasMore = ids.size() > pageSize;
+        if (hasMore) {
+            ids = ids.subList(0, pageSize);
+        }
+        if (ids.isEmpty()) {
+            return new CursorPageDTO<>(Collections.emptyList(), null, pageSize);
+        }
+
+        Map<Integer, T> byId = loadByIds.apply(ids).stream().collect(Collectors.toMap(idOf, row -> row));
+        List<T> ordered = ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+
+        String nextCursor = null;
+        if (hasMore && !ordered.isEmpty()) {
+            T last = ordered.get(ordered.size() - 1);
+            nextCursor = new HotelCursor(criteria.getSort(), sortValueOf.apply(last), idOf.apply(last)).encode();
+        }
+        return new CursorPageDTO<>(ordered, nextCursor, pageSize);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportCatalog(OutputStream out) throws IOException {
+        // no flush per value; the generator is flushed once per chunk instead
+        ObjectWriter writer = objectMapper.writerFor(HotelDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        // Keyset chunks rather than one driver-side cursor: each chunk is a bounded query, so
+        // memory stays flat without changing how the connection fetches every other query.
+        HotelSearchCriteria all = new HotelSearchCriteria();
+        HotelCursor after = null;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null); // lines are separated explicitly below
+
+            while (true) {
+                List<Integer> ids = hotelRepository.findPageIds(all, after, exportChunkSize);
+                if (ids.isEmpty()) break;
+
+                List<Hotel> chunk = new ArrayList<>(hotelRepository.findByIdInForListing(ids));
+                chunk.sort(Comparator.comparing(Hotel::getId));
+                writeExportChunk(chunk, writer, generator);
+
+                if (ids.size() < exportChunkSize) break;
+                after = new HotelCursor(HotelSortKey.ID, null, ids.get(ids.size() - 1));
+            }
+        }
+    }
+
+    private void writeExportChunk(List<Hotel> chunk, ObjectWriter writer, JsonGenerator generator) throws IOException {
+        if (chunk.isEmpty()) return;
+
+        hotelRepository.fetchListingGraph(chunk);
+        for (Hotel hotel : chunk) {
+            writer.writeValue(generator, hotelMapper.toDto(hotel));
+            generator.writeRaw('\n');
+        }
+        generator.flush();
+
+        // detach the written hotels so the persistence context does not grow with the catalog
+        chunk.clear();
+        entityManager.clear();
+    }
+
+    private int resolvePageSize(Integer size) {
+        if (size == null) return defaultPageSize;
+        if (size < 1) throw new IllegalArgumentException("size must be at least 1");
+        return Math.min(size, maxPageSize);
+    }
 }
@@ -0,0 +1,321 @@
+package com.springproject.hospitalitymanagnet.backend.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springproject.hospitalitymanagnet.backend.entity.IdempotencyRecord;
+import com.springproject.hospitalitymanagnet.backend.repository.IdempotencyRecordRepository;
+import com.springproject.hospitalitymanagnet.backend.service.IdempotencyService;
+import com.springproject.hospitalitymanagnet.backend.util.BoundedTtlCache;
+import com.springproject.hospitalitymanagnet.backend.util.Futures;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Idempotency keys in two layers: a bounded in-memory cache of finished responses in front of
+ * the idempotency_keys table, which makes them survive restarts and shared between instances.
+ *
+ * The first request with a key inserts its row (the unique key decides who runs), runs the work
+ * and then stores the response in the row. The work runs outside any transaction of this class
+ * (a booking keeps no connection open while it is paid for), but it can attach what it creates
+ * (the hold) to the row in its own transaction. If the instance stops before the response is
+ * stored, other requests with the key are refused until the in-progress lease runs out; the
+ * next one after that takes the row over and runs the work with the attached resource, which
+ * resumes it (the hold is paid under the same charge reference) rather than starting over.
+ * Duplicates on the same instance complete with the running one instead of polling the table;
+ * no thread waits for either. A run refused with IllegalArgumentException (invalid request,
+ * declined card) deletes its row, so the client can fix the request and retry with the same
+ * key. Any other failure may have left work in flight (a charge the provider did not answer in
+ * time): the row keeps what the run attached and its lease is ended at once, so the retry takes
+ * it over and resumes under the same charge reference instead of starting again.
+ */
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyServiceImpl.class);
+
+    private static final int MAX_KEY_LENGTH = 100;
+    private static final long PURGE_INTERVAL_MS = 60_000;
+    private static final int STORE_ATTEMPTS = 3;
+    private static final long STORE_RETRY_DELAY_MS = 50;
+
+    private record Completed(String requestHash, String response) {
+    }
+
+    private final IdempotencyRecordRepository recordRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate newTx;
+    private final Duration ttl;
+    private final Duration inProgressLease;
+    private final BoundedTtlCache<String, Completed> completed;
+    private final ConcurrentHashMap<String, CompletableFuture<Completed>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong nextPurge = new AtomicLong();
+
+    public IdempotencyServiceImpl(IdempotencyRecordRepository recordRepository,
+                                  ObjectMapper objectMapper,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${idempotency.ttl-hours:24}") long ttlHours,
+                                  @Value("${idempotency.in-progress-lease-seconds:120}") long leaseSeconds,
+                                  @Value("${idempotency.cache.max-entries:10000}") int cacheEntries) {
+        this.recordRepository = recordRepository;
+        this.objectMapper = objectMapper;
+        this.newTx = new TransactionTemplate(transactionManager);
+        this.newTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.ttl = Duration.ofHours(ttlHours);
+        this.inProgressLease = Duration.ofSeconds(leaseSeconds);
+        this.completed = new BoundedTtlCache<>(cacheEntries, ttl.toMillis());
+    }
+
+    @Override
+    public <T> CompletableFuture<T> execute(String scope, String key, Object request, Class<T> responseType,
+                                            Function<Claim, CompletableFuture<T>> action) {
+        if (key == null || key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            return CompletableFuture.failedFuture(
+                    new IllegalArgumentException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters"));
+        }
+        String cacheKey = scope + '\n' + key;
+        String requestHash;
+        try {
+            requestHash = hash(request);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        Completed done = completed.get(cacheKey);
+        if (done != null) return replayed(done, requestHash, responseType);
+
+        CompletableFuture<Completed> mine = new CompletableFuture<>();
+        CompletableFuture<Completed> running = inFlight.putIfAbsent(cacheKey, mine);
+        if (running != null) return await(running, requestHash, responseType);
+
+        IdempotencyRecord record;
+        try {
+            record = claim(scope, key, requestHash);
+        } catch (RuntimeException e) {
+            inFlight.remove(cacheKey, mine);
+            mine.completeExceptionally(e);
+            return CompletableFuture.failedFuture(e);
+        }
+        if (record.getResponse() != null) {
+            done = new Completed(record.getRequestHash(), record.getResponse());
+            completed.put(cacheKey, done);
+            inFlight.remove(cacheKey, mine);
+            mine.complete(done);
+            return replayed(done, requestHash, responseType);
+        }
+
+        CompletableFuture<T> run;
+        try {
+            run = action.apply(claimOf(record));
+        } catch (RuntimeException e) {
+            run = CompletableFuture.failedFuture(e);
+        }
+        // runs on the thread that finishes the action
+        return run.handle((result, failure) -> {
+            try {
+                if (failure != null) {
+                    RuntimeException e = Futures.unwrap(failure);
+                    if (e instanceof IllegalArgumentException) {
+                        // refused or declined: nothing is left to resume, the key can be used again
+                        releaseClaim(record.getId());
+                    } else {
+                        // e.g. a payment that timed out and may still go through: the next request
+                        // with the key resumes from what this run attached
+                        reopenClaim(record.getId());
+                    }
+                    mine.completeExceptionally(e);
+                    throw e;
+                }
+                String json = toJson(result);
+                storeResponse(scope, key, record.getId(), json);
+                Completed finished = new Completed(requestHash, json);
+                completed.put(cacheKey, finished);
+                mine.complete(finished);
+                return result;
+            } catch (RuntimeException e) {
+                mine.completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.remove(cacheKey, mine);
+            }
+        });
+    }
+
+    // The row of this key: finished, or claimed for this caller to run
+    private IdempotencyRecord claim(String scope, String key, String requestHash) {
+        purgeExpiredIfDue();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return newTx.execute(status -> {
+                    LocalDateTime now = LocalDateTime.now();
+                    IdempotencyRecord existing = recordRepository.findByScopeAndIdempotencyKey(scope, key).orElse(null);
+                    if (existing != null && existing.getExpiresAt().isBefore(now)) {
+                        recordRepository.delete(existing);
+                        recordRepository.flush();
+                        existing = null;
+                    }
+                    if (existing == null) {
+                        return recordRepository.saveAndFlush(
+                                new IdempotencyRecord(null, scope, key, requestHash, null, now, now.plus(ttl), null));
+                    }
+                    if (existing.getResponse() != null) return existing;
+                    if (existing.getClaimedAt().isBefore(now.minus(inProgressLease))) {
+                        // resuming pays for what the first request created, so only a repeat of it may
+                        if (!existing.getRequestHash().equals(requestHash)) {
+                            throw new IllegalArgumentException("Idempotency-Key was already used for a different request");
+                        }
+                        if (recordRepository.takeOver(existing.getId(), existing.getClaimedAt(), now) == 1) {
+                            logger.warn("Took over abandoned Idempotency-Key {} of {}{}", key, scope,
+                                    existing.getResourceId() != null ? ", resuming from " + existing.getResourceId() : "");
+                            return existing;
+                        }
+                    }
+                    throw new IllegalStateException("A request with this Idempotency-Key is still being processed");
+                });
+            } catch (DataIntegrityViolationException e) {
+                // another instance inserted the key first; the next round sees its row
+                if (attempt >= 2) throw new IllegalStateException("A request with this Idempotency-Key is still being processed", e);
+            }
+        }
+    }
+
+    private Claim claimOf(IdempotencyRecord record) {
+        Long resumed = record.getResourceId();
+        return new Claim() {
+            @Override
+            public Long resourceId() {
+                return resumed;
+            }
+
+            @Override
+            public void attach(Long resourceId) {
+                // joins the transaction that creates the resource
+                recordRepository.attachResource(record.getId(), resourceId);
+            }
+        };
+    }
+
+    // The work is done by now: only this write is retried, running the work again would repeat it
+    private void storeResponse(String scope, String key, Long recordId, String json) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                Integer stored = newTx.execute(status -> recordRepository.complete(recordId, json));
+                if (stored == null || stored != 1) {
+                    // the lease ran out while the work ran and another instance took the key over
+                    logger.error("Idempotency-Key {} of {} was taken over before its response was stored", key, scope);
+                }
+                return;
+            } catch (RuntimeException e) {
+                if (attempt >= STORE_ATTEMPTS) {
+                    // the caller still gets its response; this instance replays it from the cache
+                    logger.error("Could not store the response of Idempotency-Key {} of {} (record {})",
+                            key, scope, recordId, e);
+                    return;
+                }
+                logger.warn("Storing the response of Idempotency-Key {} of {} failed, retrying: {}",
+                        key, scope, e.getMessage());
+                try {
+                    Thread.sleep(STORE_RETRY_DELAY_MS * attempt);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void releaseClaim(Long recordId) {
+        try {
+            newTx.executeWithoutResult(status -> recordRepository.release(recordId));
+        } catch (RuntimeException e) {
+            // the key stays blocked until its lease runs out
+            logger.warn("Could not release Idempotency-Key record {}: {}", recordId, e.getMessage());
+        }
+    }
+
+    private void reopenClaim(Long recordId) {
+        LocalDateTime lapsed = LocalDateTime.now().minus(inProgressLease).minusSeconds(1);
+        try {
+            newTx.executeWithoutResult(status -> recordRepository.reopen(recordId, lapsed));
+        } catch (RuntimeException e) {
+            // taken over once its lease runs out instead
+            logger.warn("Could not reopen Idempotency-Key record {}: {}", recordId, e.getMessage());
+        }
+    }
+
+    private void purgeExpiredIfDue() {
+        long now = System.currentTimeMillis();
+        long due = nextPurge.get();
+        if (now < due || !nextPurge.compareAndSet(due, now + PURGE_INTERVAL_MS)) return;
+        try {
+            Integer purged = newTx.execute(status -> recordRepository.deleteExpired(LocalDateTime.now()));
+            if (purged != null && purged > 0) logger.info("Purged {} expired idempotency keys", purged);
+        } catch (RuntimeException e) {
+            logger.warn("Purging expired idempotency keys failed: {}", e.getMessage());
+        }
+    }
+
+    // the duplicates share the outcome of the run they wait for
+    private <T> CompletableFuture<T> await(CompletableFuture<Completed> running, String requestHash, Class<T> responseType) {
+        return running.copy()
+                .orTimeout(inProgressLease.toMillis(), TimeUnit.MILLISECONDS)
+                .handle((done, failure) -> {
+                    if (failure == null) return replay(done, requestHash, responseType);
+                    RuntimeException e = Futures.unwrap(failure);
+                    if (e.getCause() instanceof TimeoutException) {
+                        throw new IllegalStateException("A request with this Idempotency-Key is still being processed");
+                    }
+                    throw e;
+                });
+    }
+
+    private <T> CompletableFuture<T> replayed(Completed done, String requestHash, Class<T> responseType) {
+        try {
+            return CompletableFuture.completedFuture(replay(done, requestHash, responseType));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private <T> T replay(Completed done, String requestHash, Class<T> responseType) {
+        if (!done.requestHash().equals(requestHash)) {
+            throw new IllegalArgumentException("Idempotency-Key was already used for a different request");
+        }
+        try {
+            return objectMapper.readValue(done.response(), responseType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored response of the Idempotency-Key is unreadable", e);
+        }
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Response cannot be stored for the Idempotency-Key", e);
+        }
+    }
+
+    private String hash(Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(request)));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalArgumentException("Request cannot be hashed for the Idempotency-Key", e);
+        }
+    }
+}
@@ -0,0 +1,364 @@
+package com.springproject.hospitalitymanagnet.backend.service.impl;
+
+import com.springproject.hospitalitymanagnet.backend.entity.RoomInventory;
+import com.springproject.hospitalitymanagnet.backend.entity.RoomType;
+import com.springproject.hospitalitymanagnet.backend.repository.BookingRepository;
+import com.springproject.hospitalitymanagnet.backend.repository.RoomInventoryRepository;
+import com.springproject.hospitalitymanagnet.backend.repository.RoomTypeRepository;
+import com.springproject.hospitalitymanagnet.backend.search.HotelAvailabilityIndex;
+import com.springproject.hospitalitymanagnet.backend.service.InventoryService;
+import com.springproject.hospitalitymanagnet.backend.util.TransactionHooks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Per-night room inventory (room_inventory).
+ *
+ * A booking takes its nights with one conditional UPDATE (sold + units <= total on every night
+ * of the stay), so it only locks the rows of its own nights: bookings of the same room type for
+ * other dates do not wait for each other, and no RoomType row is locked or written. Rows are
+ * created on first use in a short transaction of their own, so a concurrent first booking of
+ * the same night can only collide on the unique key there, never in the booking transaction.
+ *
+ * With booking.ledger.enabled (single instance only) the ReservationLedger admits bookings
+ * instead, so bookings of one room type do not even queue on the room_inventory rows of a
+ * popular night: reserve/release only touch memory, and the committed changes are written to
+ * room_inventory in the background every booking.ledger.flush-interval-ms. On startup the
+ * ledger is rebuilt from the bookings table, which is what every admitted booking was saved to.
+ */
+@Service
+public class InventoryServiceImpl implements InventoryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(InventoryServiceImpl.class);
+
+    private static final int MAX_NIGHTS = 365;
+
+    private final RoomInventoryRepository inventoryRepository;
+    private final RoomTypeRepository roomTypeRepository;
+    private final BookingRepository bookingRepository;
+    private final HotelAvailabilityIndex availabilityIndex;
+    private final TransactionTemplate newTx;
+    private final ReservationLedger ledger;
+    private final boolean ledgerEnabled;
+    private final long flushIntervalMs;
+
+    private ScheduledExecutorService writeBehind;
+    private long prunedThrough;
+
+    public InventoryServiceImpl(RoomInventoryRepository inventoryRepository,
+                                RoomTypeRepository roomTypeRepository,
+                                BookingRepository bookingRepository,
+                                HotelAvailabilityIndex availabilityIndex,
+                                PlatformTransactionManager transactionManager,
+                                ReservationLedger ledger,
+                                @Value("${booking.ledger.enabled:true}") boolean ledgerEnabled,
+                                @Value("${booking.ledger.flush-interval-ms:200}") long flushIntervalMs) {
+        this.inventoryRepository = inventoryRepository;
+        this.roomTypeRepository = roomTypeRepository;
+        this.bookingRepository = bookingRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.newTx = new TransactionTemplate(transactionManager);
+        this.newTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.ledger = ledger;
+        this.ledgerEnabled = ledgerEnabled;
+        this.flushIntervalMs = Math.max(10, flushIntervalMs);
+    }
+
+    @Override
+    @Transactional
+    public void reserve(RoomType roomType, LocalDate checkIn, LocalDate checkOut, int units) {
+        int nights = nights(checkIn, checkOut);
+        if (units < 1) throw new IllegalArgumentException("At least one room must be booked");
+
+        if (ledgerEnabled) {
+            int roomTypeId = roomType.getId();
+            long from = checkIn.toEpochDay();
+            long to = checkOut.toEpochDay();
+            requireLedgerReady();
+            if (!ledger.tryReserve(roomTypeId, from, to, units, totalRooms(roomType))) {
+                throw new IllegalArgumentException("Room is not available for the selected dates");
+            }
+            // the units stay taken only if the booking commits
+            TransactionHooks.afterCompletion(
+                    () -> ledger.committed(roomTypeId, from, to, units),
+                    () -> ledger.release(roomTypeId, from, to, units));
+            return;
+        }
+
+        createMissingNights(roomType, checkIn, checkOut);
+        int reserved = inventoryRepository.reserve(roomType.getId(), checkIn, checkOut, units);
+        if (reserved != nights) {
+            // some nights were taken above; the caller's rollback undoes them
+            throw new IllegalArgumentException("Room is not available for the selected dates");
+        }
+        TransactionHooks.afterCommit(() -> availabilityIndex.refresh(roomType.getId(), checkIn, checkOut));
+    }
+
+    @Override
+    @Transactional
+    public void release(Integer roomTypeId, LocalDate checkIn, LocalDate checkOut, int units) {
+        int nights = nights(checkIn, checkOut);
+        if (ledgerEnabled) {
+            long from = checkIn.toEpochDay();
+            long to = checkOut.toEpochDay();
+            requireLedgerReady();
+            TransactionHooks.afterCommit(() -> {
+                ledger.release(roomTypeId, from, to, units);
+                ledger.committed(roomTypeId, from, to, -units);
+            });
+            return;
+        }
+        int released = inventoryRepository.release(roomTypeId, checkIn, checkOut, units);
+        if (released != nights) {
+            // nights without a row were never taken (e.g. bookings older than the inventory table)
+            logger.warn("Released {} of {} nights of RoomType {} ({} to {})",
+                    released, nights, roomTypeId, checkIn, checkOut);
+        }
+        TransactionHooks.afterCommit(() -> availabilityIndex.refresh(roomTypeId, checkIn, checkOut));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Integer, Integer> getAvailableUnits(Collection<RoomType> roomTypes, LocalDate checkIn, LocalDate checkOut) {
+        int nights = nights(checkIn, checkOut);
+        Map<Integer, Integer> free = new LinkedHashMap<>();
+        for (RoomType rt : roomTypes) {
+            free.put(rt.getId(), totalRooms(rt));
+        }
+        if (free.isEmpty()) return free;
+
+        if (ledgerEnabled && ledger.isReady()) {
+            for (RoomType rt : roomTypes) {
+                free.put(rt.getId(), ledger.freeUnits(rt.getId(), checkIn.toEpochDay(), checkOut.toEpochDay(), totalRooms(rt)));
+            }
+            return free;
+        }
+        for (RoomInventoryRepository.FreeUnitsView v :
+                inventoryRepository.findFreeUnits(free.keySet(), checkIn, checkOut)) {
+            // nights without a row still have every unit of the room type
+            int units = v.getNights() < nights ? Math.min(v.getMinFree(), free.get(v.getRoomTypeId())) : v.getMinFree();
+            free.put(v.getRoomTypeId(), Math.max(0, units));
+        }
+        return free;
+    }
+
+    @Override
+    @Transactional
+    public void resize(Integer roomTypeId, int totalRooms) {
+        inventoryRepository.resize(roomTypeId, LocalDate.now(), totalRooms);
+    }
+
+    @Override
+    @Transactional
+    public void removeRoomTypes(Collection<Integer> roomTypeIds) {
+        if (roomTypeIds == null || roomTypeIds.isEmpty()) return;
+        inventoryRepository.deleteByRoomTypeIds(roomTypeIds);
+        if (ledgerEnabled) {
+            List<Integer> ids = List.copyOf(roomTypeIds);
+            TransactionHooks.afterCommit(() -> ledger.forget(ids));
+        }
+    }
+
+    /**
+     * First start with the inventory table: take the nights of every active booking, so stays
+     * booked before the table existed keep their rooms.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE) // before HotelIndexer loads the availability index
+    public void seedFromBookings() {
+        try {
+            newTx.executeWithoutResult(status -> {
+                if (inventoryRepository.count() > 0) return;
+                LocalDate today = LocalDate.now();
+
+                Map<Integer, Map<LocalDate, Integer>> sold = new HashMap<>();
+                for (BookingRepository.StayView stay : bookingRepository.findActiveStaysFrom(today)) {
+                    if (stay.getCheckInDate() == null || stay.getCheckOutDate() == null) continue;
+                    LocalDate from = stay.getCheckInDate().isBefore(today) ? today : stay.getCheckInDate();
+                    Map<LocalDate, Integer> nights = sold.computeIfAbsent(stay.getRoomTypeId(), k -> new HashMap<>());
+                    for (LocalDate d = from; d.isBefore(stay.getCheckOutDate()); d = d.plusDays(1)) {
+                        nights.merge(d, 1, Integer::sum);
+                    }
+                }
+                if (sold.isEmpty()) return;
+
+                Map<Integer, RoomType> roomTypes = roomTypeRepository.findAllById(sold.keySet()).stream()
+                        .collect(Collectors.toMap(RoomType::getId, Function.identity()));
+                List<RoomInventory> rows = new ArrayList<>();
+                sold.forEach((roomTypeId, nights) -> nights.forEach((night, count) -> {
+                    RoomType rt = roomTypes.get(roomTypeId);
+                    if (rt != null) {
+                        // older data may hold more bookings than rooms; never start below what is sold
+                        rows.add(new RoomInventory(null, rt, night, Math.max(totalRooms(rt), count), count));
+                    }
+                }));
+                inventoryRepository.saveAll(rows);
+                logger.info("Seeded {} room inventory nights from active bookings", rows.size());
+            });
+        } catch (DataIntegrityViolationException e) {
+            // another instance seeded at the same time
+            logger.info("Room inventory was seeded concurrently: {}", e.getMostSpecificCause().getMessage());
+        }
+    }
+
+    /**
+     * Rebuilds the ledger from the bookings table, then queues whatever room_inventory is missing
+     * (changes still queued when the previous run stopped) so the next flush brings it in line.
+     * Bookings are refused with 503 until this has run.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE + 1) // after seedFromBookings
+    public void recoverLedger() {
+        if (!ledgerEnabled) return;
+        long start = System.currentTimeMillis();
+        LocalDate today = LocalDate.now();
+        Map<Integer, Map<Long, Integer>> counts = new HashMap<>();
+        Map<ReservationLedger.Night, Integer> corrections = new HashMap<>();
+        newTx.executeWithoutResult(status -> {
+            for (BookingRepository.StayView stay : bookingRepository.findActiveStaysFrom(today)) {
+                if (stay.getCheckInDate() == null || stay.getCheckOutDate() == null) continue;
+                long from = Math.max(stay.getCheckInDate().toEpochDay(), today.toEpochDay());
+                Map<Long, Integer> nights = counts.computeIfAbsent(stay.getRoomTypeId(), k -> new HashMap<>());
+                for (long day = from; day < stay.getCheckOutDate().toEpochDay(); day++) {
+                    nights.merge(day, 1, Integer::sum);
+                }
+            }
+            counts.forEach((roomTypeId, nights) -> nights.forEach((day, n) ->
+                    corrections.put(new ReservationLedger.Night(roomTypeId, day), n)));
+            for (RoomInventoryRepository.SoldNightView v : inventoryRepository.findSoldNights(today, LocalDate.of(9999, 12, 31))) {
+                corrections.merge(new ReservationLedger.Night(v.getRoomTypeId(), v.getStayDate().toEpochDay()),
+                        -v.getSold(), (a, b) -> a + b == 0 ? null : a + b);
+            }
+        });
+        ledger.load(counts);
+        ledger.requeue(corrections);
+        logger.info("Reservation ledger rebuilt for {} room types in {} ms ({} inventory nights to correct)",
+                counts.size(), System.currentTimeMillis() - start, corrections.size());
+    }
+
+    @PostConstruct
+    void startWriteBehind() {
+        if (!ledgerEnabled) return;
+        writeBehind = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "inventory-write-behind");
+            t.setDaemon(true);
+            return t;
+        });
+        writeBehind.scheduleWithFixedDelay(this::flushLedger, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stopWriteBehind() throws InterruptedException {
+        if (writeBehind == null) return;
+        writeBehind.shutdown();
+        writeBehind.awaitTermination(10, TimeUnit.SECONDS);
+        flushLedger();
+    }
+
+    /** Writes the ledger changes committed since the last run to room_inventory. */
+    void flushLedger() {
+        try {
+            long today = LocalDate.now().toEpochDay();
+            if (prunedThrough < today) {
+                ledger.prune(today);
+                prunedThrough = today;
+            }
+            Map<Integer, Map<LocalDate, Integer>> byRoomType = new HashMap<>();
+            ledger.drainPending().forEach((night, delta) -> byRoomType
+                    .computeIfAbsent(night.roomTypeId(), k -> new TreeMap<>())
+                    .put(LocalDate.ofEpochDay(night.epochDay()), delta));
+            byRoomType.forEach(this::writeDeltas);
+        } catch (RuntimeException e) {
+            // keeps the scheduled task alive
+            logger.error("Room inventory write-behind failed", e);
+        }
+    }
+
+    private void writeDeltas(Integer roomTypeId, Map<LocalDate, Integer> deltas) {
+        try {
+            RoomType roomType = roomTypeRepository.findById(roomTypeId).orElse(null);
+            if (roomType == null) return; // deleted since; its rows went with it
+            createMissingNights(roomType, deltas.keySet());
+            newTx.executeWithoutResult(status ->
+                    deltas.forEach((night, delta) -> inventoryRepository.addSold(roomTypeId, night, delta)));
+            LocalDate first = Collections.min(deltas.keySet());
+            LocalDate last = Collections.max(deltas.keySet());
+            availabilityIndex.refresh(roomTypeId, first, last.plusDays(1));
+        } catch (RuntimeException e) {
+            logger.warn("Could not write {} inventory nights of RoomType {}, retrying: {}",
+                    deltas.size(), roomTypeId, e.getMessage());
+            Map<ReservationLedger.Night, Integer> retry = new HashMap<>();
+            deltas.forEach((night, delta) -> retry.put(new ReservationLedger.Night(roomTypeId, night.toEpochDay()), delta));
+            ledger.requeue(retry);
+        }
+    }
+
+    private void requireLedgerReady() {
+        if (!ledger.isReady()) throw new IllegalStateException("Bookings are not open yet, please retry shortly");
+    }
+
+    private void createMissingNights(RoomType roomType, LocalDate checkIn, LocalDate checkOut) {
+        List<LocalDate> nights = new ArrayList<>();
+        for (LocalDate d = checkIn; d.isBefore(checkOut); d = d.plusDays(1)) {
+            nights.add(d);
+        }
+        createMissingNights(roomType, nights);
+    }
+
+    private void createMissingNights(RoomType roomType, Collection<LocalDate> nights) {
+        LocalDate first = Collections.min(nights);
+        LocalDate last = Collections.max(nights);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                newTx.executeWithoutResult(status -> {
+                    Set<LocalDate> existing = new HashSet<>(
+                            inventoryRepository.findStayDates(roomType.getId(), first, last.plusDays(1)));
+                    List<RoomInventory> missing = new ArrayList<>();
+                    RoomType ref = roomTypeRepository.getReferenceById(roomType.getId());
+                    for (LocalDate d : nights) {
+                        if (!existing.contains(d)) missing.add(new RoomInventory(null, ref, d, totalRooms(roomType), 0));
+                    }
+                    if (!missing.isEmpty()) inventoryRepository.saveAllAndFlush(missing);
+                });
+                return;
+            } catch (DataIntegrityViolationException e) {
+                // a concurrent booking created some of the nights first; the next round skips them
+                if (attempt >= 3) throw new IllegalStateException("Could not prepare room inventory", e);
+            }
+        }
+    }
+
+    private static int nights(LocalDate checkIn, LocalDate checkOut) {
+        if (checkIn == null || checkOut == null) throw new IllegalArgumentException("checkIn and checkOut are required");
+        long nights = ChronoUnit.DAYS.between(checkIn, checkOut);
+        if (nights <= 0) throw new IllegalArgumentException("Invalid dates: check-out must be after check-in");
+        if (nights > MAX_NIGHTS) throw new IllegalArgumentException("A stay can be at most " + MAX_NIGHTS + " nights");
+        return (int) nights;
+    }
+
+    private static int totalRooms(RoomType rt) {
+        return rt.getTotalRooms() != null ? rt.getTotalRooms() : 1;
+    }
+}
@@ -0,0 +1,50 @@
+package com.springproject.hospitalitymanagnet.backend.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springproject.hospitalitymanagnet.backend.dto.BookingDTO;
+import com.springproject.hospitalitymanagnet.backend.entity.OutboxEvent;
+import com.springproject.hospitalitymanagnet.backend.outbox.OutboxRelay;
+import com.springproject.hospitalitymanagnet.backend.repository.OutboxEventRepository;
+import com.springproject.hospitalitymanagnet.backend.service.OutboxService;
+import com.springproject.hospitalitymanagnet.backend.util.TransactionHooks;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Service
+public class OutboxServiceImpl implements OutboxService {
+
+    private final OutboxEventRepository outboxRepository;
+    private final OutboxRelay relay;
+    private final ObjectMapper objectMapper;
+
+    public OutboxServiceImpl(OutboxEventRepository outboxRepository, OutboxRelay relay, ObjectMapper objectMapper) {
+        this.outboxRepository = outboxRepository;
+        this.relay = relay;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordBookingEvent(String eventType, BookingDTO booking) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(booking);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Booking event cannot be serialized", e);
+        }
+        outboxRepository.save(new OutboxEvent(null, "booking", booking.getId(), eventType, payload,
+                LocalDateTime.now(), null));
+        // published within milliseconds instead of at the next scheduled run
+        TransactionHooks.afterCommit(relay::wakeUp);
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        return relay.stats();
+    }
+}
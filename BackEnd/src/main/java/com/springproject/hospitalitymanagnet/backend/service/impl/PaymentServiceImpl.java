@@ -2,62 +2,150 @@ package com.springproject.hospitalitymanagnet.backend.service.impl;
 
 import com.springproject.hospitalitymanagnet.backend.dto.PaymentResultDTO;
 import com.springproject.hospitalitymanagnet.backend.dto.BookingApiRequestDTO.Payment;
-import com.springproject.hospitalitymanagnet.backend.repository.PaymentRepository;
- // if you use alias import adjust accordingly
+import com.springproject.hospitalitymanagnet.backend.exception.PaymentUnavailableException;
+import com.springproject.hospitalitymanagnet.backend.payment.ChargeRequest;
+import com.springproject.hospitalitymanagnet.backend.payment.PaymentGateway;
 import com.springproject.hospitalitymanagnet.backend.service.PaymentService;
+import com.springproject.hospitalitymanagnet.backend.util.CircuitBreaker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.time.LocalDateTime;
-import java.util.UUID;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
 
+/**
+ * Calls the selected PaymentGateway behind three guards, each configured per provider
+ * (payment.&lt;provider&gt;.*):
+ * - a bulkhead: at most max-concurrent charges in flight at the provider (timed out ones
+ *   included, until the provider answers them), further ones are turned away at once
+ * - a timeout: a charge not answered within timeout-ms fails (the provider may still charge it;
+ *   retrying with the same reference does not charge twice)
+ * - a circuit breaker: breaker-failures failed calls in a row stop calls for breaker-open-ms
+ * A declined card is an answer, not a failure, and does not count against the breaker.
+ */
 @Service
 public class PaymentServiceImpl implements PaymentService {
 
-    private final PaymentRepository paymentRepository;
+    private static final Logger logger = LoggerFactory.getLogger(PaymentServiceImpl.class);
 
-    public PaymentServiceImpl(PaymentRepository paymentRepository) {
-        this.paymentRepository = paymentRepository;
+    private static final class Provider {
+        final PaymentGateway gateway;
+        final long timeoutMs;
+        final int maxConcurrent;
+        final Semaphore bulkhead;
+        final CircuitBreaker breaker;
+        final LongAdder charged = new LongAdder();
+        final LongAdder declined = new LongAdder();
+        final LongAdder failed = new LongAdder();
+        final LongAdder timedOut = new LongAdder();
+        final LongAdder rejected = new LongAdder();
+
+        Provider(PaymentGateway gateway, long timeoutMs, int maxConcurrent, CircuitBreaker breaker) {
+            this.gateway = gateway;
+            this.timeoutMs = timeoutMs;
+            this.maxConcurrent = maxConcurrent;
+            this.bulkhead = new Semaphore(maxConcurrent);
+            this.breaker = breaker;
+        }
+    }
+
+    private final Map<String, Provider> providers = new TreeMap<>();
+    private final Provider active;
+    private final String currency;
+
+    public PaymentServiceImpl(List<PaymentGateway> gateways,
+                              Environment environment,
+                              @Value("${payment.provider:stub}") String provider,
+                              @Value("${payment.currency:USD}") String currency) {
+        for (PaymentGateway gateway : gateways) {
+            String prefix = "payment." + gateway.name() + ".";
+            providers.put(gateway.name(), new Provider(gateway,
+                    environment.getProperty(prefix + "timeout-ms", Long.class, 3000L),
+                    Math.max(1, environment.getProperty(prefix + "max-concurrent", Integer.class, 50)),
+                    new CircuitBreaker(environment.getProperty(prefix + "breaker-failures", Integer.class, 5),
+                            environment.getProperty(prefix + "breaker-open-ms", Long.class, 10_000L))));
+        }
+        this.active = providers.get(provider);
+        if (active == null) {
+            throw new IllegalStateException("payment.provider '" + provider + "' is not one of " + providers.keySet());
+        }
+        this.currency = currency;
     }
 
     @Override
-    @Transactional
-    public PaymentResultDTO processPayment(Payment paymentInfo, double amount) {
-        String providerId = "DEMO-" + UUID.randomUUID();
-
-        String last4 = null;
-        String cardBrand = null;
-        if (paymentInfo != null && paymentInfo.getToken() != null) {
-            String tok = paymentInfo.getToken().replaceAll("\\D+", "");
-            if (tok.length() >= 4) last4 = tok.substring(tok.length() - 4);
+    public CompletableFuture<PaymentResultDTO> processPayment(String reference, Payment paymentInfo, double amount) {
+        Provider p = active;
+        String name = p.gateway.name();
+        if (!p.bulkhead.tryAcquire()) {
+            p.rejected.increment();
+            return CompletableFuture.failedFuture(
+                    new PaymentUnavailableException("Payment provider " + name + " is busy, please retry"));
+        }
+        if (!p.breaker.tryAcquire()) {
+            p.bulkhead.release();
+            p.rejected.increment();
+            return CompletableFuture.failedFuture(
+                    new PaymentUnavailableException("Payment provider " + name + " is unavailable, please retry later"));
+        }
+
+        CompletableFuture<PaymentResultDTO> call;
+        try {
+            call = p.gateway.charge(new ChargeRequest(reference, BigDecimal.valueOf(amount), currency, paymentInfo));
+        } catch (RuntimeException e) {
+            call = CompletableFuture.failedFuture(e);
         }
+        // the permit is held for as long as the provider works on the charge, timed out or not,
+        // so hung calls still count against max-concurrent
+        call.whenComplete((res, ex) -> p.bulkhead.release());
+        // copy(): the timeout ends our wait, not the provider's own future
+        return call.copy()
+                .orTimeout(p.timeoutMs, TimeUnit.MILLISECONDS)
+                .handle((res, ex) -> {
+                    if (ex == null && res != null) {
+                        p.breaker.onSuccess();
+                        ("SUCCESS".equalsIgnoreCase(res.getStatus()) ? p.charged : p.declined).increment();
+                        return res;
+                    }
+                    p.breaker.onFailure();
+                    Throwable cause = ex != null && ex.getCause() != null ? ex.getCause() : ex;
+                    if (cause instanceof TimeoutException) {
+                        p.timedOut.increment();
+                        logger.warn("Payment provider {} did not answer charge {} within {} ms", name, reference, p.timeoutMs);
+                        throw new PaymentUnavailableException("Payment provider " + name + " did not answer in time, please retry");
+                    }
+                    p.failed.increment();
+                    logger.warn("Payment provider {} failed charge {}: {}", name, reference,
+                            cause != null ? cause.getMessage() : "no result");
+                    throw new PaymentUnavailableException("Payment provider " + name + " failed, please retry", cause);
+                });
+    }
 
-        // build & save entity (use your Payment entity class)
-        com.springproject.hospitalitymanagnet.backend.entity.Payment p = com.springproject.hospitalitymanagnet.backend.entity.Payment.builder()
-                .paymentProviderId(providerId)
-                .provider("demo")
-                .method(paymentInfo != null && paymentInfo.getToken() != null ? "card" : "unknown")
-                .status("SUCCESS")
-                .amount(BigDecimal.valueOf(amount))
-                .currency("USD")                 // persisted currency
-                .cardLast4(last4)
-                .cardBrand(cardBrand)
-                .createdAt(LocalDateTime.now())
-                .build();
-
-        paymentRepository.save(p);
-
-        PaymentResultDTO res = new PaymentResultDTO();
-        res.setPaymentId(providerId);
-        res.setStatus("SUCCESS");
-        res.setProvider("demo");
-        res.setMethod(p.getMethod());
-        res.setCardLast4(p.getCardLast4());
-        res.setCardBrand(p.getCardBrand());
-        res.setMessage("Demo payment processed successfully");
-        res.setCurrency("USD");               // <-- IMPORTANT: populate currency
-
-        return res;
+    @Override
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new TreeMap<>();
+        providers.forEach((name, p) -> {
+            Map<String, Object> s = new LinkedHashMap<>();
+            s.put("active", p == active);
+            s.put("circuit", p.breaker.state());
+            s.put("inFlight", p.maxConcurrent - p.bulkhead.availablePermits());
+            s.put("charged", p.charged.sum());
+            s.put("declined", p.declined.sum());
+            s.put("failed", p.failed.sum());
+            s.put("timedOut", p.timedOut.sum());
+            s.put("rejected", p.rejected.sum());
+            stats.put(name, s);
+        });
+        return stats;
     }
 }
@@ -0,0 +1,186 @@
+package com.springproject.hospitalitymanagnet.backend.service.impl;
+
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Units sold per room type and night, held in memory. With booking.ledger.enabled it is the
+ * admission authority for bookings, so a flash sale on one room type never waits on a database
+ * row lock: a stay is checked and taken under the lock stripe of its room type, which is held
+ * for a few map lookups and never across I/O.
+ *
+ * Only one application instance may admit bookings against the ledger. Committed changes are
+ * queued as per-night deltas and written to room_inventory by InventoryServiceImpl; the
+ * bookings table stays the durable record the ledger is rebuilt from on startup.
+ */
+@Component
+class ReservationLedger {
+
+    record Night(int roomTypeId, long epochDay) {
+    }
+
+    private static final int STRIPES = 256;
+
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+    // per stripe: room type id -> epoch day -> units sold; guarded by the stripe's lock
+    private final List<Map<Integer, Map<Long, Integer>>> sold = new ArrayList<>(STRIPES);
+    // committed changes not yet written to room_inventory
+    private final ConcurrentHashMap<Night, Integer> pending = new ConcurrentHashMap<>();
+
+    private volatile boolean ready;
+
+    ReservationLedger() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+            sold.add(new HashMap<>());
+        }
+    }
+
+    boolean isReady() {
+        return ready;
+    }
+
+    /** Takes `units` on every night of [from, to) if all of them have that many left below `capacity`. */
+    boolean tryReserve(int roomTypeId, long from, long to, int units, int capacity) {
+        ReentrantLock lock = lockFor(roomTypeId);
+        lock.lock();
+        try {
+            Map<Long, Integer> nights = stripe(roomTypeId).computeIfAbsent(roomTypeId, id -> new HashMap<>());
+            for (long day = from; day < to; day++) {
+                if (nights.getOrDefault(day, 0) + units > capacity) return false;
+            }
+            for (long day = from; day < to; day++) {
+                nights.merge(day, units, Integer::sum);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Gives back `units` on every night of [from, to) (rolled back booking or committed cancel). */
+    void release(int roomTypeId, long from, long to, int units) {
+        ReentrantLock lock = lockFor(roomTypeId);
+        lock.lock();
+        try {
+            Map<Long, Integer> nights = stripe(roomTypeId).get(roomTypeId);
+            if (nights == null) return;
+            for (long day = from; day < to; day++) {
+                nights.computeIfPresent(day, (d, n) -> n > units ? n - units : null);
+            }
+            if (nights.isEmpty()) stripe(roomTypeId).remove(roomTypeId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Fewest units left on any night of [from, to). */
+    int freeUnits(int roomTypeId, long from, long to, int capacity) {
+        ReentrantLock lock = lockFor(roomTypeId);
+        lock.lock();
+        try {
+            Map<Long, Integer> nights = stripe(roomTypeId).get(roomTypeId);
+            int maxSold = 0;
+            if (nights != null) {
+                for (long day = from; day < to; day++) {
+                    maxSold = Math.max(maxSold, nights.getOrDefault(day, 0));
+                }
+            }
+            return Math.max(0, capacity - maxSold);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Queues a committed change of `delta` units per night of [from, to) for room_inventory. */
+    void committed(int roomTypeId, long from, long to, int delta) {
+        for (long day = from; day < to; day++) {
+            pending.merge(new Night(roomTypeId, day), delta, (a, b) -> a + b == 0 ? null : a + b);
+        }
+    }
+
+    /** Takes every queued change; a failed write hands them back with requeue(). */
+    Map<Night, Integer> drainPending() {
+        Map<Night, Integer> drained = new HashMap<>();
+        for (Night night : pending.keySet()) {
+            Integer delta = pending.remove(night);
+            if (delta != null) drained.put(night, delta);
+        }
+        return drained;
+    }
+
+    void requeue(Map<Night, Integer> deltas) {
+        deltas.forEach((night, delta) -> pending.merge(night, delta, (a, b) -> a + b == 0 ? null : a + b));
+    }
+
+    boolean hasPending() {
+        return !pending.isEmpty();
+    }
+
+    /** Forgets deleted room types, including changes still queued for them. */
+    void forget(Collection<Integer> roomTypeIds) {
+        for (Integer roomTypeId : roomTypeIds) {
+            ReentrantLock lock = lockFor(roomTypeId);
+            lock.lock();
+            try {
+                stripe(roomTypeId).remove(roomTypeId);
+            } finally {
+                lock.unlock();
+            }
+        }
+        Set<Integer> ids = new HashSet<>(roomTypeIds);
+        pending.keySet().removeIf(night -> ids.contains(night.roomTypeId()));
+    }
+
+    /** Drops nights before `today`; they can no longer be booked. */
+    void prune(long today) {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i].lock();
+            try {
+                Iterator<Map<Long, Integer>> it = sold.get(i).values().iterator();
+                while (it.hasNext()) {
+                    Map<Long, Integer> nights = it.next();
+                    nights.keySet().removeIf(day -> day < today);
+                    if (nights.isEmpty()) it.remove();
+                }
+            } finally {
+                locks[i].unlock();
+            }
+        }
+    }
+
+    /** Replaces the counts with ones rebuilt from the bookings table and opens the ledger. */
+    void load(Map<Integer, Map<Long, Integer>> counts) {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i].lock();
+            try {
+                sold.get(i).clear();
+            } finally {
+                locks[i].unlock();
+            }
+        }
+        counts.forEach((roomTypeId, nights) -> {
+            ReentrantLock lock = lockFor(roomTypeId);
+            lock.lock();
+            try {
+                stripe(roomTypeId).put(roomTypeId, new HashMap<>(nights));
+            } finally {
+                lock.unlock();
+            }
+        });
+        pending.clear();
+        ready = true;
+    }
+
+    private ReentrantLock lockFor(int roomTypeId) {
+        return locks[Math.floorMod(roomTypeId, STRIPES)];
+    }
+
+    // caller holds lockFor(roomTypeId)
+    private Map<Integer, Map<Long, Integer>> stripe(int roomTypeId) {
+        return sold.get(Math.floorMod(roomTypeId, STRIPES));
+    }
+}
@@ -1,23 +1,46 @@
 package com.springproject.hospitalitymanagnet.backend.service.impl;
 
-import com.springproject.hospitalitymanagnet.backend.entity.BookingStatus;
+import com.springproject.hospitalitymanagnet.backend.cache.HotelCatalogCache;
+import com.springproject.hospitalitymanagnet.backend.dto.HotelDTO;
+import com.springproject.hospitalitymanagnet.backend.entity.RoomType;
+import com.springproject.hospitalitymanagnet.backend.mapper.HotelMapper;
 import com.springproject.hospitalitymanagnet.backend.repository.BookingRepository;
 import com.springproject.hospitalitymanagnet.backend.repository.RoomTypeRepository;
+import com.springproject.hospitalitymanagnet.backend.search.HotelIndexer;
+import com.springproject.hospitalitymanagnet.backend.service.InventoryService;
 import com.springproject.hospitalitymanagnet.backend.service.RoomTypeService;
+import com.springproject.hospitalitymanagnet.backend.util.OptimisticRetry;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
 @Service
 public class RoomTypeServiceImpl implements RoomTypeService {
 
     private final RoomTypeRepository roomTypeRepository;
     private final BookingRepository bookingRepository;
+    private final HotelCatalogCache catalogCache;
+    private final InventoryService inventoryService;
+    private final HotelIndexer hotelIndexer;
+    private final HotelMapper hotelMapper;
+    private final OptimisticRetry optimisticRetry;
 
     public RoomTypeServiceImpl(RoomTypeRepository roomTypeRepository,
-                               BookingRepository bookingRepository) {
+                               BookingRepository bookingRepository,
+                               HotelCatalogCache catalogCache,
+                               InventoryService inventoryService,
+                               HotelIndexer hotelIndexer,
+                               HotelMapper hotelMapper,
+                               OptimisticRetry optimisticRetry) {
         this.roomTypeRepository = roomTypeRepository;
         this.bookingRepository = bookingRepository;
+        this.catalogCache = catalogCache;
+        this.inventoryService = inventoryService;
+        this.hotelIndexer = hotelIndexer;
+        this.hotelMapper = hotelMapper;
+        this.optimisticRetry = optimisticRetry;
     }
 
     /**
@@ -31,11 +54,40 @@ public class RoomTypeServiceImpl implements RoomTypeService {
         if (hasAnyBooking) {
             throw new IllegalStateException("Cannot delete RoomType " + roomTypeId + " — bookings reference it.");
         }
+        RoomType room = roomTypeRepository.findById(roomTypeId).orElse(null);
+        Integer hotelId = room != null && room.getHotel() != null ? room.getHotel().getId() : null;
         try {
+            // unbooked nights can remain from bookings that were rolled back
+            inventoryService.removeRoomTypes(List.of(roomTypeId));
             roomTypeRepository.deleteById(roomTypeId);
+            catalogCache.evictHotel(hotelId);
+            if (hotelId != null) {
+                HotelDTO hotel = hotelMapper.toDto(room.getHotel());
+                hotel.setRoomTypes(hotel.getRoomTypes().stream().filter(rt -> !roomTypeId.equals(rt.getId())).toList());
+                hotelIndexer.hotelSaved(hotel);
+            }
         } catch (DataIntegrityViolationException dive) {
             // Fallback: just in case of a race condition or db-level enforcement
             throw new IllegalStateException("Cannot delete RoomType " + roomTypeId + " — bookings exist.", dive);
         }
     }
+
+    @Override
+    public void setAvailability(Integer roomTypeId, String availability) {
+        optimisticRetry.execute("roomType.setAvailability", () -> applyAvailability(roomTypeId, availability));
+    }
+
+    private void applyAvailability(Integer roomTypeId, String availability) {
+        RoomType room = roomTypeRepository.findById(roomTypeId)
+                .orElseThrow(() -> new IllegalArgumentException("Room not found"));
+        // repeated toggles do not bump the version, so they cannot conflict with anything
+        if (availability.equalsIgnoreCase(room.getAvailability())) return;
+        room.setAvailability(availability);
+        roomTypeRepository.save(room);
+        catalogCache.evictHotel(room.getHotel() != null ? room.getHotel().getId() : null);
+        if (room.getHotel() != null) {
+            // the availability search only offers room types marked Available
+            hotelIndexer.hotelSaved(hotelMapper.toDto(room.getHotel()));
+        }
+    }
 }
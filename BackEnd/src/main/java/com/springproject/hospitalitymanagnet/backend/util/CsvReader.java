@@ -0,0 +1,97 @@
+package com.springproject.hospitalitymanagnet.backend.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal streaming RFC 4180 reader: comma separated, double-quoted fields may contain commas,
+ * line breaks and "" for a quote. Reads one record at a time, so the input is never held in
+ * memory as a whole.
+ */
+public class CsvReader {
+
+    private final Reader reader;
+    private int pending = -2; // one char of lookahead, -2 = none
+    private int previous = -1;
+    private long line = 1;
+    private long recordLine;
+
+    public CsvReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /** The next record, or null at the end of the input. */
+    public List<String> next() throws IOException {
+        int c = read();
+        // skip empty lines between records
+        while (c == '\r' || c == '\n') {
+            c = read();
+        }
+        if (c == -1) return null;
+        recordLine = line;
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) throw new IOException("Unterminated quoted field starting on line " + recordLine);
+                if (c == '"') {
+                    int n = read();
+                    if (n == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = n;
+                        continue;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r') {
+                    int n = read();
+                    if (n != '\n') unread(n);
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    /** Line on which the last record returned by next() started (1-based). */
+    public long getRecordLine() {
+        return recordLine;
+    }
+
+    private int read() throws IOException {
+        int c;
+        if (pending != -2) {
+            c = pending;
+            pending = -2;
+        } else {
+            c = reader.read();
+        }
+        // "\r\n", "\n" and a bare "\r" each end one line
+        if (c == '\r' || (c == '\n' && previous != '\r')) line++;
+        previous = c;
+        return c;
+    }
+
+    // only ever called with the character read right after a '\r' that was not '\n'
+    private void unread(int c) {
+        if (c == '\r') line--;
+        previous = '\r';
+        pending = c;
+    }
+}
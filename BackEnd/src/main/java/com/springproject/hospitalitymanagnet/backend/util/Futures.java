@@ -0,0 +1,22 @@
+package com.springproject.hospitalitymanagnet.backend.util;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+/** Helpers for code that receives the failures of CompletableFuture stages. */
+public final class Futures {
+
+    private Futures() {
+    }
+
+    /** The exception a stage actually failed with, without CompletionException wrappers. */
+    public static RuntimeException unwrap(Throwable failure) {
+        Throwable t = failure;
+        while ((t instanceof CompletionException || t instanceof ExecutionException) && t.getCause() != null) {
+            t = t.getCause();
+        }
+        if (t instanceof RuntimeException re) return re;
+        if (t instanceof Error e) throw e;
+        return new IllegalStateException(t.getMessage(), t);
+    }
+}
@@ -0,0 +1,36 @@
+package com.springproject.hospitalitymanagnet.backend.util;
+
+/**
+ * Small spherical-earth helpers for hotel proximity search.
+ */
+public final class GeoUtils {
+
+    public static final double EARTH_RADIUS_KM = 6371.0088;
+    public static final double KM_PER_DEGREE_LAT = Math.PI * EARTH_RADIUS_KM / 180;
+
+    private GeoUtils() {
+    }
+
+    /** Great-circle distance in km (haversine). */
+    public static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    /** Both null (unknown) or both set and in range; anything else is rejected. */
+    public static void requireValidCoordinates(Double latitude, Double longitude) {
+        if (latitude == null && longitude == null) return;
+        if (latitude == null || longitude == null) {
+            throw new IllegalArgumentException("latitude and longitude must be given together");
+        }
+        if (latitude < -90 || latitude > 90 || latitude.isNaN()) {
+            throw new IllegalArgumentException("latitude must be between -90 and 90");
+        }
+        if (longitude < -180 || longitude > 180 || longitude.isNaN()) {
+            throw new IllegalArgumentException("longitude must be between -180 and 180");
+        }
+    }
+}
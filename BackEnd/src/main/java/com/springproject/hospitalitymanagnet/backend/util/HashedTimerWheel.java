@@ -0,0 +1,158 @@
+package com.springproject.hospitalitymanagnet.backend.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hashed timer wheel for many coarse timeouts (e.g. one per inventory hold).
+ *
+ * Time is cut into ticks and a task is filed in the slot of its deadline tick, modulo the wheel
+ * size, together with the number of full turns still to wait. Scheduling and cancelling are
+ * O(1); each tick only looks at one slot. Deadlines are rounded up to the next tick, so a task
+ * runs up to one tick late and never early.
+ *
+ * One daemon thread advances the wheel and runs the due tasks, so tasks must be short; a task
+ * that throws is logged and does not stop the wheel.
+ */
+public final class HashedTimerWheel implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(HashedTimerWheel.class);
+
+    /** Handle of a scheduled task. */
+    public interface Timeout {
+        /** False if the task already ran or was cancelled. */
+        boolean cancel();
+    }
+
+    private static final int PENDING = 0;
+    private static final int CANCELLED = 1;
+    private static final int EXPIRED = 2;
+
+    private static final class Task implements Timeout {
+        final Runnable action;
+        final long deadline; // nanos, relative to startTime
+        long remainingRounds;
+        volatile int state = PENDING;
+
+        Task(Runnable action, long deadline) {
+            this.action = action;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public boolean cancel() {
+            synchronized (this) {
+                if (state != PENDING) return false;
+                state = CANCELLED;
+                return true;
+            }
+        }
+
+        boolean expire() {
+            synchronized (this) {
+                if (state != PENDING) return false;
+                state = EXPIRED;
+                return true;
+            }
+        }
+    }
+
+    private final long tickNanos;
+    private final int mask;
+    // slots are only touched by the worker thread
+    private final ArrayDeque<Task>[] wheel;
+    // handed from schedule() to the worker thread
+    private final Queue<Task> added = new ConcurrentLinkedQueue<>();
+    private final long startTime = System.nanoTime();
+    private final Thread worker;
+    private volatile boolean closed;
+    private long tick;
+
+    /** wheelSize is rounded up to a power of two. */
+    @SuppressWarnings("unchecked")
+    public HashedTimerWheel(String name, long tickDuration, TimeUnit unit, int wheelSize) {
+        if (tickDuration <= 0) throw new IllegalArgumentException("tickDuration must be positive");
+        if (wheelSize < 1 || wheelSize > (1 << 20)) throw new IllegalArgumentException("wheelSize must be 1 to 2^20");
+        this.tickNanos = unit.toNanos(tickDuration);
+        int size = Integer.highestOneBit(wheelSize - 1 == 0 ? 1 : (wheelSize - 1) << 1);
+        this.mask = size - 1;
+        this.wheel = new ArrayDeque[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new ArrayDeque<>();
+        }
+        this.worker = new Thread(this::run, name);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    public Timeout schedule(Runnable action, long delay, TimeUnit unit) {
+        if (closed) throw new IllegalStateException("Timer wheel is closed");
+        long deadline = System.nanoTime() - startTime + Math.max(0, unit.toNanos(delay));
+        Task task = new Task(action, deadline);
+        added.add(task);
+        return task;
+    }
+
+    /** Stops the wheel; tasks not yet run are dropped. */
+    @Override
+    public void close() {
+        closed = true;
+        worker.interrupt();
+    }
+
+    private void run() {
+        while (!closed) {
+            long tickEnd = tickNanos * (tick + 1);
+            long sleepNanos = tickEnd - (System.nanoTime() - startTime);
+            if (sleepNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                } catch (InterruptedException e) {
+                    if (closed) return;
+                    continue;
+                }
+            }
+            transferAdded();
+            expire(wheel[(int) (tick & mask)]);
+            tick++;
+        }
+    }
+
+    private void transferAdded() {
+        Task task;
+        while ((task = added.poll()) != null) {
+            if (task.state != PENDING) continue;
+            // the tick whose end is at or after the deadline, but never one already passed
+            long dueTick = Math.max(tick, (task.deadline + tickNanos - 1) / tickNanos - 1);
+            task.remainingRounds = (dueTick - tick) / wheel.length;
+            wheel[(int) (dueTick & mask)].add(task);
+        }
+    }
+
+    private void expire(ArrayDeque<Task> slot) {
+        Iterator<Task> it = slot.iterator();
+        while (it.hasNext()) {
+            Task task = it.next();
+            if (task.state != PENDING) {
+                it.remove();
+            } else if (task.remainingRounds > 0) {
+                task.remainingRounds--;
+            } else {
+                it.remove();
+                if (task.expire()) {
+                    try {
+                        task.action.run();
+                    } catch (RuntimeException e) {
+                        logger.error("Timer task failed", e);
+                    }
+                }
+            }
+        }
+    }
+}
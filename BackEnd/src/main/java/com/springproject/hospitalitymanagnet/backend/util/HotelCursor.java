@@ -0,0 +1,45 @@
+package com.springproject.hospitalitymanagnet.backend.util;
+
+import com.springproject.hospitalitymanagnet.backend.repository.HotelSortKey;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position of the last row of a keyset page: (sort key, sort value, hotel id).
+ * Serialized as an opaque url-safe token so clients can only pass it back unchanged.
+ */
+public record HotelCursor(HotelSortKey sort, Object value, Integer lastId) {
+
+    private static final String VERSION = "v1";
+
+    public String encode() {
+        // "=" marks a present value so an empty string and null stay distinguishable
+        String raw = VERSION + "|" + sort.name() + "|" + lastId + "|" + (value != null ? "=" + value : "");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static HotelCursor decode(String token, HotelSortKey expectedSort) {
+        if (token == null || token.isBlank()) return null;
+
+        HotelCursor cursor;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 4);
+            if (parts.length != 4 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException("unknown cursor format");
+            }
+            HotelSortKey sort = HotelSortKey.valueOf(parts[1]);
+            Object value = parts[3].startsWith("=") ? sort.parse(parts[3].substring(1)) : null;
+            cursor = new HotelCursor(sort, value, Integer.valueOf(parts[2]));
+        } catch (IllegalArgumentException e) {
+            // also covers bad base64 and NumberFormatException
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+
+        if (cursor.sort() != expectedSort) {
+            throw new IllegalArgumentException("Cursor was issued for a different sort order");
+        }
+        return cursor;
+    }
+}
@@ -0,0 +1,149 @@
+package com.springproject.hospitalitymanagnet.backend.util;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+/**
+ * Interval tree over half-open [start, end) ranges, e.g. stays as epoch days.
+ *
+ * A treap ordered by (start, id) where every node also holds the largest end in its subtree:
+ * insert and remove are O(log n) expected, "does anything overlap" is O(log n) and listing the
+ * k overlaps is O(log n + k). Ids must be unique. Not thread safe.
+ */
+public final class IntervalTree<V> {
+
+    private static final class Node<V> {
+        final long start;
+        final long end;
+        final long id;
+        final V value;
+        final int priority = ThreadLocalRandom.current().nextInt();
+        long maxEnd;
+        Node<V> left;
+        Node<V> right;
+
+        Node(long start, long end, long id, V value) {
+            this.start = start;
+            this.end = end;
+            this.id = id;
+            this.value = value;
+            this.maxEnd = end;
+        }
+    }
+
+    private Node<V> root;
+    private int size;
+
+    public int size() {
+        return size;
+    }
+
+    public void insert(long start, long end, long id, V value) {
+        if (end <= start) throw new IllegalArgumentException("end must be after start");
+        root = insert(root, new Node<>(start, end, id, value));
+        size++;
+    }
+
+    /** Removes the interval added with this start and id; false if there is none. */
+    public boolean remove(long start, long id) {
+        int before = size;
+        root = remove(root, start, id);
+        return size < before;
+    }
+
+    public boolean anyOverlap(long from, long to) {
+        Node<V> node = root;
+        while (node != null) {
+            if (node.start < to && node.end > from) return true;
+            // if the left subtree reaches past `from` but holds no overlap, its far-reaching interval
+            // starts at or after `to`, and so does everything to the right
+            node = node.left != null && node.left.maxEnd > from ? node.left : node.right;
+        }
+        return false;
+    }
+
+    /** Calls the action for every interval overlapping [from, to), in (start, id) order. */
+    public void forEachOverlap(long from, long to, Consumer<V> action) {
+        forEachOverlap(root, from, to, action);
+    }
+
+    private void forEachOverlap(Node<V> node, long from, long to, Consumer<V> action) {
+        if (node == null || node.maxEnd <= from) return;
+        forEachOverlap(node.left, from, to, action);
+        if (node.start >= to) return; // the right subtree starts later still
+        if (node.end > from) action.accept(node.value);
+        forEachOverlap(node.right, from, to, action);
+    }
+
+    private Node<V> insert(Node<V> node, Node<V> added) {
+        if (node == null) return added;
+        if (compare(added.start, added.id, node) < 0) {
+            node.left = insert(node.left, added);
+            if (node.left.priority > node.priority) node = rotateRight(node);
+        } else {
+            node.right = insert(node.right, added);
+            if (node.right.priority > node.priority) node = rotateLeft(node);
+        }
+        update(node);
+        return node;
+    }
+
+    private Node<V> remove(Node<V> node, long start, long id) {
+        if (node == null) return null;
+        int cmp = compare(start, id, node);
+        if (cmp < 0) {
+            node.left = remove(node.left, start, id);
+        } else if (cmp > 0) {
+            node.right = remove(node.right, start, id);
+        } else {
+            size--;
+            return merge(node.left, node.right);
+        }
+        update(node);
+        return node;
+    }
+
+    // joins two treaps where every key of `a` is below every key of `b`
+    private Node<V> merge(Node<V> a, Node<V> b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        if (a.priority > b.priority) {
+            a.right = merge(a.right, b);
+            update(a);
+            return a;
+        }
+        b.left = merge(a, b.left);
+        update(b);
+        return b;
+    }
+
+    private Node<V> rotateRight(Node<V> node) {
+        Node<V> pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private Node<V> rotateLeft(Node<V> node) {
+        Node<V> pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static void update(Node<?> node) {
+        long max = node.end;
+        if (node.left != null) max = Math.max(max, node.left.maxEnd);
+        if (node.right != null) max = Math.max(max, node.right.maxEnd);
+        node.maxEnd = max;
+    }
+
+    private static int compare(long start, long id, Node<?> node) {
+        int cmp = Long.compare(start, node.start);
+        return cmp != 0 ? cmp : Long.compare(id, node.id);
+    }
+}
@@ -0,0 +1,121 @@
+package com.springproject.hospitalitymanagnet.backend.util;
+
+import jakarta.persistence.OptimisticLockException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Runs a write in its own transaction and runs it again, from a fresh read, when a concurrent
+ * update of the same row wins the version check (@Version). Waits between attempts grow
+ * exponentially up to a cap, with full jitter so colliding requests do not collide again.
+ *
+ * Called inside an existing transaction the work runs once: only the outermost transaction can
+ * be retried, so a conflict goes up to it.
+ */
+@Component
+public class OptimisticRetry {
+
+    private static final Logger logger = LoggerFactory.getLogger(OptimisticRetry.class);
+
+    private static final class Counters {
+        final LongAdder calls = new LongAdder();
+        final LongAdder conflicts = new LongAdder();
+        final LongAdder retried = new LongAdder();
+        final LongAdder exhausted = new LongAdder();
+    }
+
+    private final TransactionTemplate tx;
+    private final int maxAttempts;
+    private final long baseDelayMs;
+    private final long maxDelayMs;
+    private final Map<String, Counters> counters = new ConcurrentHashMap<>();
+
+    public OptimisticRetry(PlatformTransactionManager transactionManager,
+                           @Value("${retry.optimistic.max-attempts:4}") int maxAttempts,
+                           @Value("${retry.optimistic.base-delay-ms:10}") long baseDelayMs,
+                           @Value("${retry.optimistic.max-delay-ms:200}") long maxDelayMs) {
+        this.tx = new TransactionTemplate(transactionManager);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.baseDelayMs = Math.max(1, baseDelayMs);
+        this.maxDelayMs = Math.max(this.baseDelayMs, maxDelayMs);
+    }
+
+    /**
+     * Runs `work` in a transaction, retrying version conflicts. When every attempt conflicts it
+     * throws IllegalStateException; any other exception is passed on after the first attempt.
+     */
+    public <T> T execute(String operation, Supplier<T> work) {
+        Counters c = counters.computeIfAbsent(operation, k -> new Counters());
+        c.calls.increment();
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return work.get();
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return tx.execute(status -> work.get());
+            } catch (RuntimeException e) {
+                if (!isVersionConflict(e)) throw e;
+                c.conflicts.increment();
+                if (attempt >= maxAttempts) {
+                    c.exhausted.increment();
+                    throw new IllegalStateException("The record was changed by another request, please retry", e);
+                }
+                c.retried.increment();
+                logger.debug("{}: version conflict on attempt {}, retrying", operation, attempt);
+                backOff(attempt);
+            }
+        }
+    }
+
+    public void execute(String operation, Runnable work) {
+        execute(operation, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /** Per operation: calls, version conflicts seen, attempts retried and calls that gave up. */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new TreeMap<>();
+        counters.forEach((operation, c) -> {
+            Map<String, Object> s = new LinkedHashMap<>();
+            s.put("calls", c.calls.sum());
+            s.put("conflicts", c.conflicts.sum());
+            s.put("retries", c.retried.sum());
+            s.put("exhausted", c.exhausted.sum());
+            stats.put(operation, s);
+        });
+        return stats;
+    }
+
+    private void backOff(int attempt) {
+        long cap = Math.min(maxDelayMs, baseDelayMs << Math.min(attempt - 1, 20));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(cap + 1));
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying", ie);
+        }
+    }
+
+    private static boolean isVersionConflict(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause() == t ? null : t.getCause()) {
+            if (t instanceof OptimisticLockingFailureException || t instanceof OptimisticLockException) return true;
+        }
+        return false;
+    }
+}
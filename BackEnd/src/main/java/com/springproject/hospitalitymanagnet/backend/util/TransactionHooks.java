@@ -0,0 +1,46 @@
+package com.springproject.hospitalitymanagnet.backend.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Runs in-memory side effects of a write only once its transaction has committed, so a rolled
+ * back write never reaches caches or indexes.
+ */
+public final class TransactionHooks {
+
+    private TransactionHooks() {
+    }
+
+    /** Runs the action after the current transaction commits, or right away outside a transaction. */
+    public static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Runs onCommit or onRollback once the current transaction has completed; outside a
+     * transaction onCommit runs right away. An unknown outcome counts as a commit.
+     */
+    public static void afterCompletion(Runnable onCommit, Runnable onRollback) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) onRollback.run();
+                    else onCommit.run();
+                }
+            });
+        } else {
+            onCommit.run();
+        }
+    }
+}
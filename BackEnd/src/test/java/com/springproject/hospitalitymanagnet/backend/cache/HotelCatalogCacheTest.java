@@ -0,0 +1,130 @@
+package com.springproject.hospitalitymanagnet.backend.cache;
+
+import com.springproject.hospitalitymanagnet.backend.dto.HotelDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HotelCatalogCacheTest {
+
+    private final HotelCatalogCache cache = new HotelCatalogCache(100, 300);
+
+    @Test
+    void loadIsCachedWhenNothingIsEvicted() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.getHotel(1, () -> tagged(1, "v" + loads.incrementAndGet()));
+        HotelDTO second = cache.getHotel(1, () -> tagged(1, "v" + loads.incrementAndGet())).value();
+
+        assertThat(second.getName()).isEqualTo("v1");
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void hotelLoadedAcrossAnEvictionIsNotCached() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch evicted = new CountDownLatch(1);
+
+        // the load reads the old row, then the writer's after-commit eviction runs before the put
+        CompletableFuture<HotelDTO> staleLoad = CompletableFuture.supplyAsync(() -> cache.getHotel(1, () -> {
+            loading.countDown();
+            await(evicted);
+            return tagged(1, "before update");
+        }).value());
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+        cache.evictHotel(1);
+        evicted.countDown();
+
+        assertThat(staleLoad.get(5, TimeUnit.SECONDS).getName()).isEqualTo("before update");
+        assertThat(cache.getHotel(1, () -> tagged(1, "after update")).value().getName()).isEqualTo("after update");
+    }
+
+    @Test
+    void listingLoadedAcrossAnEvictionIsNotCached() {
+        List<HotelDTO> stale = cache.getListing("all", () -> {
+            cache.evictHotel(7);
+            return List.of(hotel(7, "before update"));
+        }).value();
+
+        assertThat(stale).extracting(HotelDTO::getName).containsExactly("before update");
+        assertThat(cache.getListing("all", () -> List.of(hotel(7, "after update"))).value())
+                .extracting(HotelDTO::getName).containsExactly("after update");
+    }
+
+    @Test
+    void batchLoadedAcrossAnEvictionIsNotCached() {
+        Map<Integer, HotelDTO> stale = cache.getHotels(List.of(1, 2), missing -> {
+            cache.evictHotel(2);
+            return missing.stream().map(id -> tagged(id, "before update")).toList();
+        });
+        assertThat(stale).hasSize(2);
+
+        Map<Integer, HotelDTO> fresh = cache.getHotels(List.of(1, 2),
+                missing -> missing.stream().map(id -> tagged(id, "after update")).toList());
+
+        assertThat(fresh.get(1).getName()).isEqualTo("after update");
+        assertThat(fresh.get(2).getName()).isEqualTo("after update");
+    }
+
+    @Test
+    void evictionAfterThePutDropsTheEntry() {
+        cache.getHotel(1, () -> tagged(1, "before update"));
+        cache.evictHotel(1);
+
+        assertThat(cache.getHotel(1, () -> tagged(1, "after update")).value().getName()).isEqualTo("after update");
+    }
+
+    @Test
+    void cachedHotelKeepsTheTagItWasLoadedWith() {
+        cache.getHotel(1, () -> new Tagged<>(hotel(1, "v1"), "\"h1-1\""));
+
+        // a newer row version does not reach the entry until it is evicted and reloaded
+        Tagged<HotelDTO> hit = cache.getHotel(1, () -> new Tagged<>(hotel(1, "v2"), "\"h1-2\""));
+
+        assertThat(hit.value().getName()).isEqualTo("v1");
+        assertThat(hit.etag()).isEqualTo("\"h1-1\"");
+    }
+
+    @Test
+    void listingTagIsTheCatalogTagFromBeforeItsLoad() {
+        String before = cache.catalogEtag();
+
+        Tagged<List<HotelDTO>> stale = cache.getListing("all", () -> {
+            cache.evictHotel(7);
+            return List.of(hotel(7, "before update"));
+        });
+        Tagged<List<HotelDTO>> fresh = cache.getListing("all", () -> List.of(hotel(7, "after update")));
+
+        // the racing load keeps the older tag, so a client holding it revalidates against the new one
+        assertThat(stale.etag()).isEqualTo(before);
+        assertThat(fresh.etag()).isEqualTo(cache.catalogEtag()).isNotEqualTo(before);
+        assertThat(cache.getListing("all", List::of).etag()).isEqualTo(fresh.etag());
+    }
+
+    private static Tagged<HotelDTO> tagged(Integer id, String name) {
+        return new Tagged<>(hotel(id, name), "\"h" + id + "\"");
+    }
+
+    private static HotelDTO hotel(Integer id, String name) {
+        HotelDTO dto = new HotelDTO();
+        dto.setId(id);
+        dto.setName(name);
+        return dto;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            if (!latch.await(5, TimeUnit.SECONDS)) throw new IllegalStateException("timed out");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.springproject.hospitalitymanagnet.backend.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springproject.hospitalitymanagnet.backend.dto.HotelDTO;
+import com.springproject.hospitalitymanagnet.backend.dto.HotelSummaryDTO;
+import com.springproject.hospitalitymanagnet.backend.outbox.FileOutboxSink;
+import com.springproject.hospitalitymanagnet.backend.service.HotelService;
+import com.springproject.hospitalitymanagnet.backend.service.IdempotencyService;
+import com.springproject.hospitalitymanagnet.backend.service.OutboxService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class JacksonConfigTest {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private FileOutboxSink fileOutboxSink;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private HotelService hotelService;
+
+    @Test
+    void filteredDtosSerializeWithoutAFilterInTheRequest() throws Exception {
+        HotelDTO hotel = new HotelDTO();
+        hotel.setId(1);
+        hotel.setName("Lagoon Lodge");
+        HotelSummaryDTO summary = new HotelSummaryDTO();
+        summary.setId(1);
+
+        assertThat(objectMapper.writeValueAsString(hotel)).contains("\"name\":\"Lagoon Lodge\"");
+        assertThat(objectMapper.writeValueAsString(summary)).contains("\"id\":1");
+    }
+
+    @Test
+    void everyJsonWriterUsesTheApplicationMapper() {
+        for (Object bean : new Object[]{outboxService, fileOutboxSink, idempotencyService, hotelService}) {
+            Object target = AopTestUtils.getUltimateTargetObject(bean);
+            assertThat(ReflectionTestUtils.getField(target, "objectMapper"))
+                    .as(target.getClass().getSimpleName())
+                    .isSameAs(objectMapper);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.springproject.hospitalitymanagnet.backend.mapper;
+
+import com.springproject.hospitalitymanagnet.backend.dto.BookingDTO;
+import com.springproject.hospitalitymanagnet.backend.dto.HotelDTO;
+import com.springproject.hospitalitymanagnet.backend.entity.*;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the hand-written mappers with the ModelMapper calls they replaced.
+ * Not a unit test; run it with:
+ *
+ *   mvn test-compile exec:java -Dexec.classpathScope=test \
+ *       -Dexec.mainClass=com.springproject.hospitalitymanagnet.backend.mapper.HotelMapperBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HotelMapperBenchmark {
+
+    private ModelMapper modelMapper;
+    private HotelMapper hotelMapper;
+    private BookingMapper bookingMapper;
+
+    private Hotel hotel;
+    private HotelDTO hotelDto;
+    private Booking booking;
+
+    @Setup
+    public void setUp() {
+        modelMapper = new ModelMapper();
+        hotelMapper = new HotelMapper();
+        bookingMapper = new BookingMapper();
+
+        hotel = sampleHotel();
+        hotelDto = hotelMapper.toDto(hotel);
+        booking = sampleBooking(hotel.getRoomTypes().get(0));
+
+        // build ModelMapper's type maps up front so the benchmark measures steady state
+        modelMapper.map(hotel, HotelDTO.class);
+        modelMapper.map(hotelDto, Hotel.class);
+        modelMapper.map(booking, BookingDTO.class);
+    }
+
+    @Benchmark
+    public HotelDTO modelMapperHotelToDto() {
+        return modelMapper.map(hotel, HotelDTO.class);
+    }
+
+    @Benchmark
+    public HotelDTO hotelMapperHotelToDto() {
+        return hotelMapper.toDto(hotel);
+    }
+
+    @Benchmark
+    public Hotel modelMapperDtoToHotel() {
+        return modelMapper.map(hotelDto, Hotel.class);
+    }
+
+    @Benchmark
+    public Hotel hotelMapperDtoToHotel() {
+        return hotelMapper.toEntity(hotelDto);
+    }
+
+    @Benchmark
+    public BookingDTO modelMapperBookingToDto() {
+        return modelMapper.map(booking, BookingDTO.class);
+    }
+
+    @Benchmark
+    public BookingDTO bookingMapperBookingToDto() {
+        return bookingMapper.toDto(booking);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(HotelMapperBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+
+    private static Hotel sampleHotel() {
+        Hotel hotel = new Hotel();
+        hotel.setId(1);
+        hotel.setName("Galle Face");
+        hotel.setLocation("Galle Road");
+        hotel.setCity("Colombo");
+        hotel.setPropertyType("Hotel");
+        hotel.setStarRating(5);
+        hotel.setStatus("ACTIVE");
+        hotel.setStartingPrice(120.0);
+        hotel.setDescription("Colonial-era hotel facing the ocean.");
+
+        List<HotelImage> images = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            images.add(new HotelImage(i, "/uploads/hotels/" + i + ".jpg", hotel));
+        }
+        hotel.setImages(images);
+
+        List<RoomType> roomTypes = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            RoomType rt = new RoomType();
+            rt.setId(i);
+            rt.setName("Room " + i);
+            rt.setBasePrice(100.0 + i);
+            rt.setSpecialPrice(90.0 + i);
+            rt.setRoomSize(300);
+            rt.setAvailability("Available");
+            rt.setInclusions(new ArrayList<>(List.of("Breakfast", "Airport pickup")));
+            rt.setAmenities(new ArrayList<>(List.of("TV", "Mini bar", "Safe")));
+            rt.setHotel(hotel);
+            roomTypes.add(rt);
+        }
+        hotel.setRoomTypes(roomTypes);
+
+        List<Amenity> amenities = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            amenities.add(new Amenity(i, "Amenity " + i));
+        }
+        hotel.setAmenities(amenities);
+
+        Policy policy = new Policy();
+        policy.setId(1);
+        policy.setCheckInTime("14:00");
+        policy.setCheckOutTime("12:00");
+        policy.setCancellationPolicy("Free cancellation up to 48 hours before arrival.");
+        policy.setHotel(hotel);
+        hotel.setPolicy(policy);
+        return hotel;
+    }
+
+    private static Booking sampleBooking(RoomType roomType) {
+        User user = new User(1L, "guest", "guest@example.com", "secret", Role.USER);
+        Payment payment = Payment.builder()
+                .id(1L)
+                .paymentProviderId("DEMO-1")
+                .provider("demo")
+                .status("SUCCESS")
+                .amount(BigDecimal.valueOf(240))
+                .currency("USD")
+                .cardLast4("4242")
+                .createdAt(LocalDateTime.now())
+                .build();
+
+        Booking booking = new Booking();
+        booking.setId(1L);
+        booking.setUser(user);
+        booking.setRoomType(roomType);
+        booking.setCheckInDate(LocalDate.now());
+        booking.setCheckOutDate(LocalDate.now().plusDays(2));
+        booking.setGuests(2);
+        booking.setTotalPrice(240.0);
+        booking.setStatus(BookingStatus.CONFIRMED);
+        booking.setPayment(payment);
+        return booking;
+    }
+}
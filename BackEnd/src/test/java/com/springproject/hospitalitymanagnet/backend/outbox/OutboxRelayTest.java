@@ -0,0 +1,135 @@
+package com.springproject.hospitalitymanagnet.backend.outbox;
+
+import com.springproject.hospitalitymanagnet.backend.entity.OutboxEvent;
+import com.springproject.hospitalitymanagnet.backend.repository.OutboxEventRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The application's relay is off; each test drives its own relay with a test sink
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = "outbox.relay.enabled=false")
+class OutboxRelayTest {
+
+    private static final int BATCH_SIZE = 3;
+
+    // takes every batch it is given, then fails the calls listed in failOnCall (1-based) as if
+    // the acknowledgement was lost
+    private static final class RecordingSink implements OutboxSink {
+        final List<OutboxMessage> received = new CopyOnWriteArrayList<>();
+        final Set<Integer> failOnCall;
+        int calls;
+
+        RecordingSink(Set<Integer> failOnCall) {
+            this.failOnCall = failOnCall;
+        }
+
+        @Override
+        public String name() {
+            return "recording";
+        }
+
+        @Override
+        public void publish(List<OutboxMessage> batch) {
+            calls++;
+            received.addAll(batch);
+            if (failOnCall.contains(calls)) throw new IllegalStateException("broker unavailable");
+        }
+    }
+
+    @Autowired
+    private OutboxEventRepository outboxRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.execute("TRUNCATE TABLE outbox_events");
+    }
+
+    @Test
+    void failedPublishLeavesTheBatchUnpublishedAndItIsSentAgainInOrder() {
+        // three bookings with interleaved events, as their transactions committed
+        List<Long> ids = new ArrayList<>();
+        long[] bookings = {11, 12, 11, 13, 12, 11, 13};
+        for (long bookingId : bookings) {
+            ids.add(event(bookingId).getId());
+        }
+        RecordingSink sink = new RecordingSink(Set.of(2));
+        OutboxRelay relay = relay(sink);
+
+        relay.relay();
+
+        // the first batch went through, the second failed and nothing after it was tried
+        assertThat(unpublished()).containsExactlyElementsOf(ids.subList(BATCH_SIZE, ids.size()));
+        assertThat(sink.calls).isEqualTo(2);
+
+        relay.relay();
+
+        assertThat(unpublished()).isEmpty();
+        assertThat(sink.received).extracting(OutboxMessage::id).containsExactly(
+                ids.get(0), ids.get(1), ids.get(2),
+                ids.get(3), ids.get(4), ids.get(5), // failed
+                ids.get(3), ids.get(4), ids.get(5),
+                ids.get(6));
+        // every booking's events reach the sink in the order they were written, even with repeats
+        for (long bookingId : new long[]{11, 12, 13}) {
+            List<Long> firstSeen = new ArrayList<>(new LinkedHashSet<>(sink.received.stream()
+                    .filter(m -> m.aggregateId() == bookingId).map(OutboxMessage::id).toList()));
+            assertThat(firstSeen).isSorted();
+            assertThat(firstSeen).hasSize((int) Arrays.stream(bookings).filter(b -> b == bookingId).count());
+        }
+    }
+
+    @Test
+    void eventsWrittenAfterAFailureWaitBehindTheFailedBatch() {
+        Long first = event(21).getId();
+        RecordingSink sink = new RecordingSink(Set.of(1, 2));
+        OutboxRelay relay = relay(sink);
+
+        relay.relay();
+        Long second = event(21).getId();
+        relay.relay();
+
+        assertThat(unpublished()).containsExactly(first, second);
+
+        relay.relay();
+
+        assertThat(unpublished()).isEmpty();
+        assertThat(sink.received).extracting(OutboxMessage::id).containsExactly(first, first, second, first, second);
+    }
+
+    private OutboxRelay relay(OutboxSink sink) {
+        return new OutboxRelay(outboxRepository, List.of(sink), transactionManager, List.of(sink.name()),
+                false, 1000, BATCH_SIZE, 24);
+    }
+
+    private OutboxEvent event(long bookingId) {
+        return outboxRepository.save(new OutboxEvent(null, "booking", bookingId, "BOOKING_CREATED",
+                "{\"id\":" + bookingId + "}", LocalDateTime.now(), null));
+    }
+
+    private List<Long> unpublished() {
+        return jdbcTemplate.queryForList("select id from outbox_events where published_at is null order by id", Long.class);
+    }
+}
@@ -0,0 +1,64 @@
+package com.springproject.hospitalitymanagnet.backend.payment;
+
+import com.springproject.hospitalitymanagnet.backend.dto.PaymentResultDTO;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test provider ("counting") that records every charge it is asked for. Approves after
+ * delayMs unless the token contains "decline"; a repeated reference gets the first answer,
+ * like a real provider. Import it and set payment.provider=counting.
+ */
+public class CountingPaymentGateway implements PaymentGateway {
+
+    private final List<String> calls = new CopyOnWriteArrayList<>();
+    private final Map<String, CompletableFuture<PaymentResultDTO>> charges = new ConcurrentHashMap<>();
+    private volatile long delayMs = 20;
+
+    @Override
+    public String name() {
+        return "counting";
+    }
+
+    @Override
+    public CompletableFuture<PaymentResultDTO> charge(ChargeRequest request) {
+        calls.add(request.reference());
+        return charges.computeIfAbsent(request.reference(), reference -> {
+            boolean declined = request.details() != null && request.details().getToken() != null
+                    && request.details().getToken().contains("decline");
+            PaymentResultDTO res = new PaymentResultDTO();
+            res.setPaymentId("COUNTING-" + reference);
+            res.setStatus(declined ? "FAILED" : "SUCCESS");
+            res.setProvider(name());
+            res.setMethod("card");
+            res.setMessage(declined ? "Card declined" : "Charged");
+            res.setCurrency(request.currency());
+            return CompletableFuture.supplyAsync(() -> res,
+                    CompletableFuture.delayedExecutor(delayMs, TimeUnit.MILLISECONDS));
+        });
+    }
+
+    /** References in the order they were sent, repeats included. */
+    public List<String> calls() {
+        return List.copyOf(calls);
+    }
+
+    /** Charges that reached the provider, one per reference. */
+    public int charged() {
+        return charges.size();
+    }
+
+    public void setDelayMs(long delayMs) {
+        this.delayMs = delayMs;
+    }
+
+    public void reset() {
+        calls.clear();
+        charges.clear();
+    }
+}
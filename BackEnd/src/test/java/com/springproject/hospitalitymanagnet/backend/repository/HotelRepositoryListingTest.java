@@ -0,0 +1,214 @@
+package com.springproject.hospitalitymanagnet.backend.repository;
+
+import com.springproject.hospitalitymanagnet.backend.entity.*;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// the test profile's H2, which compares like the MySQL _ci collation the filters rely on
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false"
+})
+class HotelRepositoryListingTest {
+
+    @Autowired
+    private HotelRepository hotelRepository;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Test
+    void listingGraphUsesFixedNumberOfStatements() {
+        long small = statementsToLoadListing("Galle", 3);
+        long large = statementsToLoadListing("Kandy", 40);
+
+        assertThat(large).isEqualTo(small);
+        assertThat(large).isLessThanOrEqualTo(5);
+    }
+
+    @Test
+    void searchCriteriaRunAsOneStatement() {
+        Amenity wifi = new Amenity();
+        wifi.setName("Free WiFi");
+        em.persist(wifi);
+        Amenity pool = new Amenity();
+        pool.setName("Pool");
+        em.persist(pool);
+
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Hotel h = hotel("Ella Hotel " + i, "Ella", wifi);
+            h.setStartingPrice(50.0 + i * 10);   // 50 .. 240
+            h.setStarRating(1 + i % 5);
+            h.setAverageRating(i % 2 == 0 ? 4.5 : 3.0);
+            if (i % 3 == 0) h.getAmenities().add(pool);
+            em.persist(h);
+            if (h.getStartingPrice() >= 100 && h.getStartingPrice() <= 200 && h.getStarRating() >= 3
+                    && h.getAverageRating() >= 4.0 && i % 3 == 0) {
+                expected.add(h.getId());
+            }
+        }
+        em.flush();
+        em.clear();
+
+        HotelSearchCriteria criteria = HotelSearchCriteria.builder()
+                .city("Ella")
+                .status("ACTIVE")
+                .minPrice(100.0)
+                .maxPrice(200.0)
+                .minStarRating(3)
+                .minAverageRating(4.0)
+                .amenityIds(List.of(wifi.getId(), pool.getId()))
+                .sort(HotelSortKey.PRICE)
+                .build();
+
+        Statistics stats = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        List<Integer> ids = hotelRepository.findPageIds(criteria, null, 50);
+
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(ids).isNotEmpty().containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void everyListingPathMatchesStatusCityAndTypeRegardlessOfCase() {
+        Amenity wifi = new Amenity();
+        wifi.setName("Free WiFi (Matara)");
+        em.persist(wifi);
+        Hotel active = hotel("Matara Hotel 0", "Matara", wifi);
+        active.setPropertyType("Resort");
+        em.persist(active);
+        Hotel inactive = hotel("Matara Hotel 1", "Matara", wifi);
+        inactive.setPropertyType("Resort");
+        inactive.setStatus("INACTIVE");
+        em.persist(inactive);
+        em.flush();
+        em.clear();
+
+        HotelSearchCriteria criteria = HotelSearchCriteria.builder()
+                .status("active")
+                .city("MATARA")
+                .propertyType("resort")
+                .build();
+
+        assertThat(hotelRepository.findPageIds(criteria, null, 50)).containsExactly(active.getId());
+        assertThat(hotelRepository.findSummaries("active", "MATARA", "resort"))
+                .extracting(HotelRepository.HotelSummaryView::getId)
+                .containsExactly(active.getId());
+        assertThat(hotelRepository.findByStatusForListing("active"))
+                .extracting(Hotel::getId)
+                .contains(active.getId())
+                .doesNotContain(inactive.getId());
+        assertThat(hotelRepository.searchForListing("MATARA", "resort"))
+                .extracting(Hotel::getId)
+                .containsExactlyInAnyOrder(active.getId(), inactive.getId());
+    }
+
+    @Test
+    void summaryProjectionIsOneStatementWithFirstImageAsThumbnail() {
+        Amenity wifi = new Amenity();
+        wifi.setName("Free WiFi");
+        em.persist(wifi);
+        for (int i = 0; i < 10; i++) {
+            em.persist(hotel("Jaffna Hotel " + i, "Jaffna", wifi));
+        }
+        em.flush();
+        em.clear();
+
+        Statistics stats = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        List<HotelRepository.HotelSummaryView> summaries = hotelRepository.findSummaries(null, "jaffna", null);
+
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(summaries).hasSize(10);
+        assertThat(summaries.get(0).getThumbnailUrl()).isEqualTo("/uploads/hotels/Jaffna Hotel 0-0.jpg");
+    }
+
+    private long statementsToLoadListing(String city, int hotelCount) {
+        Amenity wifi = new Amenity();
+        wifi.setName("Free WiFi (" + city + ")"); // amenity names are unique
+        em.persist(wifi);
+
+        for (int i = 0; i < hotelCount; i++) {
+            em.persist(hotel(city + " Hotel " + i, city, wifi));
+        }
+        em.flush();
+        em.clear();
+
+        Statistics stats = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+
+        List<Hotel> hotels = hotelRepository.fetchListingGraph(hotelRepository.searchForListing(city, null));
+        assertThat(hotels).hasSize(hotelCount);
+
+        // touch everything the DTO mapping touches
+        for (Hotel h : hotels) {
+            assertThat(h.getImages()).hasSize(2);
+            assertThat(h.getAmenities()).hasSize(1);
+            assertThat(h.getPolicy()).isNotNull();
+            assertThat(h.getRoomTypes()).hasSize(2);
+            for (RoomType rt : h.getRoomTypes()) {
+                assertThat(rt.getInclusions()).hasSize(2);
+                assertThat(rt.getAmenities()).hasSize(1);
+            }
+        }
+
+        long count = stats.getPrepareStatementCount();
+        em.clear();
+        return count;
+    }
+
+    private Hotel hotel(String name, String city, Amenity amenity) {
+        Hotel hotel = new Hotel();
+        hotel.setName(name);
+        hotel.setCity(city);
+        hotel.setStatus("ACTIVE");
+
+        List<HotelImage> images = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            HotelImage img = new HotelImage();
+            img.setImageUrl("/uploads/hotels/" + name + "-" + i + ".jpg");
+            img.setHotel(hotel);
+            images.add(img);
+        }
+        hotel.setImages(images);
+
+        List<RoomType> roomTypes = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            RoomType rt = new RoomType();
+            rt.setName("Room " + i);
+            rt.setBasePrice(100.0);
+            rt.setAvailability("Available");
+            rt.setInclusions(new ArrayList<>(List.of("Breakfast", "Parking")));
+            rt.setAmenities(new ArrayList<>(List.of("TV")));
+            rt.setHotel(hotel);
+            roomTypes.add(rt);
+        }
+        hotel.setRoomTypes(roomTypes);
+
+        hotel.setAmenities(new ArrayList<>(List.of(amenity)));
+
+        Policy policy = new Policy();
+        policy.setCheckInTime("14:00");
+        policy.setHotel(hotel);
+        hotel.setPolicy(policy);
+        return hotel;
+    }
+}
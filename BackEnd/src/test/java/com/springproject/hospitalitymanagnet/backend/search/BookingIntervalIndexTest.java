@@ -0,0 +1,106 @@
+package com.springproject.hospitalitymanagnet.backend.search;
+
+import com.springproject.hospitalitymanagnet.backend.repository.BookingRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BookingIntervalIndexTest {
+
+    private static final LocalDate CHECK_IN = LocalDate.now().plusDays(5);
+    private static final int ROOM_TYPE = 7;
+
+    private record StayRow(Long id, Integer roomTypeId, LocalDate checkInDate, LocalDate checkOutDate)
+            implements BookingRepository.StayView {
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public Integer getRoomTypeId() {
+            return roomTypeId;
+        }
+
+        @Override
+        public LocalDate getCheckInDate() {
+            return checkInDate;
+        }
+
+        @Override
+        public LocalDate getCheckOutDate() {
+            return checkOutDate;
+        }
+    }
+
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+    // no transaction synchronization in these tests, so the index applies writes right away
+    private final BookingIntervalIndex index =
+            new BookingIntervalIndex(bookingRepository, mock(PlatformTransactionManager.class));
+
+    @Test
+    void bookingCancelledWhileTheSnapshotIsReadIsNotLoaded() {
+        when(bookingRepository.findActiveStaysFrom(any())).thenAnswer(invocation -> {
+            // commits between the snapshot read and the load: booking 2 is in the snapshot but cancelled
+            index.bookingCancelled(2L);
+            return List.of(stay(1L, 0, 2), stay(2L, 1, 3), stay(3L, 2, 4));
+        });
+
+        index.loadAll();
+
+        assertThat(index.isReady()).isTrue();
+        assertThat(index.overlapping(ROOM_TYPE, CHECK_IN, CHECK_IN.plusDays(10)))
+                .extracting(BookingIntervalIndex.Stay::bookingId)
+                .containsExactly(1L, 3L);
+    }
+
+    @Test
+    void bookingCreatedWhileTheSnapshotIsReadIsLoadedOnce() {
+        when(bookingRepository.findActiveStaysFrom(any())).thenAnswer(invocation -> {
+            index.bookingCreated(4L, ROOM_TYPE, CHECK_IN, CHECK_IN.plusDays(2));
+            return List.of(stay(4L, 0, 2));
+        });
+
+        index.loadAll();
+
+        assertThat(index.overlapping(ROOM_TYPE, CHECK_IN, CHECK_IN.plusDays(2))).hasSize(1);
+        assertThat(index.hasCapacity(ROOM_TYPE, CHECK_IN, CHECK_IN.plusDays(1), 2)).isTrue();
+        assertThat(index.hasCapacity(ROOM_TYPE, CHECK_IN, CHECK_IN.plusDays(1), 1)).isFalse();
+    }
+
+    @Test
+    void cancellationAfterTheLoadRemovesTheStay() {
+        when(bookingRepository.findActiveStaysFrom(any())).thenReturn(List.of(stay(1L, 0, 2), stay(2L, 0, 2)));
+        index.loadAll();
+        assertThat(index.hasCapacity(ROOM_TYPE, CHECK_IN, CHECK_IN.plusDays(2), 2)).isFalse();
+
+        index.bookingCancelled(1L);
+
+        assertThat(index.hasCapacity(ROOM_TYPE, CHECK_IN, CHECK_IN.plusDays(2), 2)).isTrue();
+        assertThat(index.overlapping(ROOM_TYPE, CHECK_IN, CHECK_IN.plusDays(2)))
+                .extracting(BookingIntervalIndex.Stay::bookingId)
+                .containsExactly(2L);
+    }
+
+    @Test
+    void failedLoadLeavesTheIndexNotReady() {
+        when(bookingRepository.findActiveStaysFrom(any())).thenThrow(new IllegalStateException("database down"));
+
+        index.loadAll();
+
+        assertThat(index.isReady()).isFalse();
+        // the pre-check steps aside until the index is loaded
+        assertThat(index.hasCapacity(ROOM_TYPE, CHECK_IN, CHECK_IN.plusDays(1), 1)).isTrue();
+    }
+
+    private static StayRow stay(long id, int fromDay, int toDay) {
+        return new StayRow(id, ROOM_TYPE, CHECK_IN.plusDays(fromDay), CHECK_IN.plusDays(toDay));
+    }
+}
@@ -0,0 +1,198 @@
+package com.springproject.hospitalitymanagnet.backend.search;
+
+import com.springproject.hospitalitymanagnet.backend.dto.HotelDTO;
+import com.springproject.hospitalitymanagnet.backend.dto.RoomTypeDTO;
+import com.springproject.hospitalitymanagnet.backend.entity.RoomType;
+import com.springproject.hospitalitymanagnet.backend.repository.RoomTypeRepository;
+import com.springproject.hospitalitymanagnet.backend.service.HotelService;
+import com.springproject.hospitalitymanagnet.backend.service.InventoryService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Ledger off, so every committed reserve / release refreshes the index right after its commit
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {"booking.ledger.enabled=false", "outbox.relay.enabled=false"})
+class HotelAvailabilityIndexTest {
+
+    private static final int NIGHTS = 14;
+    private static final int OPERATIONS = 400;
+    private static final LocalDate FIRST_NIGHT = LocalDate.now().plusDays(3);
+
+    private record Stay(RoomType roomType, LocalDate checkIn, LocalDate checkOut) {
+    }
+
+    @Autowired
+    private HotelService hotelService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private HotelAvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private RoomTypeRepository roomTypeRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY FALSE");
+        for (String table : jdbcTemplate.queryForList(
+                "select table_name from information_schema.tables where table_schema = 'PUBLIC'", String.class)) {
+            jdbcTemplate.execute("TRUNCATE TABLE " + table);
+        }
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY TRUE");
+    }
+
+    @Test
+    void indexMatchesRoomInventoryAfterConcurrentReservesAndReleases() throws Exception {
+        HotelDTO hotel = hotelService.saveHotel(hotel("Index Check", "Ella", 1, 2, 3));
+        List<RoomType> roomTypes = roomTypeRepository.findAllById(
+                hotel.getRoomTypes().stream().map(RoomTypeDTO::getId).toList());
+
+        Random random = new Random(7);
+        Queue<Stay> booked = new ConcurrentLinkedQueue<>();
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int i = 0; i < OPERATIONS; i++) {
+                RoomType roomType = roomTypes.get(random.nextInt(roomTypes.size()));
+                LocalDate checkIn = FIRST_NIGHT.plusDays(random.nextInt(NIGHTS - 1));
+                LocalDate checkOut = checkIn.plusDays(1 + random.nextInt(3));
+                if (checkOut.isAfter(FIRST_NIGHT.plusDays(NIGHTS))) checkOut = FIRST_NIGHT.plusDays(NIGHTS);
+                Stay stay = new Stay(roomType, checkIn, checkOut);
+                boolean rollBack = i % 7 == 0;
+                boolean cancel = i % 3 == 0;
+                tasks.add(pool.submit(() -> {
+                    try {
+                        tx.executeWithoutResult(status -> {
+                            inventoryService.reserve(stay.roomType(), stay.checkIn(), stay.checkOut(), 1);
+                            if (rollBack) status.setRollbackOnly();
+                        });
+                    } catch (IllegalArgumentException soldOut) {
+                        return;
+                    }
+                    if (rollBack) return;
+                    if (cancel) {
+                        tx.executeWithoutResult(status -> inventoryService.release(
+                                stay.roomType().getId(), stay.checkIn(), stay.checkOut(), 1));
+                    } else {
+                        booked.add(stay);
+                    }
+                }));
+            }
+            for (Future<?> task : tasks) {
+                task.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(booked).isNotEmpty();
+
+        // the database agrees with what was booked ...
+        Map<Integer, Map<LocalDate, Integer>> sold = soldNights();
+        Map<Integer, Map<LocalDate, Integer>> expected = new HashMap<>();
+        for (Stay stay : booked) {
+            for (LocalDate d = stay.checkIn(); d.isBefore(stay.checkOut()); d = d.plusDays(1)) {
+                expected.computeIfAbsent(stay.roomType().getId(), k -> new HashMap<>()).merge(d, 1, Integer::sum);
+            }
+        }
+        assertThat(sold).isEqualTo(expected);
+
+        // ... and the index agrees with the database on every night and on every range
+        for (int from = 0; from < NIGHTS; from++) {
+            for (int to = from + 1; to <= NIGHTS; to++) {
+                LocalDate checkIn = FIRST_NIGHT.plusDays(from);
+                LocalDate checkOut = FIRST_NIGHT.plusDays(to);
+                Map<Integer, Integer> fromIndex = indexedFreeUnits(hotel.getId(), checkIn, checkOut);
+                Map<Integer, Integer> fromDatabase = new HashMap<>();
+                for (RoomType rt : roomTypes) {
+                    int maxSold = 0;
+                    for (LocalDate d = checkIn; d.isBefore(checkOut); d = d.plusDays(1)) {
+                        maxSold = Math.max(maxSold, sold.getOrDefault(rt.getId(), Map.of()).getOrDefault(d, 0));
+                    }
+                    if (rt.getTotalRooms() - maxSold > 0) fromDatabase.put(rt.getId(), rt.getTotalRooms() - maxSold);
+                }
+                assertThat(fromIndex).as("%s to %s", checkIn, checkOut).isEqualTo(fromDatabase);
+            }
+        }
+    }
+
+    @Test
+    void reloadedIndexMatchesRoomInventory() {
+        HotelDTO hotel = hotelService.saveHotel(hotel("Reload Check", "Ella", 2));
+        RoomType roomType = roomTypeRepository.findById(hotel.getRoomTypes().get(0).getId()).orElseThrow();
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status -> inventoryService.reserve(roomType, FIRST_NIGHT, FIRST_NIGHT.plusDays(2), 1));
+        tx.executeWithoutResult(status -> inventoryService.reserve(roomType, FIRST_NIGHT.plusDays(1), FIRST_NIGHT.plusDays(3), 1));
+
+        // a full load reads the same counts the incremental refreshes produced
+        availabilityIndex.markReady();
+
+        assertThat(indexedFreeUnits(hotel.getId(), FIRST_NIGHT, FIRST_NIGHT.plusDays(1)))
+                .containsExactly(Map.entry(roomType.getId(), 1));
+        assertThat(indexedFreeUnits(hotel.getId(), FIRST_NIGHT.plusDays(1), FIRST_NIGHT.plusDays(2))).isEmpty();
+        assertThat(indexedFreeUnits(hotel.getId(), FIRST_NIGHT.plusDays(2), FIRST_NIGHT.plusDays(4)))
+                .containsExactly(Map.entry(roomType.getId(), 1));
+        assertThat(soldNights().get(roomType.getId())).containsOnly(
+                Map.entry(FIRST_NIGHT, 1), Map.entry(FIRST_NIGHT.plusDays(1), 2), Map.entry(FIRST_NIGHT.plusDays(2), 1));
+    }
+
+    private Map<Integer, Integer> indexedFreeUnits(Integer hotelId, LocalDate checkIn, LocalDate checkOut) {
+        Map<Integer, Integer> free = new HashMap<>();
+        // other test classes may leave hotels in the index of a shared context
+        availabilityIndex.search(null, null, checkIn, checkOut, 1, Integer.MAX_VALUE).stream()
+                .filter(hit -> hit.hotelId() == hotelId)
+                .flatMap(hit -> hit.rooms().stream())
+                .forEach(room -> free.put(room.roomTypeId(), room.availableUnits()));
+        return free;
+    }
+
+    private Map<Integer, Map<LocalDate, Integer>> soldNights() {
+        Map<Integer, Map<LocalDate, Integer>> sold = new HashMap<>();
+        jdbcTemplate.query("select room_type_id, stay_date, sold from room_inventory where sold > 0", rs -> {
+            sold.computeIfAbsent(rs.getInt(1), k -> new HashMap<>())
+                    .put(rs.getObject(2, LocalDate.class), rs.getInt(3));
+        });
+        return sold;
+    }
+
+    private static HotelDTO hotel(String name, String city, int... totalRooms) {
+        HotelDTO hotel = new HotelDTO();
+        hotel.setName(name);
+        hotel.setCity(city);
+        hotel.setStatus("ACTIVE");
+        List<RoomTypeDTO> roomTypes = new ArrayList<>();
+        for (int i = 0; i < totalRooms.length; i++) {
+            RoomTypeDTO rt = new RoomTypeDTO();
+            rt.setName("Room " + i);
+            rt.setBasePrice(100.0);
+            rt.setAvailability("Available");
+            rt.setTotalRooms(totalRooms[i]);
+            rt.setMaxGuests(2);
+            roomTypes.add(rt);
+        }
+        hotel.setRoomTypes(roomTypes);
+        return hotel;
+    }
+}
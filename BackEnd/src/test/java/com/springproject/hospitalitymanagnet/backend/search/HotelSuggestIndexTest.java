@@ -0,0 +1,131 @@
+package com.springproject.hospitalitymanagnet.backend.search;
+
+import com.springproject.hospitalitymanagnet.backend.dto.HotelDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HotelSuggestIndexTest {
+
+    // overlapping prefixes ("ga", "gal", "galle", "garden") so lookups hit shared ranges and cached lists
+    private static final List<String> WORDS = List.of(
+            "galle", "garden", "grand", "green", "lake", "lakeside", "lagoon", "sea", "seaside", "view", "villa", "villas");
+    private static final List<String> CITIES = List.of("Galle", "Kandy", "Colombo", "Ella", "Negombo", "Kalutara");
+    private static final int MAX_RESULTS = 20;
+    private static final int HOTEL_IDS = 300;
+
+    @Test
+    void suggestionsMatchAFullScanWhileHotelsChange() {
+        HotelSuggestIndex index = new HotelSuggestIndex(MAX_RESULTS, 1000);
+        Map<Integer, HotelDTO> current = new HashMap<>();
+        Random random = new Random(3);
+
+        for (int op = 0; op < 5000; op++) {
+            int roll = random.nextInt(10);
+            if (roll < 3) {
+                HotelDTO hotel = hotel(1 + random.nextInt(HOTEL_IDS), random);
+                current.put(hotel.getId(), hotel);
+                index.index(hotel);
+            } else if (roll == 3) {
+                int id = 1 + random.nextInt(HOTEL_IDS);
+                current.remove(id);
+                index.remove(id);
+            } else {
+                String prefix = prefix(random);
+                int limit = 1 + random.nextInt(MAX_RESULTS);
+                assertThat(ids(index.suggestHotels(prefix, limit)))
+                        .as("hotels for '%s' after %d operations", prefix, op)
+                        .isEqualTo(scanHotels(current.values(), prefix, limit));
+                assertThat(index.suggestCities(prefix, 5))
+                        .extracting(HotelSuggestIndex.CitySuggestion::city)
+                        .as("cities for '%s' after %d operations", prefix, op)
+                        .isEqualTo(scanCities(current.values(), prefix, 5));
+            }
+        }
+    }
+
+    @Test
+    void wordStartsAndAccentsAreMatched() {
+        HotelSuggestIndex index = new HotelSuggestIndex(MAX_RESULTS, 1000);
+        HotelDTO hotel = new HotelDTO();
+        hotel.setId(1);
+        hotel.setName("Galle Face Hôtel");
+        hotel.setCity("Galle");
+        index.index(hotel);
+
+        assertThat(ids(index.suggestHotels("face", 5))).containsExactly(1);
+        assertThat(ids(index.suggestHotels("HOT", 5))).containsExactly(1);
+        assertThat(ids(index.suggestHotels("alle", 5))).isEmpty();
+    }
+
+    // What the search box used to get from a name/city LIKE scan: every hotel with a word of its
+    // name starting with the prefix, best rated first
+    private static List<Integer> scanHotels(Collection<HotelDTO> hotels, String prefix, int limit) {
+        String p = fold(prefix);
+        return hotels.stream()
+                .filter(h -> matches(h.getName(), p))
+                .sorted(Comparator.comparingDouble(HotelDTO::getAverageRating).reversed()
+                        .thenComparing(Comparator.comparingInt(HotelDTO::getStarRating).reversed())
+                        .thenComparingInt(h -> h.getName().length())
+                        .thenComparingInt(HotelDTO::getId))
+                .limit(limit)
+                .map(HotelDTO::getId)
+                .toList();
+    }
+
+    private static List<String> scanCities(Collection<HotelDTO> hotels, String prefix, int limit) {
+        String p = fold(prefix);
+        Map<String, Integer> counts = new HashMap<>();
+        for (HotelDTO h : hotels) {
+            if (matches(h.getCity(), p)) counts.merge(h.getCity(), 1, Integer::sum);
+        }
+        return counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    private static boolean matches(String text, String foldedPrefix) {
+        String folded = fold(text);
+        return !foldedPrefix.isEmpty() && (folded.startsWith(foldedPrefix) || folded.contains(" " + foldedPrefix));
+    }
+
+    private static String fold(String text) {
+        return text.toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N}]+", " ").trim();
+    }
+
+    private static String prefix(Random random) {
+        String word = WORDS.get(random.nextInt(WORDS.size()));
+        if (random.nextInt(5) == 0) {
+            // "grand v": a prefix spanning two words
+            String next = WORDS.get(random.nextInt(WORDS.size()));
+            return word + " " + next.substring(0, 1 + random.nextInt(next.length()));
+        }
+        String prefix = word.substring(0, 1 + random.nextInt(word.length()));
+        return random.nextBoolean() ? prefix : prefix.toUpperCase(Locale.ROOT);
+    }
+
+    private static HotelDTO hotel(int id, Random random) {
+        StringJoiner name = new StringJoiner(" ");
+        int words = 1 + random.nextInt(4);
+        for (int i = 0; i < words; i++) name.add(capitalize(WORDS.get(random.nextInt(WORDS.size()))));
+        HotelDTO dto = new HotelDTO();
+        dto.setId(id);
+        dto.setName(name.toString());
+        dto.setCity(CITIES.get(random.nextInt(CITIES.size())));
+        dto.setAverageRating(3.0 + random.nextInt(5) * 0.5);
+        dto.setStarRating(1 + random.nextInt(5));
+        return dto;
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+
+    private static List<Integer> ids(List<HotelSuggestIndex.HotelSuggestion> suggestions) {
+        return suggestions.stream().map(HotelSuggestIndex.HotelSuggestion::hotelId).toList();
+    }
+}
@@ -0,0 +1,185 @@
+package com.springproject.hospitalitymanagnet.backend.search;
+
+import com.springproject.hospitalitymanagnet.backend.dto.AmenityDTO;
+import com.springproject.hospitalitymanagnet.backend.dto.HotelDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class HotelTextIndexTest {
+
+    // no word is a prefix of another, so prefix expansion never adds matches to these queries
+    private static final List<String> WORDS = List.of(
+            "alpha", "bravo", "charlie", "delta", "echo", "foxtrot", "golf", "hotel", "india", "juliett",
+            "kilo", "lima", "mike", "november", "oscar", "papa", "quebec", "romeo", "sierra", "tango");
+
+    private static final int HOTELS = 300;
+    private static final int LIMIT = 10;
+
+    @Test
+    void scoresMatchAReferenceBm25fOverARandomCatalog() {
+        Random random = new Random(7);
+        List<HotelDTO> hotels = new ArrayList<>();
+        for (int id = 1; id <= HOTELS; id++) {
+            hotels.add(hotel(id, words(random, 1, 3), words(random, 1, 1), words(random, 0, 2),
+                    words(random, 0, 8), words(random, 0, 2)));
+        }
+        HotelTextIndex index = new HotelTextIndex();
+        hotels.forEach(index::index);
+
+        for (int q = 0; q < 200; q++) {
+            List<String> terms = new ArrayList<>(new LinkedHashSet<>(Arrays.asList(words(random, 1, 2).split(" "))));
+            Map<Integer, Double> expected = referenceScores(hotels, terms);
+
+            List<HotelTextIndex.Hit> hits = index.search(String.join(" ", terms), null, null, LIMIT);
+
+            List<Double> topExpected = expected.values().stream()
+                    .sorted(Comparator.reverseOrder()).limit(LIMIT).toList();
+            assertThat(hits).hasSize(topExpected.size());
+            for (int i = 0; i < hits.size(); i++) {
+                HotelTextIndex.Hit hit = hits.get(i);
+                assertThat(expected).containsKey(hit.hotelId());
+                assertThat((double) hit.score()).isCloseTo(expected.get(hit.hotelId()), within(1e-3));
+                // same rank as the reference; ties may come back in either order
+                assertThat((double) hit.score()).isCloseTo(topExpected.get(i), within(1e-3));
+            }
+        }
+    }
+
+    @Test
+    void termInTheNameOutranksTheSameTermInTheDescription() {
+        HotelTextIndex index = new HotelTextIndex();
+        index.index(hotel(1, "Harbour View", "Galle", "", "quiet lagoon rooms", ""));
+        index.index(hotel(2, "Lagoon Lodge", "Galle", "", "harbour view rooms", ""));
+
+        assertThat(index.search("lagoon", null, null, 10))
+                .extracting(HotelTextIndex.Hit::hotelId).containsExactly(2, 1);
+    }
+
+    @Test
+    void everyTermMustMatch() {
+        HotelTextIndex index = new HotelTextIndex();
+        index.index(hotel(1, "Beach Resort", "Galle", "", "", ""));
+        index.index(hotel(2, "Beach Villa", "Kandy", "", "", ""));
+
+        assertThat(index.search("beach kandy", null, null, 10))
+                .extracting(HotelTextIndex.Hit::hotelId).containsExactly(2);
+    }
+
+    @Test
+    void lastTermMatchesAsAPrefixBelowAnExactMatch() {
+        HotelTextIndex index = new HotelTextIndex();
+        index.index(hotel(1, "Colombo City Hotel", "Colombo", "", "", ""));
+        index.index(hotel(2, "Colo Inn", "Negombo", "", "", ""));
+
+        List<HotelTextIndex.Hit> hits = index.search("colo", null, null, 10);
+
+        assertThat(hits).extracting(HotelTextIndex.Hit::hotelId).containsExactlyInAnyOrder(1, 2);
+        assertThat(index.search("colombo", null, null, 10))
+                .extracting(HotelTextIndex.Hit::hotelId).containsExactly(1);
+    }
+
+    @Test
+    void updatesAndRemovalsSurviveCompaction() {
+        HotelTextIndex index = new HotelTextIndex();
+        Random random = new Random(11);
+        List<HotelDTO> latest = new ArrayList<>();
+        for (int id = 1; id <= 200; id++) {
+            latest.add(hotel(id, words(random, 1, 3), words(random, 1, 1), "", words(random, 0, 5), ""));
+        }
+        latest.forEach(index::index);
+        // enough rewrites to tombstone well past the compaction threshold
+        for (int round = 0; round < 8; round++) {
+            for (int i = 0; i < latest.size(); i++) {
+                HotelDTO h = hotel(i + 1, words(random, 1, 3), words(random, 1, 1), "", words(random, 0, 5), "");
+                latest.set(i, h);
+                index.index(h);
+            }
+        }
+        index.remove(1);
+        latest.remove(0);
+
+        HotelTextIndex fresh = new HotelTextIndex();
+        latest.forEach(fresh::index);
+        assertThat(index.size()).isEqualTo(fresh.size());
+        for (String word : WORDS) {
+            assertThat(ids(index.search(word, null, null, HOTELS)))
+                    .as(word).isEqualTo(ids(fresh.search(word, null, null, HOTELS)));
+        }
+    }
+
+    // BM25F as documented on HotelTextIndex, recomputed from the raw documents
+    private static Map<Integer, Double> referenceScores(List<HotelDTO> hotels, List<String> terms) {
+        HotelTextIndex.Field[] fields = HotelTextIndex.Field.values();
+        List<List<List<String>>> docs = new ArrayList<>();
+        double[] avg = new double[fields.length];
+        for (HotelDTO h : hotels) {
+            List<List<String>> byField = fieldTokens(h);
+            docs.add(byField);
+            for (int f = 0; f < fields.length; f++) avg[f] += byField.get(f).size();
+        }
+        for (int f = 0; f < fields.length; f++) avg[f] = Math.max(1, avg[f] / hotels.size());
+
+        Map<Integer, Double> scores = new HashMap<>();
+        for (int d = 0; d < docs.size(); d++) {
+            double score = 0;
+            boolean all = true;
+            for (String term : terms) {
+                int df = 0;
+                for (List<List<String>> doc : docs) {
+                    if (doc.stream().anyMatch(tokens -> tokens.contains(term))) df++;
+                }
+                double idf = Math.log(1 + (docs.size() - df + 0.5) / (df + 0.5));
+                double tf = 0;
+                for (int f = 0; f < fields.length; f++) {
+                    List<String> tokens = docs.get(d).get(f);
+                    long count = tokens.stream().filter(term::equals).count();
+                    tf += fields[f].boost * count / (1 - 0.75 + 0.75 * tokens.size() / avg[f]);
+                }
+                if (tf == 0) {
+                    all = false;
+                    break;
+                }
+                score += idf * tf * (1.2 + 1) / (tf + 1.2);
+            }
+            if (all) scores.put(hotels.get(d).getId(), score);
+        }
+        return scores;
+    }
+
+    private static List<List<String>> fieldTokens(HotelDTO h) {
+        List<String> amenities = new ArrayList<>();
+        for (AmenityDTO a : h.getAmenities()) amenities.addAll(HotelTextIndex.tokenize(a.getName()));
+        // same order as HotelTextIndex.Field
+        return List.of(HotelTextIndex.tokenize(h.getName()), HotelTextIndex.tokenize(h.getCity()),
+                HotelTextIndex.tokenize(h.getLocation()), amenities, HotelTextIndex.tokenize(h.getDescription()));
+    }
+
+    private static List<Integer> ids(List<HotelTextIndex.Hit> hits) {
+        return hits.stream().map(HotelTextIndex.Hit::hotelId).sorted().toList();
+    }
+
+    private static String words(Random random, int min, int max) {
+        int n = min + random.nextInt(max - min + 1);
+        StringJoiner joiner = new StringJoiner(" ");
+        for (int i = 0; i < n; i++) joiner.add(WORDS.get(random.nextInt(WORDS.size())));
+        return joiner.toString();
+    }
+
+    private static HotelDTO hotel(int id, String name, String city, String location, String description,
+                                  String amenities) {
+        HotelDTO dto = new HotelDTO();
+        dto.setId(id);
+        dto.setName(name);
+        dto.setCity(city);
+        dto.setLocation(location);
+        dto.setDescription(description);
+        List<AmenityDTO> list = new ArrayList<>();
+        for (String amenity : HotelTextIndex.tokenize(amenities)) list.add(new AmenityDTO(null, amenity));
+        dto.setAmenities(list);
+        return dto;
+    }
+}
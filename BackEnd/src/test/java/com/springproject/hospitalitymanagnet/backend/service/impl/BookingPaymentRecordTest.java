@@ -0,0 +1,119 @@
+package com.springproject.hospitalitymanagnet.backend.service.impl;
+
+import com.springproject.hospitalitymanagnet.backend.dto.BookingApiRequestDTO;
+import com.springproject.hospitalitymanagnet.backend.dto.BookingDTO;
+import com.springproject.hospitalitymanagnet.backend.entity.RoomType;
+import com.springproject.hospitalitymanagnet.backend.payment.CountingPaymentGateway;
+import com.springproject.hospitalitymanagnet.backend.service.BookingService;
+import com.springproject.hospitalitymanagnet.backend.support.BookingFixtures;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import({CountingPaymentGateway.class, BookingFixtures.class})
+@TestPropertySource(properties = {"payment.provider=counting", "outbox.relay.enabled=false"})
+class BookingPaymentRecordTest {
+
+    private static final LocalDate CHECK_IN = LocalDate.now().plusDays(40);
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private CountingPaymentGateway gateway;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BookingFixtures fixtures;
+
+    @AfterEach
+    void cleanUp() {
+        gateway.reset();
+        fixtures.cleanUp();
+    }
+
+    @Test
+    void everySuccessfulChargeHasExactlyOnePaymentRow() throws Exception {
+        RoomType room = fixtures.roomType(20);
+        Long userId = fixtures.user().getId();
+
+        List<CompletableFuture<BookingDTO>> paid = new ArrayList<>();
+        List<CompletableFuture<BookingDTO>> declined = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            paid.add(bookingService.createBookingWithPayment(request(room, userId, "tok_4242")));
+        }
+        for (int i = 0; i < 3; i++) {
+            declined.add(bookingService.createBookingWithPayment(request(room, userId, "tok_decline")));
+        }
+        // a hold paid twice at once and once more after it is confirmed
+        BookingDTO hold = bookingService.createHold(userId, room.getId(), CHECK_IN, CHECK_IN.plusDays(1), 1);
+        BookingApiRequestDTO.Payment card = request(room, userId, "tok_4242").getPayment();
+        CompletableFuture<BookingDTO> first = bookingService.confirmHold(hold.getId(), card);
+        CompletableFuture<BookingDTO> second = bookingService.confirmHold(hold.getId(), card);
+        paid.add(first);
+
+        for (CompletableFuture<BookingDTO> booking : paid) {
+            assertThat(booking.get(30, TimeUnit.SECONDS).getStatus()).isEqualTo("CONFIRMED");
+        }
+        for (CompletableFuture<BookingDTO> booking : declined) {
+            assertThatThrownBy(() -> booking.get(30, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class)
+                    .cause().hasMessageContaining("Payment failed");
+        }
+        assertThatThrownBy(() -> second.get(30, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class)
+                .cause().hasMessageContaining("already being paid");
+        assertThatThrownBy(() -> bookingService.confirmHold(hold.getId(), card).get(30, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class).cause().hasMessageContaining("not an open hold");
+
+        // booking id -> provider id of its payment row
+        Map<Long, String> payments = new HashMap<>();
+        jdbcTemplate.query("select b.id, p.payment_provider_id from payments p join bookings b on b.payment_id = p.id",
+                rs -> {
+                    payments.put(rs.getLong(1), rs.getString(2));
+                });
+        List<Long> confirmed = jdbcTemplate.queryForList(
+                "select id from bookings where status = 'CONFIRMED'", Long.class);
+
+        assertThat(fixtures.count("select count(*) from payments")).isEqualTo(paid.size());
+        assertThat(payments.keySet()).containsExactlyInAnyOrderElementsOf(confirmed);
+        payments.forEach((bookingId, providerId) ->
+                assertThat(providerId).isEqualTo("COUNTING-booking-" + bookingId));
+        assertThat(gateway.charged()).isEqualTo(paid.size() + declined.size());
+        assertThat(fixtures.count("select count(*) from bookings where status = 'CANCELLED' and payment_id is null"))
+                .isEqualTo(declined.size());
+    }
+
+    private static BookingApiRequestDTO request(RoomType room, Long userId, String token) {
+        BookingApiRequestDTO req = new BookingApiRequestDTO();
+        req.setUserId(userId);
+        req.setRoomTypeId(room.getId());
+        req.setCheckIn(CHECK_IN.toString());
+        req.setCheckOut(CHECK_IN.plusDays(2).toString());
+        req.setGuests(2);
+        BookingApiRequestDTO.Payment payment = new BookingApiRequestDTO.Payment();
+        payment.setMethod("card");
+        payment.setToken(token);
+        req.setPayment(payment);
+        return req;
+    }
+}
@@ -0,0 +1,128 @@
+package com.springproject.hospitalitymanagnet.backend.service.impl;
+
+import com.springproject.hospitalitymanagnet.backend.dto.BookingApiRequestDTO;
+import com.springproject.hospitalitymanagnet.backend.dto.BookingDTO;
+import com.springproject.hospitalitymanagnet.backend.entity.RoomType;
+import com.springproject.hospitalitymanagnet.backend.payment.CountingPaymentGateway;
+import com.springproject.hospitalitymanagnet.backend.service.BookingService;
+import com.springproject.hospitalitymanagnet.backend.support.BookingFixtures;
+import com.springproject.hospitalitymanagnet.backend.util.OptimisticRetry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import({CountingPaymentGateway.class, BookingFixtures.class})
+@TestPropertySource(properties = {"payment.provider=counting", "outbox.relay.enabled=false",
+        "retry.optimistic.max-attempts=100", "retry.optimistic.max-delay-ms=50"})
+class BookingPaymentRetryTest {
+
+    private static final int BOOKINGS = 20;
+    private static final int BUMPS = 200;
+    private static final LocalDate CHECK_IN = LocalDate.now().plusDays(20);
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private CountingPaymentGateway gateway;
+
+    @Autowired
+    private OptimisticRetry optimisticRetry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BookingFixtures fixtures;
+
+    @AfterEach
+    void cleanUp() {
+        gateway.reset();
+        fixtures.cleanUp();
+    }
+
+    @Test
+    void versionConflictRetriesNeverChargeTwice() throws Exception {
+        RoomType room = fixtures.roomType(BOOKINGS);
+        Long userId = fixtures.user().getId();
+        long conflictsBefore = conflicts();
+
+        // bumps the versions the hold (room type) and the confirm (booking) are checked against
+        // for a while; a bounded number, so every retried write gets through in the end
+        AtomicBoolean done = new AtomicBoolean();
+        Thread bumper = new Thread(() -> {
+            for (int i = 0; i < BUMPS && !done.get(); i++) {
+                jdbcTemplate.update("update room_types set version = version + 1 where id = ?", room.getId());
+                jdbcTemplate.update("update bookings set version = version + 1 where room_type_id = ?", room.getId());
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+        bumper.start();
+        List<CompletableFuture<BookingDTO>> bookings = new ArrayList<>();
+        try {
+            for (int i = 0; i < BOOKINGS; i++) {
+                bookings.add(CompletableFuture.supplyAsync(() -> request(room, userId))
+                        .thenCompose(bookingService::createBookingWithPayment));
+            }
+            for (CompletableFuture<BookingDTO> booking : bookings) {
+                booking.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            done.set(true);
+            bumper.join();
+        }
+
+        assertThat(conflicts()).as("version conflicts retried").isGreaterThan(conflictsBefore);
+        // one charge per booking: the retried transactions never went back to the provider
+        assertThat(gateway.calls()).hasSize(BOOKINGS);
+        assertThat(new HashSet<>(gateway.calls())).hasSize(BOOKINGS);
+        assertThat(fixtures.count("select count(*) from bookings where status = 'CONFIRMED'")).isEqualTo(BOOKINGS);
+        assertThat(fixtures.count("select count(*) from payments")).isEqualTo(BOOKINGS);
+    }
+
+    @SuppressWarnings("unchecked")
+    private long conflicts() {
+        long total = 0;
+        for (String operation : List.of("booking.hold", "booking.confirm")) {
+            Object stats = optimisticRetry.stats().get(operation);
+            if (stats != null) total += (Long) ((Map<String, Object>) stats).get("conflicts");
+        }
+        return total;
+    }
+
+    private static BookingApiRequestDTO request(RoomType room, Long userId) {
+        BookingApiRequestDTO req = new BookingApiRequestDTO();
+        req.setUserId(userId);
+        req.setRoomTypeId(room.getId());
+        req.setCheckIn(CHECK_IN.toString());
+        req.setCheckOut(CHECK_IN.plusDays(2).toString());
+        req.setGuests(2);
+        BookingApiRequestDTO.Payment payment = new BookingApiRequestDTO.Payment();
+        payment.setMethod("card");
+        payment.setToken("tok_4242");
+        req.setPayment(payment);
+        return req;
+    }
+}
@@ -0,0 +1,207 @@
+package com.springproject.hospitalitymanagnet.backend.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springproject.hospitalitymanagnet.backend.dto.BookingApiRequestDTO;
+import com.springproject.hospitalitymanagnet.backend.dto.GroupBookingDTO;
+import com.springproject.hospitalitymanagnet.backend.dto.GroupBookingRequestDTO;
+import com.springproject.hospitalitymanagnet.backend.entity.RoomType;
+import com.springproject.hospitalitymanagnet.backend.exception.PaymentUnavailableException;
+import com.springproject.hospitalitymanagnet.backend.payment.CountingPaymentGateway;
+import com.springproject.hospitalitymanagnet.backend.repository.IdempotencyRecordRepository;
+import com.springproject.hospitalitymanagnet.backend.service.BookingService;
+import com.springproject.hospitalitymanagnet.backend.service.IdempotencyService;
+import com.springproject.hospitalitymanagnet.backend.support.BookingFixtures;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Ledger on; the write-behind only runs when a test calls flushLedger()
+@SpringBootTest
+@ActiveProfiles("test")
+@Import({CountingPaymentGateway.class, BookingFixtures.class})
+@TestPropertySource(properties = {"payment.provider=counting", "payment.counting.timeout-ms=300",
+        "outbox.relay.enabled=false", "booking.ledger.enabled=true", "booking.ledger.flush-interval-ms=3600000"})
+class GroupBookingTest {
+
+    private static final String SCOPE = "booking.group:1";
+    private static final LocalDate CHECK_IN = LocalDate.now().plusDays(30);
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private CountingPaymentGateway gateway;
+
+    @Autowired
+    private InventoryServiceImpl inventoryServiceImpl;
+
+    @Autowired
+    private ReservationLedger ledger;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private IdempotencyRecordRepository recordRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BookingFixtures fixtures;
+
+    @AfterEach
+    void cleanUp() {
+        gateway.reset();
+        gateway.setDelayMs(20);
+        ledger.drainPending();
+        fixtures.cleanUp();
+    }
+
+    @Test
+    void roomTypeThatDoesNotFitBooksNothing() {
+        List<RoomType> rooms = fixtures.roomTypes(3, 1);
+        RoomType fits = rooms.get(0);
+        RoomType tooSmall = rooms.get(1);
+        GroupBookingRequestDTO req = request(fixtures.user().getId(), "tok_4242", fits, 2, tooSmall, 2);
+
+        assertThatThrownBy(() -> bookingService.createGroupBooking(req).get(30, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(IllegalArgumentException.class);
+
+        // the first room type was reserved before the second failed; the rollback gave it back
+        assertThat(fixtures.count("select count(*) from bookings")).isZero();
+        assertThat(free(fits)).isEqualTo(3);
+        assertThat(free(tooSmall)).isEqualTo(1);
+        inventoryServiceImpl.flushLedger();
+        assertThat(ledger.hasPending()).isFalse();
+        assertThat(fixtures.count("select coalesce(sum(sold), 0) from room_inventory")).isZero();
+        assertThat(gateway.calls()).isEmpty();
+    }
+
+    @Test
+    void declinedPaymentCancelsEveryBookingOfTheGroup() {
+        List<RoomType> rooms = fixtures.roomTypes(3, 2);
+        GroupBookingRequestDTO req = request(fixtures.user().getId(), "tok_decline", rooms.get(0), 2, rooms.get(1), 1);
+
+        assertThatThrownBy(() -> bookingService.createGroupBooking(req).get(30, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Payment failed");
+
+        List<String> groups = jdbcTemplate.queryForList("select distinct group_id from bookings", String.class);
+        assertThat(groups).hasSize(1);
+        assertThat(jdbcTemplate.queryForList("select status from bookings where group_id = ?", String.class,
+                groups.get(0))).hasSize(3).containsOnly("CANCELLED");
+        // one charge for the whole group, declined
+        assertThat(gateway.calls()).containsExactly("group-" + groups.get(0));
+        assertThat(fixtures.count("select count(*) from payments")).isZero();
+        assertThat(free(rooms.get(0))).isEqualTo(3);
+        assertThat(free(rooms.get(1))).isEqualTo(2);
+    }
+
+    @Test
+    void unansweredChargeKeepsTheGroupForTheRetryWithTheKey() throws Exception {
+        List<RoomType> rooms = fixtures.roomTypes(3, 2);
+        GroupBookingRequestDTO req = request(fixtures.user().getId(), "tok_4242", rooms.get(0), 2, rooms.get(1), 1);
+        gateway.setDelayMs(800);
+
+        CompletableFuture<GroupBookingDTO> first = idempotencyService.execute(SCOPE, "group-key-1", req,
+                GroupBookingDTO.class, claim -> bookingService.createGroupBooking(req, claim));
+        assertThatThrownBy(() -> first.get(30, TimeUnit.SECONDS)).hasCauseInstanceOf(PaymentUnavailableException.class);
+        assertThat(jdbcTemplate.queryForList("select status from bookings", String.class))
+                .hasSize(3).containsOnly("PENDING");
+
+        // the provider took the charge after all; the retry asks again under the same reference
+        Thread.sleep(800);
+        GroupBookingDTO group = idempotencyService.execute(SCOPE, "group-key-1", req, GroupBookingDTO.class,
+                claim -> bookingService.createGroupBooking(req, claim)).get(30, TimeUnit.SECONDS);
+
+        assertThat(group.getStatus()).isEqualTo("CONFIRMED");
+        assertThat(group.getRooms()).isEqualTo(3);
+        assertThat(gateway.calls()).containsExactly("group-" + group.getGroupId(), "group-" + group.getGroupId());
+        assertThat(gateway.charged()).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForList("select status from bookings", String.class))
+                .hasSize(3).containsOnly("CONFIRMED");
+    }
+
+    @Test
+    void takeoverOfAnAbandonedKeyPaysTheSameGroup() throws Exception {
+        List<RoomType> rooms = fixtures.roomTypes(3, 2);
+        GroupBookingRequestDTO req = request(fixtures.user().getId(), "tok_4242", rooms.get(0), 2, rooms.get(1), 1);
+        // the first run holds the group and charges it, then its instance stops before confirming
+        CompletableFuture<GroupBookingDTO> charged = new CompletableFuture<>();
+        instance().execute(SCOPE, "group-key-2", req, GroupBookingDTO.class, claim -> {
+            bookingService.createGroupBooking(req, claim).whenComplete((g, e) -> {
+                if (e != null) charged.completeExceptionally(e);
+                else charged.complete(g);
+            });
+            return new CompletableFuture<>();
+        });
+        String groupId = charged.get(30, TimeUnit.SECONDS).getGroupId();
+        gateway.reset();
+
+        GroupBookingDTO group = instance().execute(SCOPE, "group-key-2", req, GroupBookingDTO.class,
+                claim -> bookingService.createGroupBooking(req, claim)).get(30, TimeUnit.SECONDS);
+
+        assertThat(group.getGroupId()).isEqualTo(groupId);
+        assertThat(group.getStatus()).isEqualTo("CONFIRMED");
+        assertThat(group.getPaymentProviderId()).isEqualTo("COUNTING-group-" + groupId);
+        assertThat(group.getBookings()).hasSize(3);
+        assertThat(gateway.calls()).isEmpty();
+        assertThat(fixtures.count("select count(*) from bookings")).isEqualTo(3);
+    }
+
+    // a separate instance (no shared in-memory state) with no lease, so an unfinished key can be taken over at once
+    private IdempotencyServiceImpl instance() {
+        return new IdempotencyServiceImpl(recordRepository, objectMapper, transactionManager, 24, 0, 100);
+    }
+
+    private int free(RoomType room) {
+        return ledger.freeUnits(room.getId(), CHECK_IN.toEpochDay(), CHECK_IN.plusDays(2).toEpochDay(),
+                room.getTotalRooms());
+    }
+
+    private static GroupBookingRequestDTO request(Long userId, String token, RoomType first, int firstCount,
+                                                  RoomType second, int secondCount) {
+        GroupBookingRequestDTO req = new GroupBookingRequestDTO();
+        req.setUserId(userId);
+        req.setCheckIn(CHECK_IN.toString());
+        req.setCheckOut(CHECK_IN.plusDays(2).toString());
+        req.setRooms(List.of(rooms(first, firstCount), rooms(second, secondCount)));
+        BookingApiRequestDTO.Payment payment = new BookingApiRequestDTO.Payment();
+        payment.setMethod("card");
+        payment.setToken(token);
+        req.setPayment(payment);
+        return req;
+    }
+
+    private static GroupBookingRequestDTO.Rooms rooms(RoomType room, int count) {
+        GroupBookingRequestDTO.Rooms rooms = new GroupBookingRequestDTO.Rooms();
+        rooms.setRoomTypeId(room.getId());
+        rooms.setCount(count);
+        rooms.setGuests(2);
+        return rooms;
+    }
+}
@@ -0,0 +1,104 @@
+package com.springproject.hospitalitymanagnet.backend.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springproject.hospitalitymanagnet.backend.entity.Hotel;
+import com.springproject.hospitalitymanagnet.backend.entity.Policy;
+import com.springproject.hospitalitymanagnet.backend.entity.RoomType;
+import com.springproject.hospitalitymanagnet.backend.repository.HotelRepository;
+import com.springproject.hospitalitymanagnet.backend.service.HotelService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = "hotel.export.chunk-size=3")
+class HotelExportTest {
+
+    @Autowired
+    private HotelService hotelService;
+
+    @Autowired
+    private HotelRepository hotelRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY FALSE");
+        for (String table : jdbcTemplate.queryForList(
+                "select table_name from information_schema.tables where table_schema = 'PUBLIC'", String.class)) {
+            jdbcTemplate.execute("TRUNCATE TABLE " + table);
+        }
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY TRUE");
+    }
+
+    @Test
+    void exportWritesEveryHotelOncePerLineInIdOrderAcrossChunks() throws Exception {
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {   // 3 full chunks and a partial one
+            ids.add(hotelRepository.save(hotel("Export Hotel " + i)).getId());
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        hotelService.exportCatalog(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(ids.size());
+        List<Integer> exported = new ArrayList<>();
+        for (String line : lines) {
+            JsonNode node = objectMapper.readTree(line);
+            exported.add(node.get("id").asInt());
+            assertThat(node.get("roomTypes")).hasSize(2);
+            assertThat(node.get("policy").get("checkInTime").asText()).isEqualTo("14:00");
+        }
+        assertThat(exported).containsExactlyElementsOf(ids);
+    }
+
+    @Test
+    void exportOfAnEmptyCatalogWritesNothing() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        hotelService.exportCatalog(out);
+
+        assertThat(out.size()).isZero();
+    }
+
+    private Hotel hotel(String name) {
+        Hotel hotel = new Hotel();
+        hotel.setName(name);
+        hotel.setCity("Galle");
+        hotel.setStatus("ACTIVE");
+
+        List<RoomType> roomTypes = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            RoomType rt = new RoomType();
+            rt.setName("Room " + i);
+            rt.setBasePrice(100.0);
+            rt.setHotel(hotel);
+            roomTypes.add(rt);
+        }
+        hotel.setRoomTypes(roomTypes);
+
+        Policy policy = new Policy();
+        policy.setCheckInTime("14:00");
+        policy.setHotel(hotel);
+        hotel.setPolicy(policy);
+        return hotel;
+    }
+}
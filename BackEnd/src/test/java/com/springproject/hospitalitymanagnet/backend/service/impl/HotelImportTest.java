@@ -0,0 +1,91 @@
+package com.springproject.hospitalitymanagnet.backend.service.impl;
+
+import com.springproject.hospitalitymanagnet.backend.dto.ImportErrorDTO;
+import com.springproject.hospitalitymanagnet.backend.dto.ImportResultDTO;
+import com.springproject.hospitalitymanagnet.backend.service.HotelImportService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = "hotel.import.chunk-size=5")
+class HotelImportTest {
+
+    @Autowired
+    private HotelImportService importService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY FALSE");
+        for (String table : jdbcTemplate.queryForList(
+                "select table_name from information_schema.tables where table_schema = 'PUBLIC'", String.class)) {
+            jdbcTemplate.execute("TRUNCATE TABLE " + table);
+        }
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY TRUE");
+    }
+
+    @Test
+    void chunkThatFailsInTheDatabaseIsReplayedRowByRow() throws Exception {
+        // 12 rows in chunks of 5; line 7 passes validation but is too long for hotels.name,
+        // so the whole second chunk fails and only its replay tells the rows apart
+        StringBuilder ndjson = new StringBuilder();
+        List<String> expected = new ArrayList<>();
+        for (int line = 1; line <= 12; line++) {
+            String name = line == 7 ? "x".repeat(300) : "Import Hotel " + line;
+            ndjson.append("{\"name\":\"").append(name)
+                    .append("\",\"city\":\"Galle\",\"amenities\":[{\"name\":\"Pool\"}],")
+                    .append("\"roomTypes\":[{\"name\":\"Double\",\"basePrice\":90.0,\"totalRooms\":3}]}\n");
+            if (line != 7) expected.add(name);
+        }
+
+        ImportResultDTO result = importService.importHotels(stream(ndjson.toString()), false);
+
+        assertThat(result.getTotal()).isEqualTo(12);
+        assertThat(result.getImported()).isEqualTo(11);
+        assertThat(result.getFailed()).isEqualTo(1);
+        assertThat(result.getErrors()).extracting(ImportErrorDTO::getLine).containsExactly(7L);
+        // nothing of the failed chunk attempt survives, and every good row is written exactly once
+        assertThat(jdbcTemplate.queryForList("select name from hotels order by id", String.class))
+                .containsExactlyElementsOf(expected);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from room_types", Integer.class)).isEqualTo(11);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from amenities", Integer.class)).isEqualTo(1);
+    }
+
+    @Test
+    void csvErrorsReportTheLineTheRecordStartsOn() throws Exception {
+        String csv = "name,city,starRating,description\r\n"
+                + "Harbour View,Galle,4,\"two\r\nline description\"\r\n"   // lines 2-3
+                + "Hill Top,Kandy,nine,\r"                                // line 4, bare \r ending
+                + "Lagoon Lodge,Negombo,3,\n";                            // line 5
+
+        ImportResultDTO result = importService.importHotels(stream(csv), true);
+
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getErrors()).singleElement().satisfies(error -> {
+            assertThat(error.getLine()).isEqualTo(4);
+            assertThat(error.getMessage()).contains("starrating");
+        });
+        assertThat(jdbcTemplate.queryForObject(
+                "select description from hotels where name = 'Harbour View'", String.class))
+                .isEqualTo("two\r\nline description");
+    }
+
+    private static ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
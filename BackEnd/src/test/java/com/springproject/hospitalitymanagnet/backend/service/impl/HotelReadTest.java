@@ -0,0 +1,108 @@
+package com.springproject.hospitalitymanagnet.backend.service.impl;
+
+import com.springproject.hospitalitymanagnet.backend.cache.HotelCatalogCache;
+import com.springproject.hospitalitymanagnet.backend.cache.Tagged;
+import com.springproject.hospitalitymanagnet.backend.dto.HotelDTO;
+import com.springproject.hospitalitymanagnet.backend.entity.Hotel;
+import com.springproject.hospitalitymanagnet.backend.entity.RoomType;
+import com.springproject.hospitalitymanagnet.backend.repository.HotelRepository;
+import com.springproject.hospitalitymanagnet.backend.service.HotelService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class HotelReadTest {
+
+    @Autowired
+    private HotelService hotelService;
+
+    @Autowired
+    private HotelRepository hotelRepository;
+
+    @Autowired
+    private HotelCatalogCache catalogCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY FALSE");
+        for (String table : jdbcTemplate.queryForList(
+                "select table_name from information_schema.tables where table_schema = 'PUBLIC'", String.class)) {
+            jdbcTemplate.execute("TRUNCATE TABLE " + table);
+        }
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY TRUE");
+    }
+
+    @Test
+    void hotelIsLoadedWithItsWholeGraphOutsideAWebRequest() {
+        Integer id = hotelRepository.save(hotel()).getId();
+
+        // no open session here: every collection must be read before the DTO is cached
+        HotelDTO hotel = hotelService.getHotelById(id);
+
+        assertThat(hotel.getRoomTypes()).singleElement().satisfies(rt -> {
+            assertThat(rt.getInclusions()).containsExactly("Breakfast", "Parking");
+            assertThat(rt.getAmenities()).containsExactly("TV");
+        });
+    }
+
+    @Test
+    void cachedHotelKeepsItsTagUntilAWriteReplacesBoth() {
+        Integer id = hotelRepository.save(hotel()).getId();
+
+        Tagged<HotelDTO> first = hotelService.getTaggedHotel(id);
+        Tagged<HotelDTO> hit = hotelService.getTaggedHotel(id);
+        assertThat(hit).isSameAs(first);
+
+        HotelDTO update = new HotelDTO();
+        update.setName("Renamed");
+        update.setCity("Galle");
+        update.setStatus("ACTIVE");
+        hotelService.updateHotel(id, update);
+
+        Tagged<HotelDTO> after = hotelService.getTaggedHotel(id);
+        assertThat(after.value().getName()).isEqualTo("Renamed");
+        assertThat(after.etag()).isNotEqualTo(first.etag());
+    }
+
+    @Test
+    void hotelTagIsReadWithoutLoadingTheHotel() {
+        Integer id = hotelRepository.save(hotel()).getId();
+
+        // a miss reads the version row only and caches nothing
+        String tag = hotelService.getHotelEtag(id);
+        assertThat(catalogCache.cachedHotelEtag(id)).isNull();
+
+        Tagged<HotelDTO> loaded = hotelService.getTaggedHotel(id);
+        assertThat(loaded.etag()).isEqualTo(tag);
+        assertThat(hotelService.getHotelEtag(id)).isEqualTo(tag);
+        assertThat(hotelService.getHotelEtag(id + 1)).isNull();
+    }
+
+    private static Hotel hotel() {
+        Hotel hotel = new Hotel();
+        hotel.setName("Read Hotel");
+        hotel.setCity("Galle");
+        hotel.setStatus("ACTIVE");
+        RoomType rt = new RoomType();
+        rt.setName("Double");
+        rt.setBasePrice(100.0);
+        rt.setInclusions(new ArrayList<>(List.of("Breakfast", "Parking")));
+        rt.setAmenities(new ArrayList<>(List.of("TV")));
+        rt.setHotel(hotel);
+        hotel.setRoomTypes(new ArrayList<>(List.of(rt)));
+        return hotel;
+    }
+}
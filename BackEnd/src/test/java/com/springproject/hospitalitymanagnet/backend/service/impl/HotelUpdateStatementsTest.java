@@ -0,0 +1,157 @@
+package com.springproject.hospitalitymanagnet.backend.service.impl;
+
+import com.springproject.hospitalitymanagnet.backend.dto.HotelDTO;
+import com.springproject.hospitalitymanagnet.backend.dto.RoomTypeDTO;
+import com.springproject.hospitalitymanagnet.backend.entity.Hotel;
+import com.springproject.hospitalitymanagnet.backend.entity.RoomType;
+import com.springproject.hospitalitymanagnet.backend.repository.HotelRepository;
+import com.springproject.hospitalitymanagnet.backend.service.HotelService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        // no background relay polling while statements are counted
+        "outbox.relay.enabled=false"
+})
+class HotelUpdateStatementsTest {
+
+    @Autowired
+    private HotelService hotelService;
+
+    @Autowired
+    private HotelRepository hotelRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Statistics stats;
+
+    @BeforeEach
+    void setUp() {
+        stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY FALSE");
+        for (String table : jdbcTemplate.queryForList(
+                "select table_name from information_schema.tables where table_schema = 'PUBLIC'", String.class)) {
+            jdbcTemplate.execute("TRUNCATE TABLE " + table);
+        }
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY TRUE");
+    }
+
+    @Test
+    void unchangedUpdateDoesNotTouchEachRoomType() {
+        long small = unchangedUpdateStatements(30);
+        long large = unchangedUpdateStatements(300);
+
+        // only the @BatchSize(100) loads of inclusions and amenities grow with the room types
+        // (two more per extra 100); before the diff this was 607 statements for 300 room types
+        assertThat(large).isLessThanOrEqualTo(small + 4);
+        assertThat(large).isLessThanOrEqualTo(13);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from room_inclusions", Integer.class))
+                .isEqualTo((30 + 300) * 2);
+    }
+
+    @Test
+    void smallChangeCostsAFewStatements() {
+        long small = smallChangeStatements(30);
+        long large = smallChangeStatements(300);
+
+        assertThat(large).isLessThanOrEqualTo(small + 4);
+        assertThat(large).isLessThanOrEqualTo(25);
+    }
+
+    private long unchangedUpdateStatements(int roomTypes) {
+        Integer id = hotelWithRoomTypes(roomTypes);
+        HotelDTO unchanged = copy(hotelService.getHotelById(id));
+
+        stats.clear();
+        hotelService.updateHotel(id, unchanged);
+        return stats.getPrepareStatementCount();
+    }
+
+    // two room types edited, one removed, one added
+    private long smallChangeStatements(int count) {
+        Integer id = hotelWithRoomTypes(count);
+        HotelDTO changed = copy(hotelService.getHotelById(id));
+        List<RoomTypeDTO> roomTypes = changed.getRoomTypes();
+        roomTypes.get(0).setBasePrice(200.0);
+        roomTypes.get(1).setInclusions(List.of("Breakfast", "Parking", "Spa"));
+        roomTypes.remove(2);
+        roomTypes.add(new RoomTypeDTO(null, "Suite", 400.0, null, 60, "Available", 2, 4, id,
+                List.of("Breakfast"), List.of("TV")));
+
+        stats.clear();
+        hotelService.updateHotel(id, changed);
+        long statements = stats.getPrepareStatementCount();
+
+        assertThat(jdbcTemplate.queryForObject("select count(*) from room_types where name = 'Suite' and hotel_id = ?",
+                Integer.class, id)).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("select base_price from room_types where id = ?", Double.class,
+                roomTypes.get(0).getId())).isEqualTo(200.0);
+        assertThat(jdbcTemplate.queryForList("select inclusion from room_inclusions where room_id = ?", String.class,
+                roomTypes.get(1).getId())).containsExactlyInAnyOrder("Breakfast", "Parking", "Spa");
+        return statements;
+    }
+
+    private Integer hotelWithRoomTypes(int count) {
+        Hotel hotel = new Hotel();
+        hotel.setName("Statement Hotel");
+        hotel.setCity("Galle");
+        hotel.setStatus("ACTIVE");
+        List<RoomType> roomTypes = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            RoomType rt = new RoomType();
+            rt.setName("Room " + i);
+            rt.setBasePrice(100.0);
+            rt.setAvailability("Available");
+            rt.setTotalRooms(5);
+            rt.setMaxGuests(2);
+            rt.setInclusions(new ArrayList<>(List.of("Breakfast", "Parking")));
+            rt.setAmenities(new ArrayList<>(List.of("TV", "Wifi")));
+            rt.setHotel(hotel);
+            roomTypes.add(rt);
+        }
+        hotel.setRoomTypes(roomTypes);
+        return hotelRepository.save(hotel).getId();
+    }
+
+    // the cached DTO is shared and read-only
+    private static HotelDTO copy(HotelDTO src) {
+        HotelDTO dto = new HotelDTO();
+        dto.setName(src.getName());
+        dto.setCity(src.getCity());
+        dto.setStatus(src.getStatus());
+        dto.setAmenities(new ArrayList<>(src.getAmenities()));
+        List<RoomTypeDTO> roomTypes = new ArrayList<>();
+        for (RoomTypeDTO rt : src.getRoomTypes()) {
+            roomTypes.add(new RoomTypeDTO(rt.getId(), rt.getName(), rt.getBasePrice(), rt.getSpecialPrice(),
+                    rt.getRoomSize(), rt.getAvailability(), rt.getTotalRooms(), rt.getMaxGuests(), rt.getHotelId(),
+                    rt.getInclusions(), rt.getAmenities()));
+        }
+        dto.setRoomTypes(roomTypes);
+        return dto;
+    }
+}
@@ -0,0 +1,104 @@
+package com.springproject.hospitalitymanagnet.backend.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springproject.hospitalitymanagnet.backend.entity.IdempotencyRecord;
+import com.springproject.hospitalitymanagnet.backend.exception.PaymentUnavailableException;
+import com.springproject.hospitalitymanagnet.backend.repository.IdempotencyRecordRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IdempotencyServiceImplTest {
+
+    private final IdempotencyRecordRepository recordRepository = mock(IdempotencyRecordRepository.class);
+    private final IdempotencyServiceImpl service = new IdempotencyServiceImpl(recordRepository, new ObjectMapper(),
+            mock(PlatformTransactionManager.class), 24, 120, 100);
+    private final AtomicInteger runs = new AtomicInteger();
+
+    @BeforeEach
+    void claimSucceeds() {
+        when(recordRepository.findByScopeAndIdempotencyKey(anyString(), anyString())).thenReturn(Optional.empty());
+        when(recordRepository.saveAndFlush(any())).thenAnswer(invocation -> {
+            IdempotencyRecord record = invocation.getArgument(0);
+            record.setId(7L);
+            return record;
+        });
+    }
+
+    @Test
+    void failedResponseWriteIsRetriedWithoutRunningTheWorkAgain() throws Exception {
+        when(recordRepository.complete(eq(7L), anyString()))
+                .thenThrow(new TransientDataAccessResourceException("connection reset"))
+                .thenThrow(new TransientDataAccessResourceException("connection reset"))
+                .thenReturn(1);
+
+        String result = service.execute("booking.process:1", "key-1", Map.of("room", 3), String.class, this::book)
+                .get(5, TimeUnit.SECONDS);
+
+        assertThat(result).isEqualTo("booking-1");
+        assertThat(runs).hasValue(1);
+        verify(recordRepository, times(3)).complete(eq(7L), anyString());
+    }
+
+    @Test
+    void responseThatCannotBeStoredStillReachesTheCallerAndItsRepeats() throws Exception {
+        when(recordRepository.complete(anyLong(), anyString()))
+                .thenThrow(new TransientDataAccessResourceException("database down"));
+
+        String first = service.execute("booking.process:1", "key-2", Map.of("room", 3), String.class, this::book)
+                .get(5, TimeUnit.SECONDS);
+        String repeat = service.execute("booking.process:1", "key-2", Map.of("room", 3), String.class, this::book)
+                .get(5, TimeUnit.SECONDS);
+
+        assertThat(first).isEqualTo("booking-1");
+        assertThat(repeat).isEqualTo("booking-1");
+        assertThat(runs).hasValue(1);
+        verify(recordRepository, times(3)).complete(eq(7L), anyString());
+    }
+
+    @Test
+    void refusedRunFreesTheKey() {
+        CompletableFuture<String> run = service.execute("booking.process:1", "key-3", Map.of("room", 3), String.class,
+                () -> CompletableFuture.failedFuture(new IllegalArgumentException("Payment failed: Card declined")));
+
+        assertThatThrownBy(() -> run.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalArgumentException.class);
+        verify(recordRepository).release(7L);
+        verify(recordRepository, never()).reopen(anyLong(), any());
+    }
+
+    @Test
+    void unansweredRunKeepsTheKeyForTheRetryToResume() {
+        CompletableFuture<String> run = service.execute("booking.process:1", "key-4", Map.of("room", 3), String.class,
+                () -> CompletableFuture.failedFuture(new PaymentUnavailableException("did not answer in time")));
+
+        assertThatThrownBy(() -> run.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(PaymentUnavailableException.class);
+        verify(recordRepository, never()).release(anyLong());
+        // lease already over: the next request takes the claim over straight away
+        verify(recordRepository).reopen(eq(7L), argThat(claimedAt -> claimedAt.isBefore(LocalDateTime.now().minusSeconds(120))));
+    }
+
+    private CompletableFuture<String> book() {
+        return CompletableFuture.completedFuture("booking-" + runs.incrementAndGet());
+    }
+}
@@ -0,0 +1,227 @@
+package com.springproject.hospitalitymanagnet.backend.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springproject.hospitalitymanagnet.backend.dto.BookingApiRequestDTO;
+import com.springproject.hospitalitymanagnet.backend.dto.BookingDTO;
+import com.springproject.hospitalitymanagnet.backend.entity.RoomType;
+import com.springproject.hospitalitymanagnet.backend.entity.User;
+import com.springproject.hospitalitymanagnet.backend.exception.PaymentUnavailableException;
+import com.springproject.hospitalitymanagnet.backend.payment.ChargeRequest;
+import com.springproject.hospitalitymanagnet.backend.payment.CountingPaymentGateway;
+import com.springproject.hospitalitymanagnet.backend.repository.IdempotencyRecordRepository;
+import com.springproject.hospitalitymanagnet.backend.service.BookingService;
+import com.springproject.hospitalitymanagnet.backend.service.IdempotencyService;
+import com.springproject.hospitalitymanagnet.backend.support.BookingFixtures;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import({CountingPaymentGateway.class, BookingFixtures.class})
+@TestPropertySource(properties = {"payment.provider=counting", "payment.counting.timeout-ms=300",
+        "outbox.relay.enabled=false"})
+class IdempotentBookingResumeTest {
+
+    private static final String SCOPE = "booking.process:1";
+    private static final LocalDate CHECK_IN = LocalDate.now().plusDays(30);
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private IdempotencyRecordRepository recordRepository;
+
+    @Autowired
+    private CountingPaymentGateway gateway;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BookingFixtures fixtures;
+
+    @AfterEach
+    void cleanUp() {
+        gateway.reset();
+        gateway.setDelayMs(20);
+        fixtures.cleanUp();
+    }
+
+    @Test
+    void holdIsAttachedToTheKeyInItsOwnTransaction() throws Exception {
+        BookingApiRequestDTO req = request(fixtures.roomType(3), fixtures.user());
+
+        BookingDTO booking = idempotencyService.execute(SCOPE, "key-1", req, BookingDTO.class,
+                claim -> bookingService.createBookingWithPayment(req, claim)).get(30, TimeUnit.SECONDS);
+
+        assertThat(jdbcTemplate.queryForObject("select resource_id from idempotency_keys where idempotency_key = 'key-1'",
+                Long.class)).isEqualTo(booking.getId());
+    }
+
+    @Test
+    void takeoverPaysTheStoppedRunsHoldWithoutANewCharge() throws Exception {
+        BookingApiRequestDTO req = request(fixtures.roomType(3), fixtures.user());
+        // the first run holds a room and charges it, then its instance stops before confirming
+        IdempotencyServiceImpl stopped = instance();
+        Long[] holdId = new Long[1];
+        stopped.execute(SCOPE, "key-2", req, BookingDTO.class, claim -> {
+            holdId[0] = new TransactionTemplate(transactionManager).execute(status -> {
+                BookingDTO hold = bookingService.createHold(req.getUserId(), req.getRoomTypeId(), CHECK_IN,
+                        CHECK_IN.plusDays(2), 2);
+                claim.attach(hold.getId());
+                return hold.getId();
+            });
+            gateway.charge(new ChargeRequest("booking-" + holdId[0], BigDecimal.TEN, "USD", req.getPayment()));
+            return new CompletableFuture<>();
+        });
+        assertThat(gateway.charged()).isEqualTo(1);
+
+        // the client retries after the lease: another instance takes the key over
+        BookingDTO booking = instance().execute(SCOPE, "key-2", req, BookingDTO.class,
+                claim -> bookingService.createBookingWithPayment(req, claim)).get(30, TimeUnit.SECONDS);
+
+        assertThat(booking.getId()).isEqualTo(holdId[0]);
+        assertThat(booking.getStatus()).isEqualTo("CONFIRMED");
+        assertThat(gateway.calls()).containsOnly("booking-" + holdId[0]);
+        assertThat(gateway.charged()).isEqualTo(1);
+        assertThat(fixtures.count("select count(*) from bookings")).isEqualTo(1);
+        assertThat(fixtures.count("select count(*) from payments")).isEqualTo(1);
+        assertThat(recordRepository.findByScopeAndIdempotencyKey(SCOPE, "key-2").orElseThrow().getResponse()).isNotNull();
+    }
+
+    @Test
+    void takeoverOfAConfirmedHoldReturnsItWithoutCharging() throws Exception {
+        BookingApiRequestDTO req = request(fixtures.roomType(3), fixtures.user());
+        // the first run got as far as confirming, then stopped before storing the response
+        IdempotencyServiceImpl stopped = instance();
+        CompletableFuture<BookingDTO> confirmed = new CompletableFuture<>();
+        stopped.execute(SCOPE, "key-3", req, BookingDTO.class, claim -> {
+            bookingService.createBookingWithPayment(req, claim).whenComplete((b, e) -> {
+                if (e != null) confirmed.completeExceptionally(e);
+                else confirmed.complete(b);
+            });
+            return new CompletableFuture<>();
+        });
+        Long holdId = confirmed.get(30, TimeUnit.SECONDS).getId();
+        gateway.reset();
+
+        BookingDTO booking = instance().execute(SCOPE, "key-3", req, BookingDTO.class,
+                claim -> bookingService.createBookingWithPayment(req, claim)).get(30, TimeUnit.SECONDS);
+
+        assertThat(booking.getId()).isEqualTo(holdId);
+        assertThat(booking.getStatus()).isEqualTo("CONFIRMED");
+        assertThat(gateway.calls()).isEmpty();
+        assertThat(fixtures.count("select count(*) from bookings")).isEqualTo(1);
+    }
+
+    @Test
+    void takeoverWithADifferentRequestIsRefused() throws Exception {
+        BookingApiRequestDTO req = request(fixtures.roomType(3), fixtures.user());
+        IdempotencyServiceImpl stopped = instance();
+        stopped.execute(SCOPE, "key-6", req, BookingDTO.class, claim -> {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> claim.attach(
+                    bookingService.createHold(req.getUserId(), req.getRoomTypeId(), CHECK_IN, CHECK_IN.plusDays(2), 2).getId()));
+            return new CompletableFuture<>();
+        });
+
+        // same key, other dates: resuming would pay for the first request's hold
+        BookingApiRequestDTO other = request(fixtures.roomType(3), fixtures.user());
+        other.setCheckOut(CHECK_IN.plusDays(5).toString());
+        CompletableFuture<BookingDTO> takeover = instance().execute(SCOPE, "key-6", other, BookingDTO.class,
+                claim -> bookingService.createBookingWithPayment(other, claim));
+
+        assertThatThrownBy(() -> takeover.get(30, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("different request");
+        assertThat(gateway.calls()).isEmpty();
+
+        // the key still belongs to the first request, which resumes its hold
+        BookingDTO booking = instance().execute(SCOPE, "key-6", req, BookingDTO.class,
+                claim -> bookingService.createBookingWithPayment(req, claim)).get(30, TimeUnit.SECONDS);
+        assertThat(booking.getCheckOutDate()).isEqualTo(CHECK_IN.plusDays(2));
+        assertThat(booking.getStatus()).isEqualTo("CONFIRMED");
+    }
+
+    @Test
+    void unansweredChargeKeepsTheHoldAndTheKeyForTheRetry() throws Exception {
+        BookingApiRequestDTO req = request(fixtures.roomType(3), fixtures.user());
+        gateway.setDelayMs(800);
+
+        CompletableFuture<BookingDTO> first = idempotencyService.execute(SCOPE, "key-4", req, BookingDTO.class,
+                claim -> bookingService.createBookingWithPayment(req, claim));
+        assertThatThrownBy(() -> first.get(30, TimeUnit.SECONDS)).hasCauseInstanceOf(PaymentUnavailableException.class);
+
+        Long holdId = recordRepository.findByScopeAndIdempotencyKey(SCOPE, "key-4").orElseThrow().getResourceId();
+        assertThat(holdId).isNotNull();
+        assertThat(jdbcTemplate.queryForObject("select status from bookings where id = ?", String.class, holdId))
+                .isEqualTo("PENDING");
+
+        // the provider took the charge after all; the retry asks again under the same reference
+        Thread.sleep(800);
+        BookingDTO booking = idempotencyService.execute(SCOPE, "key-4", req, BookingDTO.class,
+                claim -> bookingService.createBookingWithPayment(req, claim)).get(30, TimeUnit.SECONDS);
+
+        assertThat(booking.getId()).isEqualTo(holdId);
+        assertThat(booking.getStatus()).isEqualTo("CONFIRMED");
+        assertThat(gateway.calls()).containsExactly("booking-" + holdId, "booking-" + holdId);
+        assertThat(gateway.charged()).isEqualTo(1);
+        assertThat(fixtures.count("select count(*) from bookings")).isEqualTo(1);
+    }
+
+    @Test
+    void declinedChargeFreesTheKey() {
+        BookingApiRequestDTO req = request(fixtures.roomType(3), fixtures.user());
+        req.getPayment().setToken("tok_decline");
+
+        CompletableFuture<BookingDTO> run = idempotencyService.execute(SCOPE, "key-5", req, BookingDTO.class,
+                claim -> bookingService.createBookingWithPayment(req, claim));
+
+        assertThatThrownBy(() -> run.get(30, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalArgumentException.class);
+        assertThat(recordRepository.findByScopeAndIdempotencyKey(SCOPE, "key-5")).isEmpty();
+        assertThat(fixtures.count("select count(*) from bookings where status = 'CANCELLED'")).isEqualTo(1);
+    }
+
+    // a separate instance (no shared in-memory state) with no lease, so an unfinished key can be taken over at once
+    private IdempotencyServiceImpl instance() {
+        return new IdempotencyServiceImpl(recordRepository, objectMapper, transactionManager, 24, 0, 100);
+    }
+
+    private static BookingApiRequestDTO request(RoomType room, User user) {
+        BookingApiRequestDTO req = new BookingApiRequestDTO();
+        req.setUserId(user.getId());
+        req.setRoomTypeId(room.getId());
+        req.setCheckIn(CHECK_IN.toString());
+        req.setCheckOut(CHECK_IN.plusDays(2).toString());
+        req.setGuests(2);
+        BookingApiRequestDTO.Payment payment = new BookingApiRequestDTO.Payment();
+        payment.setMethod("card");
+        payment.setToken("tok_4242");
+        req.setPayment(payment);
+        return req;
+    }
+}
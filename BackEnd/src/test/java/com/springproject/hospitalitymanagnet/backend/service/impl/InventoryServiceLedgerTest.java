@@ -0,0 +1,110 @@
+package com.springproject.hospitalitymanagnet.backend.service.impl;
+
+import com.springproject.hospitalitymanagnet.backend.entity.RoomType;
+import com.springproject.hospitalitymanagnet.backend.service.InventoryService;
+import com.springproject.hospitalitymanagnet.backend.support.BookingFixtures;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Ledger on; the write-behind only runs when a test calls flushLedger()
+@SpringBootTest
+@Import(BookingFixtures.class)
+@ActiveProfiles("test")
+@TestPropertySource(properties = {"booking.ledger.enabled=true", "booking.ledger.flush-interval-ms=3600000",
+        "outbox.relay.enabled=false"})
+class InventoryServiceLedgerTest {
+
+    private static final LocalDate CHECK_IN = LocalDate.now().plusDays(10);
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private InventoryServiceImpl inventoryServiceImpl;
+
+    @Autowired
+    private ReservationLedger ledger;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BookingFixtures fixtures;
+
+    @AfterEach
+    void cleanUp() {
+        ledger.drainPending();
+        fixtures.cleanUp();
+    }
+
+    @Test
+    void rolledBackBookingGivesItsUnitsBack() {
+        RoomType room = fixtures.roomType(1);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            inventoryService.reserve(room, CHECK_IN, CHECK_IN.plusDays(2), 1);
+            // taken as soon as it is admitted, so a concurrent booking cannot have it
+            assertThat(free(room, 0, 2)).isZero();
+            status.setRollbackOnly();
+        });
+
+        assertThat(free(room, 0, 2)).isEqualTo(1);
+        assertThat(ledger.hasPending()).isFalse();
+    }
+
+    @Test
+    void bookingThatFailsAfterReservingGivesItsUnitsBack() {
+        RoomType room = fixtures.roomType(2);
+
+        assertThatThrownBy(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            inventoryService.reserve(room, CHECK_IN, CHECK_IN.plusDays(3), 2);
+            throw new IllegalStateException("booking insert failed");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(free(room, 0, 3)).isEqualTo(2);
+        assertThat(ledger.hasPending()).isFalse();
+    }
+
+    @Test
+    void committedBookingKeepsItsUnitsAndReachesRoomInventory() {
+        RoomType room = fixtures.roomType(2);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                inventoryService.reserve(room, CHECK_IN, CHECK_IN.plusDays(2), 1));
+
+        assertThat(free(room, 0, 2)).isEqualTo(1);
+        assertThat(sold(room)).isEmpty();
+
+        inventoryServiceImpl.flushLedger();
+
+        assertThat(ledger.hasPending()).isFalse();
+        assertThat(sold(room)).containsExactly(1, 1);
+    }
+
+    private int free(RoomType room, int fromDay, int toDay) {
+        return ledger.freeUnits(room.getId(), CHECK_IN.plusDays(fromDay).toEpochDay(),
+                CHECK_IN.plusDays(toDay).toEpochDay(), room.getTotalRooms());
+    }
+
+    private List<Integer> sold(RoomType room) {
+        return jdbcTemplate.queryForList("select sold from room_inventory where room_type_id = ? order by stay_date",
+                Integer.class, room.getId());
+    }
+}
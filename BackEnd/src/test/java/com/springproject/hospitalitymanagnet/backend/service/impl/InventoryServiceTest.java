@@ -0,0 +1,149 @@
+package com.springproject.hospitalitymanagnet.backend.service.impl;
+
+import com.springproject.hospitalitymanagnet.backend.entity.RoomType;
+import com.springproject.hospitalitymanagnet.backend.service.InventoryService;
+import com.springproject.hospitalitymanagnet.backend.support.BookingFixtures;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Ledger off: these cover the conditional UPDATEs on room_inventory
+@SpringBootTest
+@Import(BookingFixtures.class)
+@ActiveProfiles("test")
+@TestPropertySource(properties = {"booking.ledger.enabled=false", "outbox.relay.enabled=false"})
+class InventoryServiceTest {
+
+    private static final LocalDate CHECK_IN = LocalDate.now().plusDays(10);
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BookingFixtures fixtures;
+
+    @AfterEach
+    void cleanUp() {
+        fixtures.cleanUp();
+    }
+
+    @Test
+    void nightIsNeverSoldBeyondItsTotal() {
+        RoomType room = fixtures.roomType(2);
+
+        reserve(room, CHECK_IN, CHECK_IN.plusDays(2));
+        reserve(room, CHECK_IN, CHECK_IN.plusDays(2));
+
+        assertThatThrownBy(() -> reserve(room, CHECK_IN.plusDays(1), CHECK_IN.plusDays(2)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(sold(room, CHECK_IN)).isEqualTo(2);
+        assertThat(sold(room, CHECK_IN.plusDays(1))).isEqualTo(2);
+    }
+
+    @Test
+    void stayThatDoesNotFitEveryNightTakesNoneOfThem() {
+        RoomType room = fixtures.roomType(1);
+        reserve(room, CHECK_IN.plusDays(2), CHECK_IN.plusDays(3));
+
+        // nights 0 and 1 are free, night 2 is not: the rollback gives the first two back
+        assertThatThrownBy(() -> reserve(room, CHECK_IN, CHECK_IN.plusDays(3)))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(sold(room, CHECK_IN)).isZero();
+        assertThat(sold(room, CHECK_IN.plusDays(1))).isZero();
+        assertThat(sold(room, CHECK_IN.plusDays(2))).isEqualTo(1);
+    }
+
+    @Test
+    void resizeNeverDropsANightBelowWhatItSold() {
+        RoomType room = fixtures.roomType(3);
+        reserve(room, CHECK_IN, CHECK_IN.plusDays(1));
+        reserve(room, CHECK_IN, CHECK_IN.plusDays(1));
+        reserve(room, CHECK_IN.plusDays(1), CHECK_IN.plusDays(2));
+
+        inventoryService.resize(room.getId(), 1);
+
+        assertThat(total(room, CHECK_IN)).isEqualTo(2);
+        assertThat(total(room, CHECK_IN.plusDays(1))).isEqualTo(1);
+        assertThatThrownBy(() -> reserve(room, CHECK_IN, CHECK_IN.plusDays(1)))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        inventoryService.resize(room.getId(), 4);
+
+        assertThat(total(room, CHECK_IN)).isEqualTo(4);
+        assertThat(total(room, CHECK_IN.plusDays(1))).isEqualTo(4);
+    }
+
+    @Test
+    void twoReservesRacingForTheLastUnitAdmitOnlyOne() throws Exception {
+        RoomType room = fixtures.roomType(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 0; round < 20; round++) {
+                LocalDate night = CHECK_IN.plusDays(round);
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<Boolean>> results = new ArrayList<>();
+                for (int i = 0; i < 2; i++) {
+                    results.add(pool.submit(() -> {
+                        start.await();
+                        try {
+                            reserve(room, night, night.plusDays(1));
+                            return true;
+                        } catch (IllegalArgumentException e) {
+                            return false;
+                        }
+                    }));
+                }
+                start.countDown();
+
+                int admitted = 0;
+                for (Future<Boolean> result : results) {
+                    if (result.get(30, TimeUnit.SECONDS)) admitted++;
+                }
+                assertThat(admitted).as("round %d", round).isEqualTo(1);
+                assertThat(sold(room, night)).isEqualTo(1);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private void reserve(RoomType room, LocalDate checkIn, LocalDate checkOut) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                inventoryService.reserve(room, checkIn, checkOut, 1));
+    }
+
+    private int sold(RoomType room, LocalDate night) {
+        List<Integer> sold = jdbcTemplate.queryForList(
+                "select sold from room_inventory where room_type_id = ? and stay_date = ?",
+                Integer.class, room.getId(), night);
+        return sold.isEmpty() ? 0 : sold.get(0);
+    }
+
+    private int total(RoomType room, LocalDate night) {
+        return jdbcTemplate.queryForObject(
+                "select total from room_inventory where room_type_id = ? and stay_date = ?",
+                Integer.class, room.getId(), night);
+    }
+}
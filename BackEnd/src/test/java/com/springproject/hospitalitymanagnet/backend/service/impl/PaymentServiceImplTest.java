@@ -0,0 +1,146 @@
+package com.springproject.hospitalitymanagnet.backend.service.impl;
+
+import com.springproject.hospitalitymanagnet.backend.dto.PaymentResultDTO;
+import com.springproject.hospitalitymanagnet.backend.exception.PaymentUnavailableException;
+import com.springproject.hospitalitymanagnet.backend.payment.ChargeRequest;
+import com.springproject.hospitalitymanagnet.backend.payment.PaymentGateway;
+import com.springproject.hospitalitymanagnet.backend.util.CircuitBreaker;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PaymentServiceImplTest {
+
+    private static final class ScriptedGateway implements PaymentGateway {
+        final AtomicInteger calls = new AtomicInteger();
+        volatile Function<ChargeRequest, CompletableFuture<PaymentResultDTO>> answer;
+
+        @Override
+        public String name() {
+            return "scripted";
+        }
+
+        @Override
+        public CompletableFuture<PaymentResultDTO> charge(ChargeRequest request) {
+            calls.incrementAndGet();
+            return answer.apply(request);
+        }
+    }
+
+    private final ScriptedGateway gateway = new ScriptedGateway();
+
+    @Test
+    void timedOutChargeHoldsItsPermitUntilTheProviderAnswers() throws Exception {
+        PaymentServiceImpl payments = service(1, 50, 5);
+        CompletableFuture<PaymentResultDTO> hung = new CompletableFuture<>();
+        gateway.answer = request -> hung;
+
+        assertFailsWith(payments.processPayment("booking-1", null, 10), "did not answer in time");
+        assertThat(stats(payments).get("timedOut")).isEqualTo(1L);
+
+        // the provider still works on it: the only permit stays taken
+        assertThat(stats(payments).get("inFlight")).isEqualTo(1);
+        assertFailsWith(payments.processPayment("booking-2", null, 10), "busy");
+        assertThat(gateway.calls).hasValue(1);
+
+        // once it answers the permit is free again and the next charge reaches the provider
+        hung.complete(result("SUCCESS"));
+        assertThat(stats(payments).get("inFlight")).isEqualTo(0);
+        gateway.answer = request -> CompletableFuture.completedFuture(result("SUCCESS"));
+        assertThat(payments.processPayment("booking-2", null, 10).get(5, TimeUnit.SECONDS).getStatus())
+                .isEqualTo("SUCCESS");
+        assertThat(gateway.calls).hasValue(2);
+    }
+
+    @Test
+    void bulkheadPermitIsReturnedWhenTheGatewayThrows() throws Exception {
+        PaymentServiceImpl payments = service(1, 1000, 5);
+        gateway.answer = request -> {
+            throw new IllegalStateException("connection refused");
+        };
+
+        assertFailsWith(payments.processPayment("booking-1", null, 10), "failed");
+        assertThat(stats(payments).get("inFlight")).isEqualTo(0);
+
+        gateway.answer = request -> CompletableFuture.completedFuture(result("SUCCESS"));
+        assertThat(payments.processPayment("booking-2", null, 10).get(5, TimeUnit.SECONDS).getStatus())
+                .isEqualTo("SUCCESS");
+        assertThat(stats(payments).get("rejected")).isEqualTo(0L);
+    }
+
+    @Test
+    void fullBulkheadTurnsChargesAwayWithoutAskingTheProvider() {
+        PaymentServiceImpl payments = service(1, 5000, 5);
+        gateway.answer = request -> new CompletableFuture<>();
+
+        payments.processPayment("booking-1", null, 10);
+
+        assertFailsWith(payments.processPayment("booking-2", null, 10), "busy");
+        assertThat(gateway.calls).hasValue(1);
+    }
+
+    @Test
+    void declinesDoNotCountAgainstTheBreaker() throws Exception {
+        PaymentServiceImpl payments = service(10, 1000, 2);
+        gateway.answer = request -> CompletableFuture.completedFuture(result("FAILED"));
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(payments.processPayment("booking-" + i, null, 10).get(5, TimeUnit.SECONDS).getStatus())
+                    .isEqualTo("FAILED");
+        }
+        assertThat(stats(payments).get("circuit")).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(stats(payments).get("declined")).isEqualTo(5L);
+
+        // provider errors do: two in a row open it, and the next charge is not sent
+        gateway.answer = request -> CompletableFuture.failedFuture(new IllegalStateException("provider error"));
+        assertFailsWith(payments.processPayment("booking-5", null, 10), "failed");
+        assertFailsWith(payments.processPayment("booking-6", null, 10), "failed");
+        assertThat(stats(payments).get("circuit")).isEqualTo(CircuitBreaker.State.OPEN);
+
+        assertFailsWith(payments.processPayment("booking-7", null, 10), "unavailable");
+        assertThat(gateway.calls).hasValue(7);
+        assertThat(stats(payments).get("inFlight")).isEqualTo(0);
+    }
+
+    private PaymentServiceImpl service(int maxConcurrent, long timeoutMs, int breakerFailures) {
+        MockEnvironment env = new MockEnvironment()
+                .withProperty("payment.scripted.max-concurrent", String.valueOf(maxConcurrent))
+                .withProperty("payment.scripted.timeout-ms", String.valueOf(timeoutMs))
+                .withProperty("payment.scripted.breaker-failures", String.valueOf(breakerFailures))
+                .withProperty("payment.scripted.breaker-open-ms", "60000");
+        return new PaymentServiceImpl(List.of(gateway), env, "scripted", "USD");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> stats(PaymentServiceImpl payments) {
+        Object stats = payments.stats().get("scripted");
+        assertThat(stats).isNotNull();
+        return (Map<String, Object>) stats;
+    }
+
+    private static void assertFailsWith(CompletableFuture<PaymentResultDTO> charge, String message) {
+        assertThatThrownBy(() -> charge.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .cause()
+                .isInstanceOf(PaymentUnavailableException.class)
+                .hasMessageContaining(message);
+    }
+
+    private static PaymentResultDTO result(String status) {
+        PaymentResultDTO res = new PaymentResultDTO();
+        res.setPaymentId("P-" + status);
+        res.setStatus(status);
+        res.setProvider("scripted");
+        return res;
+    }
+}
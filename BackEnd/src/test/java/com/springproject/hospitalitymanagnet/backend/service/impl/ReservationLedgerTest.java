@@ -0,0 +1,112 @@
+package com.springproject.hospitalitymanagnet.backend.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReservationLedgerTest {
+
+    private static final int REQUESTS = 1000;
+    private static final int CAPACITY = 5;
+    private static final int ROOM_TYPES = 3;
+    private static final long FIRST_NIGHT = 20_000;
+    private static final int NIGHTS = 10;
+
+    private record Stay(int roomTypeId, long from, long to) {
+    }
+
+    @Test
+    void concurrentRequestsNeverOverbookANight() throws Exception {
+        ReservationLedger ledger = new ReservationLedger();
+        ledger.load(Map.of());
+
+        Random random = new Random(42);
+        List<Stay> requested = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            long from = FIRST_NIGHT + random.nextInt(NIGHTS - 1);
+            long to = Math.min(FIRST_NIGHT + NIGHTS, from + 1 + random.nextInt(3));
+            requested.add(new Stay(random.nextInt(ROOM_TYPES), from, to));
+        }
+
+        Queue<Stay> admitted = new ConcurrentLinkedQueue<>();
+        runConcurrently(ledger, requested, true, admitted);
+        // then CAPACITY single-night requests per night; with no rollbacks left to free a unit
+        // later, one of them only fails when its night is already full
+        List<Stay> fillers = new ArrayList<>();
+        for (int rt = 0; rt < ROOM_TYPES; rt++) {
+            for (long day = FIRST_NIGHT; day < FIRST_NIGHT + NIGHTS; day++) {
+                for (int i = 0; i < CAPACITY; i++) fillers.add(new Stay(rt, day, day + 1));
+            }
+        }
+        runConcurrently(ledger, fillers, false, admitted);
+
+        Map<ReservationLedger.Night, Integer> sold = new HashMap<>();
+        for (Stay stay : admitted) {
+            for (long day = stay.from(); day < stay.to(); day++) {
+                sold.merge(new ReservationLedger.Night(stay.roomTypeId(), day), 1, Integer::sum);
+            }
+        }
+        // every night is full, and none beyond its capacity
+        assertThat(sold).hasSize(ROOM_TYPES * NIGHTS);
+        assertThat(sold.values()).allMatch(n -> n == CAPACITY);
+        for (int rt = 0; rt < ROOM_TYPES; rt++) {
+            for (long day = FIRST_NIGHT; day < FIRST_NIGHT + NIGHTS; day++) {
+                int free = ledger.freeUnits(rt, day, day + 1, CAPACITY);
+                assertThat(free).isEqualTo(CAPACITY - sold.get(new ReservationLedger.Night(rt, day)));
+            }
+        }
+        // the write-behind queue holds exactly the committed bookings
+        assertThat(ledger.drainPending()).isEqualTo(sold);
+        assertThat(ledger.hasPending()).isFalse();
+    }
+
+    @Test
+    void cancelledStayFreesItsNightsAndCancelsItsQueuedChange() {
+        ReservationLedger ledger = new ReservationLedger();
+        ledger.load(Map.of(7, Map.of(FIRST_NIGHT, 1)));
+
+        assertThat(ledger.tryReserve(7, FIRST_NIGHT, FIRST_NIGHT + 2, 1, 2)).isTrue();
+        ledger.committed(7, FIRST_NIGHT, FIRST_NIGHT + 2, 1);
+        assertThat(ledger.tryReserve(7, FIRST_NIGHT, FIRST_NIGHT + 1, 1, 2)).isFalse();
+
+        ledger.release(7, FIRST_NIGHT, FIRST_NIGHT + 2, 1);
+        ledger.committed(7, FIRST_NIGHT, FIRST_NIGHT + 2, -1);
+
+        assertThat(ledger.freeUnits(7, FIRST_NIGHT, FIRST_NIGHT + 2, 2)).isEqualTo(1);
+        assertThat(ledger.hasPending()).isFalse();
+    }
+
+    // every request on its own thread, all released at once; every tenth one rolls back if asked to
+    private static void runConcurrently(ReservationLedger ledger, List<Stay> requests, boolean rollBackSome,
+                                        Queue<Stay> admitted) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            Stay stay = requests.get(i);
+            boolean rolledBack = rollBackSome && i % 10 == 0;
+            Thread t = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (!ledger.tryReserve(stay.roomTypeId(), stay.from(), stay.to(), 1, CAPACITY)) return;
+                if (rolledBack) {
+                    ledger.release(stay.roomTypeId(), stay.from(), stay.to(), 1);
+                } else {
+                    admitted.add(stay);
+                    ledger.committed(stay.roomTypeId(), stay.from(), stay.to(), 1);
+                }
+            });
+            t.start();
+            threads.add(t);
+        }
+        start.countDown();
+        for (Thread t : threads) {
+            t.join();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.springproject.hospitalitymanagnet.backend.support;
+
+import com.springproject.hospitalitymanagnet.backend.entity.Hotel;
+import com.springproject.hospitalitymanagnet.backend.entity.Role;
+import com.springproject.hospitalitymanagnet.backend.entity.RoomType;
+import com.springproject.hospitalitymanagnet.backend.entity.User;
+import com.springproject.hospitalitymanagnet.backend.repository.HotelRepository;
+import com.springproject.hospitalitymanagnet.backend.repository.UserRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rows the booking and inventory tests start from. Import it into a @SpringBootTest on the
+ * test profile and call cleanUp() after each test.
+ */
+public class BookingFixtures {
+
+    private final HotelRepository hotelRepository;
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    public BookingFixtures(HotelRepository hotelRepository, UserRepository userRepository, JdbcTemplate jdbcTemplate) {
+        this.hotelRepository = hotelRepository;
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public User user() {
+        User user = new User();
+        user.setUsername("guest");
+        user.setEmail("guest@example.com");
+        user.setPassword("secret");
+        user.setRole(Role.USER);
+        return userRepository.save(user);
+    }
+
+    /** One available room type with `totalRooms` rooms, in a hotel of its own. */
+    public RoomType roomType(int totalRooms) {
+        return roomTypes(totalRooms).get(0);
+    }
+
+    /** Available room types of one hotel, one per total, in ascending id order. */
+    public List<RoomType> roomTypes(int... totalRooms) {
+        Hotel hotel = new Hotel();
+        hotel.setName("Fixture Hotel");
+        hotel.setCity("Kandy");
+        hotel.setStatus("ACTIVE");
+        List<RoomType> roomTypes = new ArrayList<>();
+        for (int total : totalRooms) {
+            RoomType rt = new RoomType();
+            rt.setName("Double " + (roomTypes.size() + 1));
+            rt.setBasePrice(100.0);
+            rt.setAvailability("Available");
+            rt.setTotalRooms(total);
+            rt.setHotel(hotel);
+            roomTypes.add(rt);
+        }
+        hotel.setRoomTypes(roomTypes);
+        return hotelRepository.save(hotel).getRoomTypes();
+    }
+
+    public int count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Integer.class);
+    }
+
+    /** Empties every table. Ids keep counting: the booking index and the ledger still hold earlier tests' rooms. */
+    public void cleanUp() {
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY FALSE");
+        for (String table : jdbcTemplate.queryForList(
+                "select table_name from information_schema.tables where table_schema = 'PUBLIC'", String.class)) {
+            jdbcTemplate.execute("TRUNCATE TABLE " + table + " CONTINUE IDENTITY");
+        }
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY TRUE");
+    }
+}
@@ -0,0 +1,67 @@
+package com.springproject.hospitalitymanagnet.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvReaderTest {
+
+    private record Row(long line, List<String> fields) {
+    }
+
+    @Test
+    void splitsRecordsOnEveryLineEnding() throws IOException {
+        for (String csv : List.of("a,b\nc,d\n", "a,b\r\nc,d\r\n", "a,b\rc,d\r", "a,b\nc,d")) {
+            assertThat(readAll(csv)).as(csv.replace("\r", "\\r").replace("\n", "\\n")).containsExactly(
+                    new Row(1, List.of("a", "b")),
+                    new Row(2, List.of("c", "d")));
+        }
+    }
+
+    @Test
+    void quotedFieldsKeepCommasQuotesAndLineBreaks() throws IOException {
+        String csv = "\"x, y\",\"say \"\"hi\"\"\",\"two\r\nlines\"\r\nnext,\"\"\r\n";
+
+        assertThat(readAll(csv)).containsExactly(
+                new Row(1, List.of("x, y", "say \"hi\"", "two\r\nlines")),
+                new Row(3, List.of("next", "")));
+    }
+
+    @Test
+    void countsLinesAcrossMixedEndingsBlankLinesAndQuotedBreaks() throws IOException {
+        String csv = "h\r\n\r\n\"a\rb\"\n\rc\r\rd\n";
+
+        // line 1 "h", 2 blank, 3-4 the quoted field with a bare \r, 5 blank, 6 "c", 7 blank, 8 "d"
+        assertThat(readAll(csv)).extracting(Row::line).containsExactly(1L, 3L, 6L, 8L);
+    }
+
+    @Test
+    void emptyAndUnquotedFieldsAreKeptAsIs() throws IOException {
+        assertThat(readAll("a,,b,\n,a\"b\n")).containsExactly(
+                new Row(1, List.of("a", "", "b", "")),
+                new Row(2, List.of("", "a\"b")));
+    }
+
+    @Test
+    void unterminatedQuoteNamesTheLineItStartedOn() {
+        assertThatThrownBy(() -> readAll("ok\r\"never\rclosed"))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("line 2");
+    }
+
+    private static List<Row> readAll(String csv) throws IOException {
+        CsvReader reader = new CsvReader(new StringReader(csv));
+        List<Row> rows = new ArrayList<>();
+        List<String> record;
+        while ((record = reader.next()) != null) {
+            rows.add(new Row(reader.getRecordLine(), record));
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,130 @@
+package com.springproject.hospitalitymanagnet.backend.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HashedTimerWheelTest {
+
+    private static final long TICK_MS = 40;
+    // thread wake-up and scheduling noise on top of the one tick the wheel may add
+    private static final long SLACK_MS = 30;
+
+    private HashedTimerWheel wheel;
+
+    @AfterEach
+    void close() {
+        if (wheel != null) wheel.close();
+    }
+
+    @Test
+    void tasksRunNeverEarlyAndAtMostOneTickLate() throws Exception {
+        wheel = new HashedTimerWheel("test-wheel", TICK_MS, TimeUnit.MILLISECONDS, 64);
+        Random random = new Random(3);
+        int tasks = 60;
+        CountDownLatch done = new CountDownLatch(tasks);
+        long[] due = new long[tasks];
+        long[] ran = new long[tasks];
+        for (int i = 0; i < tasks; i++) {
+            int n = i;
+            long delayMs = random.nextInt(600);
+            due[n] = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMs);
+            wheel.schedule(() -> {
+                ran[n] = System.nanoTime();
+                done.countDown();
+            }, delayMs, TimeUnit.MILLISECONDS);
+            if (i % 10 == 0) Thread.sleep(random.nextInt((int) TICK_MS));
+        }
+
+        assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        for (int i = 0; i < tasks; i++) {
+            long lateMs = TimeUnit.NANOSECONDS.toMillis(ran[i] - due[i]);
+            assertThat(ran[i]).as("task %d ran early", i).isGreaterThanOrEqualTo(due[i]);
+            assertThat(lateMs).as("task %d", i).isLessThanOrEqualTo(TICK_MS + SLACK_MS);
+        }
+    }
+
+    @Test
+    void delayOfSeveralTurnsWaitsForAllOfThem() throws Exception {
+        // 4 slots of 40 ms: 700 ms is more than four turns of the wheel
+        wheel = new HashedTimerWheel("test-wheel", TICK_MS, TimeUnit.MILLISECONDS, 4);
+        List<Long> delays = List.of(170L, 330L, 700L);
+        CountDownLatch done = new CountDownLatch(delays.size());
+        List<long[]> runs = new ArrayList<>();
+        for (long delayMs : delays) {
+            long[] run = {System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMs), 0};
+            runs.add(run);
+            wheel.schedule(() -> {
+                run[1] = System.nanoTime();
+                done.countDown();
+            }, delayMs, TimeUnit.MILLISECONDS);
+        }
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        for (long[] run : runs) {
+            assertThat(run[1]).isGreaterThanOrEqualTo(run[0]);
+            assertThat(TimeUnit.NANOSECONDS.toMillis(run[1] - run[0])).isLessThanOrEqualTo(TICK_MS + SLACK_MS);
+        }
+    }
+
+    @Test
+    void cancelledTaskNeverRuns() throws Exception {
+        wheel = new HashedTimerWheel("test-wheel", TICK_MS, TimeUnit.MILLISECONDS, 8);
+        AtomicInteger runs = new AtomicInteger();
+        HashedTimerWheel.Timeout timeout = wheel.schedule(runs::incrementAndGet, 100, TimeUnit.MILLISECONDS);
+        // a later task tells when the cancelled one's tick has gone by
+        CountDownLatch later = new CountDownLatch(1);
+        wheel.schedule(later::countDown, 250, TimeUnit.MILLISECONDS);
+
+        assertThat(timeout.cancel()).isTrue();
+        assertThat(timeout.cancel()).isFalse();
+
+        assertThat(later.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(runs).hasValue(0);
+    }
+
+    @Test
+    void cancelAfterTheTaskRanHasNoEffect() throws Exception {
+        wheel = new HashedTimerWheel("test-wheel", TICK_MS, TimeUnit.MILLISECONDS, 8);
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch ran = new CountDownLatch(1);
+        HashedTimerWheel.Timeout timeout = wheel.schedule(() -> {
+            runs.incrementAndGet();
+            ran.countDown();
+        }, 50, TimeUnit.MILLISECONDS);
+
+        assertThat(ran.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(timeout.cancel()).isFalse();
+        Thread.sleep(3 * TICK_MS);
+        assertThat(runs).hasValue(1);
+    }
+
+    @Test
+    void throwingTaskDoesNotStopTheWheel() throws Exception {
+        wheel = new HashedTimerWheel("test-wheel", TICK_MS, TimeUnit.MILLISECONDS, 8);
+        AtomicLong ranAfter = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(2);
+        // one in the same tick as the failing task, one several turns later
+        wheel.schedule(() -> {
+            throw new IllegalStateException("task failed");
+        }, 60, TimeUnit.MILLISECONDS);
+        wheel.schedule(done::countDown, 60, TimeUnit.MILLISECONDS);
+        wheel.schedule(() -> {
+            ranAfter.set(System.nanoTime());
+            done.countDown();
+        }, 600, TimeUnit.MILLISECONDS);
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(ranAfter.get()).isPositive();
+    }
+}
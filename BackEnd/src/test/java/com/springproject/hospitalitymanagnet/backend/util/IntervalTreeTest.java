@@ -0,0 +1,78 @@
+package com.springproject.hospitalitymanagnet.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IntervalTreeTest {
+
+    private record Interval(long start, long end, long id) {
+        boolean overlaps(long from, long to) {
+            return start < to && end > from;
+        }
+    }
+
+    @Test
+    void randomInsertsAndRemovesAgreeWithAFullScan() {
+        Random random = new Random(11);
+        IntervalTree<Interval> tree = new IntervalTree<>();
+        List<Interval> all = new ArrayList<>();
+        long nextId = 1;
+
+        for (int op = 0; op < 20_000; op++) {
+            int action = random.nextInt(10);
+            if (action < 4 || all.isEmpty()) {
+                long start = random.nextInt(200);
+                // mostly short stays, now and then a long one that spans many others
+                long end = start + 1 + (random.nextInt(10) == 0 ? random.nextInt(100) : random.nextInt(5));
+                Interval interval = new Interval(start, end, nextId++);
+                tree.insert(interval.start(), interval.end(), interval.id(), interval);
+                all.add(interval);
+            } else if (action < 6) {
+                Interval removed = all.remove(random.nextInt(all.size()));
+                assertThat(tree.remove(removed.start(), removed.id())).isTrue();
+                // gone already, or never there
+                assertThat(tree.remove(removed.start(), removed.id())).isFalse();
+                assertThat(tree.remove(removed.start(), nextId + 1)).isFalse();
+            } else {
+                long from = random.nextInt(220) - 10;
+                long to = from + 1 + random.nextInt(random.nextBoolean() ? 3 : 50);
+                List<Interval> expected = all.stream()
+                        .filter(i -> i.overlaps(from, to))
+                        .sorted(Comparator.comparingLong(Interval::start).thenComparingLong(Interval::id))
+                        .toList();
+
+                List<Interval> found = new ArrayList<>();
+                tree.forEachOverlap(from, to, found::add);
+
+                assertThat(found).as("[%d, %d) after %d operations", from, to, op).isEqualTo(expected);
+                assertThat(tree.anyOverlap(from, to)).as("[%d, %d)", from, to).isEqualTo(!expected.isEmpty());
+            }
+            assertThat(tree.size()).isEqualTo(all.size());
+        }
+    }
+
+    @Test
+    void touchingIntervalsDoNotOverlap() {
+        IntervalTree<String> tree = new IntervalTree<>();
+        tree.insert(10, 12, 1, "a");
+
+        assertThat(tree.anyOverlap(12, 14)).isFalse();
+        assertThat(tree.anyOverlap(8, 10)).isFalse();
+        assertThat(tree.anyOverlap(11, 12)).isTrue();
+    }
+
+    @Test
+    void emptyIntervalIsRejected() {
+        IntervalTree<String> tree = new IntervalTree<>();
+
+        assertThatThrownBy(() -> tree.insert(5, 5, 1, "a")).isInstanceOf(IllegalArgumentException.class);
+        assertThat(tree.size()).isZero();
+    }
+}